@@ -1,43 +1,178 @@
 package com.example.ecommerce.controller;
 
-import com.example.ecommerce.dto.common.HasCode;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.FieldSelection;
+import com.example.ecommerce.dto.common.PageResponse;
+import com.example.ecommerce.dto.common.VersionedResponse;
+import com.example.ecommerce.dto.common.VersionedUpdateDTO;
+import com.example.ecommerce.exception.PreconditionFailedException;
 import com.example.ecommerce.service.crud.CrudService;
-import org.springframework.data.domain.Page;
+import com.example.ecommerce.service.support.IdempotencyStore;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.http.ResponseEntity.created;
 
-public abstract class AbstractCrudController<C, U, R extends HasCode> {
+public abstract class AbstractCrudController<C, U extends VersionedUpdateDTO<U>, R extends VersionedResponse> {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
 
     protected abstract CrudService<C, U, R, UUID> service();
 
+    protected abstract IdempotencyStore idempotencyStore();
+
     protected ResponseEntity<R> createResource(C createDto) {
         var response = service().create(createDto);
-        var location = ServletUriComponentsBuilder.fromCurrentRequest()
-                .path("/{code}")
-                .buildAndExpand(response.code())
-                .toUri();
+        return created(location(response)).eTag(entityTag(response)).body(response);
+    }
+
+    /**
+     * Creates the resource once per idempotency key; a retry with the same key gets the stored response, marked with
+     * {@value #IDEMPOTENT_REPLAYED}, instead of creating another resource.
+     */
+    protected ResponseEntity<?> createResource(C createDto, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return createResource(createDto);
+        }
+
+        return idempotent(idempotencyKey, createDto, () -> {
+            var response = service().create(createDto);
+            return new IdempotencyStore.Response(CREATED.value(), location(response).toString(), entityTag(response), response);
+        });
+    }
+
+    /**
+     * Runs the action once per idempotency key on the current path and answers with its stored response.
+     */
+    protected ResponseEntity<?> idempotent(String idempotencyKey, Object request, Supplier<IdempotencyStore.Response> action) {
+        var scope = ServletUriComponentsBuilder.fromCurrentRequestUri().build().getPath();
+        var outcome = idempotencyStore().execute(scope, idempotencyKey, request, action);
+        var stored = outcome.stored();
+        var builder = ResponseEntity.status(stored.status()).contentType(APPLICATION_JSON);
+        if (stored.eTag() != null) {
+            builder.eTag(stored.eTag());
+        }
+        if (stored.location() != null) {
+            builder.location(URI.create(stored.location()));
+        }
+        if (outcome.replayed()) {
+            builder.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return builder.body(stored.body());
+    }
+
+    protected PageResponse<R> findAllResources(Pageable pageable) {
+        return PageResponse.of(service().findAll(pageable));
+    }
+
+    protected PageResponse<?> findAllResources(Pageable pageable, FieldSelection fields) {
+        if (fields.isAll()) {
+            return findAllResources(pageable);
+        }
+        return PageResponse.of(service().findAll(pageable, fields).map(fields::apply));
+    }
+
+    protected CursorPage<R> scrollResources(String cursor, int limit) {
+        return service().scroll(cursor, limit);
+    }
 
-        return created(location).body(response);
+    protected CursorPage<?> scrollResources(String cursor, int limit, FieldSelection fields) {
+        if (fields.isAll()) {
+            return scrollResources(cursor, limit);
+        }
+        var page = service().scroll(cursor, limit, fields);
+        return new CursorPage<>(page.content().stream().map(fields::apply).toList(), page.limit(), page.nextCursor());
     }
 
-    protected Page<R> findAllResources(Pageable pageable) {
-        return service().findAll(pageable);
+    protected ResponseEntity<R> findResourceByCode(UUID code, String ifNoneMatch) {
+        return conditionalGet(code, ifNoneMatch, () -> {
+            var response = service().findByCode(code);
+            return ResponseEntity.ok().eTag(entityTag(response)).body(response);
+        });
     }
 
-    protected R findResourceByCode(UUID code) {
-        return service().findByCode(code);
+    protected ResponseEntity<?> findResourceByCode(UUID code, String ifNoneMatch, FieldSelection fields) {
+        return conditionalGet(code, ifNoneMatch, fields, () -> {
+            var response = service().findByCode(code, fields);
+            return ResponseEntity.ok()
+                    .eTag(EntityTags.withVariant(entityTag(response), fields.tag()))
+                    .body(fields.apply(response));
+        });
     }
 
-    protected R updateResource(UUID code, U updateDto) {
-        return service().update(code, updateDto);
+    protected <T> ResponseEntity<T> conditionalGet(UUID code, String ifNoneMatch, Supplier<ResponseEntity<T>> loader) {
+        return conditionalGet(code, ifNoneMatch, FieldSelection.ALL, loader);
+    }
+
+    protected <T> ResponseEntity<T> conditionalGet(UUID code, String ifNoneMatch, FieldSelection fields, Supplier<ResponseEntity<T>> loader) {
+        if (ifNoneMatch != null) {
+            var current = EntityTags.withVariant(currentEntityTag(code), fields.tag());
+            if (EntityTags.matchesAny(ifNoneMatch, current)) {
+                return ResponseEntity.status(NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        return loader.get();
+    }
+
+    protected ResponseEntity<R> updateResource(UUID code, U updateDto, String ifMatch) {
+        var tagged = ifMatch != null && !EntityTags.isAny(ifMatch);
+        var preconditioned = tagged ? applyIfMatch(code, updateDto, ifMatch) : updateDto;
+        if (preconditioned.version() == null) {
+            if (ifMatch == null) {
+                throw new IllegalArgumentException("Either the version field or an If-Match header is required");
+            }
+            // If-Match: * matches any current representation, so the update applies to the current version.
+            preconditioned = updateDto.withVersion(service().findVersionByCode(code));
+        }
+
+        try {
+            var response = service().update(code, preconditioned);
+            return ResponseEntity.ok().eTag(entityTag(response)).body(response);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            if (tagged) {
+                throw new PreconditionFailedException(code);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Carries the state named by an {@code If-Match} header other than {@code *} into the update, so the service
+     * rejects it when the resource has moved on.
+     */
+    protected U applyIfMatch(UUID code, U updateDto, String ifMatch) {
+        return EntityTags.versionFrom(ifMatch, code).map(updateDto::withVersion).orElse(updateDto);
     }
 
     protected void deleteResource(UUID code) {
         service().delete(code);
     }
+
+    private URI location(R response) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{code}")
+                .buildAndExpand(response.code())
+                .toUri();
+    }
+
+    /**
+     * Tag of the current state, resolved without loading the full resource.
+     */
+    protected String currentEntityTag(UUID code) {
+        return EntityTags.of(code, service().findVersionByCode(code));
+    }
+
+    protected String entityTag(R response) {
+        return EntityTags.of(response.code(), response.version());
+    }
 }
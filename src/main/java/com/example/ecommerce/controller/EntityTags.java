@@ -0,0 +1,87 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.exception.PreconditionFailedException;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Strong entity tags of the form {@code "<code>-<version>[-<state>...]"}.
+ * <p>
+ * A UUID always has 36 characters, so the version is read from the fixed offset after the code. Resources whose tag
+ * carries further state segments compare the whole tag with {@link #matchesStrongly} instead.
+ */
+final class EntityTags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    static String of(UUID code, Object... state) {
+        return Stream.concat(Stream.of(code), Arrays.stream(state))
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Tag of a sparse representation, distinct from the full one so caches never mix the two.
+     */
+    static String withVariant(String tag, String variant) {
+        return variant.isEmpty() ? tag : tag.substring(0, tag.length() - 1) + "-f" + variant + "\"";
+    }
+
+    /**
+     * Weak comparison, as required for {@code If-None-Match}.
+     */
+    static boolean matchesAny(String ifNoneMatch, String tag) {
+        return tags(ifNoneMatch).anyMatch(candidate -> candidate.equals(ANY) || stripWeak(candidate).equals(tag));
+    }
+
+    /**
+     * Strong comparison, as required for {@code If-Match}.
+     */
+    static boolean matchesStrongly(String ifMatch, String tag) {
+        return tags(ifMatch).anyMatch(candidate -> candidate.equals(ANY) || candidate.equals(tag));
+    }
+
+    static boolean isAny(String header) {
+        return tags(header).anyMatch(ANY::equals);
+    }
+
+    /**
+     * Returns the version carried by the first strong tag for {@code code}, or empty for {@code *}.
+     */
+    static Optional<Long> versionFrom(String ifMatch, UUID code) {
+        var prefix = "\"" + code + "-";
+        for (var candidate : tags(ifMatch).toList()) {
+            if (candidate.equals(ANY)) {
+                return Optional.empty();
+            }
+            if (candidate.startsWith(prefix) && candidate.endsWith("\"")) {
+                var state = candidate.substring(prefix.length(), candidate.length() - 1);
+                var end = state.indexOf('-');
+                try {
+                    return Optional.of(Long.parseLong(end < 0 ? state : state.substring(0, end)));
+                } catch (NumberFormatException ignored) {
+                    // Not one of our tags; keep looking.
+                }
+            }
+        }
+        throw new PreconditionFailedException(code);
+    }
+
+    private static Stream<String> tags(String header) {
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty());
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
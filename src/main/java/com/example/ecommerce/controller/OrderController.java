@@ -1,10 +1,23 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.FieldSelection;
+import com.example.ecommerce.dto.common.PageResponse;
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchResponseDTO;
 import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderExportFilter;
+import com.example.ecommerce.dto.order.OrderIntakeResponseDTO;
 import com.example.ecommerce.dto.order.OrderResponseDTO;
 import com.example.ecommerce.dto.order.OrderUpdateDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.OrderIntakeFailedException;
+import com.example.ecommerce.service.OrderIntakeService;
 import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.support.IdempotencyStore;
+import com.example.ecommerce.service.support.OrderResponseCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,10 +25,11 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,13 +38,37 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import static com.example.ecommerce.dto.order.OrderBatchMode.ALL_OR_NOTHING;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 
 @RestController
 @RequiredArgsConstructor
@@ -38,26 +76,50 @@ import static org.springframework.http.HttpStatus.NO_CONTENT;
 @Tag(name = "Orders", description = "CRUD operations for order management")
 public class OrderController extends AbstractCrudController<OrderCreateDTO, OrderUpdateDTO, OrderResponseDTO> {
 
+    public static final String PREFER = "Prefer";
+    public static final String RESPOND_ASYNC = "respond-async";
+
     private final OrderService orderService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderResponseCache orderResponseCache;
+    private final JsonMapper jsonMapper;
+    private final IdempotencyStore idempotencyStore;
 
     @Override
     protected OrderService service() {
         return orderService;
     }
 
+    @Override
+    protected IdempotencyStore idempotencyStore() {
+        return idempotencyStore;
+    }
+
+    @Override
+    protected String currentEntityTag(UUID code) {
+        return orderResponseCache.getIfPresent(code)
+                .map(body -> EntityTags.of(code, body.version()))
+                .orElseGet(() -> super.currentEntityTag(code));
+    }
+
     @PostMapping
     @Operation(
             summary = "Create a new order",
-            description = "Creates a new order with items. Status defaults to PENDING. Stock is decremented for each item."
+            description = "Creates a new order with items. Status defaults to PENDING. Stock is decremented for each item. With Prefer: respond-async, the order is validated and queued instead, and the response points to the order to poll."
     )
     @ApiResponse(
             responseCode = "201",
             description = "Order created successfully",
             content = @Content(schema = @Schema(implementation = OrderResponseDTO.class))
     )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Order queued for creation; poll the Location until it answers 200 or 422",
+            content = @Content(schema = @Schema(implementation = OrderIntakeResponseDTO.class))
+    )
     @ApiResponse(
             responseCode = "400",
-            description = "Invalid request body, validation errors, or insufficient stock",
+            description = "Invalid request body, validation errors, or insufficient stock, or an Idempotency-Key reused with a different body",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
     @ApiResponse(
@@ -65,37 +127,202 @@ public class OrderController extends AbstractCrudController<OrderCreateDTO, Orde
             description = "Product not found",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public ResponseEntity<OrderResponseDTO> create(@Valid @RequestBody OrderCreateDTO dto) {
-        return createResource(dto);
+    @ApiResponse(
+            responseCode = "409",
+            description = "A request with the same Idempotency-Key is still in progress",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<?> create(
+            @Valid @RequestBody OrderCreateDTO dto,
+            @Parameter(description = "Client-chosen key that makes retries of this create return the first response instead of creating again")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Parameter(description = "respond-async to queue the order and answer 202 without waiting for its creation")
+            @RequestHeader(value = PREFER, required = false) String prefer) {
+        if (!respondAsync(prefer)) {
+            return createResource(dto, idempotencyKey);
+        }
+        if (idempotencyKey == null) {
+            return accepted(orderIntakeService.submit(dto));
+        }
+        return idempotent(idempotencyKey, dto, () -> {
+            var intake = orderIntakeService.submit(dto);
+            return new IdempotencyStore.Response(ACCEPTED.value(), orderLocation(intake.code()).toString(), null, intake);
+        });
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Create many orders",
+            description = "Creates up to 1000 orders in one transaction, reserving their stock in a single pass. Every order gets a result in request order. In ALL_OR_NOTHING mode (the default) no order is created if any of them fails; in BEST_EFFORT mode every order that can be fulfilled is created and the others are reported as failed."
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "Every order was created",
+            content = @Content(schema = @Schema(implementation = OrderBatchResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "BEST_EFFORT batch in which some orders failed",
+            content = @Content(schema = @Schema(implementation = OrderBatchResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "ALL_OR_NOTHING batch in which some orders failed, with the per-order results, or an invalid request body",
+            content = @Content(schema = @Schema(implementation = OrderBatchResponseDTO.class))
+    )
+    public ResponseEntity<OrderBatchResponseDTO> createBatch(@Valid @RequestBody OrderBatchCreateDTO dto) {
+        var response = orderService.createBatch(dto);
+        var status = response.failed() == 0 ? CREATED : response.mode() == ALL_OR_NOTHING ? BAD_REQUEST : OK;
+        return ResponseEntity.status(status).body(response);
     }
 
     @GetMapping
     @Operation(
             summary = "Get all orders",
-            description = "Returns a paginated list of all orders with inline items."
+            description = "Returns a paginated list of all orders with inline items. With fields, only the listed properties are returned and items are loaded only when listed or expanded."
+    )
+    @ApiResponse(responseCode = "200", description = "Orders retrieved successfully")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field or expansion",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public PageResponse<?> findAll(
+            @Parameter(description = "Pagination and sorting parameters") Pageable pageable,
+            @Parameter(description = "Comma-separated properties to return; all when omitted", example = "code,status,totalAmount")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "Nested collections to include alongside fields", example = "items")
+            @RequestParam(required = false) String expand) {
+        return findAllResources(pageable, fieldSelection(fields, expand));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(
+            summary = "Get orders by cursor",
+            description = "Returns orders ordered by creation time using keyset pagination. Pass an empty cursor for the first page and the returned nextCursor for the next one. No total count is computed."
     )
     @ApiResponse(responseCode = "200", description = "Orders retrieved successfully")
-    public Page<OrderResponseDTO> findAll(@Parameter(description = "Pagination and sorting parameters") Pageable pageable) {
-        return findAllResources(pageable);
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor, limit, field or expansion",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public CursorPage<?> scroll(
+            @Parameter(description = "Opaque cursor from the previous page, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Maximum number of orders to return (1-100)")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Comma-separated properties to return; all when omitted", example = "code,status,totalAmount")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "Nested collections to include alongside fields", example = "items")
+            @RequestParam(required = false) String expand) {
+        return scrollResources(cursor, limit, fieldSelection(fields, expand));
+    }
+
+    @GetMapping("/export")
+    @Operation(
+            summary = "Export orders as NDJSON",
+            description = "Streams every matching order with its items as one JSON object per line, in creation order. The export is read through a database cursor and written batch by batch, so it has no size limit and the first lines arrive before the query completes. To resume an interrupted export, pass the createdAt of the last line received as from and skip the orders already seen."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Orders streamed successfully",
+            content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = OrderResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid status or date range",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public void export(
+            @Parameter(description = "Only export orders in these statuses; all when omitted", example = "COMPLETED,CANCELLED")
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @Parameter(description = "Earliest creation time, inclusive", example = "2026-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Latest creation time, exclusive", example = "2026-02-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) throws IOException {
+        var filter = new OrderExportFilter(status, from, to);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        var out = response.getOutputStream();
+        orderService.export(filter, orders -> {
+            try {
+                for (var order : orders) {
+                    out.write(jsonMapper.writeValueAsBytes(order));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @GetMapping("/{code}")
     @Operation(
             summary = "Get an order by code",
-            description = "Returns a single order with its items identified by its UUID code."
+            description = "Returns a single order with its items identified by its UUID code. Completed and cancelled orders are served from an in-memory cache of their serialized response. With fields, only the listed properties are returned and items are loaded only when listed or expanded. An order queued with Prefer: respond-async answers 202 until it is processed; with wait, the request is held until then."
     )
     @ApiResponse(
             responseCode = "200",
             description = "Order found",
             content = @Content(schema = @Schema(implementation = OrderResponseDTO.class))
     )
+    @ApiResponse(
+            responseCode = "202",
+            description = "Order still queued for creation",
+            content = @Content(schema = @Schema(implementation = OrderIntakeResponseDTO.class))
+    )
+    @ApiResponse(responseCode = "304", description = "Order unchanged since the entity tag sent in If-None-Match")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field or expansion",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
     @ApiResponse(
             responseCode = "404",
             description = "Order not found",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public OrderResponseDTO findByCode(@Parameter(description = "Order UUID code") @PathVariable UUID code) {
-        return findResourceByCode(code);
+    @ApiResponse(
+            responseCode = "422",
+            description = "Queued order that could not be created, with the reason",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<?> findByCode(
+            @Parameter(description = "Order UUID code")
+            @PathVariable UUID code,
+            @Parameter(description = "Entity tag from a previous response; answers 304 if it is still current")
+            @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Comma-separated properties to return; all when omitted", example = "code,status,totalAmount")
+            @RequestParam(required = false) String fields,
+            @Parameter(description = "Nested collections to include alongside fields", example = "items")
+            @RequestParam(required = false) String expand) {
+        return findOrQueued(code, ifNoneMatch, fieldSelection(fields, expand));
+    }
+
+    /**
+     * Long-poll variant of {@link #findByCode}: while the order is queued, the response is held without a request
+     * thread until the order is processed or the wait elapses.
+     */
+    @GetMapping(value = "/{code}", params = "wait")
+    public CompletableFuture<ResponseEntity<?>> awaitByCode(
+            @PathVariable UUID code,
+            @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String expand,
+            @Parameter(description = "Seconds to hold the request while the order is queued, capped by the server", example = "10")
+            @RequestParam int wait) {
+        if (wait < 0) {
+            throw new IllegalArgumentException("wait must not be negative");
+        }
+        var selection = fieldSelection(fields, expand);
+        var processed = orderIntakeService.awaitProcessed(code, Duration.ofSeconds(wait));
+        var response = findOrQueued(code, ifNoneMatch, selection);
+        if (!response.getStatusCode().isSameCodeAs(ACCEPTED)) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return processed.thenApply(ignored -> findOrQueued(code, ifNoneMatch, selection));
     }
 
     @PutMapping("/{code}")
@@ -123,8 +350,18 @@ public class OrderController extends AbstractCrudController<OrderCreateDTO, Orde
             description = "Version conflict — resource was modified by another request",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public OrderResponseDTO update(@Parameter(description = "Order UUID code") @PathVariable UUID code, @Valid @RequestBody OrderUpdateDTO dto) {
-        return updateResource(code, dto);
+    @ApiResponse(
+            responseCode = "412",
+            description = "If-Match does not match the current version",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<OrderResponseDTO> update(
+            @Parameter(description = "Order UUID code")
+            @PathVariable UUID code,
+            @Valid @RequestBody OrderUpdateDTO dto,
+            @Parameter(description = "Entity tag of the version being updated, instead of the version field")
+            @RequestHeader(value = IF_MATCH, required = false) String ifMatch) {
+        return updateResource(code, dto, ifMatch);
     }
 
     @DeleteMapping("/{code}")
@@ -154,11 +391,77 @@ public class OrderController extends AbstractCrudController<OrderCreateDTO, Orde
             description = "Order not found",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public Page<OrderItemResponseDTO> findOrderItems(
+    public PageResponse<OrderItemResponseDTO> findOrderItems(
             @Parameter(description = "Order UUID code")
             @PathVariable UUID code,
             @Parameter(description = "Pagination and sorting parameters")
             Pageable pageable) {
-        return orderService.findOrderItemsByOrderCode(code, pageable);
+        return PageResponse.of(orderService.findOrderItemsByOrderCode(code, pageable));
+    }
+
+    @GetMapping(value = "/{code}/order-items", params = "cursor")
+    @Operation(
+            summary = "Get order items for a specific order by cursor",
+            description = "Returns order items of the specified order ordered by creation time using keyset pagination. No total count is computed."
+    )
+    @ApiResponse(responseCode = "200", description = "Order items retrieved successfully")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or limit",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Order not found",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public CursorPage<OrderItemResponseDTO> scrollOrderItems(
+            @Parameter(description = "Order UUID code")
+            @PathVariable UUID code,
+            @Parameter(description = "Opaque cursor from the previous page, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Maximum number of order items to return (1-100)")
+            @RequestParam(defaultValue = "20") int limit) {
+        return orderService.scrollOrderItemsByOrderCode(code, cursor, limit);
+    }
+
+    private ResponseEntity<?> findOrQueued(UUID code, String ifNoneMatch, FieldSelection selection) {
+        try {
+            return find(code, ifNoneMatch, selection);
+        } catch (EntityNotFoundException ex) {
+            var intake = orderIntakeService.findByCode(code).orElseThrow(() -> ex);
+            return switch (intake.status()) {
+                case QUEUED -> ResponseEntity.status(ACCEPTED).header(RETRY_AFTER, "1").body(intake);
+                case FAILED -> throw new OrderIntakeFailedException(code, intake.error());
+                // Created between the two reads.
+                case COMPLETED -> find(code, ifNoneMatch, selection);
+            };
+        }
+    }
+
+    private ResponseEntity<?> find(UUID code, String ifNoneMatch, FieldSelection selection) {
+        if (!selection.isAll()) {
+            return findResourceByCode(code, ifNoneMatch, selection);
+        }
+        return conditionalGet(code, ifNoneMatch, () -> {
+            var body = orderResponseCache.get(code, orderService::findByCode);
+            return ResponseEntity.ok().contentType(APPLICATION_JSON).eTag(EntityTags.of(code, body.version())).body(body.json());
+        });
+    }
+
+    private ResponseEntity<OrderIntakeResponseDTO> accepted(OrderIntakeResponseDTO intake) {
+        return ResponseEntity.status(ACCEPTED).location(orderLocation(intake.code())).body(intake);
+    }
+
+    private static URI orderLocation(UUID code) {
+        return ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{code}").buildAndExpand(code).toUri();
+    }
+
+    private static boolean respondAsync(String prefer) {
+        return prefer != null && Arrays.stream(prefer.split(",")).map(String::trim).anyMatch(RESPOND_ASYNC::equalsIgnoreCase);
+    }
+
+    private static FieldSelection fieldSelection(String fields, String expand) {
+        return FieldSelection.of(fields, expand, OrderResponseDTO.class, "items");
     }
 }
@@ -1,9 +1,12 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.PageResponse;
 import com.example.ecommerce.dto.orderitem.OrderItemCreateDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemUpdateDTO;
 import com.example.ecommerce.service.OrderItemService;
+import com.example.ecommerce.service.support.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,7 +16,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -23,12 +25,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.UUID;
 
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
 @RestController
@@ -38,12 +44,18 @@ import static org.springframework.http.HttpStatus.NO_CONTENT;
 public class OrderItemController extends AbstractCrudController<OrderItemCreateDTO, OrderItemUpdateDTO, OrderItemResponseDTO> {
 
     private final OrderItemService orderItemService;
+    private final IdempotencyStore idempotencyStore;
 
     @Override
     protected OrderItemService service() {
         return orderItemService;
     }
 
+    @Override
+    protected IdempotencyStore idempotencyStore() {
+        return idempotencyStore;
+    }
+
     @PostMapping
     @Operation(
             summary = "Create a new order item",
@@ -56,7 +68,7 @@ public class OrderItemController extends AbstractCrudController<OrderItemCreateD
     )
     @ApiResponse(
             responseCode = "400",
-            description = "Invalid request body, validation errors, or insufficient stock",
+            description = "Invalid request body, validation errors, or insufficient stock, or an Idempotency-Key reused with a different body",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
     @ApiResponse(
@@ -64,8 +76,16 @@ public class OrderItemController extends AbstractCrudController<OrderItemCreateD
             description = "Product or order not found",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public ResponseEntity<OrderItemResponseDTO> create(@Valid @RequestBody OrderItemCreateDTO dto) {
-        return createResource(dto);
+    @ApiResponse(
+            responseCode = "409",
+            description = "A request with the same Idempotency-Key is still in progress",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<?> create(
+            @Valid @RequestBody OrderItemCreateDTO dto,
+            @Parameter(description = "Client-chosen key that makes retries of this create return the first response instead of creating again")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return createResource(dto, idempotencyKey);
     }
 
     @GetMapping
@@ -74,10 +94,29 @@ public class OrderItemController extends AbstractCrudController<OrderItemCreateD
             description = "Returns a paginated list of all order items."
     )
     @ApiResponse(responseCode = "200", description = "Order items retrieved successfully")
-    public Page<OrderItemResponseDTO> findAll(@Parameter(description = "Pagination and sorting parameters") Pageable pageable) {
+    public PageResponse<OrderItemResponseDTO> findAll(@Parameter(description = "Pagination and sorting parameters") Pageable pageable) {
         return findAllResources(pageable);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(
+            summary = "Get order items by cursor",
+            description = "Returns order items ordered by creation time using keyset pagination. Pass an empty cursor for the first page and the returned nextCursor for the next one. No total count is computed."
+    )
+    @ApiResponse(responseCode = "200", description = "Order items retrieved successfully")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or limit",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public CursorPage<OrderItemResponseDTO> scroll(
+            @Parameter(description = "Opaque cursor from the previous page, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Maximum number of order items to return (1-100)")
+            @RequestParam(defaultValue = "20") int limit) {
+        return scrollResources(cursor, limit);
+    }
+
     @GetMapping("/{code}")
     @Operation(
             summary = "Get an order item by code",
@@ -88,13 +127,18 @@ public class OrderItemController extends AbstractCrudController<OrderItemCreateD
             description = "Order item found",
             content = @Content(schema = @Schema(implementation = OrderItemResponseDTO.class))
     )
+    @ApiResponse(responseCode = "304", description = "Order item unchanged since the entity tag sent in If-None-Match")
     @ApiResponse(
             responseCode = "404",
             description = "Order item not found",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public OrderItemResponseDTO findByCode(@Parameter(description = "Order item UUID code") @PathVariable UUID code) {
-        return findResourceByCode(code);
+    public ResponseEntity<OrderItemResponseDTO> findByCode(
+            @Parameter(description = "Order item UUID code")
+            @PathVariable UUID code,
+            @Parameter(description = "Entity tag from a previous response; answers 304 if it is still current")
+            @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return findResourceByCode(code, ifNoneMatch);
     }
 
     @PutMapping("/{code}")
@@ -122,11 +166,18 @@ public class OrderItemController extends AbstractCrudController<OrderItemCreateD
             description = "Version conflict — resource was modified by another request",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public OrderItemResponseDTO update(
+    @ApiResponse(
+            responseCode = "412",
+            description = "If-Match does not match the current version",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<OrderItemResponseDTO> update(
             @Parameter(description = "Order item UUID code")
             @PathVariable UUID code,
-            @Valid @RequestBody OrderItemUpdateDTO dto) {
-        return updateResource(code, dto);
+            @Valid @RequestBody OrderItemUpdateDTO dto,
+            @Parameter(description = "Entity tag of the version being updated, instead of the version field")
+            @RequestHeader(value = IF_MATCH, required = false) String ifMatch) {
+        return updateResource(code, dto, ifMatch);
     }
 
     @DeleteMapping("/{code}")
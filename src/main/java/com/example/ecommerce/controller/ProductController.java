@@ -1,9 +1,20 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.FieldSelection;
+import com.example.ecommerce.dto.common.PageResponse;
 import com.example.ecommerce.dto.product.ProductCreateDTO;
 import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductSearchCriteria;
+import com.example.ecommerce.dto.product.ProductSearchSort;
+import com.example.ecommerce.dto.product.ProductSuggestionDTO;
 import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import com.example.ecommerce.dto.product.StockShardsResponseDTO;
+import com.example.ecommerce.dto.product.StockShardsUpdateDTO;
+import com.example.ecommerce.exception.PreconditionFailedException;
 import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.StockShardService;
+import com.example.ecommerce.service.support.IdempotencyStore;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,7 +24,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -23,12 +33,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 
 @RestController
@@ -38,12 +54,46 @@ import static org.springframework.http.HttpStatus.NO_CONTENT;
 public class ProductController extends AbstractCrudController<ProductCreateDTO, ProductUpdateDTO, ProductResponseDTO> {
 
     private final ProductService productService;
+    private final StockShardService stockShardService;
+    private final IdempotencyStore idempotencyStore;
 
     @Override
     protected ProductService service() {
         return productService;
     }
 
+    @Override
+    protected IdempotencyStore idempotencyStore() {
+        return idempotencyStore;
+    }
+
+    /**
+     * Stock changes do not always bump the product version, so the tag also carries the stock level. The lookup is
+     * served from the product cache, so an unchanged product still costs no query.
+     */
+    @Override
+    protected String currentEntityTag(UUID code) {
+        return entityTag(productService.findByCode(code));
+    }
+
+    @Override
+    protected String entityTag(ProductResponseDTO response) {
+        return EntityTags.of(response.code(), response.version(), response.stockQuantity());
+    }
+
+    /**
+     * Stock changes do not bump the version with every engine, so the whole tag must match. The update then repeats
+     * the version and stock check under its locks.
+     */
+    @Override
+    protected ProductUpdateDTO applyIfMatch(UUID code, ProductUpdateDTO updateDto, String ifMatch) {
+        var current = productService.findByCode(code);
+        if (!EntityTags.matchesStrongly(ifMatch, entityTag(current))) {
+            throw new PreconditionFailedException(code);
+        }
+        return updateDto.withVersion(current.version()).withExpectedStockQuantity(current.stockQuantity());
+    }
+
     @PostMapping
     @Operation(
             summary = "Create a new product",
@@ -56,53 +106,144 @@ public class ProductController extends AbstractCrudController<ProductCreateDTO,
     )
     @ApiResponse(
             responseCode = "400",
-            description = "Invalid request body — validation errors",
+            description = "Invalid request body — validation errors, or an Idempotency-Key reused with a different body",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
     @ApiResponse(
             responseCode = "409",
-            description = "Duplicate product name",
+            description = "Duplicate product name, or a request with the same Idempotency-Key still in progress",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public ResponseEntity<ProductResponseDTO> create(@Valid @RequestBody ProductCreateDTO dto) {
-        return createResource(dto);
+    public ResponseEntity<?> create(
+            @Valid @RequestBody ProductCreateDTO dto,
+            @Parameter(description = "Client-chosen key that makes retries of this create return the first response instead of creating again")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return createResource(dto, idempotencyKey);
     }
 
     @GetMapping
     @Operation(
             summary = "Get all products",
-            description = "Returns a paginated list of all products. Supports sorting by any field."
+            description = "Returns a paginated list of all products. Supports sorting by any field. With fields, only the listed properties are returned."
+    )
+    @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public PageResponse<?> findAll(
+            @Parameter(description = "Pagination and sorting parameters") Pageable pageable,
+            @Parameter(description = "Comma-separated properties to return; all when omitted", example = "code,name,price")
+            @RequestParam(required = false) String fields) {
+        return findAllResources(pageable, fieldSelection(fields));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(
+            summary = "Get products by cursor",
+            description = "Returns products ordered by creation time using keyset pagination. Pass an empty cursor for the first page and the returned nextCursor for the next one. No total count is computed."
+    )
+    @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor, limit or field",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public CursorPage<?> scroll(
+            @Parameter(description = "Opaque cursor from the previous page, empty for the first page")
+            @RequestParam String cursor,
+            @Parameter(description = "Maximum number of products to return (1-100)")
+            @RequestParam(defaultValue = "20") int limit,
+            @Parameter(description = "Comma-separated properties to return; all when omitted", example = "code,name,price")
+            @RequestParam(required = false) String fields) {
+        return scrollResources(cursor, limit, fieldSelection(fields));
+    }
+
+    @GetMapping("/search")
+    @Operation(
+            summary = "Search products",
+            description = "Full-text search over product name and description, with optional price range and in-stock filters. Results are sorted by relevance when a query is given, with name matches ahead of description matches and newest first within each, and by creation time otherwise. They are paginated with an opaque cursor. An in-stock page may hold fewer products than the limit while nextCursor is still set."
     )
     @ApiResponse(responseCode = "200", description = "Products retrieved successfully")
-    public Page<ProductResponseDTO> findAll(@Parameter(description = "Pagination and sorting parameters") Pageable pageable) {
-        return findAllResources(pageable);
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor, limit, price range or sort",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public CursorPage<ProductResponseDTO> search(
+            @Parameter(description = "Search text; supports quoted phrases, OR and -excluded words", example = "wireless mouse")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Lowest price, inclusive")
+            @RequestParam(required = false) BigDecimal minPrice,
+            @Parameter(description = "Highest price, inclusive")
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @Parameter(description = "Only return products with available stock")
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @Parameter(description = "Sort order; RELEVANCE requires a query")
+            @RequestParam(required = false) ProductSearchSort sort,
+            @Parameter(description = "Opaque cursor from the previous page, empty for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of products to return (1-100)")
+            @RequestParam(defaultValue = "20") int limit) {
+        return productService.search(new ProductSearchCriteria(q, minPrice, maxPrice, inStock, sort), cursor, limit);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Suggest product names",
+            description = "Returns products whose name starts with the prefix, ignoring case and accents, in name order. Served from an in-memory index without a database query."
+    )
+    @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Blank prefix or invalid limit",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public List<ProductSuggestionDTO> suggest(
+            @Parameter(description = "Start of the product name", example = "wire")
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions to return (1-50)")
+            @RequestParam(defaultValue = "10") int limit) {
+        return productService.suggest(prefix, limit);
     }
 
     @GetMapping("/{code}")
     @Operation(
             summary = "Get a product by code",
-            description = "Returns a single product identified by its UUID code."
+            description = "Returns a single product identified by its UUID code. With fields, only the listed properties are returned."
     )
     @ApiResponse(
             responseCode = "200",
             description = "Product found",
             content = @Content(schema = @Schema(implementation = ProductResponseDTO.class))
     )
+    @ApiResponse(responseCode = "304", description = "Product unchanged since the entity tag sent in If-None-Match")
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unknown field",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
     @ApiResponse(
             responseCode = "404",
             description = "Product not found",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public ProductResponseDTO findByCode(
+    public ResponseEntity<?> findByCode(
             @Parameter(description = "Product UUID code", example = "550e8400-e29b-41d4-a716-446655440000")
-            @PathVariable UUID code) {
-        return findResourceByCode(code);
+            @PathVariable UUID code,
+            @Parameter(description = "Entity tag from a previous response; answers 304 if it is still current")
+            @RequestHeader(value = IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @Parameter(description = "Comma-separated properties to return; all when omitted", example = "code,name,price")
+            @RequestParam(required = false) String fields) {
+        var selection = fieldSelection(fields);
+        return selection.isAll() ? findResourceByCode(code, ifNoneMatch) : findResourceByCode(code, ifNoneMatch, selection);
     }
 
     @PutMapping("/{code}")
     @Operation(
             summary = "Update an existing product",
-            description = "Updates a product identified by its UUID code. Requires the current version for optimistic locking."
+            description = "Updates a product identified by its UUID code. Requires the current version for optimistic locking, either in the body or as an If-Match entity tag."
     )
     @ApiResponse(
             responseCode = "200",
@@ -124,11 +265,18 @@ public class ProductController extends AbstractCrudController<ProductCreateDTO,
             description = "Version conflict — resource was modified by another request",
             content = @Content(schema = @Schema(implementation = ProblemDetail.class))
     )
-    public ProductResponseDTO update(
+    @ApiResponse(
+            responseCode = "412",
+            description = "If-Match does not match the current version",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<ProductResponseDTO> update(
             @Parameter(description = "Product UUID code")
             @PathVariable UUID code,
-            @Valid @RequestBody ProductUpdateDTO dto) {
-        return updateResource(code, dto);
+            @Valid @RequestBody ProductUpdateDTO dto,
+            @Parameter(description = "Entity tag of the version being updated, instead of the version field")
+            @RequestHeader(value = IF_MATCH, required = false) String ifMatch) {
+        return updateResource(code, dto, ifMatch);
     }
 
     @DeleteMapping("/{code}")
@@ -146,4 +294,78 @@ public class ProductController extends AbstractCrudController<ProductCreateDTO,
     public void delete(@Parameter(description = "Product UUID code") @PathVariable UUID code) {
         deleteResource(code);
     }
+
+    @GetMapping("/{code}/stock-shards")
+    @Operation(
+            summary = "Get the stock shards of a product",
+            description = "Returns how the product stock is split across its stock counter rows."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Stock shards retrieved successfully",
+            content = @Content(schema = @Schema(implementation = StockShardsResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Product not found",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public StockShardsResponseDTO findStockShards(@Parameter(description = "Product UUID code") @PathVariable UUID code) {
+        return stockShardService.findByProductCode(code);
+    }
+
+    @PutMapping("/{code}/stock-shards")
+    @Operation(
+            summary = "Configure the stock shards of a product",
+            description = "Splits the product stock evenly across the requested number of counter rows. A shard count of 1 merges the stock back into the product. Requires app.stock.mode=sharded."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Stock shards configured successfully",
+            content = @Content(schema = @Schema(implementation = StockShardsResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Invalid shard count or sharding is not enabled",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Product not found",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public StockShardsResponseDTO configureStockShards(
+            @Parameter(description = "Product UUID code")
+            @PathVariable UUID code,
+            @Valid @RequestBody StockShardsUpdateDTO dto) {
+        return stockShardService.configure(code, dto);
+    }
+
+    @PostMapping("/{code}/stock-shards/rebalance")
+    @Operation(
+            summary = "Rebalance the stock shards of a product",
+            description = "Redistributes the total product stock evenly across its existing shards. Requires app.stock.mode=sharded."
+    )
+    @ApiResponse(
+            responseCode = "200",
+            description = "Stock shards rebalanced successfully",
+            content = @Content(schema = @Schema(implementation = StockShardsResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Sharding is not enabled",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    @ApiResponse(
+            responseCode = "404",
+            description = "Product not found",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public StockShardsResponseDTO rebalanceStockShards(@Parameter(description = "Product UUID code") @PathVariable UUID code) {
+        return stockShardService.rebalance(code);
+    }
+
+    private static FieldSelection fieldSelection(String fields) {
+        return FieldSelection.of(fields, null, ProductResponseDTO.class);
+    }
 }
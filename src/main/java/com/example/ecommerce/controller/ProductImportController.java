@@ -0,0 +1,107 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.product.ProductImportFormat;
+import com.example.ecommerce.dto.product.ProductImportResponseDTO;
+import com.example.ecommerce.service.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/product-imports")
+@Tag(name = "Product imports", description = "Bulk upsert of products from CSV or NDJSON")
+public class ProductImportController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ProductImportService productImportService;
+
+    @PostMapping
+    @Operation(
+            summary = "Import products",
+            description = "Streams the request body into a staging table with COPY and upserts it into the catalog on the case-insensitive product name, in one transaction. Send text/csv with a header row (name and price required, description and stockQuantity optional) or application/x-ndjson with one product creation body per line, UTF-8 encoded. New products get the row's stock; existing products get its name, description and price but keep their stock. Invalid rows, and rows superseded by a later row with the same name, are written to the import's error file. The request returns when the import is committed; its progress and rows per second can be followed meanwhile through the import list."
+    )
+    @ApiResponse(
+            responseCode = "201",
+            description = "Import committed",
+            content = @Content(schema = @Schema(implementation = ProductImportResponseDTO.class))
+    )
+    @ApiResponse(
+            responseCode = "400",
+            description = "Unsupported content type or a CSV header without name and price",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<ProductImportResponseDTO> importProducts(HttpServletRequest request) throws IOException {
+        var format = ProductImportFormat.of(request.getContentType());
+        var response = productImportService.importProducts(format, request.getInputStream());
+        var location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(response.id())
+                .toUri();
+
+        return ResponseEntity.created(location).body(response);
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "List product imports",
+            description = "Returns running imports and the most recently finished ones, newest first, with their live progress."
+    )
+    @ApiResponse(responseCode = "200", description = "Imports retrieved successfully")
+    public List<ProductImportResponseDTO> findAll() {
+        return productImportService.findAll();
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Get a product import",
+            description = "Returns the progress of a running import or the outcome of a finished one."
+    )
+    @ApiResponse(responseCode = "200", description = "Import retrieved successfully")
+    @ApiResponse(
+            responseCode = "404",
+            description = "Import not found or no longer retained",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ProductImportResponseDTO findById(@Parameter(description = "Import identifier") @PathVariable UUID id) {
+        return productImportService.findById(id);
+    }
+
+    @GetMapping("/{id}/errors")
+    @Operation(
+            summary = "Get the rejected rows of a product import",
+            description = "Returns a CSV file with the line, name and reason of every rejected row."
+    )
+    @ApiResponse(responseCode = "200", description = "Error file retrieved successfully")
+    @ApiResponse(
+            responseCode = "404",
+            description = "Import not found or no longer retained",
+            content = @Content(schema = @Schema(implementation = ProblemDetail.class))
+    )
+    public ResponseEntity<Resource> errors(@Parameter(description = "Import identifier") @PathVariable UUID id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                .body(new FileSystemResource(productImportService.errorFile(id)));
+    }
+}
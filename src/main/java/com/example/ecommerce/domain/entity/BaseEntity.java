@@ -1,17 +1,18 @@
 package com.example.ecommerce.domain.entity;
 
+import com.example.ecommerce.domain.support.UuidV7Generator;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
-import org.hibernate.annotations.Generated;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,7 +20,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-import static jakarta.persistence.GenerationType.IDENTITY;
+import static jakarta.persistence.GenerationType.SEQUENCE;
 
 @Getter
 @Setter
@@ -31,11 +32,10 @@ import static jakarta.persistence.GenerationType.IDENTITY;
 public abstract class BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = IDENTITY)
+    @GeneratedValue(strategy = SEQUENCE)
     private Long id;
 
-    @Generated
-    @Column(nullable = false, unique = true, updatable = false, insertable = false)
+    @Column(nullable = false, unique = true, updatable = false)
     private UUID code;
 
     @CreatedDate
@@ -49,4 +49,11 @@ public abstract class BaseEntity {
     @Version
     @Column(nullable = false)
     private Long version;
+
+    @PrePersist
+    void assignCode() {
+        if (code == null) {
+            code = UuidV7Generator.next();
+        }
+    }
 }
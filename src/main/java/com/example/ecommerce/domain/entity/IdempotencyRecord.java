@@ -0,0 +1,57 @@
+package com.example.ecommerce.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_record")
+@SequenceGenerator(sequenceName = "idempotency_record_id_seq", allocationSize = 50)
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false, updatable = false)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer status;
+
+    @Column(length = 2000)
+    private String location;
+
+    @Column(name = "e_tag")
+    private String eTag;
+
+    private byte[] body;
+
+    @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,44 @@
+package com.example.ecommerce.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+/**
+ * A change of a product's stock in the ledger. Ids are drawn one at a time rather than in pooled blocks: balances and
+ * compaction take the movements after {@code last_movement_id}, which needs ids to grow in the order they are drawn
+ * across all nodes.
+ */
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "inventory_movement")
+@SequenceGenerator(sequenceName = "inventory_movement_id_seq", allocationSize = 1)
+public class InventoryMovement {
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
+    private LocalDateTime createdAt;
+}
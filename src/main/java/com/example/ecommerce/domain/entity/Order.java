@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,6 +30,7 @@ import static java.math.BigDecimal.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "orders")
+@SequenceGenerator(sequenceName = "orders_id_seq", allocationSize = 50)
 public class Order extends BaseEntity {
 
     @Column(name = "customer_name", nullable = false)
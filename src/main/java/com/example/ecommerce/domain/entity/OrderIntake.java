@@ -0,0 +1,91 @@
+package com.example.ecommerce.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static jakarta.persistence.EnumType.STRING;
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+/**
+ * An order accepted for asynchronous creation. The code is assigned on acceptance and becomes the code of the order.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_intake")
+@SequenceGenerator(sequenceName = "order_intake_id_seq", allocationSize = 50)
+public class OrderIntake {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE)
+    private Long id;
+
+    @Column(nullable = false, unique = true, updatable = false)
+    private UUID code;
+
+    @Column(nullable = false, updatable = false)
+    private String payload;
+
+    @Enumerated(STRING)
+    @Column(nullable = false, length = 20)
+    private OrderIntakeStatus status;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String error;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(name = "last_attempt_at")
+    private LocalDateTime lastAttemptAt;
+
+    public void complete() {
+        status = OrderIntakeStatus.COMPLETED;
+        processedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Counts an attempt that failed for a reason other than the business rules. Returns whether it was the last one
+     * allowed, in which case the intake is failed.
+     */
+    public boolean recordFailedAttempt(int maxAttempts) {
+        attempts++;
+        lastAttemptAt = LocalDateTime.now();
+        if (attempts < maxAttempts) {
+            return false;
+        }
+        fail("Order could not be created after %d attempts".formatted(attempts));
+        return true;
+    }
+
+    public void fail(String reason) {
+        status = OrderIntakeStatus.FAILED;
+        error = reason == null || reason.length() <= MAX_ERROR_LENGTH ? reason : reason.substring(0, MAX_ERROR_LENGTH);
+        processedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.ecommerce.domain.entity;
+
+public enum OrderIntakeStatus {
+    QUEUED,
+    COMPLETED,
+    FAILED
+}
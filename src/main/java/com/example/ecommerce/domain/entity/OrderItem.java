@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -12,6 +13,7 @@ import lombok.Setter;
 import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 import static jakarta.persistence.FetchType.LAZY;
 
@@ -22,6 +24,7 @@ import static jakarta.persistence.FetchType.LAZY;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "order_item")
+@SequenceGenerator(sequenceName = "order_item_id_seq", allocationSize = 50)
 public class OrderItem extends BaseEntity {
 
     @ManyToOne(optional = false, fetch = LAZY)
@@ -32,6 +35,9 @@ public class OrderItem extends BaseEntity {
     @JoinColumn(name = "product_id")
     private Product product;
 
+    @Column(name = "product_code", updatable = false)
+    private UUID productCode;
+
     @Column(name = "product_name", nullable = false)
     private String productName;
 
@@ -45,6 +51,7 @@ public class OrderItem extends BaseEntity {
         return OrderItem.builder()
                 .order(order)
                 .product(product)
+                .productCode(product.getCode())
                 .productName(product.getName())
                 .unitPrice(product.getPrice())
                 .quantity(quantity)
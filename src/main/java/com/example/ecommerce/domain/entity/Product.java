@@ -3,8 +3,10 @@ package com.example.ecommerce.domain.entity;
 import com.example.ecommerce.exception.InsufficientStockException;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -19,7 +21,8 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "product")
-public class Product extends BaseEntity {
+@SequenceGenerator(sequenceName = "product_id_seq", allocationSize = 50)
+public class Product extends BaseEntity implements StockHolder {
 
     @Column(nullable = false)
     private String name;
@@ -33,6 +36,14 @@ public class Product extends BaseEntity {
     @Column(name = "stock_quantity", nullable = false)
     private Integer stockQuantity;
 
+    @Builder.Default
+    @Column(name = "stock_shard_count", nullable = false)
+    private Integer stockShardCount = 1;
+
+    public boolean isStockSharded() {
+        return stockShardCount != null && stockShardCount > 1;
+    }
+
     public void decreaseStock(int quantity) {
         requirePositiveQuantity(quantity);
 
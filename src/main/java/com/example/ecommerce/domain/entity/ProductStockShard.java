@@ -0,0 +1,39 @@
+package com.example.ecommerce.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import static jakarta.persistence.GenerationType.SEQUENCE;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "product_stock_shard")
+@SequenceGenerator(sequenceName = "product_stock_shard_id_seq", allocationSize = 50)
+public class ProductStockShard {
+
+    @Id
+    @GeneratedValue(strategy = SEQUENCE)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(name = "shard_no", nullable = false, updatable = false)
+    private Integer shardNo;
+
+    @Column(nullable = false)
+    private Integer quantity;
+}
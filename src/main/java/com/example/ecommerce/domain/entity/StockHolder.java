@@ -0,0 +1,10 @@
+package com.example.ecommerce.domain.entity;
+
+public interface StockHolder {
+
+    Long getId();
+
+    Integer getStockQuantity();
+
+    boolean isStockSharded();
+}
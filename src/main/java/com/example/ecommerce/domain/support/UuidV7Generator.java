@@ -0,0 +1,46 @@
+package com.example.ecommerce.domain.support;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+public final class UuidV7Generator {
+
+    private static final UuidV7Generator INSTANCE = new UuidV7Generator(System::currentTimeMillis);
+
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long COUNTER_SEED_MASK = COUNTER_MASK >>> 1;
+    private static final long VERSION_BITS = 0x7000L;
+    private static final long VARIANT_BITS = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final LongSupplier clock;
+    private final AtomicLong lastState = new AtomicLong();
+
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public static UUID next() {
+        return INSTANCE.generate();
+    }
+
+    // State packs the 48-bit millisecond timestamp with a 12-bit counter (RFC 9562 method 1). The counter
+    // starts at a random value in its lower half each millisecond; overflowing it borrows the next millisecond.
+    UUID generate() {
+        var random = ThreadLocalRandom.current();
+        long state;
+        long previous;
+        do {
+            previous = lastState.get();
+            var fresh = (clock.getAsLong() << COUNTER_BITS) | (random.nextLong() & COUNTER_SEED_MASK);
+            state = fresh > previous ? fresh : previous + 1;
+        } while (!lastState.compareAndSet(previous, state));
+
+        var mostSigBits = ((state >>> COUNTER_BITS) << 16) | VERSION_BITS | (state & COUNTER_MASK);
+        var leastSigBits = VARIANT_BITS | (random.nextLong() & RANDOM_MASK);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.ecommerce.dto.common;
+
+public enum CountStrategy {
+    EXACT, CACHED, ESTIMATED, NONE
+}
@@ -0,0 +1,25 @@
+package com.example.ecommerce.dto.common;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final CountStrategy countStrategy;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, CountStrategy countStrategy) {
+        super(content, pageable, total);
+        this.countStrategy = countStrategy;
+    }
+
+    @Override
+    public <U> Page<U> map(Function<? super T, ? extends U> converter) {
+        return new CountedPage<>(getConvertedContent(converter), getPageable(), getTotalElements(), countStrategy);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.ecommerce.dto.common;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> content,
+        int limit,
+        String nextCursor
+) {
+}
@@ -0,0 +1,109 @@
+package com.example.ecommerce.dto.common;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Properties of a response record requested through {@code ?fields=} and {@code ?expand=}.
+ * <p>
+ * Without {@code fields} the full representation is returned, so existing clients are unaffected. With
+ * {@code fields}, only the listed properties are serialized, and expandable properties such as an order's items are
+ * added only when listed in {@code fields} or {@code expand}.
+ */
+public final class FieldSelection {
+
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    private static final ClassValue<Map<String, RecordComponent>> COMPONENTS = new ClassValue<>() {
+        @Override
+        protected Map<String, RecordComponent> computeValue(Class<?> type) {
+            return Arrays.stream(type.getRecordComponents())
+                    .collect(Collectors.toMap(RecordComponent::getName, component -> component, (a, b) -> a, LinkedHashMap::new));
+        }
+    };
+
+    private final Set<String> names;
+
+    private FieldSelection(Set<String> names) {
+        this.names = names;
+    }
+
+    public static FieldSelection of(String fields, String expand, Class<? extends Record> type, String... expandable) {
+        var hasFields = fields != null && !fields.isBlank();
+        var expanded = split(expand);
+        expanded.stream()
+                .filter(name -> !Arrays.asList(expandable).contains(name))
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new IllegalArgumentException("Unknown expansion: " + name);
+                });
+        if (!hasFields) {
+            return ALL;
+        }
+
+        var selected = split(fields);
+        var components = COMPONENTS.get(type);
+        selected.stream()
+                .filter(name -> !components.containsKey(name))
+                .findFirst()
+                .ifPresent(name -> {
+                    throw new IllegalArgumentException("Unknown field: " + name);
+                });
+        selected.addAll(expanded);
+        return new FieldSelection(selected);
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    /**
+     * Identifier of the selection, used to give each representation its own entity tag: the sorted property names
+     * joined with dots. Names are validated record components, so they never contain a dot and two selections never
+     * share a tag.
+     */
+    public String tag() {
+        return isAll() ? "" : String.join(".", names);
+    }
+
+    /**
+     * Copies the selected properties of the response, in declaration order.
+     */
+    public Map<String, Object> apply(Object response) {
+        var result = new LinkedHashMap<String, Object>();
+        COMPONENTS.get(response.getClass()).forEach((name, component) -> {
+            if (includes(name)) {
+                result.put(name, read(component, response));
+            }
+        });
+        return result;
+    }
+
+    private static Object read(RecordComponent component, Object response) {
+        try {
+            return component.getAccessor().invoke(response);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read " + component.getName(), e);
+        }
+    }
+
+    private static Set<String> split(String value) {
+        if (value == null || value.isBlank()) {
+            return new TreeSet<>();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ecommerce.dto.common;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+import static com.example.ecommerce.dto.common.CountStrategy.EXACT;
+import static com.example.ecommerce.dto.common.CountStrategy.NONE;
+
+public record PageResponse<T>(
+        List<T> content,
+        PageMetadata page
+) {
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        var countStrategy = page instanceof CountedPage<T> countedPage ? countedPage.getCountStrategy() : EXACT;
+        var counted = countStrategy != NONE;
+        return new PageResponse<>(page.getContent(), new PageMetadata(
+                page.getSize(),
+                page.getNumber(),
+                counted ? page.getTotalElements() : null,
+                counted ? (long) page.getTotalPages() : null,
+                page.hasNext(),
+                countStrategy
+        ));
+    }
+
+    public record PageMetadata(
+            int size,
+            int number,
+            Long totalElements,
+            Long totalPages,
+            boolean hasNext,
+            CountStrategy countStrategy
+    ) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.ecommerce.dto.common;
+
+public interface VersionedResponse extends HasCode {
+
+    Long version();
+}
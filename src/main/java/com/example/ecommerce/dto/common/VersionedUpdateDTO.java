@@ -1,6 +1,8 @@
 package com.example.ecommerce.dto.common;
 
-public interface VersionedUpdateDTO {
+public interface VersionedUpdateDTO<U extends VersionedUpdateDTO<U>> {
 
     Long version();
+
+    U withVersion(Long version);
 }
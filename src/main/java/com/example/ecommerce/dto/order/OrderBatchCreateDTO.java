@@ -0,0 +1,23 @@
+package com.example.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Request body for creating many orders at once")
+public record OrderBatchCreateDTO(
+        @Schema(description = "Orders to create, in the order they are processed (1-1000)")
+        @NotEmpty @Size(max = 1000) @Valid List<OrderCreateDTO> orders,
+
+        @Schema(description = "ALL_OR_NOTHING creates no order if any fails; BEST_EFFORT creates every order that can be fulfilled",
+                defaultValue = "ALL_OR_NOTHING")
+        OrderBatchMode mode
+) {
+
+    public OrderBatchCreateDTO {
+        mode = mode == null ? OrderBatchMode.ALL_OR_NOTHING : mode;
+    }
+}
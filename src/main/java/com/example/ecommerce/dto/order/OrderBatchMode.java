@@ -0,0 +1,6 @@
+package com.example.ecommerce.dto.order;
+
+public enum OrderBatchMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
@@ -0,0 +1,27 @@
+package com.example.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a batch of orders")
+public record OrderBatchResponseDTO(
+        @Schema(description = "Mode the batch was processed in")
+        OrderBatchMode mode,
+
+        @Schema(description = "Number of orders created", example = "998")
+        int created,
+
+        @Schema(description = "Number of orders that failed", example = "2")
+        int failed,
+
+        @Schema(description = "One result per requested order, in request order")
+        List<OrderBatchResultDTO> results
+) {
+
+    public static OrderBatchResponseDTO of(OrderBatchMode mode, List<OrderBatchResultDTO> results) {
+        var created = (int) results.stream().filter(result -> result.status() == OrderBatchStatus.CREATED).count();
+        var failed = (int) results.stream().filter(result -> result.status() == OrderBatchStatus.FAILED).count();
+        return new OrderBatchResponseDTO(mode, created, failed, results);
+    }
+}
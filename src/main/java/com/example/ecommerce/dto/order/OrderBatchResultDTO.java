@@ -0,0 +1,31 @@
+package com.example.ecommerce.dto.order;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Outcome of one order of a batch")
+public record OrderBatchResultDTO(
+        @Schema(description = "Position of the order in the request", example = "0")
+        int index,
+
+        @Schema(description = "CREATED, FAILED, or NOT_CREATED when another order failed an ALL_OR_NOTHING batch")
+        OrderBatchStatus status,
+
+        @Schema(description = "Created order, present when status is CREATED")
+        OrderResponseDTO order,
+
+        @Schema(description = "Why the order failed, present when status is FAILED")
+        String error
+) {
+
+    public static OrderBatchResultDTO created(int index, OrderResponseDTO order) {
+        return new OrderBatchResultDTO(index, OrderBatchStatus.CREATED, order, null);
+    }
+
+    public static OrderBatchResultDTO failed(int index, String error) {
+        return new OrderBatchResultDTO(index, OrderBatchStatus.FAILED, null, error);
+    }
+
+    public static OrderBatchResultDTO notCreated(int index) {
+        return new OrderBatchResultDTO(index, OrderBatchStatus.NOT_CREATED, null, null);
+    }
+}
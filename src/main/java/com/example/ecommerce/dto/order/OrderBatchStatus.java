@@ -0,0 +1,7 @@
+package com.example.ecommerce.dto.order;
+
+public enum OrderBatchStatus {
+    CREATED,
+    FAILED,
+    NOT_CREATED
+}
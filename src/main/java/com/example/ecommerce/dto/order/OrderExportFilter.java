@@ -0,0 +1,24 @@
+package com.example.ecommerce.dto.order;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Orders to export: any of the given statuses (all when empty), created from {@code from} inclusive to {@code to}
+ * exclusive, each bound optional.
+ */
+public record OrderExportFilter(
+        Set<OrderStatus> statuses,
+        LocalDateTime from,
+        LocalDateTime to
+) {
+
+    public OrderExportFilter {
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ecommerce.dto.order;
+
+import com.example.ecommerce.domain.entity.OrderIntakeStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "State of an order accepted for asynchronous creation")
+public record OrderIntakeResponseDTO(
+        @Schema(description = "Code the order is created with", example = "0199a0e4-5b4c-7d2e-9f3a-6b8c1d2e3f40")
+        UUID code,
+
+        @Schema(description = "QUEUED until a worker processes the order, then COMPLETED or FAILED")
+        OrderIntakeStatus status,
+
+        @Schema(description = "Why the order was not created, present when status is FAILED")
+        String error,
+
+        @Schema(description = "When the order was accepted")
+        LocalDateTime acceptedAt,
+
+        @Schema(description = "When the order was processed")
+        LocalDateTime processedAt
+) {
+}
@@ -1,7 +1,7 @@
 package com.example.ecommerce.dto.order;
 
 import com.example.ecommerce.domain.entity.OrderStatus;
-import com.example.ecommerce.dto.common.HasCode;
+import com.example.ecommerce.dto.common.VersionedResponse;
 import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
 import io.swagger.v3.oas.annotations.media.Schema;
 
@@ -41,5 +41,5 @@ public record OrderResponseDTO(
 
         @Schema(description = "Optimistic locking version", example = "0")
         Long version
-) implements HasCode {
+) implements VersionedResponse {
 }
@@ -19,7 +19,12 @@ public record OrderUpdateDTO(
         @Schema(description = "Order status", example = "PROCESSING")
         @NotNull OrderStatus status,
 
-        @Schema(description = "Optimistic locking version (must match current version)", example = "0")
-        @NotNull Long version
-) implements VersionedUpdateDTO {
+        @Schema(description = "Optimistic locking version (must match current version); may be omitted when an If-Match header is sent", example = "0")
+        Long version
+) implements VersionedUpdateDTO<OrderUpdateDTO> {
+
+    @Override
+    public OrderUpdateDTO withVersion(Long version) {
+        return new OrderUpdateDTO(customerName, customerEmail, status, version);
+    }
 }
@@ -1,6 +1,6 @@
 package com.example.ecommerce.dto.orderitem;
 
-import com.example.ecommerce.dto.common.HasCode;
+import com.example.ecommerce.dto.common.VersionedResponse;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
@@ -12,7 +12,7 @@ public record OrderItemResponseDTO(
         @Schema(description = "Unique order item identifier (UUID)")
         UUID code,
 
-        @Schema(description = "Product UUID code (null if product was deleted)", example = "550e8400-e29b-41d4-a716-446655440000")
+        @Schema(description = "Product UUID code, kept after the product is deleted", example = "550e8400-e29b-41d4-a716-446655440000")
         UUID productCode,
 
         @Schema(description = "Snapshot of product name at time of order", example = "Wireless Mouse")
@@ -32,5 +32,5 @@ public record OrderItemResponseDTO(
 
         @Schema(description = "Optimistic locking version", example = "0")
         Long version
-) implements HasCode {
+) implements VersionedResponse {
 }
@@ -10,7 +10,12 @@ public record OrderItemUpdateDTO(
         @Schema(description = "Updated quantity", example = "5", minimum = "1")
         @NotNull @Positive Integer quantity,
 
-        @Schema(description = "Optimistic locking version (must match current version)", example = "0")
-        @NotNull Long version
-) implements VersionedUpdateDTO {
+        @Schema(description = "Optimistic locking version (must match current version); may be omitted when an If-Match header is sent", example = "0")
+        Long version
+) implements VersionedUpdateDTO<OrderItemUpdateDTO> {
+
+    @Override
+    public OrderItemUpdateDTO withVersion(Long version) {
+        return new OrderItemUpdateDTO(quantity, version);
+    }
 }
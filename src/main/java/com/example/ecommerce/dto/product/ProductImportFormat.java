@@ -0,0 +1,25 @@
+package com.example.ecommerce.dto.product;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+
+public enum ProductImportFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    ProductImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static ProductImportFormat of(String contentType) {
+        var requested = contentType == null ? null : MediaType.parseMediaType(contentType);
+        return Arrays.stream(values())
+                .filter(format -> requested != null && format.mediaType.isCompatibleWith(requested))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported import content type: %s, expected %s or %s"
+                        .formatted(contentType, CSV.mediaType, NDJSON.mediaType)));
+    }
+}
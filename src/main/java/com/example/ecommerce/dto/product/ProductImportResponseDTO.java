@@ -0,0 +1,46 @@
+package com.example.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "Progress and outcome of a product import")
+public record ProductImportResponseDTO(
+        @Schema(description = "Import identifier", example = "0199a0e4-5b4c-7d2e-9f3a-6b8c1d2e3f40")
+        UUID id,
+
+        @Schema(description = "Input format")
+        ProductImportFormat format,
+
+        @Schema(description = "STAGING while the input is read, MERGING while staged rows are upserted, then COMPLETED or FAILED")
+        ProductImportStatus status,
+
+        @Schema(description = "Input rows read so far", example = "1000000")
+        long rowsRead,
+
+        @Schema(description = "Rows written to the error file", example = "12")
+        long rowsRejected,
+
+        @Schema(description = "Products created", example = "400000")
+        long inserted,
+
+        @Schema(description = "Existing products whose name, description or price changed", example = "350000")
+        long updated,
+
+        @Schema(description = "Existing products already matching their row", example = "249988")
+        long unchanged,
+
+        @Schema(description = "Rows read per second since the import started", example = "185000")
+        long rowsPerSecond,
+
+        @Schema(description = "When the import started")
+        LocalDateTime startedAt,
+
+        @Schema(description = "When the import finished, if it has")
+        LocalDateTime finishedAt,
+
+        @Schema(description = "Why the import failed, if it did")
+        String error
+) {
+}
@@ -0,0 +1,8 @@
+package com.example.ecommerce.dto.product;
+
+public enum ProductImportStatus {
+    STAGING,
+    MERGING,
+    COMPLETED,
+    FAILED
+}
@@ -1,6 +1,6 @@
 package com.example.ecommerce.dto.product;
 
-import com.example.ecommerce.dto.common.HasCode;
+import com.example.ecommerce.dto.common.VersionedResponse;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
@@ -32,5 +32,5 @@ public record ProductResponseDTO(
 
         @Schema(description = "Optimistic locking version", example = "1")
         Long version
-) implements HasCode {
+) implements VersionedResponse {
 }
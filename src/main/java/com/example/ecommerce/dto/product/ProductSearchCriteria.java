@@ -0,0 +1,24 @@
+package com.example.ecommerce.dto.product;
+
+import java.math.BigDecimal;
+
+public record ProductSearchCriteria(
+        String query,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        boolean inStock,
+        ProductSearchSort sort
+) {
+
+    public ProductSearchCriteria {
+        query = query == null || query.isBlank() ? null : query.trim();
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        if (sort == null) {
+            sort = query == null ? ProductSearchSort.NEWEST : ProductSearchSort.RELEVANCE;
+        } else if (sort == ProductSearchSort.RELEVANCE && query == null) {
+            throw new IllegalArgumentException("Sorting by relevance requires a query");
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.ecommerce.dto.product;
+
+public enum ProductSearchSort {
+    RELEVANCE, PRICE_ASC, PRICE_DESC, NEWEST
+}
@@ -0,0 +1,15 @@
+package com.example.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Product name suggestion")
+public record ProductSuggestionDTO(
+        @Schema(description = "Unique product identifier", example = "550e8400-e29b-41d4-a716-446655440000")
+        UUID code,
+
+        @Schema(description = "Product name", example = "Wireless Mouse")
+        String name
+) {
+}
@@ -24,7 +24,23 @@ public record ProductUpdateDTO(
         @Schema(description = "Available stock quantity", example = "200")
         @NotNull @PositiveOrZero Integer stockQuantity,
 
-        @Schema(description = "Optimistic locking version (must match current version)", example = "0")
-        @NotNull Long version
-) implements VersionedUpdateDTO {
+        @Schema(description = "Optimistic locking version (must match current version); may be omitted when an If-Match header is sent", example = "0")
+        Long version,
+
+        @Schema(description = "Stock quantity the client last read; the update is rejected when the current stock differs", example = "150")
+        @PositiveOrZero Integer expectedStockQuantity
+) implements VersionedUpdateDTO<ProductUpdateDTO> {
+
+    public ProductUpdateDTO(String name, String description, BigDecimal price, Integer stockQuantity, Long version) {
+        this(name, description, price, stockQuantity, version, null);
+    }
+
+    @Override
+    public ProductUpdateDTO withVersion(Long version) {
+        return new ProductUpdateDTO(name, description, price, stockQuantity, version, expectedStockQuantity);
+    }
+
+    public ProductUpdateDTO withExpectedStockQuantity(Integer expectedStockQuantity) {
+        return new ProductUpdateDTO(name, description, price, stockQuantity, version, expectedStockQuantity);
+    }
 }
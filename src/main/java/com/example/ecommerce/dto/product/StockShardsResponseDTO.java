@@ -0,0 +1,22 @@
+package com.example.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Stock shard distribution of a product")
+public record StockShardsResponseDTO(
+        @Schema(description = "Product UUID code", example = "550e8400-e29b-41d4-a716-446655440000")
+        UUID productCode,
+
+        @Schema(description = "Number of stock counter rows", example = "4")
+        Integer shardCount,
+
+        @Schema(description = "Total available stock across all shards", example = "150")
+        Integer stockQuantity,
+
+        @Schema(description = "Available stock per shard, ordered by shard number", example = "[38, 38, 37, 37]")
+        List<Integer> shardQuantities
+) {
+}
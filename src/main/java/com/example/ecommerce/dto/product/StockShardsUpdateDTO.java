@@ -0,0 +1,13 @@
+package com.example.ecommerce.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+@Schema(description = "Request body for configuring the stock shards of a product")
+public record StockShardsUpdateDTO(
+        @Schema(description = "Number of stock counter rows the product stock is split across (1 disables sharding)", example = "8", minimum = "1", maximum = "64")
+        @NotNull @Min(1) @Max(64) Integer shardCount
+) {
+}
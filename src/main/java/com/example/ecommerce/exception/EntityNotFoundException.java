@@ -2,20 +2,31 @@ package com.example.ecommerce.exception;
 
 import lombok.Getter;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Getter
 public class EntityNotFoundException extends RuntimeException {
 
     private final String entityName;
+    private final List<UUID> missingCodes;
 
     public EntityNotFoundException(String entityName, UUID code) {
         super("%s with code %s not found".formatted(entityName, code));
         this.entityName = entityName;
+        this.missingCodes = List.of(code);
     }
 
     public EntityNotFoundException(String entityName, Long id) {
         super("%s with id %d not found".formatted(entityName, id));
         this.entityName = entityName;
+        this.missingCodes = List.of();
+    }
+
+    public EntityNotFoundException(String entityName, Collection<UUID> codes) {
+        super("%s with codes %s not found".formatted(entityName, codes));
+        this.entityName = entityName;
+        this.missingCodes = List.copyOf(codes);
     }
 }
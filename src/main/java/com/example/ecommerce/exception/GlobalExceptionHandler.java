@@ -21,6 +21,8 @@ import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_CONTENT;
 
 @Slf4j
 @ControllerAdvice
@@ -29,13 +31,19 @@ public class GlobalExceptionHandler {
     public static final String NOT_FOUND_MESSAGE = "Not Found";
     public static final String CONFLICT_MESSAGE = "Conflict";
     public static final String BAD_REQUEST_MESSAGE = "Bad Request";
+    public static final String PRECONDITION_FAILED_MESSAGE = "Precondition Failed";
+    public static final String UNPROCESSABLE_CONTENT_MESSAGE = "Unprocessable Content";
     public static final String INTERNAL_SERVER_ERROR_MESSAGE = "Internal Server Error";
     public static final String VALIDATION_FAILED_MESSAGE = "Validation failed";
     public static final String MALFORMED_REQUEST_BODY_MESSAGE = "Malformed request body";
 
     @ExceptionHandler({EntityNotFoundException.class, NoResourceFoundException.class})
     public ProblemDetail handleNotFound(Exception ex, HttpServletRequest request) {
-        return notFound(ex.getMessage(), request);
+        var problem = notFound(ex.getMessage(), request);
+        if (ex instanceof EntityNotFoundException notFound && notFound.getMissingCodes().size() > 1) {
+            problem.setProperty("missingCodes", notFound.getMissingCodes());
+        }
+        return problem;
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -57,18 +65,30 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({
             ObjectOptimisticLockingFailureException.class,
             DataIntegrityViolationException.class,
-            DuplicateResourceException.class
+            DuplicateResourceException.class,
+            RequestInProgressException.class
     })
     public ProblemDetail handleConflict(Exception ex, HttpServletRequest request) {
         var detail = switch (ex) {
             case ObjectOptimisticLockingFailureException ignored -> "Resource was modified by another request";
             case DataIntegrityViolationException dataIntegrityEx -> DataIntegrityViolationClassifier.resolveDetail(dataIntegrityEx);
             case DuplicateResourceException duplicateResourceEx -> duplicateResourceEx.getMessage();
+            case RequestInProgressException inProgressEx -> inProgressEx.getMessage();
             default -> CONFLICT_MESSAGE;
         };
         return conflict(detail, request);
     }
 
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ProblemDetail handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest request) {
+        return problem(PRECONDITION_FAILED, PRECONDITION_FAILED_MESSAGE, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(OrderIntakeFailedException.class)
+    public ProblemDetail handleOrderIntakeFailed(OrderIntakeFailedException ex, HttpServletRequest request) {
+        return problem(UNPROCESSABLE_CONTENT, UNPROCESSABLE_CONTENT_MESSAGE, ex.getMessage(), request);
+    }
+
     @ExceptionHandler({
             InsufficientStockException.class,
             HttpMessageNotReadableException.class,
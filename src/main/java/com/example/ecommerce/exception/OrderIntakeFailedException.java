@@ -0,0 +1,10 @@
+package com.example.ecommerce.exception;
+
+import java.util.UUID;
+
+public class OrderIntakeFailedException extends RuntimeException {
+
+    public OrderIntakeFailedException(UUID code, String reason) {
+        super("Order with code %s was not created: %s".formatted(code, reason));
+    }
+}
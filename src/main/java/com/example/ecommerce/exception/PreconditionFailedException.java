@@ -0,0 +1,10 @@
+package com.example.ecommerce.exception;
+
+import java.util.UUID;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(UUID code) {
+        super("If-Match does not match the current version of resource '%s'".formatted(code));
+    }
+}
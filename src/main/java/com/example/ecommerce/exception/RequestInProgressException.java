@@ -0,0 +1,8 @@
+package com.example.ecommerce.exception;
+
+public class RequestInProgressException extends RuntimeException {
+
+    public RequestInProgressException(String idempotencyKey) {
+        super("A request with Idempotency-Key '%s' is still in progress".formatted(idempotencyKey));
+    }
+}
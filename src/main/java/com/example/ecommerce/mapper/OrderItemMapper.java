@@ -4,6 +4,7 @@ import com.example.ecommerce.domain.entity.OrderItem;
 import com.example.ecommerce.dto.orderitem.OrderItemCreateDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemUpdateDTO;
+import com.example.ecommerce.repository.projection.OrderItemRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -11,11 +12,13 @@ import org.mapstruct.MappingTarget;
 @Mapper(componentModel = "spring")
 public interface OrderItemMapper extends CrudMapper<OrderItem, OrderItemCreateDTO, OrderItemUpdateDTO, OrderItemResponseDTO> {
 
-    @Mapping(target = "productCode", source = "product.code")
     OrderItemResponseDTO toResponseDTO(OrderItem orderItem);
 
+    OrderItemResponseDTO toResponseDTO(OrderItemRow row);
+
     @Mapping(target = "order", ignore = true)
     @Mapping(target = "product", ignore = true)
+    @Mapping(target = "productCode", ignore = true)
     @Mapping(target = "productName", ignore = true)
     @Mapping(target = "unitPrice", ignore = true)
     @Mapping(target = "id", ignore = true)
@@ -31,6 +34,7 @@ public interface OrderItemMapper extends CrudMapper<OrderItem, OrderItemCreateDT
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "order", ignore = true)
     @Mapping(target = "product", ignore = true)
+    @Mapping(target = "productCode", ignore = true)
     @Mapping(target = "productName", ignore = true)
     @Mapping(target = "unitPrice", ignore = true)
     @Mapping(target = "version", ignore = true)
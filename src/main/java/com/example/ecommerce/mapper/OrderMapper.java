@@ -4,9 +4,14 @@ import com.example.ecommerce.domain.entity.Order;
 import com.example.ecommerce.dto.order.OrderCreateDTO;
 import com.example.ecommerce.dto.order.OrderResponseDTO;
 import com.example.ecommerce.dto.order.OrderUpdateDTO;
+import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
+import com.example.ecommerce.repository.projection.OrderRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
+
+import java.util.List;
 
 @Mapper(componentModel = "spring", uses = OrderItemMapper.class)
 public interface OrderMapper extends CrudMapper<Order, OrderCreateDTO, OrderUpdateDTO, OrderResponseDTO> {
@@ -14,6 +19,13 @@ public interface OrderMapper extends CrudMapper<Order, OrderCreateDTO, OrderUpda
     @Mapping(target = "items", source = "items")
     OrderResponseDTO toResponseDTO(Order order);
 
+    @Named("summary")
+    @Mapping(target = "items", ignore = true)
+    OrderResponseDTO toSummaryDTO(Order order);
+
+    @Mapping(target = "items", source = "items")
+    OrderResponseDTO toResponseDTO(OrderRow row, List<OrderItemResponseDTO> items);
+
     @Mapping(target = "items", ignore = true)
     @Mapping(target = "totalAmount", ignore = true)
     @Mapping(target = "orderDate", ignore = true)
@@ -4,6 +4,7 @@ import com.example.ecommerce.domain.entity.Product;
 import com.example.ecommerce.dto.product.ProductCreateDTO;
 import com.example.ecommerce.dto.product.ProductResponseDTO;
 import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import com.example.ecommerce.repository.projection.ProductRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -13,11 +14,18 @@ public interface ProductMapper extends CrudMapper<Product, ProductCreateDTO, Pro
 
     ProductResponseDTO toResponseDTO(Product product);
 
+    @Mapping(target = "stockQuantity", source = "stockQuantity")
+    ProductResponseDTO toResponseDTO(Product product, Integer stockQuantity);
+
+    @Mapping(target = "stockQuantity", source = "stockQuantity")
+    ProductResponseDTO toResponseDTO(ProductRow row, Integer stockQuantity);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "code", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
+    @Mapping(target = "stockShardCount", ignore = true)
     Product toEntity(ProductCreateDTO dto);
 
     @Mapping(target = "id", ignore = true)
@@ -25,5 +33,7 @@ public interface ProductMapper extends CrudMapper<Product, ProductCreateDTO, Pro
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "version", ignore = true)
+    @Mapping(target = "stockQuantity", ignore = true)
+    @Mapping(target = "stockShardCount", ignore = true)
     void updateEntityFromDTO(ProductUpdateDTO dto, @MappingTarget Product product);
 }
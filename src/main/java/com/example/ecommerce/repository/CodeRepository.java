@@ -1,9 +1,17 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.domain.entity.BaseEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +19,38 @@ import java.util.UUID;
 public interface CodeRepository<T extends BaseEntity> extends JpaRepository<T, Long> {
 
     Optional<T> findByCode(UUID code);
+
+    boolean existsByCode(UUID code);
+
+    @Query("SELECT e.version FROM #{#entityName} e WHERE e.code = :code")
+    Optional<Long> findVersionByCode(@Param("code") UUID code);
+
+    List<T> findAllByCodeIn(Collection<UUID> codes);
+
+    Slice<T> findAllBy(Pageable pageable);
+
+    /**
+     * Returns up to {@code limit} entities in {@code (createdAt, code)} order, starting after the given keyset, or from
+     * the beginning when it is {@code null}.
+     */
+    default List<T> findKeysetPage(Keyset after, Limit limit) {
+        return after == null ? findFirstKeysetPage(limit) : findKeysetPageAfter(after.createdAt(), after.code(), limit);
+    }
+
+    @Query("SELECT e FROM #{#entityName} e ORDER BY e.createdAt, e.code")
+    List<T> findFirstKeysetPage(Limit limit);
+
+    @Query("""
+            SELECT e FROM #{#entityName} e
+            WHERE (e.createdAt, e.code) > (:createdAt, :code)
+            ORDER BY e.createdAt, e.code
+            """)
+    List<T> findKeysetPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("code") UUID code, Limit limit);
+
+    /**
+     * Keyset position of a cursor page: the creation time and code of the last entity returned. The code breaks ties,
+     * so no internal id is needed.
+     */
+    record Keyset(LocalDateTime createdAt, UUID code) {
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopeAndIdempotencyKey(String scope, String idempotencyKey);
+
+    /**
+     * Claims the key for the current transaction, taking over a record that has expired. Returns 0 when a live
+     * record exists. If another transaction holds an uncommitted claim on the key, this waits for it to finish.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO idempotency_record (scope, idempotency_key, fingerprint, created_at, expires_at)
+            VALUES (:scope, :key, :fingerprint, :now, :expiresAt)
+            ON CONFLICT (scope, idempotency_key) DO UPDATE
+            SET fingerprint = EXCLUDED.fingerprint,
+                status = NULL,
+                location = NULL,
+                e_tag = NULL,
+                body = NULL,
+                created_at = EXCLUDED.created_at,
+                expires_at = EXCLUDED.expires_at
+            WHERE idempotency_record.expires_at <= EXCLUDED.created_at
+            """, nativeQuery = true)
+    int claim(
+            @Param("scope") String scope,
+            @Param("key") String key,
+            @Param("fingerprint") String fingerprint,
+            @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query(value = """
+            UPDATE idempotency_record
+            SET status = :status, location = :location, e_tag = :eTag, body = :body
+            WHERE scope = :scope AND idempotency_key = :key
+            """, nativeQuery = true)
+    int complete(
+            @Param("scope") String scope,
+            @Param("key") String key,
+            @Param("status") int status,
+            @Param("location") String location,
+            @Param("eTag") String eTag,
+            @Param("body") byte[] body);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM idempotency_record
+            WHERE id IN (
+                SELECT r.id
+                FROM idempotency_record r
+                WHERE r.expires_at <= :now
+                ORDER BY r.expires_at
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
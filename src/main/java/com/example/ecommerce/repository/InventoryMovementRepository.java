@@ -0,0 +1,64 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.entity.InventoryMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    /**
+     * First key of the ledger's advisory locks, so they cannot collide with advisory locks taken elsewhere. The second
+     * key is the product id; ids beyond the {@code int} range wrap around and only share a lock with another product.
+     */
+    int LOCK_NAMESPACE = 0x4C454447;
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + LOCK_NAMESPACE + ", CAST(:productId % 2147483648 AS INTEGER))", nativeQuery = true)
+    Integer lockProduct(@Param("productId") Long productId);
+
+    @Query(value = """
+            SELECT p.id AS "productId", p.name AS "name",
+                   CAST(COALESCE(b.quantity, p.stock_quantity) + COALESCE((
+                       SELECT SUM(m.delta)
+                       FROM inventory_movement m
+                       WHERE m.product_id = p.id AND m.id > COALESCE(b.last_movement_id, 0)
+                   ), 0) AS INTEGER) AS "quantity"
+            FROM product p
+            LEFT JOIN inventory_balance b ON b.product_id = p.id
+            WHERE p.id IN (:productIds)
+            """, nativeQuery = true)
+    List<LedgerBalance> findBalances(@Param("productIds") Collection<Long> productIds);
+
+    @Query(value = "SELECT DISTINCT m.product_id FROM inventory_movement m WHERE m.id > :movementId", nativeQuery = true)
+    List<Long> findProductIdsWithMovementsAfter(@Param("movementId") long movementId);
+
+    @Query(value = "SELECT COALESCE(MAX(m.id), 0) FROM inventory_movement m", nativeQuery = true)
+    long findLastMovementId();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO inventory_balance (product_id, quantity, last_movement_id, updated_at)
+            SELECT p.id, COALESCE(b.quantity, p.stock_quantity) + SUM(m.delta), MAX(m.id), LOCALTIMESTAMP
+            FROM product p
+            LEFT JOIN inventory_balance b ON b.product_id = p.id
+            JOIN inventory_movement m ON m.product_id = p.id AND m.id > COALESCE(b.last_movement_id, 0)
+            WHERE p.id = :productId
+            GROUP BY p.id, b.quantity, p.stock_quantity
+            ON CONFLICT (product_id) DO UPDATE
+            SET quantity = EXCLUDED.quantity, last_movement_id = EXCLUDED.last_movement_id, updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int compact(@Param("productId") Long productId);
+
+    interface LedgerBalance {
+
+        Long getProductId();
+
+        String getName();
+
+        Integer getQuantity();
+    }
+}
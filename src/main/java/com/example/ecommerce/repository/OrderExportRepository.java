@@ -0,0 +1,16 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.dto.order.OrderExportFilter;
+import com.example.ecommerce.repository.projection.OrderRow;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface OrderExportRepository {
+
+    /**
+     * Streams the orders matching the filter in creation order, handing them over in batches of the fetch size as
+     * they arrive from the database. Must run inside a transaction, which keeps the cursor open.
+     */
+    void exportRows(OrderExportFilter filter, Consumer<List<OrderRow>> batchConsumer);
+}
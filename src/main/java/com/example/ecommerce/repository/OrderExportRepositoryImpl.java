@@ -0,0 +1,87 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderExportFilter;
+import com.example.ecommerce.repository.projection.OrderRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads the export through a forward-only server-side cursor, fetching {@code fetchSize} rows per round trip, so
+ * neither the driver nor the persistence context ever holds more than one batch.
+ * <p>
+ * The cursor is declared rather than opened through the driver's fetch size because the planner optimizes declared
+ * cursors for the first rows: it walks the {@code (created_at, code)} index and filters as it goes instead of sorting
+ * every matching row before returning the first one.
+ */
+class OrderExportRepositoryImpl implements OrderExportRepository {
+
+    private static final String CURSOR = "order_export";
+    private static final String SELECT = """
+            SELECT o.id, o.code, o.customer_name, o.customer_email, o.status, o.total_amount, o.order_date,
+                   o.created_at, o.updated_at, o.version
+            FROM orders o
+            """;
+    private static final RowMapper<OrderRow> ROW_MAPPER = (rs, rowNum) -> new OrderRow(
+            rs.getLong("id"),
+            rs.getObject("code", UUID.class),
+            rs.getString("customer_name"),
+            rs.getString("customer_email"),
+            OrderStatus.valueOf(rs.getString("status")),
+            rs.getBigDecimal("total_amount"),
+            rs.getObject("order_date", LocalDateTime.class),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("updated_at", LocalDateTime.class),
+            rs.getLong("version"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    OrderExportRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate, @Value("${app.order-export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public void exportRows(OrderExportFilter filter, Consumer<List<OrderRow>> batchConsumer) {
+        var params = new MapSqlParameterSource();
+        var conditions = new ArrayList<String>();
+        if (!filter.statuses().isEmpty()) {
+            params.addValue("statuses", filter.statuses().stream().map(OrderStatus::name).toList());
+            conditions.add("o.status IN (:statuses)");
+        }
+        if (filter.from() != null) {
+            params.addValue("from", filter.from());
+            conditions.add("o.created_at >= :from");
+        }
+        if (filter.to() != null) {
+            params.addValue("to", filter.to());
+            conditions.add("o.created_at < :to");
+        }
+
+        var sql = new StringBuilder("DECLARE " + CURSOR + " NO SCROLL CURSOR FOR\n").append(SELECT);
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        }
+        sql.append("ORDER BY o.created_at, o.code");
+        jdbcTemplate.update(sql.toString(), params);
+
+        var fetch = "FETCH FORWARD %d FROM %s".formatted(fetchSize, CURSOR);
+        List<OrderRow> batch;
+        do {
+            batch = jdbcTemplate.getJdbcTemplate().query(fetch, ROW_MAPPER);
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
+        } while (batch.size() == fetchSize);
+        jdbcTemplate.getJdbcTemplate().execute("CLOSE " + CURSOR);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.entity.OrderIntake;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderIntakeRepository extends JpaRepository<OrderIntake, Long> {
+
+    Optional<OrderIntake> findByCode(UUID code);
+
+    /**
+     * Locks the oldest queued intakes for the current transaction, skipping those another worker already holds.
+     * Intakes that already failed an attempt on their own are left to {@link #findRetryIds}, so they cannot hold back
+     * a batch.
+     */
+    @Query(value = """
+            SELECT *
+            FROM order_intake
+            WHERE status = 'QUEUED' AND attempts = 0
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OrderIntake> claimQueued(@Param("limit") int limit);
+
+    @Query(value = """
+            SELECT *
+            FROM order_intake
+            WHERE id = :id AND status = 'QUEUED'
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<OrderIntake> claimQueued(@Param("id") Long id);
+
+    @Query(value = """
+            SELECT id
+            FROM order_intake
+            WHERE status = 'QUEUED' AND attempts > 0 AND last_attempt_at <= :attemptedBefore
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findRetryIds(@Param("attemptedBefore") LocalDateTime attemptedBefore, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM order_intake
+            WHERE id IN (
+                SELECT i.id
+                FROM order_intake i
+                WHERE i.processed_at <= :processedBefore
+                ORDER BY i.processed_at
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteProcessed(@Param("processedBefore") LocalDateTime processedBefore, @Param("batchSize") int batchSize);
+}
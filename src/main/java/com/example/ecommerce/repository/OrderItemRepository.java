@@ -1,12 +1,70 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.domain.entity.OrderItem;
+import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
+import com.example.ecommerce.repository.projection.OrderItemRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface OrderItemRepository extends CodeRepository<OrderItem> {
 
-    Page<OrderItem> findByOrderCode(UUID orderCode, Pageable pageable);
+    String ORDER_ITEM_RESPONSES = """
+            SELECT new com.example.ecommerce.dto.orderitem.OrderItemResponseDTO(
+                i.code, i.productCode, i.productName, i.unitPrice, i.quantity, i.createdAt, i.updatedAt, i.version)
+            FROM OrderItem i
+            """;
+
+    default List<OrderItem> findKeysetPageByOrderCode(UUID orderCode, Keyset after, Limit limit) {
+        return after == null
+                ? findFirstKeysetPageByOrderCode(orderCode, limit)
+                : findKeysetPageByOrderCodeAfter(orderCode, after.createdAt(), after.code(), limit);
+    }
+
+    @Query("SELECT i FROM OrderItem i WHERE i.order.code = :orderCode ORDER BY i.createdAt, i.code")
+    List<OrderItem> findFirstKeysetPageByOrderCode(@Param("orderCode") UUID orderCode, Limit limit);
+
+    @Query("""
+            SELECT i FROM OrderItem i
+            WHERE i.order.code = :orderCode AND (i.createdAt, i.code) > (:createdAt, :code)
+            ORDER BY i.createdAt, i.code
+            """)
+    List<OrderItem> findKeysetPageByOrderCodeAfter(
+            @Param("orderCode") UUID orderCode,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("code") UUID code,
+            Limit limit);
+
+    @Query(ORDER_ITEM_RESPONSES + "WHERE i.code = :code")
+    Optional<OrderItemResponseDTO> findResponseByCode(@Param("code") UUID code);
+
+    @Query(value = ORDER_ITEM_RESPONSES, countQuery = "SELECT count(i) FROM OrderItem i")
+    Page<OrderItemResponseDTO> findResponses(Pageable pageable);
+
+    @Query(ORDER_ITEM_RESPONSES)
+    Slice<OrderItemResponseDTO> findResponseSlice(Pageable pageable);
+
+    @Query(
+            value = ORDER_ITEM_RESPONSES + "WHERE i.order.code = :orderCode",
+            countQuery = "SELECT count(i) FROM OrderItem i WHERE i.order.code = :orderCode"
+    )
+    Page<OrderItemResponseDTO> findResponsesByOrderCode(@Param("orderCode") UUID orderCode, Pageable pageable);
+
+    @Query("""
+            SELECT new com.example.ecommerce.repository.projection.OrderItemRow(
+                i.order.id, i.code, i.productCode, i.productName, i.unitPrice, i.quantity, i.createdAt, i.updatedAt, i.version)
+            FROM OrderItem i
+            WHERE i.order.id IN :orderIds
+            ORDER BY i.id
+            """)
+    List<OrderItemRow> findRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,14 +1,51 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.domain.entity.Order;
+import com.example.ecommerce.repository.projection.OrderDetailRow;
+import com.example.ecommerce.repository.projection.OrderRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface OrderRepository extends CodeRepository<Order> {
+public interface OrderRepository extends CodeRepository<Order>, OrderExportRepository {
+
+    String ORDER_ROWS = """
+            SELECT new com.example.ecommerce.repository.projection.OrderRow(
+                o.id, o.code, o.customerName, o.customerEmail, o.status, o.totalAmount, o.orderDate, o.createdAt, o.updatedAt, o.version)
+            FROM Order o
+            """;
 
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.code = :code")
     Optional<Order> findByCodeWithItems(@Param("code") UUID code);
+
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT new com.example.ecommerce.repository.projection.OrderDetailRow(
+                new com.example.ecommerce.repository.projection.OrderRow(
+                    o.id, o.code, o.customerName, o.customerEmail, o.status, o.totalAmount, o.orderDate, o.createdAt, o.updatedAt, o.version),
+                new com.example.ecommerce.dto.orderitem.OrderItemResponseDTO(
+                    i.code, i.productCode, i.productName, i.unitPrice, i.quantity, i.createdAt, i.updatedAt, i.version))
+            FROM Order o LEFT JOIN o.items i
+            WHERE o.code = :code
+            ORDER BY i.id
+            """)
+    List<OrderDetailRow> findDetailRowsByCode(@Param("code") UUID code);
+
+    @Query(ORDER_ROWS + "WHERE o.code = :code")
+    Optional<OrderRow> findRowByCode(@Param("code") UUID code);
+
+    @Query(value = ORDER_ROWS, countQuery = "SELECT count(o) FROM Order o")
+    Page<OrderRow> findRows(Pageable pageable);
+
+    @Query(ORDER_ROWS)
+    Slice<OrderRow> findRowSlice(Pageable pageable);
 }
@@ -0,0 +1,40 @@
+package com.example.ecommerce.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Bulk load of products through a temporary staging table. Every method must run in the same transaction, which
+ * owns the staging table and drops it when it ends.
+ */
+public interface ProductImportRepository {
+
+    void createImportStaging();
+
+    /**
+     * Streams the products into the staging table with {@code COPY}, pulling them from the iterator as the driver
+     * sends them, and returns the number of rows staged.
+     */
+    long stage(Iterator<StagedProduct> products);
+
+    /**
+     * Removes every staged row whose name also appears on a later line and hands each removed row to the consumer,
+     * so the merge sees one row per name and the last one wins.
+     */
+    void removeSuperseded(ObjLongConsumer<String> nameAndLine);
+
+    /**
+     * Upserts the staged rows on the case-insensitive name. New names are inserted with their stock; existing
+     * products get the staged name, description and price when any of them differs, and keep their stock.
+     */
+    MergeResult mergeStaged(LocalDateTime now);
+
+    record StagedProduct(long line, UUID code, String name, String description, BigDecimal price, int stockQuantity) {
+    }
+
+    record MergeResult(long inserted, long updated) {
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Rows reach the staging table as one {@code COPY} stream, and the merge is a single {@code INSERT ... ON CONFLICT}
+ * on the {@code uk_product_name_ci} index, so the statement count does not depend on the size of the input.
+ * <p>
+ * Ids come from the column default, one {@code nextval} per row. The value a sequence call returns always lies in a
+ * block no pooled allocator uses, so this never collides with ids Hibernate hands out; it only leaves gaps.
+ */
+@RequiredArgsConstructor
+class ProductImportRepositoryImpl implements ProductImportRepository {
+
+    private static final String STAGING = "product_import";
+    private static final String CREATE_STAGING = """
+            CREATE TEMPORARY TABLE %s
+            (
+                line_no        BIGINT         NOT NULL,
+                code           UUID           NOT NULL,
+                name           VARCHAR(255)   NOT NULL,
+                description    VARCHAR(2000),
+                price          NUMERIC(19, 2) NOT NULL,
+                stock_quantity INTEGER        NOT NULL
+            ) ON COMMIT DROP
+            """.formatted(STAGING);
+    private static final String COPY = "COPY %s (line_no, code, name, description, price, stock_quantity) FROM STDIN (FORMAT csv)"
+            .formatted(STAGING);
+    private static final String REMOVE_SUPERSEDED = """
+            WITH removed AS (
+                DELETE FROM %1$s s
+                USING (SELECT line_no, ROW_NUMBER() OVER (PARTITION BY LOWER(BTRIM(name)) ORDER BY line_no DESC) AS rank
+                       FROM %1$s) r
+                WHERE s.line_no = r.line_no AND r.rank > 1
+                RETURNING s.line_no, s.name
+            )
+            SELECT line_no, name FROM removed ORDER BY line_no
+            """.formatted(STAGING);
+    // Rows are inserted in index order so that two concurrent imports lock the names they share in the same order.
+    private static final String MERGE = """
+            WITH merged AS (
+                INSERT INTO product (code, name, description, price, stock_quantity, created_at, updated_at, version)
+                SELECT s.code, s.name, s.description, s.price, s.stock_quantity, :now, :now, 0
+                FROM %s s
+                ORDER BY LOWER(BTRIM(s.name))
+                ON CONFLICT (LOWER(BTRIM(name))) DO UPDATE
+                SET name = EXCLUDED.name,
+                    description = EXCLUDED.description,
+                    price = EXCLUDED.price,
+                    updated_at = EXCLUDED.updated_at,
+                    version = product.version + 1
+                WHERE (product.name, product.description, product.price)
+                      IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.description, EXCLUDED.price)
+                RETURNING xmax = 0 AS inserted
+            )
+            SELECT COUNT(*) FILTER (WHERE inserted) AS inserted, COUNT(*) FILTER (WHERE NOT inserted) AS updated
+            FROM merged
+            """.formatted(STAGING);
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FETCH_SIZE = 10_000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void createImportStaging() {
+        jdbcTemplate.getJdbcTemplate().execute(CREATE_STAGING);
+    }
+
+    @Override
+    public long stage(Iterator<StagedProduct> products) {
+        var staged = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Long>) connection -> {
+            var copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY, BUFFER_SIZE);
+            try {
+                var writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), BUFFER_SIZE);
+                while (products.hasNext()) {
+                    write(writer, products.next());
+                }
+                writer.flush();
+                return copy.endCopy();
+            } catch (IOException e) {
+                copy.cancelCopy();
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                throw e;
+            }
+        });
+        // Temporary tables are never analyzed automatically; without statistics the merge is planned blind.
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE " + STAGING);
+        return Objects.requireNonNull(staged);
+    }
+
+    @Override
+    public void removeSuperseded(ObjLongConsumer<String> nameAndLine) {
+        jdbcTemplate.getJdbcTemplate().query(REMOVE_SUPERSEDED,
+                statement -> statement.setFetchSize(FETCH_SIZE),
+                (RowCallbackHandler) rs -> nameAndLine.accept(rs.getString("name"), rs.getLong("line_no")));
+    }
+
+    @Override
+    public MergeResult mergeStaged(LocalDateTime now) {
+        return jdbcTemplate.queryForObject(MERGE, Map.of("now", now),
+                (rs, rowNum) -> new MergeResult(rs.getLong("inserted"), rs.getLong("updated")));
+    }
+
+    private static void write(Writer writer, StagedProduct product) throws IOException {
+        writer.write(Long.toString(product.line()));
+        writer.write(',');
+        writer.write(product.code().toString());
+        writer.write(',');
+        quote(writer, product.name());
+        writer.write(',');
+        if (product.description() != null) {
+            quote(writer, product.description());
+        }
+        writer.write(',');
+        writer.write(product.price().toPlainString());
+        writer.write(',');
+        writer.write(Integer.toString(product.stockQuantity()));
+        writer.write('\n');
+    }
+
+    // In CSV format an unquoted empty field is NULL, so every present string is quoted, even an empty one.
+    private static void quote(Writer writer, String value) throws IOException {
+        writer.write('"');
+        if (value.indexOf('"') < 0) {
+            writer.write(value);
+        } else {
+            writer.write(value.replace("\"", "\"\""));
+        }
+        writer.write('"');
+    }
+}
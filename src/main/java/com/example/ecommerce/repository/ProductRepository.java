@@ -1,21 +1,103 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.StockHolder;
+import com.example.ecommerce.repository.projection.ProductRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static jakarta.persistence.LockModeType.PESSIMISTIC_WRITE;
 
-public interface ProductRepository extends CodeRepository<Product> {
+public interface ProductRepository extends CodeRepository<Product>, ProductSearchRepository, ProductImportRepository {
+
+    String PRODUCT_ROWS = """
+            SELECT new com.example.ecommerce.repository.projection.ProductRow(
+                p.id, p.code, p.name, p.description, p.price, p.stockQuantity, p.stockShardCount, p.createdAt, p.updatedAt, p.version)
+            FROM Product p
+            """;
 
     boolean existsByNameIgnoreCase(String name);
 
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
 
+    Optional<StockLevel> findStockLevelById(Long id);
+
+    @Query(PRODUCT_ROWS + "WHERE p.code = :code")
+    Optional<ProductRow> findRowByCode(@Param("code") UUID code);
+
+    @Query(PRODUCT_ROWS + "WHERE p.code IN :codes")
+    List<ProductRow> findRowsByCodeIn(@Param("codes") Collection<UUID> codes);
+
+    @Query(value = PRODUCT_ROWS, countQuery = "SELECT count(p) FROM Product p")
+    Page<ProductRow> findRows(Pageable pageable);
+
+    @Query(PRODUCT_ROWS)
+    Slice<ProductRow> findRowSlice(Pageable pageable);
+
     @Lock(PESSIMISTIC_WRITE)
     @Query("SELECT p FROM Product p WHERE p.id = :id")
     Optional<Product> findByIdForStockUpdate(@Param("id") Long id);
+
+    @Query("SELECT p.stockShardCount FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockShardCountById(@Param("id") Long id);
+
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.code = :code")
+    Optional<Product> findByCodeForStockUpdate(@Param("code") UUID code);
+
+    @Lock(PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.code IN :codes ORDER BY p.id")
+    List<Product> findAllByCodeInForStockUpdate(@Param("codes") Collection<UUID> codes);
+
+    @Query(value = """
+            SELECT p.id AS "id", p.stock_quantity AS "stockQuantity", p.stock_shard_count AS "stockShardCount"
+            FROM product p
+            WHERE p.id IN (:ids)
+            ORDER BY p.id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<LockedStock> lockStockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1, p.updatedAt = LOCAL DATETIME
+            WHERE p.id = :id AND p.stockQuantity >= :quantity
+            """)
+    int decreaseStockIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Product p
+            SET p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1, p.updatedAt = LOCAL DATETIME
+            WHERE p.id = :id
+            """)
+    int increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    interface StockLevel {
+
+        String getName();
+
+        Integer getStockQuantity();
+    }
+
+    interface LockedStock extends StockHolder {
+
+        Integer getStockShardCount();
+
+        @Override
+        default boolean isStockSharded() {
+            return getStockShardCount() != null && getStockShardCount() > 1;
+        }
+    }
 }
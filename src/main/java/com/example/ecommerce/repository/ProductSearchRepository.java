@@ -0,0 +1,22 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.dto.product.ProductSearchCriteria;
+import com.example.ecommerce.repository.projection.ProductSearchRow;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductSearchRepository {
+
+    /**
+     * Returns up to {@code limit} products matching the criteria in the criteria's sort order, starting after the
+     * given position, or from the beginning when it is {@code null}. Stock is not filtered here.
+     */
+    List<ProductSearchRow> search(ProductSearchCriteria criteria, Position after, int limit);
+
+    /**
+     * Keyset position of a search result: its relevance tier, the value of its sort column and its code.
+     */
+    record Position(int tier, Object key, UUID code) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.dto.product.ProductSearchCriteria;
+import com.example.ecommerce.repository.projection.ProductRow;
+import com.example.ecommerce.repository.projection.ProductSearchRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.ecommerce.dto.product.ProductSearchSort.PRICE_ASC;
+import static com.example.ecommerce.dto.product.ProductSearchSort.RELEVANCE;
+
+/**
+ * Builds the search statement from the filters actually present, so each combination gets a plan of its own.
+ * <p>
+ * Every sort is backed by a btree index, so a broad query reads only the rows of the page in index order while a
+ * narrow one goes through the text index. Relevance avoids ranking every match: products whose name matches the
+ * query form the first tier and products matching through their description the second, each newest first.
+ */
+@RequiredArgsConstructor
+class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final String SELECT = """
+            SELECT p.id, p.code, p.name, p.description, p.price, p.stock_quantity, p.stock_shard_count,
+                   p.created_at, p.updated_at, p.version
+            FROM product p
+            """;
+    private static final String TEXT_QUERY = "websearch_to_tsquery('english', :query)";
+    // Must match the expressions of the GIN indexes in changeset 012 for the planner to use them.
+    private static final String NAME_VECTOR = "to_tsvector('english', p.name)";
+    private static final String SEARCH_VECTOR = "to_tsvector('english', p.name || ' ' || coalesce(p.description, ''))";
+    private static final String MATCHES = SEARCH_VECTOR + " @@ " + TEXT_QUERY;
+    private static final List<String> RELEVANCE_TIERS = List.of(
+            NAME_VECTOR + " @@ " + TEXT_QUERY,
+            MATCHES + " AND NOT " + NAME_VECTOR + " @@ " + TEXT_QUERY);
+
+    // Generic plans cannot see how common the searched words are, which decides between the text and btree indexes.
+    private static final String FORCE_CUSTOM_PLAN = "SET LOCAL plan_cache_mode = force_custom_plan";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ProductSearchRow> search(ProductSearchCriteria criteria, Position after, int limit) {
+        if (criteria.query() != null) {
+            jdbcTemplate.getJdbcTemplate().execute(FORCE_CUSTOM_PLAN);
+        }
+        if (criteria.sort() != RELEVANCE) {
+            return query(criteria, criteria.query() == null ? null : MATCHES, 0, after, limit);
+        }
+
+        var rows = new ArrayList<ProductSearchRow>(limit);
+        for (var tier = after == null ? 0 : after.tier(); tier < RELEVANCE_TIERS.size() && rows.size() < limit; tier++) {
+            var tierAfter = after != null && after.tier() == tier ? after : null;
+            rows.addAll(query(criteria, RELEVANCE_TIERS.get(tier), tier, tierAfter, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    private List<ProductSearchRow> query(ProductSearchCriteria criteria, String textCondition, int tier, Position after, int limit) {
+        var params = new MapSqlParameterSource("limit", limit).addValue("query", criteria.query());
+        var conditions = new ArrayList<String>();
+
+        if (textCondition != null) {
+            conditions.add(textCondition);
+        }
+        if (criteria.minPrice() != null) {
+            params.addValue("minPrice", criteria.minPrice());
+            conditions.add("p.price >= :minPrice");
+        }
+        if (criteria.maxPrice() != null) {
+            params.addValue("maxPrice", criteria.maxPrice());
+            conditions.add("p.price <= :maxPrice");
+        }
+
+        var sortColumn = switch (criteria.sort()) {
+            case RELEVANCE, NEWEST -> "p.created_at";
+            case PRICE_ASC, PRICE_DESC -> "p.price";
+        };
+        var ascending = criteria.sort() == PRICE_ASC;
+        if (after != null) {
+            params.addValue("afterKey", after.key());
+            params.addValue("afterCode", after.code());
+            conditions.add("(%s, p.code) %s (:afterKey, :afterCode)".formatted(sortColumn, ascending ? ">" : "<"));
+        }
+
+        var sql = new StringBuilder(SELECT);
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        }
+        sql.append("ORDER BY %1$s %2$s, p.code %2$s\nLIMIT :limit".formatted(sortColumn, ascending ? "ASC" : "DESC"));
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new ProductSearchRow(
+                new ProductRow(
+                        rs.getLong("id"),
+                        rs.getObject("code", UUID.class),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getBigDecimal("price"),
+                        rs.getInt("stock_quantity"),
+                        rs.getInt("stock_shard_count"),
+                        rs.getObject("created_at", LocalDateTime.class),
+                        rs.getObject("updated_at", LocalDateTime.class),
+                        rs.getLong("version")),
+                tier));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.entity.ProductStockShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    List<ProductStockShard> findAllByProductIdOrderByShardNo(Long productId);
+
+    @Query(value = """
+            SELECT shard_no AS "shardNo", quantity AS "quantity"
+            FROM product_stock_shard
+            WHERE product_id = :productId
+            ORDER BY shard_no
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<ShardLevel> lockShardLevels(@Param("productId") Long productId);
+
+    @Query("""
+            SELECT s.productId AS productId, SUM(s.quantity) AS quantity
+            FROM ProductStockShard s
+            WHERE s.productId IN :productIds
+            GROUP BY s.productId
+            """)
+    List<ShardTotal> sumQuantityByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE product_stock_shard
+            SET quantity = quantity - :quantity
+            WHERE id = (SELECT id
+                        FROM product_stock_shard
+                        WHERE product_id = :productId AND quantity >= :quantity
+                        ORDER BY random()
+                        LIMIT 1 FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int decreaseUnlockedShardIfAvailable(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE product_stock_shard
+            SET quantity = quantity + :quantity
+            WHERE id = (SELECT id
+                        FROM product_stock_shard
+                        WHERE product_id = :productId
+                        ORDER BY random()
+                        LIMIT 1 FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int increaseUnlockedShard(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductStockShard s SET s.quantity = s.quantity + :delta WHERE s.productId = :productId AND s.shardNo = :shardNo")
+    int addToShard(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ProductStockShard s SET s.quantity = :quantity WHERE s.productId = :productId AND s.shardNo = :shardNo")
+    int setShardQuantity(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ProductStockShard s WHERE s.productId = :productId AND s.shardNo >= :shardNo")
+    int deleteShardsFrom(@Param("productId") Long productId, @Param("shardNo") int shardNo);
+
+    interface ShardLevel {
+
+        Integer getShardNo();
+
+        Integer getQuantity();
+    }
+
+    interface ShardTotal {
+
+        Long getProductId();
+
+        Long getQuantity();
+    }
+}
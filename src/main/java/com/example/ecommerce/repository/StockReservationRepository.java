@@ -0,0 +1,62 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.domain.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM StockReservation r WHERE r.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Claims up to {@code batchSize} expired reservations, deletes them and cancels their still-pending orders in one
+     * statement, returning the ids of the cancelled orders. Not {@code @Modifying}: that would run it through
+     * {@code executeUpdate}, which returns only a row count, while the caller needs the {@code RETURNING} ids to give
+     * the stock back. The persistence context is not cleared afterwards, so callers run it before loading any orders
+     * or reservations in their transaction.
+     */
+    @Query(value = """
+            WITH expired AS (
+                SELECT r.id
+                FROM stock_reservation r
+                WHERE r.expires_at <= LOCALTIMESTAMP
+                ORDER BY r.expires_at
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            ), released AS (
+                DELETE FROM stock_reservation r
+                USING expired e
+                WHERE r.id = e.id
+                RETURNING r.order_id
+            )
+            UPDATE orders o
+            SET status = 'CANCELLED', total_amount = 0, version = o.version + 1, updated_at = LOCALTIMESTAMP
+            FROM released rl
+            WHERE o.id = rl.order_id AND o.status = 'PENDING'
+            RETURNING o.id
+            """, nativeQuery = true)
+    List<Long> releaseExpired(@Param("batchSize") int batchSize);
+
+    @Query(value = """
+            SELECT oi.product_id AS "productId", CAST(SUM(oi.quantity) AS INTEGER) AS "quantity"
+            FROM order_item oi
+            WHERE oi.order_id IN (:orderIds) AND oi.product_id IS NOT NULL
+            GROUP BY oi.product_id
+            ORDER BY oi.product_id
+            """, nativeQuery = true)
+    List<ReservedQuantity> sumQuantitiesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    interface ReservedQuantity {
+
+        Long getProductId();
+
+        Integer getQuantity();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.ecommerce.repository.projection;
+
+import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
+
+/**
+ * One row of an order joined to one of its items; {@code item} has a null code when the order has none.
+ */
+public record OrderDetailRow(OrderRow order, OrderItemResponseDTO item) {
+}
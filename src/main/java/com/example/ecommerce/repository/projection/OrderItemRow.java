@@ -0,0 +1,18 @@
+package com.example.ecommerce.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderItemRow(
+        Long orderId,
+        UUID code,
+        UUID productCode,
+        String productName,
+        BigDecimal unitPrice,
+        Integer quantity,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
+) {
+}
@@ -0,0 +1,21 @@
+package com.example.ecommerce.repository.projection;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record OrderRow(
+        Long id,
+        UUID code,
+        String customerName,
+        String customerEmail,
+        OrderStatus status,
+        BigDecimal totalAmount,
+        LocalDateTime orderDate,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
+) {
+}
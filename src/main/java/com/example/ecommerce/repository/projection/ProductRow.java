@@ -0,0 +1,36 @@
+package com.example.ecommerce.repository.projection;
+
+import com.example.ecommerce.domain.entity.StockHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record ProductRow(
+        Long id,
+        UUID code,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer stockQuantity,
+        Integer stockShardCount,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long version
+) implements StockHolder {
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    @Override
+    public boolean isStockSharded() {
+        return stockShardCount != null && stockShardCount > 1;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ecommerce.repository.projection;
+
+import com.example.ecommerce.dto.product.ProductSearchSort;
+
+public record ProductSearchRow(ProductRow product, int tier) {
+
+    public Object sortKey(ProductSearchSort sort) {
+        return switch (sort) {
+            case RELEVANCE, NEWEST -> product.createdAt();
+            case PRICE_ASC, PRICE_DESC -> product.price();
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ecommerce.scheduling;
+
+import com.example.ecommerce.service.support.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.idempotency.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyRecordSweeper {
+
+    private final IdempotencyStore idempotencyStore;
+    private final int batchSize;
+
+    public IdempotencyRecordSweeper(
+            IdempotencyStore idempotencyStore,
+            @Value("${app.idempotency.sweeper.batch-size:1000}") int batchSize
+    ) {
+        this.idempotencyStore = idempotencyStore;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.idempotency.sweeper.interval:10m}",
+            fixedDelayString = "${app.idempotency.sweeper.interval:10m}"
+    )
+    public void sweep() {
+        int deleted;
+        do {
+            deleted = idempotencyStore.deleteExpired(batchSize);
+        } while (deleted == batchSize);
+    }
+}
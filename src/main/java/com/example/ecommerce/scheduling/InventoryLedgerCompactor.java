@@ -0,0 +1,65 @@
+package com.example.ecommerce.scheduling;
+
+import com.example.ecommerce.repository.InventoryMovementRepository;
+import com.example.ecommerce.service.impl.LedgerStockServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Folds new ledger movements into balance snapshots. A movement can commit after a scan that already saw higher ids,
+ * so the next scan does not start at the highest id seen: it starts at the highest id that was visible
+ * {@code compaction-lag} before the last scan. Any transaction still open during that scan started later and drew
+ * its movement ids after that one, as long as no transaction appending movements runs longer than the lag.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.stock.mode", havingValue = LedgerStockServiceImpl.LEDGER_MODE)
+public class InventoryLedgerCompactor {
+
+    private final LedgerStockServiceImpl ledgerStockService;
+    private final InventoryMovementRepository movementRepository;
+    private final Duration lag;
+    private final Deque<Watermark> watermarks = new ArrayDeque<>();
+
+    private long scanFromMovementId;
+
+    public InventoryLedgerCompactor(
+            LedgerStockServiceImpl ledgerStockService,
+            InventoryMovementRepository movementRepository,
+            @Value("${app.stock.ledger.compaction-lag:1m}") Duration lag
+    ) {
+        this.ledgerStockService = ledgerStockService;
+        this.movementRepository = movementRepository;
+        this.lag = lag;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.stock.ledger.compaction-interval:1m}",
+            fixedDelayString = "${app.stock.ledger.compaction-interval:1m}"
+    )
+    public void compact() {
+        var scannedAt = Instant.now();
+        watermarks.addLast(new Watermark(scannedAt, movementRepository.findLastMovementId()));
+        var productIds = movementRepository.findProductIdsWithMovementsAfter(scanFromMovementId);
+        productIds.forEach(ledgerStockService::compact);
+
+        var safeBefore = scannedAt.minus(lag);
+        while (!watermarks.isEmpty() && !watermarks.peekFirst().seenAt().isAfter(safeBefore)) {
+            scanFromMovementId = watermarks.removeFirst().movementId();
+        }
+        if (!productIds.isEmpty()) {
+            log.info("Compacted inventory ledger of {} products", productIds.size());
+        }
+    }
+
+    private record Watermark(Instant seenAt, long movementId) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ecommerce.scheduling;
+
+import com.example.ecommerce.service.OrderIntakeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.order-intake.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderIntakeSweeper {
+
+    private final OrderIntakeService orderIntakeService;
+    private final int batchSize;
+
+    public OrderIntakeSweeper(
+            OrderIntakeService orderIntakeService,
+            @Value("${app.order-intake.sweeper.batch-size:1000}") int batchSize
+    ) {
+        this.orderIntakeService = orderIntakeService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.order-intake.sweeper.interval:10m}",
+            fixedDelayString = "${app.order-intake.sweeper.interval:10m}"
+    )
+    public void sweep() {
+        int deleted;
+        do {
+            deleted = orderIntakeService.deleteProcessed(batchSize);
+        } while (deleted == batchSize);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.ecommerce.scheduling;
+
+import com.example.ecommerce.service.OrderIntakeService;
+import com.example.ecommerce.service.support.OrderIntakeSignals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drains the order intake queue on virtual threads. Each thread takes a batch at a time and holds at most one
+ * connection while it processes it, so the threads bound how much of the pool asynchronous orders can use. A thread
+ * that finds less than a full batch sleeps until an order is queued on this node or the poll interval elapses.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.order-intake.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderIntakeWorker implements SmartLifecycle {
+
+    private final OrderIntakeService orderIntakeService;
+    private final OrderIntakeSignals signals;
+    private final int threads;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public OrderIntakeWorker(
+            OrderIntakeService orderIntakeService,
+            OrderIntakeSignals signals,
+            @Value("${app.order-intake.worker.threads:2}") int threads,
+            @Value("${app.order-intake.worker.batch-size:100}") int batchSize,
+            @Value("${app.order-intake.worker.poll-interval:1s}") Duration pollInterval
+    ) {
+        this.orderIntakeService = orderIntakeService;
+        this.signals = signals;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        var factory = Thread.ofVirtual().name("order-intake-", 0).factory();
+        for (int i = 0; i < threads; i++) {
+            var worker = factory.newThread(this::drain);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (var worker : workers) {
+            try {
+                worker.join(Duration.ofSeconds(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                if (orderIntakeService.processQueued(batchSize) < batchSize) {
+                    signals.awaitQueued(pollInterval);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Processing queued orders failed", e);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ecommerce.scheduling;
+
+import com.example.ecommerce.service.StockReservationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.stock.reservation.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class StockReservationSweeper {
+
+    private final StockReservationService reservationService;
+    private final int batchSize;
+
+    public StockReservationSweeper(
+            StockReservationService reservationService,
+            @Value("${app.stock.reservation.batch-size:500}") int batchSize
+    ) {
+        this.reservationService = reservationService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.stock.reservation.sweeper.interval:30s}",
+            fixedDelayString = "${app.stock.reservation.sweeper.interval:30s}"
+    )
+    public void sweep() {
+        int released;
+        do {
+            released = reservationService.releaseExpired(batchSize);
+        } while (released == batchSize);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ecommerce.scheduling;
+
+import com.example.ecommerce.service.impl.CoalescingStockServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.stock.mode", havingValue = CoalescingStockServiceImpl.COALESCING_MODE)
+public class StockReturnSweeper {
+
+    private final CoalescingStockServiceImpl coalescingStockService;
+    private final int batchSize;
+
+    public StockReturnSweeper(
+            CoalescingStockServiceImpl coalescingStockService,
+            @Value("${app.stock.coalescing.sweeper.batch-size:500}") int batchSize
+    ) {
+        this.coalescingStockService = coalescingStockService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.stock.coalescing.sweeper.interval:1m}",
+            fixedDelayString = "${app.stock.coalescing.sweeper.interval:1m}"
+    )
+    public void sweep() {
+        int returned;
+        do {
+            returned = coalescingStockService.applyStaleReturns(batchSize);
+            if (returned > 0) {
+                log.warn("Returned stock of {} unconfirmed coalesced decreases", returned);
+            }
+        } while (returned == batchSize);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderIntakeResponseDTO;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public interface OrderIntakeService {
+
+    /**
+     * Queues the order for creation by the intake workers and returns the code it will be created with.
+     */
+    OrderIntakeResponseDTO submit(OrderCreateDTO dto);
+
+    Optional<OrderIntakeResponseDTO> findByCode(UUID code);
+
+    /**
+     * Completes once the order is processed, or after the wait, capped at {@code app.order-intake.max-wait}.
+     */
+    CompletableFuture<Void> awaitProcessed(UUID code, Duration wait);
+
+    /**
+     * Creates up to batchSize queued orders and records their outcome. Returns the number of orders processed.
+     */
+    int processQueued(int batchSize);
+
+    int deleteProcessed(int batchSize);
+}
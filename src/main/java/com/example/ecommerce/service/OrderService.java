@@ -1,6 +1,10 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchResponseDTO;
 import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderExportFilter;
 import com.example.ecommerce.dto.order.OrderResponseDTO;
 import com.example.ecommerce.dto.order.OrderUpdateDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
@@ -8,9 +12,31 @@ import com.example.ecommerce.service.crud.CrudService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface OrderService extends CrudService<OrderCreateDTO, OrderUpdateDTO, OrderResponseDTO, UUID> {
 
+    /**
+     * Creates the order with a code assigned beforehand, such as the code given out when it was queued.
+     */
+    OrderResponseDTO create(OrderCreateDTO dto, UUID code);
+
+    OrderBatchResponseDTO createBatch(OrderBatchCreateDTO dto);
+
+    /**
+     * Creates the batch with one code assigned beforehand per requested order, in request order.
+     */
+    OrderBatchResponseDTO createBatch(OrderBatchCreateDTO dto, List<UUID> codes);
+
     Page<OrderItemResponseDTO> findOrderItemsByOrderCode(UUID orderCode, Pageable pageable);
+
+    CursorPage<OrderItemResponseDTO> scrollOrderItemsByOrderCode(UUID orderCode, String cursor, int limit);
+
+    /**
+     * Streams every order matching the filter, with its items, in creation order. Each batch is handed over as soon
+     * as it is read and can be discarded afterwards, so memory does not grow with the size of the export.
+     */
+    void export(OrderExportFilter filter, Consumer<List<OrderResponseDTO>> batchConsumer);
 }
@@ -0,0 +1,27 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.dto.product.ProductImportFormat;
+import com.example.ecommerce.dto.product.ProductImportResponseDTO;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductImportService {
+
+    /**
+     * Imports the products read from the input and returns once they are committed. Rows that are invalid or
+     * superseded by a later row with the same name are written to the import's error file instead.
+     */
+    ProductImportResponseDTO importProducts(ProductImportFormat format, InputStream input);
+
+    /**
+     * Returns running imports and the most recently finished ones, newest first.
+     */
+    List<ProductImportResponseDTO> findAll();
+
+    ProductImportResponseDTO findById(UUID id);
+
+    Path errorFile(UUID id);
+}
@@ -1,11 +1,19 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.dto.common.CursorPage;
 import com.example.ecommerce.dto.product.ProductCreateDTO;
 import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductSearchCriteria;
+import com.example.ecommerce.dto.product.ProductSuggestionDTO;
 import com.example.ecommerce.dto.product.ProductUpdateDTO;
 import com.example.ecommerce.service.crud.CrudService;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ProductService extends CrudService<ProductCreateDTO, ProductUpdateDTO, ProductResponseDTO, UUID> {
+
+    CursorPage<ProductResponseDTO> search(ProductSearchCriteria criteria, String cursor, int limit);
+
+    List<ProductSuggestionDTO> suggest(String prefix, int limit);
 }
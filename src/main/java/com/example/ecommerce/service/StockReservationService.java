@@ -0,0 +1,23 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.domain.entity.Order;
+
+import java.util.Collection;
+
+public interface StockReservationService {
+
+    void hold(Order order);
+
+    /**
+     * Holds the stock of many new orders with one batched insert.
+     */
+    void holdAll(Collection<Order> orders);
+
+    void release(Order order);
+
+    /**
+     * Cancels up to {@code batchSize} pending orders whose reservation expired and returns their stock. Returns the
+     * number of orders released.
+     */
+    int releaseExpired(int batchSize);
+}
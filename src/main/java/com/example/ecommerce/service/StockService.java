@@ -1,6 +1,39 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.StockHolder;
+import com.example.ecommerce.service.support.CrudEntitySupport;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.util.stream.Collectors.toMap;
+
 public interface StockService {
 
     void adjust(Long productId, int delta);
+
+    Map<UUID, Product> reserve(Map<UUID, Integer> quantitiesByCode);
+
+    /**
+     * Locks the stock of the products in id order until the transaction ends and returns it, so that a following
+     * {@link #reserve} of no more than that cannot fail on a concurrent change.
+     */
+    Map<Long, Integer> lockAvailableStock(Collection<? extends StockHolder> products);
+
+    default Map<Long, Integer> availableStock(Collection<? extends StockHolder> products) {
+        return products.stream().collect(toMap(StockHolder::getId, StockHolder::getStockQuantity));
+    }
+
+    /**
+     * Sets the stock of a product being updated. When {@code expectedStock} is given, the current stock must still
+     * match it; stock changes bump the product version here, so the version check covers updates without it.
+     */
+    default void replaceStock(Product product, int quantity, Integer expectedStock) {
+        if (expectedStock != null) {
+            CrudEntitySupport.requireStockMatch(product, product.getStockQuantity(), expectedStock);
+        }
+        product.setStockQuantity(quantity);
+    }
 }
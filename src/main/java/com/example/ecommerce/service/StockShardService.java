@@ -0,0 +1,18 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.product.StockShardsResponseDTO;
+import com.example.ecommerce.dto.product.StockShardsUpdateDTO;
+
+import java.util.UUID;
+
+public interface StockShardService {
+
+    StockShardsResponseDTO findByProductCode(UUID productCode);
+
+    StockShardsResponseDTO configure(UUID productCode, StockShardsUpdateDTO dto);
+
+    StockShardsResponseDTO rebalance(UUID productCode);
+
+    void redistribute(Product product, int totalQuantity, int shardCount);
+}
@@ -1,22 +1,28 @@
 package com.example.ecommerce.service.crud;
 
 import com.example.ecommerce.domain.entity.BaseEntity;
+import com.example.ecommerce.dto.common.CursorPage;
 import com.example.ecommerce.dto.common.VersionedUpdateDTO;
 import com.example.ecommerce.exception.EntityNotFoundException;
 import com.example.ecommerce.repository.CodeRepository;
+import com.example.ecommerce.service.support.KeysetCursor;
+import com.example.ecommerce.service.support.PageCounter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
 @Transactional(readOnly = true)
-public abstract class AbstractCrudService<E extends BaseEntity, C, U extends VersionedUpdateDTO, R> implements CrudService<C, U, R, UUID> {
+public abstract class AbstractCrudService<E extends BaseEntity, C, U extends VersionedUpdateDTO<U>, R> implements CrudService<C, U, R, UUID> {
 
     protected abstract CodeRepository<E> repository();
 
+    protected abstract PageCounter pageCounter();
+
     protected abstract String entityName();
 
     protected abstract Class<E> entityClass();
@@ -37,7 +43,13 @@ public abstract class AbstractCrudService<E extends BaseEntity, C, U extends Ver
 
     @Override
     public Page<R> findAll(Pageable pageable) {
-        return repository().findAll(pageable).map(this::toResponse);
+        return pageCounter().findAll(repository(), entityClass(), pageable).map(this::toResponse);
+    }
+
+    @Override
+    public CursorPage<R> scroll(String cursor, int limit) {
+        var rows = repository().findKeysetPage(KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(limit));
+        return KeysetCursor.toPage(rows, limit, this::toResponses);
     }
 
     @Override
@@ -45,6 +57,12 @@ public abstract class AbstractCrudService<E extends BaseEntity, C, U extends Ver
         return toResponse(findEntityByCode(code));
     }
 
+    @Override
+    public Long findVersionByCode(UUID code) {
+        return repository().findVersionByCode(code)
+                .orElseThrow(() -> new EntityNotFoundException(entityName(), code));
+    }
+
     @Override
     @Transactional
     public R update(UUID code, U updateDto) {
@@ -72,6 +90,10 @@ public abstract class AbstractCrudService<E extends BaseEntity, C, U extends Ver
                 .orElseThrow(() -> new EntityNotFoundException(entityName(), code));
     }
 
+    protected List<R> toResponses(List<E> entities) {
+        return entities.stream().map(this::toResponse).toList();
+    }
+
     protected void beforeDelete(E entity) {
     }
 
@@ -1,5 +1,7 @@
 package com.example.ecommerce.service.crud;
 
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.FieldSelection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -9,8 +11,27 @@ public interface CrudService<C, U, R, I> {
 
     Page<R> findAll(Pageable pageable);
 
+    /**
+     * Lists resources for a sparse representation; implementations may skip loading unselected properties.
+     */
+    default Page<R> findAll(Pageable pageable, FieldSelection fields) {
+        return findAll(pageable);
+    }
+
+    CursorPage<R> scroll(String cursor, int limit);
+
+    default CursorPage<R> scroll(String cursor, int limit, FieldSelection fields) {
+        return scroll(cursor, limit);
+    }
+
     R findByCode(I id);
 
+    default R findByCode(I id, FieldSelection fields) {
+        return findByCode(id);
+    }
+
+    Long findVersionByCode(I id);
+
     R update(I id, U updateDto);
 
     void delete(I id);
@@ -4,17 +4,20 @@ import com.example.ecommerce.domain.entity.BaseEntity;
 import com.example.ecommerce.dto.common.VersionedUpdateDTO;
 import com.example.ecommerce.mapper.CrudMapper;
 import com.example.ecommerce.repository.CodeRepository;
+import com.example.ecommerce.service.support.PageCounter;
 
-public abstract class MappedCrudService<E extends BaseEntity, C, U extends VersionedUpdateDTO, R> extends AbstractCrudService<E, C, U, R> {
+public abstract class MappedCrudService<E extends BaseEntity, C, U extends VersionedUpdateDTO<U>, R> extends AbstractCrudService<E, C, U, R> {
 
     private final String entityName;
     private final Class<E> entityClass;
     private final CodeRepository<E> repository;
     private final CrudMapper<E, C, U, R> mapper;
+    private final PageCounter pageCounter;
 
-    protected MappedCrudService(CodeRepository<E> repository, CrudMapper<E, C, U, R> mapper, Class<E> entityClass, String entityName) {
+    protected MappedCrudService(CodeRepository<E> repository, CrudMapper<E, C, U, R> mapper, PageCounter pageCounter, Class<E> entityClass, String entityName) {
         this.repository = repository;
         this.mapper = mapper;
+        this.pageCounter = pageCounter;
         this.entityClass = entityClass;
         this.entityName = entityName;
     }
@@ -24,6 +27,11 @@ public abstract class MappedCrudService<E extends BaseEntity, C, U extends Versi
         return repository;
     }
 
+    @Override
+    protected PageCounter pageCounter() {
+        return pageCounter;
+    }
+
     @Override
     protected String entityName() {
         return entityName;
@@ -0,0 +1,248 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.StockHolder;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.ProductCache;
+import com.example.ecommerce.service.support.StockAdjustmentCoalescer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Decreases stock through a {@link StockAdjustmentCoalescer} on the application's connection pool. Callers waiting for
+ * a batch hold a pool connection through their own transaction, so at most {@code max-waiters} of them wait at a time;
+ * the others lock the product rows in their own transaction like the pessimistic engine, which keeps connections free
+ * for the batches. Stock given back is recorded as a pending return in the caller's transaction and applied in a batch
+ * once it commits.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.stock.mode", havingValue = CoalescingStockServiceImpl.COALESCING_MODE)
+public class CoalescingStockServiceImpl implements StockService, DisposableBean {
+
+    public static final String COALESCING_MODE = "coalescing";
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final StockAdjustmentCoalescer coalescer;
+    private final Semaphore waiters;
+    private final Duration returnTimeout;
+
+    public CoalescingStockServiceImpl(
+            ProductRepository productRepository,
+            ProductCache productCache,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.stock.coalescing.window:2ms}") Duration window,
+            @Value("${app.stock.coalescing.max-batch-size:64}") int maxBatchSize,
+            @Value("${app.stock.coalescing.flush-threads:2}") int flushThreads,
+            @Value("${app.stock.coalescing.max-waiters:8}") int maxWaiters,
+            @Value("${app.stock.coalescing.return-timeout:5m}") Duration returnTimeout
+    ) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.coalescer = new StockAdjustmentCoalescer(jdbcTemplate, transactionTemplate, window, maxBatchSize, flushThreads);
+        this.waiters = new Semaphore(maxWaiters);
+        this.returnTimeout = returnTimeout;
+    }
+
+    @Override
+    @Transactional
+    public void adjust(Long productId, int delta) {
+        if (productId == null || delta == 0) {
+            return;
+        }
+
+        productCache.evictStock(productId);
+        if (delta < 0) {
+            restore(productId, -delta);
+            return;
+        }
+
+        if (!waiters.tryAcquire()) {
+            var product = productRepository.findByIdForStockUpdate(productId)
+                    .orElseThrow(() -> new EntityNotFoundException("Product", productId));
+            product.decreaseStock(delta);
+            productRepository.save(product);
+            return;
+        }
+
+        try {
+            var returnId = await(coalescer.decrease(productId, delta));
+            confirm(Map.of(returnId, productId));
+        } finally {
+            waiters.release();
+        }
+    }
+
+    @Override
+    @Transactional
+    public Map<UUID, Product> reserve(Map<UUID, Integer> quantitiesByCode) {
+        if (quantitiesByCode.isEmpty()) {
+            return Map.of();
+        }
+        if (quantitiesByCode.values().stream().anyMatch(quantity -> quantity <= 0)) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+
+        productCache.evictStock(quantitiesByCode.keySet());
+        if (holdsRowLocks() || !waiters.tryAcquire()) {
+            var products = productRepository.findAllByCodeInForStockUpdate(quantitiesByCode.keySet());
+            var productsByCode = CrudEntitySupport.requireAllFound("Product", quantitiesByCode.keySet(), products);
+            products.forEach(product -> product.decreaseStock(quantitiesByCode.get(product.getCode())));
+            productRepository.saveAll(products);
+            return productsByCode;
+        }
+
+        try {
+            var productsByCode = CrudEntitySupport.requireAllByCode(productRepository, "Product", quantitiesByCode.keySet());
+            var results = new LinkedHashMap<Long, CompletableFuture<UUID>>();
+            productsByCode.values().stream()
+                    .sorted(Comparator.comparing(Product::getId))
+                    .forEach(product -> results.put(product.getId(), coalescer.decrease(product.getId(), quantitiesByCode.get(product.getCode()))));
+            CompletableFuture.allOf(results.values().toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .join();
+
+            var applied = new LinkedHashMap<UUID, Long>();
+            results.forEach((productId, result) -> {
+                if (!result.isCompletedExceptionally()) {
+                    applied.put(result.join(), productId);
+                }
+            });
+            var failure = results.values().stream().filter(CompletableFuture::isCompletedExceptionally).findFirst();
+            if (failure.isPresent()) {
+                applied.forEach(this::applyReturn);
+                await(failure.get());
+            }
+
+            confirm(applied);
+            return productsByCode;
+        } finally {
+            waiters.release();
+        }
+    }
+
+    /**
+     * Locks the product rows in the caller's transaction. A batch could not update them until it ends, so a
+     * {@link #reserve} in the same transaction decreases the stock on the locked rows instead.
+     */
+    @Override
+    @Transactional
+    public Map<Long, Integer> lockAvailableStock(Collection<? extends StockHolder> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+
+        if (!holdsRowLocks()) {
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            afterCompletion(committed -> TransactionSynchronizationManager.unbindResourceIfPossible(this));
+        }
+        return availableStock(productRepository.lockStockByIdIn(products.stream().map(StockHolder::getId).toList()));
+    }
+
+    /**
+     * Gives back the stock of decreases whose callers neither confirmed nor returned them within
+     * {@code return-timeout}, because they crashed or could not apply the return.
+     */
+    public int applyStaleReturns(int batchSize) {
+        var stale = coalescer.findReturnsCreatedBefore(LocalDateTime.now().minus(returnTimeout), batchSize);
+        var results = stale.stream().map(pending -> coalescer.applyReturn(pending.productId(), pending.id())).toList();
+        var returned = (int) results.stream()
+                .map(CoalescingStockServiceImpl::await)
+                .filter(Objects::nonNull)
+                .count();
+        stale.forEach(pending -> productCache.evictStock(pending.productId()));
+        return returned;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        coalescer.close();
+    }
+
+    private void restore(Long productId, int quantity) {
+        var returnId = coalescer.recordReturn(productId, quantity);
+        if (returnId == null) {
+            log.warn("Product with id {} not found for stock restore of {} units", productId, quantity);
+            return;
+        }
+
+        afterCompletion(committed -> {
+            if (committed) {
+                applyReturn(returnId, productId);
+            }
+        });
+    }
+
+    // Keeps the decreases once the caller commits; otherwise their stock goes back right away.
+    private void confirm(Map<UUID, Long> returns) {
+        afterCompletion(committed -> {
+            if (!committed) {
+                returns.forEach(this::applyReturn);
+            }
+        });
+        coalescer.confirm(returns.keySet());
+    }
+
+    private void applyReturn(UUID returnId, Long productId) {
+        coalescer.applyReturn(productId, returnId).whenComplete((result, e) -> {
+            productCache.evictStock(productId);
+            if (e != null) {
+                log.warn("Failed to return stock for product {}, leaving it to the stale return sweep", productId, e);
+            }
+        });
+    }
+
+    private boolean holdsRowLocks() {
+        return TransactionSynchronizationManager.hasResource(this);
+    }
+
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
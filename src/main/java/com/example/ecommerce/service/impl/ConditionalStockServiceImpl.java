@@ -0,0 +1,94 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.StockHolder;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.ProductCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@ConditionalOnProperty(name = "app.stock.mode", havingValue = "conditional")
+public class ConditionalStockServiceImpl implements StockService {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+
+    @Override
+    @Transactional
+    public void adjust(Long productId, int delta) {
+        if (productId == null || delta == 0) {
+            return;
+        }
+
+        productCache.evictStock(productId);
+        if (delta > 0) {
+            decrease(productId, delta);
+            return;
+        }
+
+        restore(productId, Math.abs(delta));
+    }
+
+    @Override
+    @Transactional
+    public Map<UUID, Product> reserve(Map<UUID, Integer> quantitiesByCode) {
+        if (quantitiesByCode.isEmpty()) {
+            return Map.of();
+        }
+
+        productCache.evictStock(quantitiesByCode.keySet());
+        var productsByCode = CrudEntitySupport.requireAllByCode(productRepository, "Product", quantitiesByCode.keySet());
+        var products = productsByCode.values();
+
+        products.stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .forEach(product -> decrease(product.getId(), quantitiesByCode.get(product.getCode())));
+        return productsByCode;
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Integer> lockAvailableStock(Collection<? extends StockHolder> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+
+        return availableStock(productRepository.lockStockByIdIn(products.stream().map(StockHolder::getId).toList()));
+    }
+
+    private void decrease(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+
+        if (productRepository.decreaseStockIfAvailable(productId, quantity) == 1) {
+            return;
+        }
+
+        var stockLevel = productRepository.findStockLevelById(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Product", productId));
+        throw new InsufficientStockException(stockLevel.getName(), stockLevel.getStockQuantity(), quantity);
+    }
+
+    private void restore(Long productId, int quantity) {
+        if (productRepository.increaseStock(productId, quantity) == 0) {
+            log.warn("Product with id {} not found for stock restore of {} units", productId, quantity);
+        }
+    }
+}
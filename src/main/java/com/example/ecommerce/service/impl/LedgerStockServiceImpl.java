@@ -0,0 +1,151 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.entity.InventoryMovement;
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.StockHolder;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.InventoryMovementRepository;
+import com.example.ecommerce.repository.InventoryMovementRepository.LedgerBalance;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.ProductCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static java.util.stream.Collectors.toMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@ConditionalOnProperty(name = "app.stock.mode", havingValue = LedgerStockServiceImpl.LEDGER_MODE)
+public class LedgerStockServiceImpl implements StockService {
+
+    public static final String LEDGER_MODE = "ledger";
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final InventoryMovementRepository movementRepository;
+
+    @Override
+    @Transactional
+    public void adjust(Long productId, int delta) {
+        if (productId == null || delta == 0) {
+            return;
+        }
+
+        productCache.evictStock(productId);
+        if (delta > 0) {
+            decrease(productId, delta);
+            return;
+        }
+
+        restore(productId, Math.abs(delta));
+    }
+
+    @Override
+    @Transactional
+    public Map<UUID, Product> reserve(Map<UUID, Integer> quantitiesByCode) {
+        if (quantitiesByCode.isEmpty()) {
+            return Map.of();
+        }
+
+        productCache.evictStock(quantitiesByCode.keySet());
+        var productsByCode = CrudEntitySupport.requireAllByCode(productRepository, "Product", quantitiesByCode.keySet());
+        var products = productsByCode.values();
+
+        products.stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .forEach(product -> decrease(product.getId(), quantitiesByCode.get(product.getCode())));
+        return productsByCode;
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Integer> lockAvailableStock(Collection<? extends StockHolder> products) {
+        products.stream()
+                .map(StockHolder::getId)
+                .sorted()
+                .forEach(movementRepository::lockProduct);
+        return availableStock(products);
+    }
+
+    @Override
+    public Map<Long, Integer> availableStock(Collection<? extends StockHolder> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+
+        return movementRepository.findBalances(products.stream().map(StockHolder::getId).toList())
+                .stream()
+                .collect(toMap(LedgerBalance::getProductId, LedgerBalance::getQuantity));
+    }
+
+    /**
+     * Orders do not bump the product version in this mode, so the version check cannot tell whether the client saw
+     * the current stock. Without {@code expectedStock}, the stock sent must therefore equal the current balance.
+     */
+    @Override
+    @Transactional
+    public void replaceStock(Product product, int quantity, Integer expectedStock) {
+        movementRepository.lockProduct(product.getId());
+        var current = balanceOf(product.getId()).map(LedgerBalance::getQuantity).orElse(quantity);
+        CrudEntitySupport.requireStockMatch(product, current, expectedStock == null ? quantity : expectedStock);
+        if (quantity != current) {
+            append(product.getId(), quantity - current);
+        }
+    }
+
+    @Transactional
+    public void compact(Long productId) {
+        movementRepository.lockProduct(productId);
+        movementRepository.compact(productId);
+    }
+
+    private void decrease(Long productId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+
+        movementRepository.lockProduct(productId);
+        var balance = balanceOf(productId).orElseThrow(() -> new EntityNotFoundException("Product", productId));
+        if (balance.getQuantity() < quantity) {
+            throw new InsufficientStockException(balance.getName(), balance.getQuantity(), quantity);
+        }
+
+        append(productId, -quantity);
+    }
+
+    private void restore(Long productId, int quantity) {
+        movementRepository.lockProduct(productId);
+        if (!productRepository.existsById(productId)) {
+            log.warn("Product with id {} not found for stock restore of {} units", productId, quantity);
+            return;
+        }
+
+        append(productId, quantity);
+    }
+
+    private Optional<LedgerBalance> balanceOf(Long productId) {
+        return movementRepository.findBalances(List.of(productId)).stream().findFirst();
+    }
+
+    private void append(Long productId, int delta) {
+        movementRepository.save(InventoryMovement.builder()
+                .productId(productId)
+                .delta(delta)
+                .build());
+    }
+}
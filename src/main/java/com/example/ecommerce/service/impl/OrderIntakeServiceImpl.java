@@ -0,0 +1,206 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.entity.OrderIntake;
+import com.example.ecommerce.domain.entity.OrderIntakeStatus;
+import com.example.ecommerce.domain.support.UuidV7Generator;
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchMode;
+import com.example.ecommerce.dto.order.OrderBatchStatus;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderIntakeResponseDTO;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.OrderIntakeRepository;
+import com.example.ecommerce.service.OrderIntakeService;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.support.OrderIntakeSignals;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Queues orders in {@code order_intake} and creates them in batches. A batch goes through the same path as
+ * {@code POST /api/orders/batch} in {@code BEST_EFFORT} mode: stock is checked once for every order and reserved in a
+ * single pass, and each order that cannot be fulfilled is marked failed with the reason. If the batch fails anyway,
+ * for example on a lock timeout, it rolls back and its orders are created one per transaction instead.
+ * <p>
+ * An order that also fails on its own for a reason other than the business rules stays queued with its attempt
+ * counted. It no longer joins batches and is retried in its own transaction once {@code app.order-intake.retry-delay}
+ * has passed, until it is failed after {@code app.order-intake.max-attempts} attempts.
+ */
+@Slf4j
+@Service
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+
+    private final OrderIntakeRepository orderIntakeRepository;
+    private final OrderService orderService;
+    private final OrderIntakeSignals signals;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxWait;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+
+    public OrderIntakeServiceImpl(
+            OrderIntakeRepository orderIntakeRepository,
+            OrderService orderService,
+            OrderIntakeSignals signals,
+            JsonMapper jsonMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.order-intake.max-wait:20s}") Duration maxWait,
+            @Value("${app.order-intake.retention:24h}") Duration retention,
+            @Value("${app.order-intake.max-attempts:5}") int maxAttempts,
+            @Value("${app.order-intake.retry-delay:10s}") Duration retryDelay
+    ) {
+        this.orderIntakeRepository = orderIntakeRepository;
+        this.orderService = orderService;
+        this.signals = signals;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxWait = maxWait;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+    }
+
+    @Override
+    @Transactional
+    public OrderIntakeResponseDTO submit(OrderCreateDTO dto) {
+        if (OrderServiceImpl.hasDuplicateProducts(dto)) {
+            throw new IllegalArgumentException(OrderServiceImpl.DUPLICATE_PRODUCTS_MESSAGE);
+        }
+
+        var intake = orderIntakeRepository.save(OrderIntake.builder()
+                .code(UuidV7Generator.next())
+                .payload(jsonMapper.writeValueAsString(dto))
+                .status(OrderIntakeStatus.QUEUED)
+                .createdAt(LocalDateTime.now())
+                .build());
+        signals.queued();
+        return toResponseDTO(intake);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderIntakeResponseDTO> findByCode(UUID code) {
+        return orderIntakeRepository.findByCode(code).map(OrderIntakeServiceImpl::toResponseDTO);
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitProcessed(UUID code, Duration wait) {
+        return signals.awaitProcessed(code, wait.compareTo(maxWait) > 0 ? maxWait : wait);
+    }
+
+    @Override
+    public int processQueued(int batchSize) {
+        orderIntakeRepository.findRetryIds(LocalDateTime.now().minus(retryDelay), batchSize).forEach(this::processOne);
+
+        var claimed = new ArrayList<Long>();
+        try {
+            return Objects.requireNonNull(transactionTemplate.execute(status -> processBatch(batchSize, claimed)));
+        } catch (RuntimeException e) {
+            if (claimed.isEmpty()) {
+                throw e;
+            }
+            log.info("Batch of {} queued orders failed, creating them one by one: {}", claimed.size(), e.getMessage());
+            return (int) claimed.stream().filter(this::processOne).count();
+        }
+    }
+
+    @Override
+    @Transactional
+    public int deleteProcessed(int batchSize) {
+        return orderIntakeRepository.deleteProcessed(LocalDateTime.now().minus(retention), batchSize);
+    }
+
+    private int processBatch(int batchSize, List<Long> claimed) {
+        var intakes = orderIntakeRepository.claimQueued(batchSize);
+        if (intakes.isEmpty()) {
+            return 0;
+        }
+        intakes.forEach(intake -> claimed.add(intake.getId()));
+
+        var codes = intakes.stream().map(OrderIntake::getCode).toList();
+        var orders = intakes.stream().map(this::readOrder).toList();
+        var response = orderService.createBatch(new OrderBatchCreateDTO(orders, OrderBatchMode.BEST_EFFORT), codes);
+        response.results().forEach(result -> {
+            var intake = intakes.get(result.index());
+            if (result.status() == OrderBatchStatus.CREATED) {
+                intake.complete();
+            } else {
+                intake.fail(result.error());
+            }
+        });
+        signals.processed(codes);
+        return intakes.size();
+    }
+
+    // Creates one claimed order in its own transaction. An order the business rules reject is marked failed in another;
+    // any other error counts an attempt and leaves it queued, so a later poll retries it until the attempts run out.
+    private boolean processOne(Long id) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> orderIntakeRepository.claimQueued(id)
+                    .map(intake -> {
+                        orderService.create(readOrder(intake), intake.getCode());
+                        intake.complete();
+                        signals.processed(List.of(intake.getCode()));
+                        return true;
+                    })
+                    .orElse(false)));
+        } catch (InsufficientStockException | EntityNotFoundException | IllegalArgumentException e) {
+            var reason = reasonOf(e);
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> orderIntakeRepository.claimQueued(id)
+                    .map(intake -> {
+                        intake.fail(reason);
+                        signals.processed(List.of(intake.getCode()));
+                        return true;
+                    })
+                    .orElse(false)));
+        } catch (RuntimeException e) {
+            log.warn("Queued order {} could not be created", id, e);
+            recordFailedAttempt(id);
+            return false;
+        }
+    }
+
+    private void recordFailedAttempt(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderIntakeRepository.claimQueued(id).ifPresent(intake -> {
+                if (intake.recordFailedAttempt(maxAttempts)) {
+                    log.warn("Queued order {} failed after {} attempts", id, intake.getAttempts());
+                    signals.processed(List.of(intake.getCode()));
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not record the failed attempt of queued order {}: {}", id, e.getMessage());
+        }
+    }
+
+    // The reason is shown to clients polling the intake, so it is kept to a single line of the exception message.
+    private static String reasonOf(RuntimeException e) {
+        return e.getMessage() == null ? "Order could not be created" : e.getMessage().replaceAll("\\s+", " ").strip();
+    }
+
+    private OrderCreateDTO readOrder(OrderIntake intake) {
+        return jsonMapper.readValue(intake.getPayload(), OrderCreateDTO.class);
+    }
+
+    private static OrderIntakeResponseDTO toResponseDTO(OrderIntake intake) {
+        return new OrderIntakeResponseDTO(intake.getCode(), intake.getStatus(), intake.getError(), intake.getCreatedAt(),
+                intake.getProcessedAt());
+    }
+}
@@ -4,6 +4,7 @@ import com.example.ecommerce.domain.entity.OrderItem;
 import com.example.ecommerce.dto.orderitem.OrderItemCreateDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemUpdateDTO;
+import com.example.ecommerce.exception.EntityNotFoundException;
 import com.example.ecommerce.mapper.OrderItemMapper;
 import com.example.ecommerce.repository.OrderItemRepository;
 import com.example.ecommerce.repository.OrderRepository;
@@ -12,6 +13,10 @@ import com.example.ecommerce.service.OrderItemService;
 import com.example.ecommerce.service.StockService;
 import com.example.ecommerce.service.crud.MappedCrudService;
 import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.OrderResponseCache;
+import com.example.ecommerce.service.support.PageCounter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,19 +32,23 @@ public class OrderItemServiceImpl extends MappedCrudService<OrderItem, OrderItem
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
+    private final OrderResponseCache orderResponseCache;
 
     public OrderItemServiceImpl(
             OrderRepository orderRepository,
             OrderItemMapper orderItemMapper,
             ProductRepository productRepository,
             OrderItemRepository orderItemRepository,
-            StockService stockService
+            PageCounter pageCounter,
+            StockService stockService,
+            OrderResponseCache orderResponseCache
     ) {
-        super(orderItemRepository, orderItemMapper, OrderItem.class, ENTITY_NAME);
+        super(orderItemRepository, orderItemMapper, pageCounter, OrderItem.class, ENTITY_NAME);
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.orderItemRepository = orderItemRepository;
         this.stockService = stockService;
+        this.orderResponseCache = orderResponseCache;
     }
 
     @Override
@@ -54,9 +63,21 @@ public class OrderItemServiceImpl extends MappedCrudService<OrderItem, OrderItem
 
         order.addItem(saved);
         orderRepository.save(order);
+        orderResponseCache.evict(order.getCode());
         return toResponse(saved);
     }
 
+    @Override
+    public Page<OrderItemResponseDTO> findAll(Pageable pageable) {
+        return pageCounter().findAll(OrderItem.class, pageable, orderItemRepository::findResponses, orderItemRepository::findResponseSlice, orderItemRepository::count);
+    }
+
+    @Override
+    public OrderItemResponseDTO findByCode(UUID code) {
+        return orderItemRepository.findResponseByCode(code)
+                .orElseThrow(() -> new EntityNotFoundException(ENTITY_NAME, code));
+    }
+
     @Override
     @Transactional
     public OrderItemResponseDTO update(UUID code, OrderItemUpdateDTO dto) {
@@ -72,6 +93,7 @@ public class OrderItemServiceImpl extends MappedCrudService<OrderItem, OrderItem
         var order = saved.getOrder();
         order.recalculateTotalAmount();
         orderRepository.save(order);
+        orderResponseCache.evict(order.getCode());
 
         return toResponse(saved);
     }
@@ -85,5 +107,6 @@ public class OrderItemServiceImpl extends MappedCrudService<OrderItem, OrderItem
     @Override
     protected void afterDelete(OrderItem entity) {
         orderRepository.save(entity.getOrder());
+        orderResponseCache.evict(entity.getOrder().getCode());
     }
 }
@@ -3,85 +3,215 @@ package com.example.ecommerce.service.impl;
 import com.example.ecommerce.domain.entity.Order;
 import com.example.ecommerce.domain.entity.OrderItem;
 import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.common.FieldSelection;
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchResponseDTO;
+import com.example.ecommerce.dto.order.OrderBatchResultDTO;
 import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderExportFilter;
 import com.example.ecommerce.dto.order.OrderLineDTO;
 import com.example.ecommerce.dto.order.OrderResponseDTO;
 import com.example.ecommerce.dto.order.OrderUpdateDTO;
 import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
 import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
 import com.example.ecommerce.mapper.OrderItemMapper;
 import com.example.ecommerce.mapper.OrderMapper;
 import com.example.ecommerce.repository.OrderItemRepository;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.projection.OrderDetailRow;
+import com.example.ecommerce.repository.projection.OrderItemRow;
+import com.example.ecommerce.repository.projection.OrderRow;
+import com.example.ecommerce.repository.projection.ProductRow;
 import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.StockReservationService;
 import com.example.ecommerce.service.StockService;
 import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.KeysetCursor;
+import com.example.ecommerce.service.support.OrderResponseCache;
+import com.example.ecommerce.service.support.PageCounter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static com.example.ecommerce.domain.entity.OrderStatus.CANCELLED;
 import static com.example.ecommerce.domain.entity.OrderStatus.COMPLETED;
 import static com.example.ecommerce.domain.entity.OrderStatus.PENDING;
 import static com.example.ecommerce.domain.entity.OrderStatus.PROCESSING;
-import java.math.BigDecimal;
+import static com.example.ecommerce.dto.order.OrderBatchMode.ALL_OR_NOTHING;
 
 import static java.time.LocalDateTime.now;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class OrderServiceImpl implements OrderService {
 
+    private static final String ITEMS = "items";
+    static final String DUPLICATE_PRODUCTS_MESSAGE = "Duplicate product codes in order items are not allowed";
+
     private final OrderMapper orderMapper;
+    private final PageCounter pageCounter;
     private final StockService stockService;
     private final OrderItemMapper orderItemMapper;
     private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
     private final OrderItemRepository orderItemRepository;
+    private final ProductRepository productRepository;
+    private final StockReservationService reservationService;
+    private final OrderResponseCache orderResponseCache;
 
     @Override
     @Transactional
     public OrderResponseDTO create(OrderCreateDTO dto) {
-        var productCodes = dto.items().stream().map(OrderLineDTO::productCode).toList();
-        if (productCodes.size() != new HashSet<>(productCodes).size()) {
-            throw new IllegalArgumentException("Duplicate product codes in order items are not allowed");
+        return create(dto, null);
+    }
+
+    @Override
+    @Transactional
+    public OrderResponseDTO create(OrderCreateDTO dto, UUID code) {
+        if (hasDuplicateProducts(dto)) {
+            throw new IllegalArgumentException(DUPLICATE_PRODUCTS_MESSAGE);
         }
 
-        var order = orderMapper.toEntity(dto);
-        order.setStatus(PENDING);
-        order.setOrderDate(now());
-        order.setTotalAmount(BigDecimal.ZERO);
+        var products = stockService.reserve(quantitiesByCode(List.of(dto)));
+        var saved = orderRepository.save(newOrder(dto, products, code));
+        reservationService.hold(saved);
+        return orderMapper.toResponseDTO(saved);
+    }
 
-        var items = dto.items()
+    /**
+     * Locks the stock of every referenced product in id order, as {@link StockService#reserve} does, and checks every
+     * order against it, allocating stock in request order. The stock of all accepted orders is then reserved in a
+     * single call and the orders are inserted in JDBC batches. Concurrent orders wait for the batch instead of taking
+     * the checked stock from under it.
+     */
+    @Override
+    @Transactional
+    public OrderBatchResponseDTO createBatch(OrderBatchCreateDTO dto) {
+        return createBatch(dto, null);
+    }
+
+    @Override
+    @Transactional
+    public OrderBatchResponseDTO createBatch(OrderBatchCreateDTO dto, List<UUID> codes) {
+        var requested = dto.orders();
+        var productCodes = requested.stream()
+                .flatMap(order -> order.items().stream())
+                .map(OrderLineDTO::productCode)
+                .collect(toSet());
+        var productsByCode = productRepository.findRowsByCodeIn(productCodes)
                 .stream()
-                .map(lineDto -> {
-                    var product = CrudEntitySupport.requireByCode(productRepository, "Product", lineDto.productCode());
+                .collect(toMap(ProductRow::code, product -> product));
+        var remainingStock = new HashMap<>(stockService.lockAvailableStock(productsByCode.values()));
 
-                    stockService.adjust(product.getId(), lineDto.quantity());
-                    return OrderItem.from(order, product, lineDto.quantity());
-                }).toList();
-        order.replaceItems(items);
+        var results = new OrderBatchResultDTO[requested.size()];
+        var accepted = new LinkedHashMap<Integer, OrderCreateDTO>();
+        for (var index = 0; index < requested.size(); index++) {
+            var rejection = allocate(requested.get(index), productsByCode, remainingStock);
+            if (rejection == null) {
+                accepted.put(index, requested.get(index));
+            } else {
+                results[index] = OrderBatchResultDTO.failed(index, rejection);
+            }
+        }
 
-        var saved = orderRepository.save(order);
-        return orderMapper.toResponseDTO(saved);
+        if (dto.mode() == ALL_OR_NOTHING && accepted.size() < requested.size()) {
+            accepted.keySet().forEach(index -> results[index] = OrderBatchResultDTO.notCreated(index));
+            return OrderBatchResponseDTO.of(dto.mode(), List.of(results));
+        }
+
+        var products = stockService.reserve(quantitiesByCode(accepted.values()));
+        var orders = new LinkedHashMap<Integer, Order>();
+        accepted.forEach((index, order) -> orders.put(index, newOrder(order, products, codes == null ? null : codes.get(index))));
+        orderRepository.saveAll(orders.values());
+        reservationService.holdAll(orders.values());
+
+        orders.forEach((index, order) -> results[index] = OrderBatchResultDTO.created(index, orderMapper.toResponseDTO(order)));
+        return OrderBatchResponseDTO.of(dto.mode(), List.of(results));
     }
 
     @Override
     public Page<OrderResponseDTO> findAll(Pageable pageable) {
-        return orderRepository.findAll(pageable).map(orderMapper::toResponseDTO);
+        var rows = pageCounter.findAll(Order.class, pageable, orderRepository::findRows, orderRepository::findRowSlice, orderRepository::count);
+        var items = itemsByOrderId(rows.getContent());
+        return rows.map(row -> orderMapper.toResponseDTO(row, items.getOrDefault(row.id(), List.of())));
+    }
+
+    @Override
+    public Page<OrderResponseDTO> findAll(Pageable pageable, FieldSelection fields) {
+        if (fields.includes(ITEMS)) {
+            return findAll(pageable);
+        }
+        var rows = pageCounter.findAll(Order.class, pageable, orderRepository::findRows, orderRepository::findRowSlice, orderRepository::count);
+        return rows.map(row -> orderMapper.toResponseDTO(row, null));
+    }
+
+    @Override
+    public CursorPage<OrderResponseDTO> scroll(String cursor, int limit) {
+        var rows = orderRepository.findKeysetPage(KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(limit));
+        return KeysetCursor.toPage(rows, limit, orders -> {
+            fetchItems(orders);
+            return orders.stream().map(orderMapper::toResponseDTO).toList();
+        });
+    }
+
+    @Override
+    public CursorPage<OrderResponseDTO> scroll(String cursor, int limit, FieldSelection fields) {
+        if (fields.includes(ITEMS)) {
+            return scroll(cursor, limit);
+        }
+        var rows = orderRepository.findKeysetPage(KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(limit));
+        return KeysetCursor.toPage(rows, limit, orders -> orders.stream().map(orderMapper::toSummaryDTO).toList());
     }
 
     @Override
     public OrderResponseDTO findByCode(UUID code) {
-        return orderMapper.toResponseDTO(findOrderWithItemsByCode(code));
+        var rows = orderRepository.findDetailRowsByCode(code);
+        if (rows.isEmpty()) {
+            throw new EntityNotFoundException("Order", code);
+        }
+
+        var items = rows.stream()
+                .map(OrderDetailRow::item)
+                .filter(item -> item.code() != null)
+                .toList();
+        return orderMapper.toResponseDTO(rows.getFirst().order(), items);
+    }
+
+    @Override
+    public OrderResponseDTO findByCode(UUID code, FieldSelection fields) {
+        if (fields.includes(ITEMS)) {
+            return findByCode(code);
+        }
+        return orderRepository.findRowByCode(code)
+                .map(row -> orderMapper.toResponseDTO(row, null))
+                .orElseThrow(() -> new EntityNotFoundException("Order", code));
+    }
+
+    @Override
+    public Long findVersionByCode(UUID code) {
+        return orderRepository.findVersionByCode(code)
+                .orElseThrow(() -> new EntityNotFoundException("Order", code));
     }
 
     @Override
@@ -94,12 +224,17 @@ public class OrderServiceImpl implements OrderService {
         validateStatusTransition(previousStatus, dto.status());
         orderMapper.updateEntityFromDTO(dto, order);
 
+        if (previousStatus == PENDING && dto.status() != PENDING) {
+            reservationService.release(order);
+        }
+
         if (dto.status() == CANCELLED && previousStatus != CANCELLED) {
             restoreStockForItems(order);
             order.setTotalAmount(BigDecimal.ZERO);
         }
 
         var saved = orderRepository.saveAndFlush(order);
+        orderResponseCache.evict(code);
         return orderMapper.toResponseDTO(saved);
     }
 
@@ -111,13 +246,92 @@ public class OrderServiceImpl implements OrderService {
         restoreStockForItems(order);
 
         orderRepository.delete(order);
+        orderResponseCache.evict(code);
     }
 
     @Override
     public Page<OrderItemResponseDTO> findOrderItemsByOrderCode(UUID orderCode, Pageable pageable) {
+        if (!orderRepository.existsByCode(orderCode)) {
+            throw new EntityNotFoundException("Order", orderCode);
+        }
+        return orderItemRepository.findResponsesByOrderCode(orderCode, pageable);
+    }
+
+    @Override
+    public CursorPage<OrderItemResponseDTO> scrollOrderItemsByOrderCode(UUID orderCode, String cursor, int limit) {
         CrudEntitySupport.requireByCode(orderRepository, "Order", orderCode);
-        return orderItemRepository.findByOrderCode(orderCode, pageable)
-                .map(orderItemMapper::toResponseDTO);
+        var rows = orderItemRepository.findKeysetPageByOrderCode(orderCode, KeysetCursor.decode(cursor), KeysetCursor.fetchLimit(limit));
+        return KeysetCursor.toPage(rows, limit, items -> items.stream().map(orderItemMapper::toResponseDTO).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = "${app.order-export.timeout-seconds:3600}")
+    public void export(OrderExportFilter filter, Consumer<List<OrderResponseDTO>> batchConsumer) {
+        orderRepository.exportRows(filter, rows -> {
+            var items = itemsByOrderId(rows);
+            batchConsumer.accept(rows.stream()
+                    .map(row -> orderMapper.toResponseDTO(row, items.getOrDefault(row.id(), List.of())))
+                    .toList());
+        });
+    }
+
+    private Order newOrder(OrderCreateDTO dto, Map<UUID, Product> products, UUID code) {
+        var order = orderMapper.toEntity(dto);
+        order.setCode(code);
+        order.setStatus(PENDING);
+        order.setOrderDate(now());
+        order.setTotalAmount(BigDecimal.ZERO);
+        order.replaceItems(dto.items()
+                .stream()
+                .map(lineDto -> OrderItem.from(order, products.get(lineDto.productCode()), lineDto.quantity()))
+                .toList());
+        return order;
+    }
+
+    private static Map<UUID, Integer> quantitiesByCode(Collection<OrderCreateDTO> orders) {
+        return orders.stream()
+                .flatMap(order -> order.items().stream())
+                .collect(toMap(OrderLineDTO::productCode, OrderLineDTO::quantity, Integer::sum, LinkedHashMap::new));
+    }
+
+    static boolean hasDuplicateProducts(OrderCreateDTO dto) {
+        return dto.items().stream().map(OrderLineDTO::productCode).collect(toSet()).size() != dto.items().size();
+    }
+
+    // Takes the order's quantities out of the remaining stock, or returns why the order cannot be created.
+    private static String allocate(OrderCreateDTO order, Map<UUID, ProductRow> productsByCode, Map<Long, Integer> remainingStock) {
+        if (hasDuplicateProducts(order)) {
+            return DUPLICATE_PRODUCTS_MESSAGE;
+        }
+        for (var line : order.items()) {
+            var product = productsByCode.get(line.productCode());
+            if (product == null || !remainingStock.containsKey(product.id())) {
+                return new EntityNotFoundException("Product", line.productCode()).getMessage();
+            }
+            var available = remainingStock.get(product.id());
+            if (available < line.quantity()) {
+                return new InsufficientStockException(product.name(), available, line.quantity()).getMessage();
+            }
+        }
+        order.items().forEach(line -> remainingStock.merge(productsByCode.get(line.productCode()).id(), -line.quantity(), Integer::sum));
+        return null;
+    }
+
+    private Map<Long, List<OrderItemResponseDTO>> itemsByOrderId(List<OrderRow> orders) {
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+
+        return orderItemRepository.findRowsByOrderIdIn(orders.stream().map(OrderRow::id).toList())
+                .stream()
+                .collect(groupingBy(OrderItemRow::orderId, mapping(orderItemMapper::toResponseDTO, toList())));
+    }
+
+    // Initializes items and their products on the already-managed orders in one query.
+    private void fetchItems(List<Order> orders) {
+        if (!orders.isEmpty()) {
+            orderRepository.findAllWithItemsByIdIn(orders.stream().map(Order::getId).toList());
+        }
     }
 
     private void validateStatusTransition(OrderStatus from, OrderStatus to) {
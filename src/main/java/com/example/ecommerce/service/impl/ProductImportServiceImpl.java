@@ -0,0 +1,351 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.support.UuidV7Generator;
+import com.example.ecommerce.dto.product.ProductCreateDTO;
+import com.example.ecommerce.dto.product.ProductImportFormat;
+import com.example.ecommerce.dto.product.ProductImportResponseDTO;
+import com.example.ecommerce.dto.product.ProductImportStatus;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.repository.ProductImportRepository.MergeResult;
+import com.example.ecommerce.repository.ProductImportRepository.StagedProduct;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.ProductImportService;
+import com.example.ecommerce.service.support.ProductCache;
+import com.example.ecommerce.service.support.ProductImportReader;
+import com.example.ecommerce.service.support.ProductSuggestIndex;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Streams an import into a staging table and merges it into the product table in one transaction, so a failed
+ * import leaves the catalog untouched. Rows are parsed, validated against the same constraints as a product created
+ * through the API and copied to the database as they are read. Imports run on the calling thread; their progress is
+ * kept in memory for {@code app.product-import.history} finished imports.
+ */
+@Slf4j
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final String ERROR_HEADER = "line,name,error";
+    private static final String SUPERSEDED_MESSAGE = "Superseded by a later row with the same name";
+    private static final int MAX_PRICE_INTEGER_DIGITS = 17;
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final Validator validator;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Path errorDirectory;
+    private final int history;
+    private final Map<UUID, Job> jobs = new LinkedHashMap<>();
+
+    public ProductImportServiceImpl(
+            ProductRepository productRepository,
+            ProductCache productCache,
+            ProductSuggestIndex productSuggestIndex,
+            Validator validator,
+            JsonMapper jsonMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.product-import.timeout-seconds:3600}") int timeoutSeconds,
+            @Value("${app.product-import.error-dir:${java.io.tmpdir}/product-imports}") String errorDirectory,
+            @Value("${app.product-import.history:20}") int history
+    ) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.productSuggestIndex = productSuggestIndex;
+        this.validator = validator;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setTimeout(timeoutSeconds);
+        this.errorDirectory = Path.of(errorDirectory);
+        this.history = history;
+    }
+
+    @Override
+    public ProductImportResponseDTO importProducts(ProductImportFormat format, InputStream input) {
+        var job = register(format);
+        log.info("Product import {} started ({})", job.id, format);
+        try {
+            Files.createDirectories(errorDirectory);
+            try (var errors = Files.newBufferedWriter(errorFile(job))) {
+                errors.write(ERROR_HEADER);
+                errors.newLine();
+                var reader = ProductImportReader.open(format, input, jsonMapper);
+                var merged = transactionTemplate.execute(status -> merge(job, reader, errors));
+                job.complete(Objects.requireNonNull(merged));
+            }
+        } catch (IOException e) {
+            job.fail(e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            job.fail(e);
+            throw e;
+        }
+
+        if (job.inserted + job.updated > 0) {
+            productSuggestIndex.rebuild();
+        }
+        var response = job.toResponse();
+        log.info("Product import {} completed: {} rows read, {} rejected, {} inserted, {} updated, {} rows/s",
+                job.id, response.rowsRead(), response.rowsRejected(), response.inserted(), response.updated(), response.rowsPerSecond());
+        return response;
+    }
+
+    @Override
+    public List<ProductImportResponseDTO> findAll() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values()).reversed().stream().map(Job::toResponse).toList();
+        }
+    }
+
+    @Override
+    public ProductImportResponseDTO findById(UUID id) {
+        return job(id).toResponse();
+    }
+
+    @Override
+    public Path errorFile(UUID id) {
+        return errorFile(job(id));
+    }
+
+    private MergeResult merge(Job job, ProductImportReader reader, BufferedWriter errors) {
+        productRepository.createImportStaging();
+        var staged = productRepository.stage(new StagedRows(job, reader, errors));
+        job.status = ProductImportStatus.MERGING;
+
+        var superseded = new AtomicLong();
+        productRepository.removeSuperseded((name, line) -> {
+            superseded.incrementAndGet();
+            reject(job, errors, line, name, SUPERSEDED_MESSAGE);
+        });
+        var merged = productRepository.mergeStaged(LocalDateTime.now());
+        job.unchanged = staged - superseded.get() - merged.inserted() - merged.updated();
+        if (merged.updated() > 0) {
+            productCache.evictAll();
+        }
+        return merged;
+    }
+
+    private String validate(ProductCreateDTO product) {
+        var violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ProductImportServiceImpl::describe)
+                    .sorted()
+                    .collect(joining("; "));
+        }
+        if (product.price().precision() - product.price().scale() > MAX_PRICE_INTEGER_DIGITS) {
+            return "price: must have at most %d integer digits".formatted(MAX_PRICE_INTEGER_DIGITS);
+        }
+        if (containsNul(product.name()) || containsNul(product.description())) {
+            return "Text must not contain NUL characters";
+        }
+        return null;
+    }
+
+    private void reject(Job job, BufferedWriter errors, long line, String name, String reason) {
+        job.rejected.incrementAndGet();
+        try {
+            errors.write(Long.toString(line));
+            errors.write(',');
+            errors.write(csv(name));
+            errors.write(',');
+            errors.write(csv(reason));
+            errors.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Job register(ProductImportFormat format) {
+        var job = new Job(format);
+        synchronized (jobs) {
+            var finished = jobs.values().stream().filter(Job::isFinished).count();
+            var evicted = jobs.values().iterator();
+            while (finished >= history && evicted.hasNext()) {
+                var oldest = evicted.next();
+                if (oldest.isFinished()) {
+                    evicted.remove();
+                    deleteErrorFile(oldest);
+                    finished--;
+                }
+            }
+            jobs.put(job.id, job);
+        }
+        return job;
+    }
+
+    private Job job(UUID id) {
+        synchronized (jobs) {
+            var job = jobs.get(id);
+            if (job == null) {
+                throw new EntityNotFoundException("Product import", id);
+            }
+            return job;
+        }
+    }
+
+    private Path errorFile(Job job) {
+        return errorDirectory.resolve(job.id + "-errors.csv");
+    }
+
+    private void deleteErrorFile(Job job) {
+        try {
+            Files.deleteIfExists(errorFile(job));
+        } catch (IOException e) {
+            log.warn("Could not delete error file of product import {}: {}", job.id, e.getMessage());
+        }
+    }
+
+    private static String describe(ConstraintViolation<ProductCreateDTO> violation) {
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private static boolean containsNul(String value) {
+        return value != null && value.indexOf('\0') >= 0;
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Pulls rows from the reader for the staging copy, writing the invalid ones to the error file on the way.
+     */
+    private final class StagedRows implements Iterator<StagedProduct> {
+
+        private final Job job;
+        private final ProductImportReader reader;
+        private final BufferedWriter errors;
+        private StagedProduct next;
+
+        private StagedRows(Job job, ProductImportReader reader, BufferedWriter errors) {
+            this.job = job;
+            this.reader = reader;
+            this.errors = errors;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (next == null) {
+                    var row = reader.next();
+                    if (row == null) {
+                        return false;
+                    }
+                    job.read.incrementAndGet();
+                    var product = row.product() == null ? null : withDefaults(row.product());
+                    var error = product == null ? row.error() : validate(product);
+                    if (error != null) {
+                        reject(job, errors, row.line(), row.name(), error);
+                    } else {
+                        next = new StagedProduct(row.line(), UuidV7Generator.next(), product.name(), product.description(),
+                                product.price(), product.stockQuantity());
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public StagedProduct next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var product = next;
+            next = null;
+            return product;
+        }
+
+        // Names are trimmed as on create; a missing stock quantity only matters for new products and defaults to zero.
+        private static ProductCreateDTO withDefaults(ProductCreateDTO product) {
+            return new ProductCreateDTO(
+                    product.name() == null ? null : product.name().trim(),
+                    product.description(),
+                    product.price(),
+                    Objects.requireNonNullElse(product.stockQuantity(), 0));
+        }
+    }
+
+    private static final class Job {
+
+        private final UUID id = UuidV7Generator.next();
+        private final ProductImportFormat format;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startedNanos = System.nanoTime();
+        private final AtomicLong read = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile ProductImportStatus status = ProductImportStatus.STAGING;
+        private volatile long inserted;
+        private volatile long updated;
+        private volatile long unchanged;
+        private volatile long finishedNanos;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(ProductImportFormat format) {
+            this.format = format;
+        }
+
+        private void complete(MergeResult merged) {
+            inserted = merged.inserted();
+            updated = merged.updated();
+            finish(ProductImportStatus.COMPLETED);
+        }
+
+        private void fail(Exception cause) {
+            error = Objects.requireNonNullElse(cause.getMessage(), cause.getClass().getSimpleName());
+            unchanged = 0;
+            finish(ProductImportStatus.FAILED);
+        }
+
+        private void finish(ProductImportStatus outcome) {
+            finishedNanos = System.nanoTime();
+            finishedAt = LocalDateTime.now();
+            status = outcome;
+        }
+
+        private boolean isFinished() {
+            return finishedAt != null;
+        }
+
+        private ProductImportResponseDTO toResponse() {
+            var end = isFinished() ? finishedNanos : System.nanoTime();
+            var rowsRead = read.get();
+            var rowsPerSecond = rowsRead * 1_000_000_000L / Math.max(end - startedNanos, 1);
+            return new ProductImportResponseDTO(id, format, status, rowsRead, rejected.get(), inserted, updated, unchanged,
+                    rowsPerSecond, startedAt, finishedAt, error);
+        }
+    }
+}
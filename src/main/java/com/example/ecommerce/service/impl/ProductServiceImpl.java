@@ -1,18 +1,37 @@
 package com.example.ecommerce.service.impl;
 
 import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.common.CursorPage;
 import com.example.ecommerce.dto.product.ProductCreateDTO;
 import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductSearchCriteria;
+import com.example.ecommerce.dto.product.ProductSuggestionDTO;
 import com.example.ecommerce.dto.product.ProductUpdateDTO;
 import com.example.ecommerce.exception.DuplicateResourceException;
+import com.example.ecommerce.exception.EntityNotFoundException;
 import com.example.ecommerce.mapper.ProductMapper;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.projection.ProductSearchRow;
 import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.StockService;
 import com.example.ecommerce.service.crud.MappedCrudService;
 import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.KeysetCursor;
+import com.example.ecommerce.service.support.PageCounter;
+import com.example.ecommerce.service.support.ProductCache;
+import com.example.ecommerce.service.support.ProductSearchCursor;
+import com.example.ecommerce.service.support.ProductSuggestIndex;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -20,12 +39,24 @@ import java.util.UUID;
 public class ProductServiceImpl extends MappedCrudService<Product, ProductCreateDTO, ProductUpdateDTO, ProductResponseDTO> implements ProductService {
 
     private static final String ENTITY_NAME = "Product";
+    private static final int IN_STOCK_SEARCH_ROUNDS = 5;
 
+    private final StockService stockService;
+    private final ProductMapper productMapper;
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final TransactionTemplate readOnlyTransaction;
 
-    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
-        super(productRepository, productMapper, Product.class, "Product");
+    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper, PageCounter pageCounter, StockService stockService, ProductCache productCache, ProductSuggestIndex productSuggestIndex, PlatformTransactionManager transactionManager) {
+        super(productRepository, productMapper, pageCounter, Product.class, "Product");
         this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.stockService = stockService;
+        this.productCache = productCache;
+        this.productSuggestIndex = productSuggestIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     @Override
@@ -37,8 +68,72 @@ public class ProductServiceImpl extends MappedCrudService<Product, ProductCreate
         var entity = mapper().toEntity(createDto);
         entity.setName(normalizedName);
         var saved = productRepository.save(entity);
+        productSuggestIndex.put(saved.getId(), saved.getCode(), saved.getName());
 
-        return mapper().toResponseDTO(saved);
+        return toResponse(saved);
+    }
+
+    @Override
+    public Page<ProductResponseDTO> findAll(Pageable pageable) {
+        var rows = pageCounter().findAll(Product.class, pageable, productRepository::findRows, productRepository::findRowSlice, productRepository::count);
+        var stock = stockService.availableStock(rows.getContent());
+        return rows.map(row -> productMapper.toResponseDTO(row, stock.get(row.id())));
+    }
+
+    /**
+     * Runs outside a transaction, so a cache hit takes no connection. Only a miss opens a read-only transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductResponseDTO findByCode(UUID code) {
+        return productCache.get(code, key -> readOnlyTransaction.execute(status -> load(key)));
+    }
+
+    /**
+     * Stock is resolved through the stock engine, so an in-stock search filters each batch after the query and reads
+     * further batches until the page is full. The number of batches is capped; when the cap is reached the page may
+     * hold fewer than {@code limit} products and the cursor continues after the last product examined.
+     */
+    @Override
+    public CursorPage<ProductResponseDTO> search(ProductSearchCriteria criteria, String cursor, int limit) {
+        KeysetCursor.limit(limit);
+        var sort = criteria.sort();
+        var after = ProductSearchCursor.decode(cursor, sort);
+        var batchSize = criteria.inStock() ? 2 * limit + 1 : limit + 1;
+        var content = new ArrayList<ProductResponseDTO>(limit);
+        ProductSearchRow last = null;
+
+        for (var round = 0; round < IN_STOCK_SEARCH_ROUNDS; round++) {
+            var rows = productRepository.search(criteria, after, batchSize);
+            var stock = rows.isEmpty()
+                    ? Map.<Long, Integer>of()
+                    : stockService.availableStock(rows.stream().map(ProductSearchRow::product).toList());
+            for (var row : rows) {
+                if (content.size() == limit) {
+                    return new CursorPage<>(content, limit, ProductSearchCursor.encode(sort, last));
+                }
+                last = row;
+                var quantity = stock.get(row.product().id());
+                if (!criteria.inStock() || quantity > 0) {
+                    content.add(productMapper.toResponseDTO(row.product(), quantity));
+                }
+            }
+            if (rows.size() < batchSize) {
+                return new CursorPage<>(content, limit, null);
+            }
+            if (content.size() == limit) {
+                break;
+            }
+            after = ProductSearchCursor.position(sort, last);
+        }
+
+        return new CursorPage<>(content, limit, ProductSearchCursor.encode(sort, last));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        return productSuggestIndex.suggest(prefix, limit);
     }
 
     @Override
@@ -52,9 +147,39 @@ public class ProductServiceImpl extends MappedCrudService<Product, ProductCreate
 
         mapper().updateEntityFromDTO(updateDto, product);
         product.setName(normalizedName);
+        stockService.replaceStock(product, updateDto.stockQuantity(), updateDto.expectedStockQuantity());
         var saved = productRepository.saveAndFlush(product);
+        productCache.evict(code, saved.getVersion());
+        productSuggestIndex.put(saved.getId(), saved.getCode(), saved.getName());
+
+        return toResponse(saved);
+    }
+
+    @Override
+    protected void afterDelete(Product product) {
+        productCache.evictDeleted(product.getCode());
+        productSuggestIndex.remove(product.getId());
+    }
+
+    @Override
+    protected List<ProductResponseDTO> toResponses(List<Product> products) {
+        var stock = stockService.availableStock(products);
+        return products.stream()
+                .map(product -> productMapper.toResponseDTO(product, stock.get(product.getId())))
+                .toList();
+    }
+
+    @Override
+    protected ProductResponseDTO toResponse(Product product) {
+        var stock = stockService.availableStock(List.of(product));
+        return productMapper.toResponseDTO(product, stock.get(product.getId()));
+    }
 
-        return mapper().toResponseDTO(saved);
+    private ProductCache.Entry load(UUID code) {
+        var row = productRepository.findRowByCode(code)
+                .orElseThrow(() -> new EntityNotFoundException(ENTITY_NAME, code));
+        var stock = stockService.availableStock(List.of(row));
+        return new ProductCache.Entry(row.id(), productMapper.toResponseDTO(row, stock.get(row.id())));
     }
 
     private void assertProductNameIsUniqueForCreate(String normalizedName) {
@@ -0,0 +1,192 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.StockHolder;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.ProductRepository.LockedStock;
+import com.example.ecommerce.repository.ProductStockShardRepository;
+import com.example.ecommerce.repository.ProductStockShardRepository.ShardLevel;
+import com.example.ecommerce.repository.ProductStockShardRepository.ShardTotal;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.ProductCache;
+import com.example.ecommerce.service.StockShardService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.stream.Collectors.toMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@ConditionalOnProperty(name = "app.stock.mode", havingValue = StockShardServiceImpl.SHARDED_MODE)
+public class ShardedStockServiceImpl implements StockService {
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final StockShardService stockShardService;
+    private final ProductStockShardRepository shardRepository;
+
+    @Override
+    @Transactional
+    public void adjust(Long productId, int delta) {
+        if (productId == null || delta == 0) {
+            return;
+        }
+
+        productCache.evictStock(productId);
+        var shardCount = productRepository.findStockShardCountById(productId);
+        if (delta > 0) {
+            decrease(productId, shardCount.orElseThrow(() -> new EntityNotFoundException("Product", productId)), delta);
+            return;
+        }
+
+        shardCount.ifPresentOrElse(
+                count -> restore(productId, count, Math.abs(delta)),
+                () -> log.warn("Product with id {} not found for stock restore of {} units", productId, Math.abs(delta))
+        );
+    }
+
+    @Override
+    @Transactional
+    public Map<UUID, Product> reserve(Map<UUID, Integer> quantitiesByCode) {
+        if (quantitiesByCode.isEmpty()) {
+            return Map.of();
+        }
+
+        productCache.evictStock(quantitiesByCode.keySet());
+        var productsByCode = CrudEntitySupport.requireAllByCode(productRepository, "Product", quantitiesByCode.keySet());
+        var products = productsByCode.values();
+
+        products.stream()
+                .sorted(Comparator.comparing(Product::getId))
+                .forEach(product -> decrease(product.getId(), product.getStockShardCount(), quantitiesByCode.get(product.getCode())));
+        return productsByCode;
+    }
+
+    /**
+     * Locks each product row, then its shards, product by product in id order, the same order in which
+     * reconfiguring the shards takes them.
+     */
+    @Override
+    @Transactional
+    public Map<Long, Integer> lockAvailableStock(Collection<? extends StockHolder> products) {
+        var locked = new ArrayList<LockedStock>();
+        products.stream()
+                .map(StockHolder::getId)
+                .sorted()
+                .forEach(productId -> productRepository.lockStockByIdIn(List.of(productId)).forEach(row -> {
+                    if (row.isStockSharded()) {
+                        shardRepository.lockShardLevels(productId);
+                    }
+                    locked.add(row);
+                }));
+        return availableStock(locked);
+    }
+
+    @Override
+    public Map<Long, Integer> availableStock(Collection<? extends StockHolder> products) {
+        var shardedIds = products.stream()
+                .filter(StockHolder::isStockSharded)
+                .map(StockHolder::getId)
+                .toList();
+        var shardStock = shardedIds.isEmpty()
+                ? Map.<Long, Integer>of()
+                : shardRepository.sumQuantityByProductIdIn(shardedIds)
+                        .stream()
+                        .collect(toMap(ShardTotal::getProductId, total -> total.getQuantity().intValue()));
+
+        return products.stream()
+                .collect(toMap(StockHolder::getId, product -> product.getStockQuantity() + shardStock.getOrDefault(product.getId(), 0)));
+    }
+
+    /**
+     * Shard changes do not bump the product version, so for a sharded product the total is compared under the shard
+     * locks. Without {@code expectedStock}, the stock sent must equal the current total.
+     */
+    @Override
+    @Transactional
+    public void replaceStock(Product product, int quantity, Integer expectedStock) {
+        if (!product.isStockSharded()) {
+            StockService.super.replaceStock(product, quantity, expectedStock);
+            return;
+        }
+
+        var current = product.getStockQuantity() + shardRepository.lockShardLevels(product.getId())
+                .stream()
+                .mapToInt(ShardLevel::getQuantity)
+                .sum();
+        CrudEntitySupport.requireStockMatch(product, current, expectedStock == null ? quantity : expectedStock);
+        stockShardService.redistribute(product, quantity, product.getStockShardCount());
+    }
+
+    private void decrease(Long productId, int shardCount, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+
+        if (shardCount <= 1) {
+            if (productRepository.decreaseStockIfAvailable(productId, quantity) == 0) {
+                throw insufficientStock(productId, 0, quantity);
+            }
+            return;
+        }
+
+        if (shardRepository.decreaseUnlockedShardIfAvailable(productId, quantity) == 1) {
+            return;
+        }
+
+        drainShards(productId, quantity);
+    }
+
+    private void drainShards(Long productId, int quantity) {
+        var shardLevels = shardRepository.lockShardLevels(productId);
+        var available = shardLevels.stream().mapToInt(ShardLevel::getQuantity).sum();
+        if (available < quantity) {
+            throw insufficientStock(productId, available, quantity);
+        }
+
+        var remaining = quantity;
+        for (var shardLevel : shardLevels) {
+            var taken = Math.min(shardLevel.getQuantity(), remaining);
+            if (taken > 0) {
+                shardRepository.addToShard(productId, shardLevel.getShardNo(), -taken);
+                remaining -= taken;
+            }
+            if (remaining == 0) {
+                return;
+            }
+        }
+    }
+
+    private void restore(Long productId, int shardCount, int quantity) {
+        if (shardCount <= 1) {
+            productRepository.increaseStock(productId, quantity);
+            return;
+        }
+
+        if (shardRepository.increaseUnlockedShard(productId, quantity) == 0) {
+            shardRepository.addToShard(productId, ThreadLocalRandom.current().nextInt(shardCount), quantity);
+        }
+    }
+
+    private InsufficientStockException insufficientStock(Long productId, int shardStock, int quantity) {
+        var stockLevel = productRepository.findStockLevelById(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Product", productId));
+        return new InsufficientStockException(stockLevel.getName(), stockLevel.getStockQuantity() + shardStock, quantity);
+    }
+}
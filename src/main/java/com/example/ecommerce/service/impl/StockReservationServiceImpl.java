@@ -0,0 +1,77 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.entity.Order;
+import com.example.ecommerce.domain.entity.StockReservation;
+import com.example.ecommerce.repository.StockReservationRepository;
+import com.example.ecommerce.service.StockReservationService;
+import com.example.ecommerce.service.StockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import static java.time.LocalDateTime.now;
+
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockService stockService;
+    private final StockReservationRepository reservationRepository;
+    private final Duration ttl;
+
+    public StockReservationServiceImpl(
+            StockService stockService,
+            StockReservationRepository reservationRepository,
+            @Value("${app.stock.reservation.ttl:15m}") Duration ttl
+    ) {
+        this.stockService = stockService;
+        this.reservationRepository = reservationRepository;
+        this.ttl = ttl;
+    }
+
+    @Override
+    @Transactional
+    public void hold(Order order) {
+        reservationRepository.save(StockReservation.builder()
+                .orderId(order.getId())
+                .expiresAt(now().plus(ttl))
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void holdAll(Collection<Order> orders) {
+        var expiresAt = now().plus(ttl);
+        reservationRepository.saveAll(orders.stream()
+                .map(order -> StockReservation.builder()
+                        .orderId(order.getId())
+                        .expiresAt(expiresAt)
+                        .build())
+                .toList());
+    }
+
+    @Override
+    @Transactional
+    public void release(Order order) {
+        reservationRepository.deleteByOrderId(order.getId());
+    }
+
+    @Override
+    @Transactional
+    public int releaseExpired(int batchSize) {
+        var orderIds = reservationRepository.releaseExpired(batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        reservationRepository.sumQuantitiesByOrderIds(orderIds)
+                .forEach(reserved -> stockService.adjust(reserved.getProductId(), -reserved.getQuantity()));
+        log.info("Released stock of {} expired pending orders", orderIds.size());
+        return orderIds.size();
+    }
+}
@@ -1,20 +1,31 @@
 package com.example.ecommerce.service.impl;
 
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.StockHolder;
 import com.example.ecommerce.exception.EntityNotFoundException;
 import com.example.ecommerce.repository.ProductRepository;
 import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.CrudEntitySupport;
+import com.example.ecommerce.service.support.ProductCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.stock.mode", havingValue = "pessimistic", matchIfMissing = true)
 @Transactional(readOnly = true)
 public class StockServiceImpl implements StockService {
 
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
 
     @Override
     @Transactional
@@ -23,6 +34,7 @@ public class StockServiceImpl implements StockService {
             return;
         }
 
+        productCache.evictStock(productId);
         if (delta > 0) {
             decrease(productId, delta);
             return;
@@ -31,6 +43,32 @@ public class StockServiceImpl implements StockService {
         restore(productId, Math.abs(delta));
     }
 
+    @Override
+    @Transactional
+    public Map<UUID, Product> reserve(Map<UUID, Integer> quantitiesByCode) {
+        if (quantitiesByCode.isEmpty()) {
+            return Map.of();
+        }
+
+        productCache.evictStock(quantitiesByCode.keySet());
+        var products = productRepository.findAllByCodeInForStockUpdate(quantitiesByCode.keySet());
+        var productsByCode = CrudEntitySupport.requireAllFound("Product", quantitiesByCode.keySet(), products);
+
+        products.forEach(product -> product.decreaseStock(quantitiesByCode.get(product.getCode())));
+        productRepository.saveAll(products);
+        return productsByCode;
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, Integer> lockAvailableStock(Collection<? extends StockHolder> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+
+        return availableStock(productRepository.lockStockByIdIn(products.stream().map(StockHolder::getId).toList()));
+    }
+
     private void decrease(Long productId, int quantity) {
         var product = productRepository.findByIdForStockUpdate(productId)
                 .orElseThrow(() -> new EntityNotFoundException("Product", productId));
@@ -0,0 +1,131 @@
+package com.example.ecommerce.service.impl;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.domain.entity.ProductStockShard;
+import com.example.ecommerce.dto.product.StockShardsResponseDTO;
+import com.example.ecommerce.dto.product.StockShardsUpdateDTO;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.ProductStockShardRepository;
+import com.example.ecommerce.repository.ProductStockShardRepository.ShardLevel;
+import com.example.ecommerce.service.StockShardService;
+import com.example.ecommerce.service.support.CrudEntitySupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toSet;
+
+@Service
+@Transactional(readOnly = true)
+public class StockShardServiceImpl implements StockShardService {
+
+    static final String SHARDED_MODE = "sharded";
+
+    private final String stockMode;
+    private final ProductRepository productRepository;
+    private final ProductStockShardRepository shardRepository;
+
+    public StockShardServiceImpl(
+            @Value("${app.stock.mode:pessimistic}") String stockMode,
+            ProductRepository productRepository,
+            ProductStockShardRepository shardRepository
+    ) {
+        this.stockMode = stockMode;
+        this.productRepository = productRepository;
+        this.shardRepository = shardRepository;
+    }
+
+    @Override
+    public StockShardsResponseDTO findByProductCode(UUID productCode) {
+        var product = CrudEntitySupport.requireByCode(productRepository, "Product", productCode);
+        var quantities = shardRepository.findAllByProductIdOrderByShardNo(product.getId())
+                .stream()
+                .map(ProductStockShard::getQuantity)
+                .toList();
+        return toResponse(product, quantities);
+    }
+
+    @Override
+    @Transactional
+    public StockShardsResponseDTO configure(UUID productCode, StockShardsUpdateDTO dto) {
+        return redistributeLocked(productCode, dto.shardCount());
+    }
+
+    @Override
+    @Transactional
+    public StockShardsResponseDTO rebalance(UUID productCode) {
+        return redistributeLocked(productCode, null);
+    }
+
+    @Override
+    @Transactional
+    public void redistribute(Product product, int totalQuantity, int shardCount) {
+        var existingShards = shardRepository.lockShardLevels(product.getId())
+                .stream()
+                .map(ShardLevel::getShardNo)
+                .collect(toSet());
+        shardRepository.deleteShardsFrom(product.getId(), shardCount == 1 ? 0 : shardCount);
+
+        product.setStockShardCount(shardCount);
+        if (shardCount == 1) {
+            product.setStockQuantity(totalQuantity);
+            return;
+        }
+
+        product.setStockQuantity(0);
+        var newShards = new ArrayList<ProductStockShard>();
+        for (int shardNo = 0; shardNo < shardCount; shardNo++) {
+            var quantity = shareOf(totalQuantity, shardCount, shardNo);
+            if (existingShards.contains(shardNo)) {
+                shardRepository.setShardQuantity(product.getId(), shardNo, quantity);
+                continue;
+            }
+
+            newShards.add(ProductStockShard.builder()
+                    .productId(product.getId())
+                    .shardNo(shardNo)
+                    .quantity(quantity)
+                    .build());
+        }
+        shardRepository.saveAll(newShards);
+    }
+
+    private StockShardsResponseDTO redistributeLocked(UUID productCode, Integer shardCount) {
+        if (!SHARDED_MODE.equals(stockMode)) {
+            throw new IllegalStateException("Stock sharding requires app.stock.mode=" + SHARDED_MODE);
+        }
+
+        var product = productRepository.findByCodeForStockUpdate(productCode)
+                .orElseThrow(() -> new EntityNotFoundException("Product", productCode));
+        var shardStock = shardRepository.lockShardLevels(product.getId())
+                .stream()
+                .mapToInt(ShardLevel::getQuantity)
+                .sum();
+        var totalQuantity = product.getStockQuantity() + shardStock;
+        var targetShardCount = shardCount != null ? shardCount : product.getStockShardCount();
+
+        redistribute(product, totalQuantity, targetShardCount);
+        productRepository.saveAndFlush(product);
+
+        var quantities = IntStream.range(0, targetShardCount > 1 ? targetShardCount : 0)
+                .mapToObj(shardNo -> shareOf(totalQuantity, targetShardCount, shardNo))
+                .toList();
+        return toResponse(product, quantities);
+    }
+
+    private StockShardsResponseDTO toResponse(Product product, List<Integer> shardQuantities) {
+        var quantities = shardQuantities.isEmpty() ? List.of(product.getStockQuantity()) : shardQuantities;
+        var total = product.getStockQuantity() + shardQuantities.stream().mapToInt(Integer::intValue).sum();
+        return new StockShardsResponseDTO(product.getCode(), product.getStockShardCount(), total, quantities);
+    }
+
+    private static int shareOf(int totalQuantity, int shardCount, int shardNo) {
+        return totalQuantity / shardCount + (shardNo < totalQuantity % shardCount ? 1 : 0);
+    }
+}
@@ -1,10 +1,14 @@
 package com.example.ecommerce.service.support;
 
 import com.example.ecommerce.domain.entity.BaseEntity;
+import com.example.ecommerce.domain.entity.Product;
 import com.example.ecommerce.exception.EntityNotFoundException;
 import com.example.ecommerce.repository.CodeRepository;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -18,9 +22,33 @@ public final class CrudEntitySupport {
                 .orElseThrow(() -> new EntityNotFoundException(entityName, code));
     }
 
+    public static <E extends BaseEntity> Map<UUID, E> requireAllByCode(CodeRepository<E> repository, String entityName, Collection<UUID> codes) {
+        return requireAllFound(entityName, codes, repository.findAllByCodeIn(codes));
+    }
+
+    public static <E extends BaseEntity> Map<UUID, E> requireAllFound(String entityName, Collection<UUID> codes, Collection<E> entities) {
+        var entitiesByCode = new LinkedHashMap<UUID, E>();
+        entities.forEach(entity -> entitiesByCode.put(entity.getCode(), entity));
+
+        var missingCodes = codes.stream().filter(code -> !entitiesByCode.containsKey(code)).toList();
+        if (missingCodes.size() == 1) {
+            throw new EntityNotFoundException(entityName, missingCodes.getFirst());
+        }
+        if (!missingCodes.isEmpty()) {
+            throw new EntityNotFoundException(entityName, missingCodes);
+        }
+        return entitiesByCode;
+    }
+
     public static void requireVersionMatch(BaseEntity entity, Long expectedVersion, Class<?> entityClass) {
         if (!Objects.equals(entity.getVersion(), expectedVersion)) {
             throw new ObjectOptimisticLockingFailureException(entityClass, entity.getCode());
         }
     }
+
+    public static void requireStockMatch(Product product, int currentStock, int expectedStock) {
+        if (currentStock != expectedStock) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, product.getCode());
+        }
+    }
 }
@@ -0,0 +1,195 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.domain.entity.IdempotencyRecord;
+import com.example.ecommerce.exception.RequestInProgressException;
+import com.example.ecommerce.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a create request at most once per idempotency key and replays its response to every retry until the key
+ * expires.
+ * <p>
+ * The key is claimed with a row in {@code idempotency_record} inside the transaction that creates the resource, and
+ * the response is stored in the same transaction, so the resource and its record commit or roll back together. A
+ * duplicate on another instance blocks on the claim until the first transaction ends. Within one instance a
+ * duplicate never reaches the database: it waits for the in-flight request's result, and completed responses are
+ * kept in a bounded in-memory tier until they expire. A request that fails stores nothing, so its retry runs again.
+ * Keys are scoped to the request path, and reusing a key with a different request body is rejected.
+ */
+@Component
+public class IdempotencyStore implements MeterBinder {
+
+    public static final String CACHE_NAME = "idempotency";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final IdempotencyRecordRepository repository;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<Key, Stored> completed;
+    private final ConcurrentMap<Key, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(
+            IdempotencyRecordRepository repository,
+            JsonMapper jsonMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.idempotency.wait-timeout:30s}") Duration waitTimeout,
+            @Value("${app.idempotency.maximum-weight:16MB}") DataSize maximumWeight
+    ) {
+        this.repository = repository;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((Key key, Stored stored) -> ENTRY_OVERHEAD_BYTES + stored.body().length)
+                .expireAfter(Expiry.creating((Key key, Stored stored) -> Duration.between(LocalDateTime.now(), stored.expiresAt())))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the response of the request identified by the key, running the action only if no response is stored
+     * for it yet. The request is what the client sent; it is compared with the request the response was stored for.
+     */
+    public Outcome execute(String scope, String key, Object request, Supplier<Response> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must have between 1 and %d characters".formatted(MAX_KEY_LENGTH));
+        }
+
+        var id = new Key(scope, key);
+        var fingerprint = fingerprint(request);
+        while (true) {
+            var stored = completed.getIfPresent(id);
+            if (stored != null) {
+                return replay(id, stored, fingerprint);
+            }
+
+            var claim = new CompletableFuture<Stored>();
+            var running = inFlight.putIfAbsent(id, claim);
+            if (running == null) {
+                return run(id, fingerprint, action, claim);
+            }
+            var finished = await(id, running);
+            if (finished != null) {
+                return replay(id, finished, fingerprint);
+            }
+            // The request in flight failed and stored nothing, so this one runs it again.
+        }
+    }
+
+    public int deleteExpired(int batchSize) {
+        return Objects.requireNonNull(transactionTemplate.execute(status -> repository.deleteExpired(LocalDateTime.now(), batchSize)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, completed, CACHE_NAME);
+    }
+
+    private Outcome run(Key id, String fingerprint, Supplier<Response> action, CompletableFuture<Stored> claim) {
+        try {
+            var outcome = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                var now = LocalDateTime.now();
+                var expiresAt = now.plus(ttl);
+                if (repository.claim(id.scope(), id.key(), fingerprint, now, expiresAt) == 0) {
+                    var record = repository.findByScopeAndIdempotencyKey(id.scope(), id.key()).orElseThrow();
+                    return new Outcome(stored(record), true);
+                }
+
+                var response = action.get();
+                var stored = new Stored(fingerprint, response.status(), response.location(), response.eTag(),
+                        jsonMapper.writeValueAsBytes(response.body()), expiresAt);
+                repository.complete(id.scope(), id.key(), stored.status(), stored.location(), stored.eTag(), stored.body());
+                return new Outcome(stored, false);
+            }));
+            completed.put(id, outcome.stored());
+            claim.complete(outcome.stored());
+            return outcome.replayed() ? replay(id, outcome.stored(), fingerprint) : outcome;
+        } catch (RuntimeException e) {
+            claim.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, claim);
+        }
+    }
+
+    private Stored await(Key id, CompletableFuture<Stored> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return null;
+        } catch (TimeoutException e) {
+            throw new RequestInProgressException(id.key());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestInProgressException(id.key());
+        }
+    }
+
+    private Outcome replay(Key id, Stored stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency-Key '%s' was already used with a different request".formatted(id.key()));
+        }
+        return new Outcome(stored, true);
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(jsonMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Stored stored(IdempotencyRecord record) {
+        return new Stored(record.getFingerprint(), record.getStatus(), record.getLocation(), record.getETag(), record.getBody(),
+                record.getExpiresAt());
+    }
+
+    /**
+     * What a fresh execution responded with; the body is serialized when the response is stored.
+     */
+    public record Response(int status, String location, String eTag, Object body) {
+    }
+
+    public record Stored(String fingerprint, int status, String location, String eTag, byte[] body, LocalDateTime expiresAt) {
+    }
+
+    public record Outcome(Stored stored, boolean replayed) {
+    }
+
+    private record Key(String scope, String key) {
+    }
+}
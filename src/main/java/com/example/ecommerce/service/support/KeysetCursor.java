@@ -0,0 +1,68 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.domain.entity.BaseEntity;
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.repository.CodeRepository.Keyset;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque cursor holding the creation time and code of the last entity returned. The code breaks ties between entities
+ * created at the same time, so the cursor never carries an internal id.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    public static Keyset decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            var value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            var separator = value.indexOf(SEPARATOR);
+            return new Keyset(LocalDateTime.parse(value.substring(0, separator)), UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static String encode(BaseEntity last) {
+        var value = last.getCreatedAt() + SEPARATOR + last.getCode();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Limit limit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and %d".formatted(MAX_LIMIT));
+        }
+        return Limit.of(limit);
+    }
+
+    /**
+     * Number of rows to read for a page: one more than the page holds, which tells whether another page follows.
+     */
+    public static Limit fetchLimit(int limit) {
+        return Limit.of(limit(limit).max() + 1);
+    }
+
+    public static <E extends BaseEntity, R> CursorPage<R> toPage(List<E> rows, int limit, Function<List<E>, List<R>> mapper) {
+        var hasNext = rows.size() > limit;
+        var content = hasNext ? rows.subList(0, limit) : rows;
+        var nextCursor = hasNext ? encode(content.getLast()) : null;
+        return new CursorPage<>(mapper.apply(content), limit, nextCursor);
+    }
+}
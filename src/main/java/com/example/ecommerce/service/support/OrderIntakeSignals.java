@@ -0,0 +1,83 @@
+package com.example.ecommerce.service.support;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes this node's intake workers when an order is queued and the clients waiting on an order when it is processed.
+ * Signals are sent once the transaction commits. Work queued or processed on another node is not signalled, so
+ * workers also poll and waiters also give up after their timeout.
+ */
+@Component
+public class OrderIntakeSignals {
+
+    private static final Executor VIRTUAL_THREADS = task -> Thread.ofVirtual().name("order-intake-waiter").start(task);
+
+    private final Semaphore queued = new Semaphore(0);
+    private final ConcurrentMap<UUID, List<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+
+    public void queued() {
+        afterCommit(queued::release);
+    }
+
+    /**
+     * Blocks until an order is queued on this node or the timeout elapses. Signals received meanwhile are consumed,
+     * since the caller drains the queue anyway.
+     */
+    public void awaitQueued(Duration timeout) throws InterruptedException {
+        if (queued.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            queued.drainPermits();
+        }
+    }
+
+    public void processed(Collection<UUID> codes) {
+        afterCommit(() -> codes.forEach(code -> {
+            var pending = waiters.remove(code);
+            if (pending != null) {
+                pending.forEach(waiter -> waiter.complete(null));
+            }
+        }));
+    }
+
+    /**
+     * Completes on a virtual thread once the order is processed on this node or the timeout elapses, whichever comes
+     * first. Register before reading the order's state, so a signal sent in between is not missed.
+     */
+    public CompletableFuture<Void> awaitProcessed(UUID code, Duration timeout) {
+        var waiter = new CompletableFuture<Void>();
+        waiters.computeIfAbsent(code, key -> new CopyOnWriteArrayList<>()).add(waiter);
+        waiter.whenComplete((ignored, ex) -> waiters.computeIfPresent(code, (key, pending) -> {
+            pending.remove(waiter);
+            return pending.isEmpty() ? null : pending;
+        }));
+        return waiter.completeOnTimeout(null, timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .thenRunAsync(() -> {}, VIRTUAL_THREADS);
+    }
+
+    private static void afterCommit(Runnable signal) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            signal.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                signal.run();
+            }
+        });
+    }
+}
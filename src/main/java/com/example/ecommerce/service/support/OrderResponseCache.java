@@ -0,0 +1,93 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static com.example.ecommerce.domain.entity.OrderStatus.CANCELLED;
+import static com.example.ecommerce.domain.entity.OrderStatus.COMPLETED;
+
+/**
+ * Serialized JSON of orders in a terminal status, keyed by code.
+ * <p>
+ * Terminal orders no longer change status, so entries have no TTL by default and leave only through eviction or
+ * memory pressure. Writes that can still touch such an order (item edits, order edits and deletes) evict it. The
+ * load runs inside the cache's per-key computation, so an eviction racing with it waits for the load and removes
+ * what it stored.
+ */
+@Component
+public class OrderResponseCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "orders";
+
+    private static final Set<OrderStatus> TERMINAL_STATUSES = EnumSet.of(COMPLETED, CANCELLED);
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final JsonMapper jsonMapper;
+    private final Cache<UUID, Body> entries;
+
+    public OrderResponseCache(
+            JsonMapper jsonMapper,
+            @Value("${app.order-cache.maximum-weight:64MB}") DataSize maximumWeight,
+            @Value("${app.order-cache.ttl:0s}") Duration ttl
+    ) {
+        this.jsonMapper = jsonMapper;
+        var builder = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((UUID code, Body body) -> ENTRY_OVERHEAD_BYTES + body.json().length)
+                .recordStats();
+        if (ttl.isPositive()) {
+            builder.expireAfterWrite(ttl);
+        }
+        this.entries = builder.build();
+    }
+
+    public Optional<Body> getIfPresent(UUID code) {
+        return Optional.ofNullable(entries.getIfPresent(code));
+    }
+
+    /**
+     * Returns the serialized order, caching it only when its status is terminal.
+     */
+    public Body get(UUID code, Function<UUID, OrderResponseDTO> loader) {
+        var uncached = new Body[1];
+        var body = entries.get(code, key -> {
+            var response = loader.apply(key);
+            var loaded = new Body(response.version(), jsonMapper.writeValueAsBytes(response));
+            if (!TERMINAL_STATUSES.contains(response.status())) {
+                uncached[0] = loaded;
+                return null;
+            }
+            return loaded;
+        });
+        return Objects.requireNonNullElse(body, uncached[0]);
+    }
+
+    public void evict(UUID code) {
+        TransactionalEviction.runNowAndOnCompletion(() -> entries.invalidate(code));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, CACHE_NAME);
+    }
+
+    public record Body(Long version, byte[] json) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.domain.entity.BaseEntity;
+import com.example.ecommerce.dto.common.CountStrategy;
+import com.example.ecommerce.dto.common.CountedPage;
+import com.example.ecommerce.repository.CodeRepository;
+import jakarta.persistence.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static com.example.ecommerce.dto.common.CountStrategy.EXACT;
+
+@Slf4j
+@Component
+public class PageCounter {
+
+    private static final String STRATEGY_PROPERTY = "app.pagination.count.strategies.";
+    private static final String ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+
+    private final Environment environment;
+    private final JdbcTemplate jdbcTemplate;
+    private final CountStrategy defaultStrategy;
+    private final long cacheTtlNanos;
+    private final Map<Class<?>, CountStrategy> strategies = new ConcurrentHashMap<>();
+    private final Map<Class<?>, CachedCount> cachedCounts = new ConcurrentHashMap<>();
+
+    public PageCounter(
+            Environment environment,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.pagination.count.default:exact}") String defaultStrategy,
+            @Value("${app.pagination.count.cache-ttl:30s}") Duration cacheTtl
+    ) {
+        this.environment = environment;
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultStrategy = parse(defaultStrategy);
+        this.cacheTtlNanos = cacheTtl.toNanos();
+    }
+
+    public <E extends BaseEntity> Page<E> findAll(CodeRepository<E> repository, Class<E> entityClass, Pageable pageable) {
+        return findAll(entityClass, pageable, repository::findAll, repository::findAllBy, repository::count);
+    }
+
+    public <T> Page<T> findAll(
+            Class<?> entityClass,
+            Pageable pageable,
+            Function<Pageable, Page<T>> pageQuery,
+            Function<Pageable, Slice<T>> sliceQuery,
+            LongSupplier countQuery
+    ) {
+        var strategy = strategyFor(entityClass);
+        if (strategy == EXACT || pageable.isUnpaged()) {
+            var page = pageQuery.apply(pageable);
+            return new CountedPage<>(page.getContent(), pageable, page.getTotalElements(), EXACT);
+        }
+
+        var slice = sliceQuery.apply(pageable);
+        var seen = pageable.getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || pageable.getOffset() == 0)) {
+            return new CountedPage<>(slice.getContent(), pageable, seen, EXACT);
+        }
+
+        var minimum = seen + (slice.hasNext() ? 1 : 0);
+        var total = switch (strategy) {
+            case CACHED -> cachedCount(countQuery, entityClass);
+            case ESTIMATED -> estimatedCount(entityClass);
+            case NONE, EXACT -> minimum;
+        };
+        if (total < 0) {
+            return new CountedPage<>(slice.getContent(), pageable, countQuery.getAsLong(), EXACT);
+        }
+        return new CountedPage<>(slice.getContent(), pageable, Math.max(total, minimum), strategy);
+    }
+
+    public CountStrategy strategyFor(Class<?> entityClass) {
+        return strategies.computeIfAbsent(entityClass, type -> {
+            var value = environment.getProperty(STRATEGY_PROPERTY + propertyKey(type));
+            return value == null ? defaultStrategy : parse(value);
+        });
+    }
+
+    private long cachedCount(LongSupplier countQuery, Class<?> entityClass) {
+        var now = System.nanoTime();
+        var cached = cachedCounts.get(entityClass);
+        if (cached != null && now - cached.countedAtNanos() < cacheTtlNanos) {
+            return cached.total();
+        }
+
+        var total = countQuery.getAsLong();
+        cachedCounts.put(entityClass, new CachedCount(total, now));
+        return total;
+    }
+
+    private long estimatedCount(Class<?> entityClass) {
+        var table = entityClass.getAnnotation(Table.class).name();
+        var estimate = jdbcTemplate.queryForObject(ESTIMATE_SQL, Long.class, table);
+        if (estimate == null || estimate < 0) {
+            log.debug("No planner statistics for table {}, falling back to an exact count", table);
+            return -1;
+        }
+        return estimate;
+    }
+
+    private static String propertyKey(Class<?> entityClass) {
+        return entityClass.getSimpleName().replaceAll("([a-z])([A-Z])", "$1-$2").toLowerCase(Locale.ROOT);
+    }
+
+    private static CountStrategy parse(String value) {
+        return CountStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    private record CachedCount(long total, long countedAtNanos) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of product responses keyed by code.
+ * <p>
+ * Writes evict the entry immediately and again once their transaction completes. A product write also raises a
+ * version floor for the code, so a reader whose snapshot predates the write never puts the older version back.
+ * Stock changes do not bump the version, so they stamp the product id instead and a load that overlapped the stamp
+ * is returned without being cached. Bulk writes stamp the whole cache the same way.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    public static final String CACHE_NAME = "products";
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Cache<UUID, Entry> entries;
+    private final Cache<UUID, Long> versionFloors;
+    private final Cache<Long, Long> stockStamps;
+    private final Map<Long, Entry> entriesById = new ConcurrentHashMap<>();
+    private final AtomicLong stockSequence = new AtomicLong();
+    private volatile long evictedAllAt;
+
+    public ProductCache(
+            @Value("${app.product-cache.maximum-weight:32MB}") DataSize maximumWeight,
+            @Value("${app.product-cache.ttl:5m}") Duration ttl
+    ) {
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((UUID code, Entry entry) -> weigh(entry.response()))
+                .expireAfterWrite(ttl)
+                .removalListener((UUID code, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        unmap(entry);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.versionFloors = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+        this.stockStamps = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public ProductResponseDTO get(UUID code, Function<UUID, Entry> loader) {
+        var uncached = new Entry[1];
+        var entry = entries.get(code, key -> {
+            var started = stockSequence.get();
+            var loaded = loader.apply(key);
+            // Publish the id mapping before checking the stamp; evictStock writes the stamp before reading the mapping.
+            entriesById.put(loaded.productId(), loaded);
+            if (loaded.response().version() < floor(key)
+                    || stockChangedSince(loaded.productId(), started)
+                    || evictedAllAt > started) {
+                unmap(loaded);
+                uncached[0] = loaded;
+                return null;
+            }
+            return loaded;
+        });
+        return Objects.requireNonNullElse(entry, uncached[0]).response();
+    }
+
+    public void evict(UUID code, long committedVersion) {
+        versionFloors.asMap().merge(code, committedVersion, Math::max);
+        TransactionalEviction.runNowAndOnCompletion(() -> entries.invalidate(code));
+    }
+
+    public void evictDeleted(UUID code) {
+        evict(code, Long.MAX_VALUE);
+    }
+
+    public void evictStock(Long productId) {
+        TransactionalEviction.runNowAndOnCompletion(() -> {
+            stockStamps.put(productId, stockSequence.incrementAndGet());
+            var entry = entriesById.get(productId);
+            if (entry != null) {
+                entries.invalidate(entry.response().code());
+            }
+        });
+    }
+
+    public void evictStock(Collection<UUID> codes) {
+        TransactionalEviction.runNowAndOnCompletion(() -> entries.invalidateAll(codes));
+    }
+
+    public void evictAll() {
+        TransactionalEviction.runNowAndOnCompletion(() -> {
+            evictedAllAt = stockSequence.incrementAndGet();
+            entries.invalidateAll();
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, CACHE_NAME);
+    }
+
+    private long floor(UUID code) {
+        var floor = versionFloors.getIfPresent(code);
+        return floor == null ? Long.MIN_VALUE : floor;
+    }
+
+    // Identity, not equals: a reload with identical content must keep its own mapping.
+    private void unmap(Entry entry) {
+        entriesById.computeIfPresent(entry.productId(), (id, mapped) -> mapped == entry ? null : mapped);
+    }
+
+    private boolean stockChangedSince(Long productId, long sequence) {
+        var stamp = stockStamps.getIfPresent(productId);
+        return stamp != null && stamp > sequence;
+    }
+
+    private static int weigh(ProductResponseDTO response) {
+        return ENTRY_OVERHEAD_BYTES + 2 * (length(response.name()) + length(response.description()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public record Entry(Long productId, ProductResponseDTO response) {
+    }
+}
@@ -0,0 +1,300 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.dto.product.ProductCreateDTO;
+import com.example.ecommerce.dto.product.ProductImportFormat;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads an import stream one row at a time through a fixed buffer, so only the current row is ever held in memory.
+ * <p>
+ * CSV input follows RFC 4180 and starts with a header naming its columns: {@code name} and {@code price} are
+ * required, {@code description} and {@code stockQuantity} optional, and other columns are ignored. NDJSON input has
+ * one product creation body per line. Blank lines are skipped in both. A row that cannot be parsed is returned with
+ * the reason instead of a product, and a row longer than {@value #MAX_ROW_LENGTH} characters is skipped to its end
+ * rather than buffered. Rows are numbered by the input line they start on.
+ */
+public abstract sealed class ProductImportReader permits ProductImportReader.Csv, ProductImportReader.Ndjson {
+
+    public static final int MAX_ROW_LENGTH = 1 << 16;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long line = 1;
+
+    private ProductImportReader(InputStream input) {
+        this.reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+    }
+
+    public static ProductImportReader open(ProductImportFormat format, InputStream input, JsonMapper jsonMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(input);
+            case NDJSON -> new Ndjson(input, jsonMapper);
+        };
+    }
+
+    /**
+     * Returns the next row, or {@code null} once the input is exhausted.
+     */
+    public abstract Row next() throws IOException;
+
+    long line() {
+        return line;
+    }
+
+    int read() throws IOException {
+        if (position == limit) {
+            limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+            position = 0;
+            if (limit == 0) {
+                return -1;
+            }
+        }
+        var c = buffer[position++];
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    /**
+     * A parsed row: either a product, not yet validated, or the reason it could not be parsed.
+     */
+    public record Row(long line, String name, ProductCreateDTO product, String error) {
+
+        static Row parsed(long line, ProductCreateDTO product) {
+            return new Row(line, product.name(), product, null);
+        }
+
+        static Row unparseable(long line, String name, String error) {
+            return new Row(line, name, null, error);
+        }
+    }
+
+    static final class Csv extends ProductImportReader {
+
+        private static final String NAME = "name";
+        private static final String DESCRIPTION = "description";
+        private static final String PRICE = "price";
+        private static final String STOCK_QUANTITY = "stockquantity";
+
+        private final List<String> fields = new ArrayList<>();
+        private final StringBuilder field = new StringBuilder();
+        private final int columns;
+        private final int nameColumn;
+        private final int descriptionColumn;
+        private final int priceColumn;
+        private final int stockQuantityColumn;
+        private int length;
+        private String malformed;
+
+        private Csv(InputStream input) throws IOException {
+            super(input);
+            if (!readRecord()) {
+                throw new IllegalArgumentException("CSV import must start with a header row");
+            }
+            var header = fields.stream()
+                    .map(column -> column.replace("\uFEFF", "").strip().toLowerCase(Locale.ROOT))
+                    .toList();
+            columns = header.size();
+            nameColumn = header.indexOf(NAME);
+            descriptionColumn = header.indexOf(DESCRIPTION);
+            priceColumn = header.indexOf(PRICE);
+            stockQuantityColumn = header.indexOf(STOCK_QUANTITY);
+            if (nameColumn < 0 || priceColumn < 0) {
+                throw new IllegalArgumentException("CSV header must contain name and price columns, found: " + String.join(",", fields));
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                var start = line();
+                if (!readRecord()) {
+                    return null;
+                }
+                if (fields.size() == 1 && fields.getFirst().isEmpty() && malformed == null) {
+                    continue;
+                }
+
+                var name = column(nameColumn);
+                if (malformed != null) {
+                    return Row.unparseable(start, name, malformed);
+                }
+                if (fields.size() != columns) {
+                    return Row.unparseable(start, name, "Expected %d fields but found %d".formatted(columns, fields.size()));
+                }
+
+                BigDecimal price = null;
+                Integer stockQuantity = null;
+                try {
+                    var priceValue = column(priceColumn).strip();
+                    price = priceValue.isEmpty() ? null : new BigDecimal(priceValue);
+                } catch (NumberFormatException e) {
+                    return Row.unparseable(start, name, "price: must be a number");
+                }
+                try {
+                    var stockValue = column(stockQuantityColumn);
+                    stockQuantity = stockValue == null || stockValue.isBlank() ? null : Integer.valueOf(stockValue.strip());
+                } catch (NumberFormatException e) {
+                    return Row.unparseable(start, name, "stockQuantity: must be an integer");
+                }
+                var description = column(descriptionColumn);
+                return Row.parsed(start, new ProductCreateDTO(
+                        name, description == null || description.isEmpty() ? null : description, price, stockQuantity));
+            }
+        }
+
+        private String column(int index) {
+            return index < 0 || index >= fields.size() ? null : fields.get(index);
+        }
+
+        // RFC 4180 state machine; a carriage return outside quotes is dropped so that CRLF and LF both end a record.
+        private boolean readRecord() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            length = 0;
+            malformed = null;
+            var state = State.FIELD_START;
+            var empty = true;
+            int c;
+            while ((c = read()) != -1) {
+                empty = false;
+                switch (state) {
+                    case FIELD_START, UNQUOTED -> {
+                        if (c == ',') {
+                            endField();
+                            state = State.FIELD_START;
+                        } else if (c == '\n') {
+                            endField();
+                            return true;
+                        } else if (c == '"' && state == State.FIELD_START) {
+                            state = State.QUOTED;
+                        } else if (c != '\r') {
+                            append(c);
+                            state = State.UNQUOTED;
+                        }
+                    }
+                    case QUOTED -> {
+                        if (c == '"') {
+                            state = State.QUOTE_IN_QUOTED;
+                        } else {
+                            append(c);
+                        }
+                    }
+                    case QUOTE_IN_QUOTED -> {
+                        if (c == '"') {
+                            append(c);
+                            state = State.QUOTED;
+                        } else if (c == ',') {
+                            endField();
+                            state = State.FIELD_START;
+                        } else if (c == '\n') {
+                            endField();
+                            return true;
+                        } else if (c != '\r') {
+                            malformed("Unexpected character after closing quote");
+                            append(c);
+                            state = State.UNQUOTED;
+                        }
+                    }
+                }
+            }
+            if (empty) {
+                return false;
+            }
+            if (state == State.QUOTED) {
+                malformed("Unterminated quoted field");
+            }
+            endField();
+            return true;
+        }
+
+        private void append(int c) {
+            if (++length > MAX_ROW_LENGTH) {
+                malformed("Row exceeds %d characters".formatted(MAX_ROW_LENGTH));
+            } else {
+                field.append((char) c);
+            }
+        }
+
+        private void endField() {
+            fields.add(field.toString());
+            field.setLength(0);
+        }
+
+        private void malformed(String reason) {
+            if (malformed == null) {
+                malformed = reason;
+            }
+        }
+
+        private enum State {
+            FIELD_START,
+            UNQUOTED,
+            QUOTED,
+            QUOTE_IN_QUOTED
+        }
+    }
+
+    static final class Ndjson extends ProductImportReader {
+
+        private final JsonMapper jsonMapper;
+        private final StringBuilder current = new StringBuilder();
+
+        private Ndjson(InputStream input, JsonMapper jsonMapper) {
+            super(input);
+            this.jsonMapper = jsonMapper;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                var start = line();
+                var tooLong = false;
+                current.setLength(0);
+                int c;
+                while ((c = read()) != -1 && c != '\n') {
+                    if (current.length() < MAX_ROW_LENGTH) {
+                        current.append((char) c);
+                    } else {
+                        tooLong = true;
+                    }
+                }
+                if (c == -1 && current.isEmpty()) {
+                    return null;
+                }
+                if (tooLong) {
+                    return Row.unparseable(start, null, "Row exceeds %d characters".formatted(MAX_ROW_LENGTH));
+                }
+                var row = current.toString();
+                if (row.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    var product = jsonMapper.readValue(row, ProductCreateDTO.class);
+                    return product == null
+                            ? Row.unparseable(start, null, "Row must be a JSON object")
+                            : Row.parsed(start, product);
+                } catch (JacksonException e) {
+                    return Row.unparseable(start, null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+        }
+    }
+}
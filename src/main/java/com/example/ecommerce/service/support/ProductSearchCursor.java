@@ -0,0 +1,54 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.dto.product.ProductSearchSort;
+import com.example.ecommerce.repository.ProductSearchRepository.Position;
+import com.example.ecommerce.repository.projection.ProductSearchRow;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque search cursor holding the sort it was issued for and the keyset position of the last product returned. The
+ * product code breaks ties, so the cursor never carries an internal id.
+ */
+public final class ProductSearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private ProductSearchCursor() {
+    }
+
+    public static Position decode(String cursor, ProductSearchSort sort) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\" + SEPARATOR, -1);
+            if (parts.length != 4 || !parts[0].equals(sort.name()) || Integer.parseInt(parts[1]) < 0) {
+                throw new IllegalArgumentException();
+            }
+            Object key = switch (sort) {
+                case RELEVANCE, NEWEST -> LocalDateTime.parse(parts[2]);
+                case PRICE_ASC, PRICE_DESC -> new BigDecimal(parts[2]);
+            };
+            return new Position(Integer.parseInt(parts[1]), key, UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public static String encode(ProductSearchSort sort, ProductSearchRow last) {
+        var value = String.join(SEPARATOR, sort.name(), String.valueOf(last.tier()), String.valueOf(last.sortKey(sort)),
+                String.valueOf(last.product().code()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Position position(ProductSearchSort sort, ProductSearchRow last) {
+        return new Position(last.tier(), last.sortKey(sort), last.product().code());
+    }
+}
@@ -0,0 +1,554 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.dto.product.ProductSuggestionDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory prefix index over product names for type-ahead suggestions.
+ * <p>
+ * Names are matched case- and accent-insensitively. The bulk of the index is a base of parallel primitive arrays
+ * sorted by folded name: ids, codes as two longs, and offsets into one UTF-8 buffer of the original names. Folded
+ * names are not stored; the few entries a lookup touches are folded again. Writes go to a small copy-on-write
+ * overlay of new and changed names plus a set of ids hidden in the base, published with a compare-and-set. Readers
+ * only dereference the current snapshot.
+ * <p>
+ * Once the overlay reaches {@code app.product-suggest.overlay-limit}, a background thread merges it into a new base.
+ * Rebuilds scan the product table on the same thread. Either way the new base is published together with the writes
+ * made while it was built, so writers never wait for a merge or a scan.
+ * <p>
+ * The index is built from a streaming scan when the application starts. Product writes apply their change after
+ * their transaction commits, so a rolled-back write never shows up in suggestions.
+ */
+@Slf4j
+@Component
+public class ProductSuggestIndex implements MeterBinder, SmartInitializingSingleton, DisposableBean {
+
+    public static final int MAX_LIMIT = 50;
+
+    private static final String SCAN_SQL = "SELECT id, code, name FROM product";
+    private static final int FETCH_SIZE = 10_000;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int OVERLAY_ENTRY_BYTES = 200;
+    private static final int HIDDEN_ID_BYTES = 48;
+
+    private final JdbcTemplate scanTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int overlayLimit;
+    private final ExecutorService maintainer;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    @Autowired
+    public ProductSuggestIndex(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.product-suggest.overlay-limit:4096}") int overlayLimit
+    ) {
+        this(dataSource, transactionManager, overlayLimit,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("product-suggest-index").daemon().factory()));
+    }
+
+    ProductSuggestIndex(DataSource dataSource, PlatformTransactionManager transactionManager, int overlayLimit, ExecutorService maintainer) {
+        this.scanTemplate = new JdbcTemplate(dataSource);
+        this.scanTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.overlayLimit = overlayLimit;
+        this.maintainer = maintainer;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild().join();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        maintainer.shutdown();
+        if (!maintainer.awaitTermination(5, TimeUnit.SECONDS)) {
+            maintainer.shutdownNow();
+        }
+    }
+
+    /**
+     * Replaces the base with a fresh scan of the product table on the background thread. Writes go on during the
+     * scan and are kept on top of the new base. Completes once the new base is published.
+     */
+    public CompletableFuture<Void> rebuild() {
+        return CompletableFuture.runAsync(() -> {
+            var started = System.nanoTime();
+            var from = snapshot.get();
+            var base = transactionTemplate.execute(status -> scan());
+            publish(from, base);
+            log.info("Built product suggest index: {} products, {} bytes per product, in {} ms",
+                    base.size, base.size == 0 ? 0 : base.memoryBytes() / base.size, (System.nanoTime() - started) / 1_000_000);
+        }, maintainer).whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("Failed to rebuild product suggest index", e);
+            }
+        });
+    }
+
+    public void put(Long id, UUID code, String name) {
+        afterCommit(() -> apply(id, new Suggestion(code, name)));
+    }
+
+    public void remove(Long id) {
+        afterCommit(() -> apply(id, null));
+    }
+
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("Prefix must not be blank");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and %d".formatted(MAX_LIMIT));
+        }
+
+        var current = snapshot.get();
+        var key = fold(prefix.stripLeading()).getBytes(StandardCharsets.UTF_8);
+        var fromBase = new ArrayList<Map.Entry<Key, Suggestion>>(limit);
+        for (var i = current.base.lowerBound(new Key(key, Long.MIN_VALUE)); i < current.base.size && fromBase.size() < limit; i++) {
+            var folded = current.base.foldedName(i);
+            if (!startsWith(folded, key)) {
+                break;
+            }
+            if (!current.hiddenIds.contains(current.base.ids[i])) {
+                fromBase.add(Map.entry(new Key(folded, current.base.ids[i]), current.base.suggestion(i)));
+            }
+        }
+
+        var result = new ArrayList<ProductSuggestionDTO>(limit);
+        var baseIterator = fromBase.iterator();
+        var overlayIterator = current.overlay.tailMap(new Key(key, Long.MIN_VALUE), true).entrySet().iterator();
+        var nextBase = baseIterator.hasNext() ? baseIterator.next() : null;
+        var nextOverlay = overlayIterator.hasNext() ? overlayIterator.next() : null;
+        if (nextOverlay != null && !startsWith(nextOverlay.getKey().folded(), key)) {
+            nextOverlay = null;
+        }
+        while (result.size() < limit && (nextBase != null || nextOverlay != null)) {
+            if (nextOverlay == null || nextBase != null && nextBase.getKey().compareTo(nextOverlay.getKey()) < 0) {
+                result.add(nextBase.getValue().toResponse());
+                nextBase = baseIterator.hasNext() ? baseIterator.next() : null;
+            } else {
+                result.add(nextOverlay.getValue().toResponse());
+                nextOverlay = overlayIterator.hasNext() ? overlayIterator.next() : null;
+                if (nextOverlay != null && !startsWith(nextOverlay.getKey().folded(), key)) {
+                    nextOverlay = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Entries held by the index, including base entries hidden by a later write until the next merge.
+     */
+    public int entries() {
+        var current = snapshot.get();
+        return current.base.size + current.overlay.size();
+    }
+
+    /**
+     * Approximate heap used by the index, counting array contents and an estimate for overlay entries.
+     */
+    public long memoryBytes() {
+        var current = snapshot.get();
+        return current.base.memoryBytes()
+                + (long) current.overlay.size() * OVERLAY_ENTRY_BYTES
+                + (long) current.hiddenIds.size() * HIDDEN_ID_BYTES;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("product.suggest.index.entries", this, ProductSuggestIndex::entries)
+                .description("Entries held in the suggest index")
+                .register(registry);
+        Gauge.builder("product.suggest.index.memory", this, ProductSuggestIndex::memoryBytes)
+                .description("Approximate heap used by the suggest index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    static String fold(String value) {
+        var decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private void apply(Long id, Suggestion suggestion) {
+        var key = suggestion == null ? null : new Key(fold(suggestion.name()).getBytes(StandardCharsets.UTF_8), id);
+        Snapshot current;
+        Snapshot next;
+        do {
+            current = snapshot.get();
+            next = current.with(id, key, suggestion);
+        } while (!snapshot.compareAndSet(current, next));
+        scheduleCompactionIfFull();
+    }
+
+    private void scheduleCompactionIfFull() {
+        var current = snapshot.get();
+        if (current.hiddenIds.size() + current.overlay.size() <= overlayLimit || !compactionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            maintainer.execute(this::compact);
+        } catch (RejectedExecutionException e) {
+            compactionScheduled.set(false);
+        }
+    }
+
+    // Writes made during the merge may fill the overlay again, so it checks once more when done.
+    private void compact() {
+        try {
+            var from = snapshot.get();
+            publish(from, from.compact());
+        } catch (RuntimeException e) {
+            log.error("Failed to merge product suggest overlay", e);
+            return;
+        } finally {
+            compactionScheduled.set(false);
+        }
+        scheduleCompactionIfFull();
+    }
+
+    // Swaps in a base built from the snapshot "from", keeping the writes applied since then in the overlay.
+    private void publish(Snapshot from, Base base) {
+        Snapshot current;
+        do {
+            current = snapshot.get();
+        } while (!snapshot.compareAndSet(current, current.rebase(from, base)));
+    }
+
+    private Base scan() {
+        var builder = new BaseBuilder();
+        scanTemplate.query(SCAN_SQL, (RowCallbackHandler) rs -> builder.add(rs.getLong("id"), rs.getObject("code", UUID.class),
+                rs.getString("name").getBytes(StandardCharsets.UTF_8)));
+        return builder.buildSorted();
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static boolean startsWith(byte[] value, byte[] prefix) {
+        return value.length >= prefix.length && Arrays.equals(value, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    private record Snapshot(Base base, Set<Long> hiddenIds, NavigableMap<Key, Suggestion> overlay, Map<Long, Key> overlayKeys) {
+
+        static final Snapshot EMPTY = new Snapshot(Base.EMPTY, Set.of(), Collections.emptyNavigableMap(), Map.of());
+
+        /**
+         * Copies the overlay with the product's entry replaced, or removed if the key is {@code null}. Every write
+         * hides the id in the base and gets a new key, which lets {@link #rebase} tell it apart from older writes.
+         */
+        Snapshot with(Long id, Key key, Suggestion suggestion) {
+            var nextHiddenIds = new HashSet<>(hiddenIds);
+            var nextOverlay = new TreeMap<>(overlay);
+            var nextOverlayKeys = new HashMap<>(overlayKeys);
+
+            nextHiddenIds.add(id);
+            var previous = nextOverlayKeys.remove(id);
+            if (previous != null) {
+                nextOverlay.remove(previous);
+            }
+            if (key != null) {
+                nextOverlay.put(key, suggestion);
+                nextOverlayKeys.put(id, key);
+            }
+            return new Snapshot(base, nextHiddenIds, nextOverlay, nextOverlayKeys);
+        }
+
+        /**
+         * Puts this snapshot on a base that already holds the writes of {@code from}, keeping only the writes made
+         * since.
+         */
+        Snapshot rebase(Snapshot from, Base newBase) {
+            var nextHiddenIds = new HashSet<Long>();
+            var nextOverlay = new TreeMap<Key, Suggestion>();
+            var nextOverlayKeys = new HashMap<Long, Key>();
+            for (var id : hiddenIds) {
+                var key = overlayKeys.get(id);
+                if (from.hiddenIds.contains(id) && key == from.overlayKeys.get(id)) {
+                    continue;
+                }
+                nextHiddenIds.add(id);
+                if (key != null) {
+                    nextOverlay.put(key, overlay.get(key));
+                    nextOverlayKeys.put(id, key);
+                }
+            }
+            return new Snapshot(newBase, nextHiddenIds, nextOverlay, nextOverlayKeys);
+        }
+
+        /**
+         * Merges the overlay into a new base. Base entries are copied in bulk between the insertion points of the
+         * overlay entries, so only overlay entries are compared against the base.
+         */
+        Base compact() {
+            var builder = new BaseBuilder();
+            var from = 0;
+            for (var entry : overlay.entrySet()) {
+                var to = base.lowerBound(entry.getKey());
+                builder.copyVisible(base, from, to, hiddenIds);
+                var name = entry.getValue().name().getBytes(StandardCharsets.UTF_8);
+                builder.add(entry.getKey().id(), entry.getValue().code(), name);
+                from = to;
+            }
+            builder.copyVisible(base, from, base.size, hiddenIds);
+            return builder.build();
+        }
+    }
+
+    private record Key(byte[] folded, long id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            var byName = Arrays.compareUnsigned(folded, other.folded);
+            return byName != 0 ? byName : Long.compare(id, other.id);
+        }
+    }
+
+    private record Suggestion(UUID code, String name) {
+
+        ProductSuggestionDTO toResponse() {
+            return new ProductSuggestionDTO(code, name);
+        }
+    }
+
+    private static final class Base {
+
+        static final Base EMPTY = new Base(new long[0], new long[0], new long[0], new int[1], new byte[0], 0);
+
+        final long[] ids;
+        final long[] codeHigh;
+        final long[] codeLow;
+        final int[] nameOffsets;
+        final byte[] names;
+        final int size;
+
+        Base(long[] ids, long[] codeHigh, long[] codeLow, int[] nameOffsets, byte[] names, int size) {
+            this.ids = ids;
+            this.codeHigh = codeHigh;
+            this.codeLow = codeLow;
+            this.nameOffsets = nameOffsets;
+            this.names = names;
+            this.size = size;
+        }
+
+        int lowerBound(Key key) {
+            var low = 0;
+            var high = size;
+            while (low < high) {
+                var middle = (low + high) >>> 1;
+                if (new Key(foldedName(middle), ids[middle]).compareTo(key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        byte[] foldedName(int index) {
+            return foldedName(names, nameOffsets[index], nameOffsets[index + 1]);
+        }
+
+        Suggestion suggestion(int index) {
+            var name = new String(names, nameOffsets[index], nameOffsets[index + 1] - nameOffsets[index], StandardCharsets.UTF_8);
+            return new Suggestion(new UUID(codeHigh[index], codeLow[index]), name);
+        }
+
+        long memoryBytes() {
+            return 3L * (ARRAY_HEADER_BYTES + 8L * ids.length)
+                    + ARRAY_HEADER_BYTES + 4L * nameOffsets.length
+                    + ARRAY_HEADER_BYTES + names.length;
+        }
+
+        /**
+         * Folds a UTF-8 name slice; ASCII names are lower-cased in place of the full Unicode normalization.
+         */
+        static byte[] foldedName(byte[] names, int from, int to) {
+            var folded = Arrays.copyOfRange(names, from, to);
+            for (var i = 0; i < folded.length; i++) {
+                var value = folded[i];
+                if (value < 0) {
+                    return fold(new String(names, from, to - from, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+                }
+                if (value >= 'A' && value <= 'Z') {
+                    folded[i] = (byte) (value + ('a' - 'A'));
+                }
+            }
+            return folded;
+        }
+    }
+
+    private static final class BaseBuilder {
+
+        private long[] ids = new long[1024];
+        private long[] codeHigh = new long[1024];
+        private long[] codeLow = new long[1024];
+        private int[] nameOffsets = new int[1025];
+        private byte[] names = new byte[16 * 1024];
+        private int size;
+
+        void add(long id, UUID code, byte[] name) {
+            ensureCapacity(size + 1, nameOffsets[size] + name.length);
+            ids[size] = id;
+            codeHigh[size] = code.getMostSignificantBits();
+            codeLow[size] = code.getLeastSignificantBits();
+            System.arraycopy(name, 0, names, nameOffsets[size], name.length);
+            nameOffsets[size + 1] = nameOffsets[size] + name.length;
+            size++;
+        }
+
+        void copyVisible(Base base, int from, int to, Set<Long> hiddenIds) {
+            for (var i = from; i < to; i++) {
+                if (hiddenIds.contains(base.ids[i])) {
+                    continue;
+                }
+                var start = base.nameOffsets[i];
+                var length = base.nameOffsets[i + 1] - start;
+                ensureCapacity(size + 1, nameOffsets[size] + length);
+                ids[size] = base.ids[i];
+                codeHigh[size] = base.codeHigh[i];
+                codeLow[size] = base.codeLow[i];
+                System.arraycopy(base.names, start, names, nameOffsets[size], length);
+                nameOffsets[size + 1] = nameOffsets[size] + length;
+                size++;
+            }
+        }
+
+        Base build() {
+            return new Base(Arrays.copyOf(ids, size), Arrays.copyOf(codeHigh, size), Arrays.copyOf(codeLow, size),
+                    Arrays.copyOf(nameOffsets, size + 1), Arrays.copyOf(names, nameOffsets[size]), size);
+        }
+
+        /**
+         * Builds a base in folded-name order from entries added in arbitrary order. The folded names are computed
+         * once into a temporary buffer and an index permutation is sorted against it.
+         */
+        Base buildSorted() {
+            var foldedOffsets = new int[size + 1];
+            var folded = new byte[nameOffsets[size]];
+            for (var i = 0; i < size; i++) {
+                var value = Base.foldedName(names, nameOffsets[i], nameOffsets[i + 1]);
+                if (foldedOffsets[i] + value.length > folded.length) {
+                    folded = Arrays.copyOf(folded, Math.max(folded.length * 2, foldedOffsets[i] + value.length));
+                }
+                System.arraycopy(value, 0, folded, foldedOffsets[i], value.length);
+                foldedOffsets[i + 1] = foldedOffsets[i] + value.length;
+            }
+
+            var keys = folded;
+            var order = new int[size];
+            Arrays.setAll(order, i -> i);
+            mergeSort(order, (left, right) -> {
+                var byName = Arrays.compareUnsigned(keys, foldedOffsets[left], foldedOffsets[left + 1],
+                        keys, foldedOffsets[right], foldedOffsets[right + 1]);
+                return byName != 0 ? byName : Long.compare(ids[left], ids[right]);
+            });
+
+            var sorted = new BaseBuilder();
+            sorted.ensureCapacity(size, nameOffsets[size]);
+            for (var index : order) {
+                sorted.add(ids[index], new UUID(codeHigh[index], codeLow[index]),
+                        Arrays.copyOfRange(names, nameOffsets[index], nameOffsets[index + 1]));
+            }
+            return sorted.build();
+        }
+
+        private void ensureCapacity(int entries, int nameBytes) {
+            if (entries > ids.length) {
+                var capacity = Math.max(entries, ids.length * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                codeHigh = Arrays.copyOf(codeHigh, capacity);
+                codeLow = Arrays.copyOf(codeLow, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+            }
+            if (nameBytes > names.length) {
+                names = Arrays.copyOf(names, Math.max(nameBytes, names.length * 2));
+            }
+        }
+
+        private static void mergeSort(int[] values, IntComparator comparator) {
+            var buffer = new int[values.length];
+            for (var width = 1; width < values.length; width *= 2) {
+                for (var left = 0; left < values.length - width; left += 2 * width) {
+                    var middle = left + width;
+                    var right = Math.min(left + 2 * width, values.length);
+                    var i = left;
+                    var j = middle;
+                    var k = left;
+                    while (i < middle && j < right) {
+                        buffer[k++] = comparator.compare(values[i], values[j]) <= 0 ? values[i++] : values[j++];
+                    }
+                    while (i < middle) {
+                        buffer[k++] = values[i++];
+                    }
+                    while (j < right) {
+                        buffer[k++] = values[j++];
+                    }
+                    System.arraycopy(buffer, left, values, left, right - left);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntComparator {
+
+        int compare(int left, int right);
+    }
+}
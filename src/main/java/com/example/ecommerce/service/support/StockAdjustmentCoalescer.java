@@ -0,0 +1,312 @@
+package com.example.ecommerce.service.support;
+
+import com.example.ecommerce.domain.support.UuidV7Generator;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies stock decreases of one product in batches, with one row lock and one update per batch. A batch commits on
+ * its own, so every decrease it applies is recorded as a pending return in the same transaction: the stock goes back
+ * to the product unless the caller removes the pending return in its own transaction with {@link #confirm}. A caller
+ * that rolls back, or never finishes, leaves the pending return behind for {@link #applyReturn}.
+ * <p>
+ * Each product with adjustments in flight has a lane, which removes itself once its queue is drained, so the lanes stay
+ * bounded by the products adjusted within a window rather than every product ever adjusted.
+ */
+@Slf4j
+public class StockAdjustmentCoalescer implements AutoCloseable {
+
+    private static final String LOCK_SQL = "SELECT name, stock_quantity FROM product WHERE id = ? FOR UPDATE";
+    private static final String UPDATE_SQL = """
+            UPDATE product
+            SET stock_quantity = ?, version = version + 1, updated_at = LOCALTIMESTAMP
+            WHERE id = ?
+            """;
+    private static final String RECORD_RETURN_SQL = "INSERT INTO pending_stock_return (id, product_id, quantity) VALUES (?, ?, ?)";
+    private static final String RECORD_RETURN_IF_EXISTS_SQL = """
+            INSERT INTO pending_stock_return (id, product_id, quantity)
+            SELECT ?, p.id, ? FROM product p WHERE p.id = ?
+            """;
+    private static final String CONFIRM_SQL = "DELETE FROM pending_stock_return WHERE id = ?";
+    private static final String TAKE_RETURN_SQL = """
+            DELETE FROM pending_stock_return
+            WHERE id = (SELECT r.id FROM pending_stock_return r WHERE r.id = ? FOR UPDATE SKIP LOCKED)
+            RETURNING quantity
+            """;
+    private static final String STALE_RETURNS_SQL = """
+            SELECT id, product_id FROM pending_stock_return
+            WHERE created_at < ?
+            ORDER BY created_at
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService flusher;
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    public StockAdjustmentCoalescer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            Duration window,
+            int maxBatchSize,
+            int flushThreads
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("stock-coalescer-timer").daemon().factory());
+        this.flusher = Executors.newFixedThreadPool(flushThreads, Thread.ofPlatform().name("stock-coalescer-", 0).daemon().factory());
+    }
+
+    /**
+     * Decreases the stock in the next batch for the product. Completes with the id of the pending return recorded for
+     * the decrease, which the caller must {@link #confirm} for the decrease to stay.
+     */
+    public CompletableFuture<UUID> decrease(Long productId, int quantity) {
+        return submit(productId, new Adjustment(UuidV7Generator.next(), quantity, false, new CompletableFuture<>()));
+    }
+
+    /**
+     * Returns the stock of a pending return in the next batch for the product, unless it was confirmed or returned
+     * already. Completes with the id if the stock was returned, or with {@code null}.
+     */
+    public CompletableFuture<UUID> applyReturn(Long productId, UUID returnId) {
+        return submit(productId, new Adjustment(returnId, 0, true, new CompletableFuture<>()));
+    }
+
+    /**
+     * Removes pending returns in the caller's transaction, so the decreases they were recorded for stay once it
+     * commits. Fails if one was returned already.
+     */
+    public void confirm(Collection<UUID> returnIds) {
+        var counts = jdbcTemplate.batchUpdate(CONFIRM_SQL, returnIds.stream().map(id -> new Object[]{id}).toList());
+        for (var count : counts) {
+            if (count != 1) {
+                throw new IllegalStateException("Stock decrease was returned before it could be confirmed");
+            }
+        }
+    }
+
+    /**
+     * Records stock to give back to a product in the caller's transaction, to be applied with {@link #applyReturn}
+     * once it commits. Returns {@code null} if the product does not exist.
+     */
+    public UUID recordReturn(Long productId, int quantity) {
+        var returnId = UuidV7Generator.next();
+        return jdbcTemplate.update(RECORD_RETURN_IF_EXISTS_SQL, returnId, quantity, productId) == 1 ? returnId : null;
+    }
+
+    public List<PendingReturn> findReturnsCreatedBefore(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.query(STALE_RETURNS_SQL,
+                (rs, rowNum) -> new PendingReturn(rs.getObject("id", UUID.class), rs.getLong("product_id")),
+                createdBefore, limit);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        scheduler.shutdown();
+        flusher.shutdown();
+        if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+            flusher.shutdownNow();
+        }
+    }
+
+    int laneCount() {
+        return lanes.size();
+    }
+
+    private CompletableFuture<UUID> submit(Long productId, Adjustment adjustment) {
+        // A lane retired between the lookup and the add is already gone from the map, so the next lookup creates one.
+        while (!lanes.computeIfAbsent(productId, Lane::new).add(adjustment)) {
+            Thread.onSpinWait();
+        }
+        return adjustment.result();
+    }
+
+    private void settle(Long productId, List<Adjustment> batch) {
+        Outcome[] outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> apply(productId, batch));
+        } catch (RuntimeException e) {
+            log.error("Stock batch of {} adjustments for product {} failed", batch.size(), productId, e);
+            batch.forEach(adjustment -> adjustment.result().completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (outcomes[i].failure() == null) {
+                batch.get(i).result().complete(outcomes[i].returnId());
+            } else {
+                batch.get(i).result().completeExceptionally(outcomes[i].failure());
+            }
+        }
+    }
+
+    // Returns come first, then decreases are decided in arrival order against the running balance.
+    private Outcome[] apply(Long productId, List<Adjustment> batch) {
+        var outcomes = new Outcome[batch.size()];
+        var rows = jdbcTemplate.query(LOCK_SQL, (rs, rowNum) -> new StockRow(rs.getString("name"), rs.getInt("stock_quantity")), productId);
+        if (rows.isEmpty()) {
+            for (int i = 0; i < batch.size(); i++) {
+                outcomes[i] = batch.get(i).isReturn()
+                        ? new Outcome(null, null)
+                        : new Outcome(null, new EntityNotFoundException("Product", productId));
+            }
+            return outcomes;
+        }
+
+        var row = rows.getFirst();
+        var balance = row.stockQuantity();
+        for (int i = 0; i < batch.size(); i++) {
+            var adjustment = batch.get(i);
+            if (adjustment.isReturn()) {
+                var returned = jdbcTemplate.query(TAKE_RETURN_SQL, (rs, rowNum) -> rs.getInt("quantity"), adjustment.id());
+                outcomes[i] = new Outcome(returned.isEmpty() ? null : adjustment.id(), null);
+                balance += returned.isEmpty() ? 0 : returned.getFirst();
+            }
+        }
+
+        var recorded = new ArrayList<Object[]>();
+        for (int i = 0; i < batch.size(); i++) {
+            var adjustment = batch.get(i);
+            if (adjustment.isReturn()) {
+                continue;
+            }
+            if (adjustment.quantity() > balance) {
+                outcomes[i] = new Outcome(null, new InsufficientStockException(row.name(), balance, adjustment.quantity()));
+                continue;
+            }
+            balance -= adjustment.quantity();
+            recorded.add(new Object[]{adjustment.id(), productId, adjustment.quantity()});
+            outcomes[i] = new Outcome(adjustment.id(), null);
+        }
+
+        if (!recorded.isEmpty()) {
+            jdbcTemplate.batchUpdate(RECORD_RETURN_SQL, recorded);
+        }
+        if (balance != row.stockQuantity()) {
+            jdbcTemplate.update(UPDATE_SQL, balance, productId);
+        }
+        log.debug("Applied {} stock adjustments for product {} as one update ({} -> {})", batch.size(), productId, row.stockQuantity(), balance);
+        return outcomes;
+    }
+
+    public record PendingReturn(UUID id, Long productId) {
+    }
+
+    private record Adjustment(UUID id, int quantity, boolean isReturn, CompletableFuture<UUID> result) {
+    }
+
+    private record Outcome(UUID returnId, RuntimeException failure) {
+    }
+
+    private record StockRow(String name, int stockQuantity) {
+    }
+
+    private enum LaneState {
+        IDLE, WAITING, FLUSHING, RETIRED
+    }
+
+    private final class Lane {
+
+        private final Long productId;
+        private List<Adjustment> pending = new ArrayList<>();
+        private LaneState state = LaneState.IDLE;
+        private ScheduledFuture<?> timer;
+
+        private Lane(Long productId) {
+            this.productId = productId;
+        }
+
+        private synchronized boolean add(Adjustment adjustment) {
+            if (state == LaneState.RETIRED) {
+                return false;
+            }
+            pending.add(adjustment);
+            if (state == LaneState.IDLE) {
+                state = LaneState.WAITING;
+                schedule();
+            } else if (state == LaneState.WAITING && pending.size() >= maxBatchSize) {
+                timer.cancel(false);
+                dispatch();
+            }
+            return true;
+        }
+
+        private void schedule() {
+            try {
+                timer = scheduler.schedule(this::onWindowElapsed, windowNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                failPending(e);
+            }
+        }
+
+        private synchronized void onWindowElapsed() {
+            if (state == LaneState.WAITING) {
+                dispatch();
+            }
+        }
+
+        private void dispatch() {
+            state = LaneState.FLUSHING;
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                failPending(e);
+            }
+        }
+
+        private void flush() {
+            List<Adjustment> batch;
+            synchronized (this) {
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+
+            settle(productId, batch);
+
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    retire();
+                } else {
+                    dispatch();
+                }
+            }
+        }
+
+        private void failPending(RejectedExecutionException e) {
+            pending.forEach(adjustment -> adjustment.result().completeExceptionally(new IllegalStateException("Stock coalescer is shut down", e)));
+            pending = new ArrayList<>();
+            retire();
+        }
+
+        // Called with the lane's lock held, so an add either lands before the lane retires or sees it retired.
+        private void retire() {
+            state = LaneState.RETIRED;
+            lanes.remove(productId, this);
+        }
+    }
+}
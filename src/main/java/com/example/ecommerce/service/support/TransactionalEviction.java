@@ -0,0 +1,28 @@
+package com.example.ecommerce.service.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs a cache eviction immediately and again once the surrounding transaction completes, so a reader that loaded
+ * the pre-commit state in between cannot leave it cached.
+ */
+public final class TransactionalEviction {
+
+    private TransactionalEviction() {
+    }
+
+    public static void runNowAndOnCompletion(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+}
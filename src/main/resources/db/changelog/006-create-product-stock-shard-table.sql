@@ -0,0 +1,17 @@
+--liquibase formatted sql
+--changeset charles:006-create-product-stock-shard-table
+
+ALTER TABLE product ADD COLUMN stock_shard_count INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE product ADD CONSTRAINT ck_product_stock_shard_count_positive CHECK (stock_shard_count >= 1);
+
+CREATE TABLE product_stock_shard
+(
+    id         BIGSERIAL PRIMARY KEY,
+    product_id BIGINT  NOT NULL,
+    shard_no   INTEGER NOT NULL,
+    quantity   INTEGER NOT NULL DEFAULT 0,
+
+    CONSTRAINT uk_product_stock_shard UNIQUE (product_id, shard_no),
+    CONSTRAINT fk_product_stock_shard_product FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE CASCADE,
+    CONSTRAINT ck_product_stock_shard_quantity_non_negative CHECK (quantity >= 0)
+);
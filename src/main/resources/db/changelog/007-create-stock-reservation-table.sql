@@ -0,0 +1,15 @@
+--liquibase formatted sql
+--changeset charles:007-create-stock-reservation-table
+
+CREATE TABLE stock_reservation
+(
+    id         BIGSERIAL PRIMARY KEY,
+    order_id   BIGINT    NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uk_stock_reservation_order UNIQUE (order_id),
+    CONSTRAINT fk_stock_reservation_order FOREIGN KEY (order_id) REFERENCES orders (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_stock_reservation_expires_at ON stock_reservation (expires_at);
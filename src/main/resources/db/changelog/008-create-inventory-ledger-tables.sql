@@ -0,0 +1,26 @@
+--liquibase formatted sql
+--changeset charles:008-create-inventory-ledger-tables
+
+CREATE TABLE inventory_movement
+(
+    id         BIGSERIAL PRIMARY KEY,
+    product_id BIGINT    NOT NULL,
+    delta      INTEGER   NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_inventory_movement_product FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE CASCADE,
+    CONSTRAINT ck_inventory_movement_delta_non_zero CHECK (delta <> 0)
+);
+
+CREATE INDEX idx_inventory_movement_product_id ON inventory_movement (product_id, id);
+
+CREATE TABLE inventory_balance
+(
+    product_id       BIGINT PRIMARY KEY,
+    quantity         INTEGER   NOT NULL,
+    last_movement_id BIGINT    NOT NULL,
+    updated_at       TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_inventory_balance_product FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE CASCADE,
+    CONSTRAINT ck_inventory_balance_quantity_non_negative CHECK (quantity >= 0)
+);
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+--changeset charles:009-use-pooled-id-sequences
+
+ALTER SEQUENCE product_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_item_id_seq INCREMENT BY 50;
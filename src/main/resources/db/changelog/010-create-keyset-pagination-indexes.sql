@@ -0,0 +1,22 @@
+--liquibase formatted SQL
+--changeset charles:010-create-product-created-at-id-index runInTransaction:false
+-- One index per changeset, built and dropped CONCURRENTLY outside a transaction, so writes to the tables go on.
+CREATE INDEX CONCURRENTLY idx_product_created_at_id ON product (created_at, id);
+
+--changeset charles:010-create-order-created-at-id-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_order_created_at_id ON orders (created_at, id);
+
+--changeset charles:010-create-order-item-created-at-id-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_order_item_created_at_id ON order_item (created_at, id);
+
+--changeset charles:010-create-order-item-order-id-created-at-id-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_order_item_order_id_created_at_id ON order_item (order_id, created_at, id);
+
+--changeset charles:010-drop-product-created-at-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_product_created_at;
+
+--changeset charles:010-drop-order-created-at-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_order_created_at;
+
+--changeset charles:010-drop-order-item-order-id-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_order_item_order_id;
@@ -0,0 +1,28 @@
+--liquibase formatted sql
+--changeset charles:011-add-order-item-product-code
+
+ALTER TABLE order_item ADD COLUMN product_code UUID;
+
+--changeset charles:011-backfill-order-item-product-code runInTransaction:false splitStatements:false
+-- Backfills by primary key range and commits after every chunk, so no long transaction holds row locks on order_item.
+DO
+$$
+DECLARE
+    chunk_size CONSTANT BIGINT := 10000;
+    lower_id BIGINT;
+    max_id BIGINT;
+BEGIN
+    SELECT min(id), max(id) INTO lower_id, max_id FROM order_item WHERE product_id IS NOT NULL;
+    WHILE lower_id <= max_id LOOP
+        UPDATE order_item i
+        SET product_code = p.code
+        FROM product p
+        WHERE p.id = i.product_id
+          AND i.id >= lower_id
+          AND i.id < lower_id + chunk_size
+          AND i.product_code IS NULL;
+        COMMIT;
+        lower_id := lower_id + chunk_size;
+    END LOOP;
+END
+$$;
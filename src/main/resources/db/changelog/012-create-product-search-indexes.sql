@@ -0,0 +1,15 @@
+--liquibase formatted SQL
+--changeset charles:012-create-product-name-vector-index runInTransaction:false
+-- Expression indexes instead of stored tsvector columns: adding a stored generated column rewrites product under an
+-- ACCESS EXCLUSIVE lock, while a concurrent index build lets reads and writes go on.
+CREATE INDEX CONCURRENTLY idx_product_name_vector ON product USING GIN (to_tsvector('english', name));
+
+--changeset charles:012-create-product-search-vector-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_product_search_vector ON product USING GIN (to_tsvector('english', name || ' ' || coalesce(description, '')));
+
+--changeset charles:012-create-product-price-id-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_product_price_id ON product (price, id);
+
+--changeset charles:012-raise-product-vector-statistics
+ALTER INDEX idx_product_name_vector ALTER COLUMN 1 SET STATISTICS 1000;
+ALTER INDEX idx_product_search_vector ALTER COLUMN 1 SET STATISTICS 1000;
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+--changeset charles:013-create-idempotency-record-table
+
+CREATE TABLE idempotency_record
+(
+    id              BIGSERIAL PRIMARY KEY,
+    scope           VARCHAR(255) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     VARCHAR(64)  NOT NULL,
+    status          INTEGER,
+    location        VARCHAR(2000),
+    e_tag           VARCHAR(255),
+    body            BYTEA,
+    created_at      TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at      TIMESTAMP    NOT NULL,
+
+    CONSTRAINT uk_idempotency_record_scope_key UNIQUE (scope, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_record_expires_at ON idempotency_record (expires_at);
@@ -0,0 +1,18 @@
+--liquibase formatted sql
+--changeset charles:014-create-order-intake-table
+
+CREATE TABLE order_intake
+(
+    id           BIGSERIAL PRIMARY KEY,
+    code         UUID        NOT NULL,
+    payload      TEXT        NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    error        VARCHAR(2000),
+    created_at   TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP,
+
+    CONSTRAINT uk_order_intake_code UNIQUE (code)
+);
+
+CREATE INDEX idx_order_intake_queued ON order_intake (id) WHERE status = 'QUEUED';
+CREATE INDEX idx_order_intake_processed_at ON order_intake (processed_at) WHERE processed_at IS NOT NULL;
@@ -0,0 +1,15 @@
+--liquibase formatted sql
+--changeset charles:015-create-pending-stock-return-table
+
+CREATE TABLE pending_stock_return
+(
+    id         UUID PRIMARY KEY,
+    product_id BIGINT    NOT NULL,
+    quantity   INTEGER   NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_pending_stock_return_product FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE CASCADE,
+    CONSTRAINT ck_pending_stock_return_quantity_positive CHECK (quantity > 0)
+);
+
+CREATE INDEX idx_pending_stock_return_created_at ON pending_stock_return (created_at);
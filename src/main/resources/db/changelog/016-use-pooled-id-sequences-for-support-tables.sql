@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset charles:016-use-pooled-id-sequences-for-support-tables
+
+ALTER SEQUENCE product_stock_shard_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stock_reservation_id_seq INCREMENT BY 50;
+ALTER SEQUENCE idempotency_record_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_intake_id_seq INCREMENT BY 50;
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+--changeset charles:017-add-order-intake-attempts
+
+ALTER TABLE order_intake
+    ADD COLUMN attempts        INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN last_attempt_at TIMESTAMP;
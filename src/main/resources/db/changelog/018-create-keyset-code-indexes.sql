@@ -0,0 +1,25 @@
+--liquibase formatted SQL
+--changeset charles:018-create-product-created-at-code-index runInTransaction:false
+-- Cursors seek on the public code instead of the internal id, so the id indexes from changeset 010 are replaced.
+CREATE INDEX CONCURRENTLY idx_product_created_at_code ON product (created_at, code);
+
+--changeset charles:018-create-order-created-at-code-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_order_created_at_code ON orders (created_at, code);
+
+--changeset charles:018-create-order-item-created-at-code-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_order_item_created_at_code ON order_item (created_at, code);
+
+--changeset charles:018-create-order-item-order-id-created-at-code-index runInTransaction:false
+CREATE INDEX CONCURRENTLY idx_order_item_order_id_created_at_code ON order_item (order_id, created_at, code);
+
+--changeset charles:018-drop-product-created-at-id-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_product_created_at_id;
+
+--changeset charles:018-drop-order-created-at-id-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_order_created_at_id;
+
+--changeset charles:018-drop-order-item-created-at-id-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_order_item_created_at_id;
+
+--changeset charles:018-drop-order-item-order-id-created-at-id-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_order_item_order_id_created_at_id;
@@ -0,0 +1,7 @@
+--liquibase formatted SQL
+--changeset charles:019-create-product-price-code-index runInTransaction:false
+-- Search cursors break ties on the public code instead of the internal id, like the list cursors since changeset 018.
+CREATE INDEX CONCURRENTLY idx_product_price_code ON product (price, code);
+
+--changeset charles:019-drop-product-price-id-index runInTransaction:false
+DROP INDEX CONCURRENTLY idx_product_price_id;
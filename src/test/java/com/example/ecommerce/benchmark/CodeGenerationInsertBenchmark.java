@@ -0,0 +1,131 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.TestcontainersConfiguration;
+import com.example.ecommerce.domain.support.UuidV7Generator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class CodeGenerationInsertBenchmark {
+
+    private static final int WARMUP_ORDERS = 2_000;
+    private static final int ORDERS = 50_000;
+    private static final int ITEMS_PER_ORDER = 4;
+    private static final int ORDERS_PER_TRANSACTION = 500;
+
+    private static final String INSERT_ORDER_RETURNING_CODE_SQL = """
+            INSERT INTO orders (id, customer_name, customer_email, total_amount)
+            VALUES (?, 'Benchmark Customer', 'benchmark@example.com', 40.00)
+            RETURNING code
+            """;
+    private static final String INSERT_ITEM_RETURNING_CODE_SQL = """
+            INSERT INTO order_item (order_id, product_name, unit_price, quantity)
+            VALUES (?, 'Benchmark Product', 10.00, 1)
+            RETURNING code
+            """;
+    private static final String INSERT_ORDER_SQL = """
+            INSERT INTO orders (id, code, customer_name, customer_email, total_amount)
+            VALUES (?, ?, 'Benchmark Customer', 'benchmark@example.com', 40.00)
+            """;
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO order_item (order_id, code, product_name, unit_price, quantity)
+            VALUES (?, ?, 'Benchmark Product', 10.00, 1)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE orders, order_item CASCADE");
+    }
+
+    @Test
+    void compareCodeGenerationStrategiesOnInsert() {
+        var strategies = new LinkedHashMap<String, Supplier<UUID>>();
+        strategies.put("database gen_random_uuid() + RETURNING", null);
+        strategies.put("application UUIDv4, batched", UUID::randomUUID);
+        strategies.put("application UUIDv7, batched", UuidV7Generator::next);
+
+        var results = new ArrayList<String>();
+        for (var strategy : strategies.entrySet()) {
+            run(strategy.getValue(), WARMUP_ORDERS);
+            jdbcTemplate.execute("TRUNCATE orders, order_item CASCADE");
+            results.add(strategy.getKey() + ": " + run(strategy.getValue(), ORDERS));
+            jdbcTemplate.execute("TRUNCATE orders, order_item CASCADE");
+        }
+        results.forEach(System.out::println);
+    }
+
+    private Result run(Supplier<UUID> codes, int orders) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        var begin = System.nanoTime();
+        for (int inserted = 0; inserted < orders; inserted += ORDERS_PER_TRANSACTION) {
+            var chunk = Math.min(ORDERS_PER_TRANSACTION, orders - inserted);
+            transactionTemplate.executeWithoutResult(status -> insertChunk(codes, chunk));
+        }
+        var elapsedNanos = System.nanoTime() - begin;
+
+        var rows = (long) orders * (1 + ITEMS_PER_ORDER);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM order_item", Long.class)).isEqualTo((long) orders * ITEMS_PER_ORDER);
+        return new Result(
+                rows / (elapsedNanos / 1e9),
+                indexSize("uk_order_code"),
+                indexSize("uk_order_item_code")
+        );
+    }
+
+    private void insertChunk(Supplier<UUID> codes, int orders) {
+        var orderIds = jdbcTemplate.queryForList("SELECT nextval('orders_id_seq') FROM generate_series(1, ?)", Long.class, orders);
+        if (codes == null) {
+            for (var orderId : orderIds) {
+                jdbcTemplate.queryForObject(INSERT_ORDER_RETURNING_CODE_SQL, UUID.class, orderId);
+                for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                    jdbcTemplate.queryForObject(INSERT_ITEM_RETURNING_CODE_SQL, UUID.class, orderId);
+                }
+            }
+            return;
+        }
+
+        var orderRows = new ArrayList<Object[]>(orders);
+        var itemRows = new ArrayList<Object[]>(orders * ITEMS_PER_ORDER);
+        for (var orderId : orderIds) {
+            orderRows.add(new Object[]{orderId, codes.get()});
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                itemRows.add(new Object[]{orderId, codes.get()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orderRows);
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows);
+    }
+
+    private long indexSize(String index) {
+        return jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class, index);
+    }
+
+    private record Result(double rowsPerSecond, long orderCodeIndexBytes, long itemCodeIndexBytes) {
+
+        @Override
+        public String toString() {
+            return "%.0f rows/s, uk_order_code=%d kB, uk_order_item_code=%d kB"
+                    .formatted(rowsPerSecond, orderCodeIndexBytes / 1024, itemCodeIndexBytes / 1024);
+        }
+    }
+}
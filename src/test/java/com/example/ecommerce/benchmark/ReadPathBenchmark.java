@@ -0,0 +1,165 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.TestcontainersConfiguration;
+import com.example.ecommerce.domain.entity.Order;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.product.ProductCreateDTO;
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.mapper.OrderMapper;
+import com.example.ecommerce.mapper.ProductMapper;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.ProductService;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.OrderResponseCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class ReadPathBenchmark {
+
+    private static final int PRODUCTS = 200;
+    private static final int ORDERS = 1_000;
+    private static final int ITEMS_PER_ORDER = 4;
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP_OPERATIONS = 500;
+    private static final int OPERATIONS = 3_000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private OrderResponseCache orderResponseCache;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE orders, order_item, product CASCADE");
+    }
+
+    @Test
+    void compareEntityAndProjectionReadPaths() {
+        var productCodes = new ArrayList<UUID>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            productCodes.add(productService.create(new ProductCreateDTO("Benchmark Product " + i, "Read path benchmark", new BigDecimal("9.99"), 1_000_000)).code());
+        }
+        var orderCodes = new ArrayList<UUID>();
+        for (int i = 0; i < ORDERS; i++) {
+            var lines = new ArrayList<OrderLineDTO>();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                lines.add(new OrderLineDTO(productCodes.get((i * ITEMS_PER_ORDER + j) % PRODUCTS), 1));
+            }
+            orderCodes.add(orderService.create(new OrderCreateDTO("Benchmark Customer", "benchmark@example.com", lines)).code());
+        }
+        // Historical orders, so the response cache keeps them.
+        jdbcTemplate.update("UPDATE orders SET status = 'COMPLETED'");
+
+        var operations = new LinkedHashMap<String, IntFunction<Object>>();
+        operations.put("order by code, entity", i -> orderMapper.toResponseDTO(orderRepository.findByCodeWithItems(orderCodes.get(i % ORDERS)).orElseThrow()));
+        operations.put("order by code, projection", i -> orderService.findByCode(orderCodes.get(i % ORDERS)));
+        operations.put("order by code, projection + serialization", i -> jsonMapper.writeValueAsBytes(orderService.findByCode(orderCodes.get(i % ORDERS))));
+        operations.put("order by code, response cache", i -> orderResponseCache.get(orderCodes.get(i % ORDERS), orderService::findByCode));
+        operations.put("order page, entity", i -> entityOrderPage(page(i, ORDERS)));
+        operations.put("order page, projection", i -> orderService.findAll(page(i, ORDERS)));
+        operations.put("product page, entity", i -> entityProductPage(page(i, PRODUCTS)));
+        operations.put("product page, projection", i -> productService.findAll(page(i, PRODUCTS)));
+
+        var results = new ArrayList<String>();
+        for (var operation : operations.entrySet()) {
+            run(operation.getValue(), WARMUP_OPERATIONS);
+            results.add(operation.getKey() + ": " + run(operation.getValue(), OPERATIONS));
+        }
+        results.forEach(System.out::println);
+    }
+
+    private Page<?> entityOrderPage(Pageable pageable) {
+        var orders = orderRepository.findAll(pageable);
+        orderRepository.findAllWithItemsByIdIn(orders.map(Order::getId).getContent());
+        return orders.map(orderMapper::toResponseDTO);
+    }
+
+    private Page<ProductResponseDTO> entityProductPage(Pageable pageable) {
+        var products = productRepository.findAll(pageable);
+        var stock = stockService.availableStock(products.getContent());
+        return products.map(product -> productMapper.toResponseDTO(product, stock.get(product.getId())));
+    }
+
+    private static Pageable page(int operation, int rows) {
+        return PageRequest.of(operation % (rows / PAGE_SIZE), PAGE_SIZE);
+    }
+
+    // Both paths run in the same read-only transaction shape so only hydration and mapping differ.
+    private Result run(IntFunction<Object> operation, int operations) {
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        var allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        var begin = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            var index = i;
+            Object response = transactionTemplate.execute(status -> operation.apply(index));
+            assertThat(response).isNotNull();
+        }
+        var elapsedNanos = System.nanoTime() - begin;
+        var allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        return new Result(operations / (elapsedNanos / 1e9), allocated / operations);
+    }
+
+    private record Result(double operationsPerSecond, long allocatedBytesPerOperation) {
+
+        @Override
+        public String toString() {
+            return "%.0f ops/s, %d kB allocated/op".formatted(operationsPerSecond, allocatedBytesPerOperation / 1024);
+        }
+    }
+}
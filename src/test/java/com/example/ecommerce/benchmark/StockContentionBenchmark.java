@@ -0,0 +1,164 @@
+package com.example.ecommerce.benchmark;
+
+import com.example.ecommerce.TestcontainersConfiguration;
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.product.StockShardsUpdateDTO;
+import com.example.ecommerce.repository.InventoryMovementRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.ProductStockShardRepository;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.impl.CoalescingStockServiceImpl;
+import com.example.ecommerce.service.impl.ConditionalStockServiceImpl;
+import com.example.ecommerce.service.impl.LedgerStockServiceImpl;
+import com.example.ecommerce.service.impl.ShardedStockServiceImpl;
+import com.example.ecommerce.service.impl.StockServiceImpl;
+import com.example.ecommerce.service.impl.StockShardServiceImpl;
+import com.example.ecommerce.service.support.ProductCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class StockContentionBenchmark {
+
+    private static final int THREADS = 8;
+    private static final int WARMUP_DECREMENTS_PER_THREAD = 50;
+    private static final int DECREMENTS_PER_THREAD = 500;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private StockShardServiceImpl stockShardService;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void compareStockEnginesUnderContention() throws Exception {
+        stockShardService = new StockShardServiceImpl("sharded", productRepository, shardRepository);
+        var shardedStockService = new ShardedStockServiceImpl(productRepository, productCache, stockShardService, shardRepository);
+        var coalescingStockService = new CoalescingStockServiceImpl(productRepository, productCache, jdbcTemplate, transactionManager,
+                Duration.ofMillis(2), 64, 2, THREADS, Duration.ofMinutes(5));
+
+        var engines = new LinkedHashMap<String, Engine>();
+        engines.put("pessimistic", new Engine(new StockServiceImpl(productRepository, productCache), 1));
+        engines.put("conditional", new Engine(new ConditionalStockServiceImpl(productRepository, productCache), 1));
+        engines.put("coalescing", new Engine(coalescingStockService, 1));
+        engines.put("ledger", new Engine(new LedgerStockServiceImpl(productRepository, productCache, movementRepository), 1));
+        engines.put("sharded x4", new Engine(shardedStockService, 4));
+        engines.put("sharded x8", new Engine(shardedStockService, 8));
+
+        var results = new ArrayList<String>();
+        for (var engine : engines.entrySet()) {
+            run(engine.getValue(), WARMUP_DECREMENTS_PER_THREAD);
+            results.add(engine.getKey() + ": " + run(engine.getValue(), DECREMENTS_PER_THREAD));
+        }
+        coalescingStockService.destroy();
+        results.forEach(System.out::println);
+    }
+
+    private Result run(Engine engine, int decrementsPerThread) throws Exception {
+        var stockService = engine.stockService();
+        var initialStock = THREADS * decrementsPerThread;
+        var product = productRepository.save(Product.builder()
+                .name("Hot Product " + System.nanoTime())
+                .price(new BigDecimal("9.99"))
+                .stockQuantity(initialStock)
+                .build());
+
+        var transactionTemplate = new TransactionTemplate(transactionManager);
+        if (engine.shardCount() > 1) {
+            transactionTemplate.executeWithoutResult(status ->
+                    stockShardService.configure(product.getCode(), new StockShardsUpdateDTO(engine.shardCount())));
+        }
+        var executor = newFixedThreadPool(THREADS);
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<List<Long>>>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit((Callable<List<Long>>) () -> {
+                var latencies = new ArrayList<Long>(decrementsPerThread);
+                start.await();
+                for (int j = 0; j < decrementsPerThread; j++) {
+                    var begin = System.nanoTime();
+                    transactionTemplate.executeWithoutResult(status -> stockService.adjust(product.getId(), 1));
+                    latencies.add(System.nanoTime() - begin);
+                }
+                return latencies;
+            }));
+        }
+
+        var begin = System.nanoTime();
+        start.countDown();
+        var latencies = new ArrayList<Long>(initialStock);
+        for (var future : futures) {
+            latencies.addAll(future.get());
+        }
+        var elapsedNanos = System.nanoTime() - begin;
+        executor.shutdown();
+
+        var remaining = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(stockService.availableStock(List.of(remaining))).containsEntry(product.getId(), 0);
+        productRepository.deleteById(product.getId());
+        return Result.of(latencies, elapsedNanos);
+    }
+
+    private record Engine(StockService stockService, int shardCount) {
+    }
+
+    private record Result(double opsPerSecond, double p50Millis, double p99Millis) {
+
+        static Result of(List<Long> latencies, long elapsedNanos) {
+            Collections.sort(latencies);
+            return new Result(
+                    latencies.size() / (elapsedNanos / 1e9),
+                    percentile(latencies, 0.50) / 1e6,
+                    percentile(latencies, 0.99) / 1e6
+            );
+        }
+
+        private static long percentile(List<Long> sorted, double percentile) {
+            return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1);
+        }
+
+        @Override
+        public String toString() {
+            return "%.0f ops/s, p50=%.2f ms, p99=%.2f ms".formatted(opsPerSecond, p50Millis, p99Millis);
+        }
+    }
+}
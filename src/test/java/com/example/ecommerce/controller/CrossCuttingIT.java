@@ -1,5 +1,6 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.dto.order.OrderCreateDTO;
 import com.example.ecommerce.dto.order.OrderLineDTO;
 import com.example.ecommerce.dto.order.OrderResponseDTO;
 import com.example.ecommerce.dto.order.OrderUpdateDTO;
@@ -13,9 +14,11 @@ import org.springframework.http.ProblemDetail;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
 
 import static com.example.ecommerce.domain.entity.OrderStatus.CANCELLED;
 import static com.example.ecommerce.domain.entity.OrderStatus.PROCESSING;
@@ -39,7 +42,7 @@ class CrossCuttingIT extends IntegrationTestBase {
     }
 
     @Test
-    @DisplayName("Deleting a product preserves order item snapshots (productName and unitPrice)")
+    @DisplayName("Deleting a product preserves order item snapshots (productCode, productName and unitPrice)")
     void shouldPreserveOrderItemSnapshots_whenProductIsDeleted() {
 
         // Given
@@ -68,7 +71,7 @@ class CrossCuttingIT extends IntegrationTestBase {
         var item = orderResponse.getBody().items().getFirst();
         assertThat(item.productName()).isEqualTo("Deluxe Widget");
         assertThat(item.unitPrice()).isEqualByComparingTo(new BigDecimal("49.99"));
-        assertThat(item.productCode()).isNull();
+        assertThat(item.productCode()).isEqualTo(product.code());
     }
 
     @Test
@@ -198,6 +201,51 @@ class CrossCuttingIT extends IntegrationTestBase {
         assertThat(statuses).containsExactlyInAnyOrder(200, 409);
     }
 
+    @Test
+    @DisplayName("Concurrent orders touching the same products in opposite order all succeed without deadlock")
+    void shouldCreateAllOrders_whenConcurrentOrdersLockProductsInOppositeOrder() throws Exception {
+        // Given
+        var first = createTestProduct("Contended A", new BigDecimal("10.00"), 100);
+        var second = createTestProduct("Contended B", new BigDecimal("20.00"), 100);
+
+        var executor = newFixedThreadPool(8);
+        var latch = new CountDownLatch(1);
+
+        var tasks = IntStream.range(0, 16)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    var client = RestClient.create();
+                    latch.await();
+                    var lines = i % 2 == 0
+                            ? List.of(new OrderLineDTO(first.code(), 1), new OrderLineDTO(second.code(), 1))
+                            : List.of(new OrderLineDTO(second.code(), 1), new OrderLineDTO(first.code(), 1));
+                    return client.post()
+                            .uri(ordersUrl)
+                            .contentType(APPLICATION_JSON)
+                            .body(new OrderCreateDTO("Concurrent " + i, "concurrent@test.com", lines))
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                            })
+                            .toBodilessEntity()
+                            .getStatusCode().value();
+                })
+                .toList();
+
+        // When
+        var futures = tasks.stream().map(executor::submit).toList();
+        latch.countDown();
+
+        var statuses = new ArrayList<Integer>();
+        for (var future : futures) {
+            statuses.add(future.get());
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(statuses).containsOnly(201);
+        assertThat(getProduct(first.code()).stockQuantity()).isEqualTo(84);
+        assertThat(getProduct(second.code()).stockQuantity()).isEqualTo(84);
+    }
+
     @Test
     @DisplayName("Malformed UUID in path returns 400 Bad Request")
     void shouldReturnBadRequest_whenUuidIsMalformed() {
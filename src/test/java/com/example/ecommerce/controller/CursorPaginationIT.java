@@ -0,0 +1,132 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+class CursorPaginationIT extends IntegrationTestBase {
+
+    @Test
+    @DisplayName("Walking product pages by cursor returns every product once in creation order")
+    void shouldReturnAllProductsInOrder_whenFollowingCursors() {
+        // Given
+        var created = new ArrayList<UUID>();
+        for (int i = 0; i < 7; i++) {
+            created.add(createTestProduct("Cursor Product " + i, new BigDecimal("3.00"), i + 1).code());
+        }
+
+        // When
+        var pages = walk("/api/products", 3, new ParameterizedTypeReference<CursorPage<ProductResponseDTO>>() {});
+
+        // Then
+        assertThat(pages).extracting(page -> page.content().size()).containsExactly(3, 3, 1);
+        assertThat(pages.getLast().nextCursor()).isNull();
+        assertThat(codes(pages, ProductResponseDTO::code)).containsExactlyElementsOf(created);
+        assertThat(pages.getFirst().content().getFirst().stockQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Walking order pages by cursor returns orders with their items")
+    void shouldReturnOrdersWithItems_whenFollowingCursors() {
+        // Given
+        var product = createTestProduct("Cursor Order Product", new BigDecimal("2.50"), 100);
+        var created = new ArrayList<UUID>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createTestOrder(product.code(), i + 1).code());
+        }
+
+        // When
+        var pages = walk("/api/orders", 2, new ParameterizedTypeReference<CursorPage<OrderResponseDTO>>() {});
+
+        // Then
+        assertThat(pages).hasSize(3);
+        assertThat(codes(pages, OrderResponseDTO::code)).containsExactlyElementsOf(created);
+        assertThat(pages.getFirst().content().getFirst().items()).singleElement()
+                .satisfies(item -> assertThat(item.productCode()).isEqualTo(product.code()));
+    }
+
+    @Test
+    @DisplayName("Walking order items by cursor, globally and per order, returns every item once")
+    void shouldReturnAllOrderItems_whenFollowingCursors() {
+        // Given
+        var first = createTestProduct("Cursor Item Product A", new BigDecimal("1.00"), 100);
+        var second = createTestProduct("Cursor Item Product B", new BigDecimal("1.00"), 100);
+        var third = createTestProduct("Cursor Item Product C", new BigDecimal("1.00"), 100);
+        var order = createTestOrder("Cursor Customer", "cursor@example.com", List.of(
+                new OrderLineDTO(first.code(), 1),
+                new OrderLineDTO(second.code(), 1),
+                new OrderLineDTO(third.code(), 1)));
+        var other = createTestOrder(first.code(), 1);
+        var type = new ParameterizedTypeReference<CursorPage<OrderItemResponseDTO>>() {};
+
+        // When
+        var allPages = walk("/api/order-items", 2, type);
+        var orderPages = walk("/api/orders/" + order.code() + "/order-items", 2, type);
+
+        // Then
+        assertThat(codes(allPages, OrderItemResponseDTO::code)).hasSize(4).doesNotHaveDuplicates();
+        assertThat(codes(orderPages, OrderItemResponseDTO::code))
+                .containsExactlyInAnyOrderElementsOf(order.items().stream().map(OrderItemResponseDTO::code).toList())
+                .doesNotContain(other.items().getFirst().code());
+    }
+
+    @Test
+    @DisplayName("Reject a malformed cursor or an out-of-range limit with 400")
+    void shouldReturnBadRequest_whenCursorOrLimitIsInvalid() {
+        assertThat(status("/api/products?cursor=not-a-cursor")).isEqualTo(BAD_REQUEST);
+        assertThat(status("/api/orders?cursor=&limit=0")).isEqualTo(BAD_REQUEST);
+        assertThat(status("/api/order-items?cursor=&limit=101")).isEqualTo(BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("Return 404 when scrolling the items of an unknown order")
+    void shouldReturnNotFound_whenScrollingItemsOfUnknownOrder() {
+        assertThat(status("/api/orders/" + UUID.randomUUID() + "/order-items?cursor=")).isEqualTo(NOT_FOUND);
+    }
+
+    private <T> List<CursorPage<T>> walk(String path, int limit, ParameterizedTypeReference<CursorPage<T>> type) {
+        var pages = new ArrayList<CursorPage<T>>();
+        var cursor = "";
+        do {
+            var page = restClient.get()
+                    .uri(url(path + "?cursor={cursor}&limit={limit}"), cursor, limit)
+                    .retrieve()
+                    .body(type);
+            assertThat(page).isNotNull();
+            assertThat(page.limit()).isEqualTo(limit);
+            pages.add(page);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private static <T> List<UUID> codes(List<CursorPage<T>> pages, Function<T, UUID> code) {
+        return pages.stream().flatMap(page -> page.content().stream()).map(code).toList();
+    }
+
+    private HttpStatusCode status(String path) {
+        return restClient.get()
+                .uri(url(path))
+                .exchange((request, response) -> {
+                    response.bodyTo(ProblemDetail.class);
+                    return response.getStatusCode();
+                });
+    }
+}
@@ -0,0 +1,293 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.example.ecommerce.dto.order.OrderUpdateDTO;
+import com.example.ecommerce.dto.orderitem.OrderItemResponseDTO;
+import com.example.ecommerce.dto.orderitem.OrderItemUpdateDTO;
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EntityTagIT extends IntegrationTestBase {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("An unchanged order answers If-None-Match with 304 from a single version lookup")
+    void shouldReturnNotModified_whenOrderUnchanged() {
+        // Given
+        var product = createTestProduct("ETag Product", new BigDecimal("5.00"), 10);
+        var order = createTestOrder(product.code(), 2);
+        var eTag = restClient.get()
+                .uri(url("/api/orders/{code}"), order.code())
+                .retrieve()
+                .toEntity(OrderResponseDTO.class)
+                .getHeaders()
+                .getETag();
+        statistics.clear();
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/orders/{code}"), order.code())
+                .header(IF_NONE_MATCH, eTag)
+                .retrieve()
+                .toEntity(OrderResponseDTO.class);
+
+        // Then
+        assertThat(eTag).isEqualTo("\"%s-%d\"".formatted(order.code(), order.version()));
+        assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A changed order answers a stale If-None-Match with the full body and its new tag")
+    void shouldReturnBody_whenOrderChanged() {
+        // Given
+        var product = createTestProduct("ETag Changed Product", new BigDecimal("5.00"), 10);
+        var order = createTestOrder(product.code(), 2);
+        var staleTag = "\"%s-%d\"".formatted(order.code(), order.version());
+        restClient.put()
+                .uri(url("/api/orders/{code}"), order.code())
+                .contentType(APPLICATION_JSON)
+                .body(new OrderUpdateDTO("ETag Customer", "etag@example.com", OrderStatus.PROCESSING, order.version()))
+                .retrieve()
+                .toBodilessEntity();
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/orders/{code}"), order.code())
+                .header(IF_NONE_MATCH, staleTag)
+                .retrieve()
+                .toEntity(OrderResponseDTO.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().customerName()).isEqualTo("ETag Customer");
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"%s-%d\"".formatted(order.code(), response.getBody().version()));
+    }
+
+    @Test
+    @DisplayName("A product tag changes when an order takes stock")
+    void shouldChangeProductTag_whenStockChanges() {
+        // Given
+        var product = createTestProduct("ETag Stock Product", new BigDecimal("5.00"), 10);
+        var eTag = restClient.get()
+                .uri(url("/api/products/{code}"), product.code())
+                .retrieve()
+                .toEntity(ProductResponseDTO.class)
+                .getHeaders()
+                .getETag();
+        createTestOrder(product.code(), 3);
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/products/{code}"), product.code())
+                .header(IF_NONE_MATCH, eTag)
+                .retrieve()
+                .toEntity(ProductResponseDTO.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().stockQuantity()).isEqualTo(7);
+        assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    @DisplayName("If-None-Match for a missing resource answers 404")
+    void shouldReturnNotFound_whenResourceMissing() {
+        // When
+        var response = restClient.get()
+                .uri(url("/api/order-items/{code}"), UUID.randomUUID())
+                .header(IF_NONE_MATCH, "*")
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("If-Match replaces the body version on update")
+    void shouldUpdate_whenIfMatchIsCurrent() {
+        // Given
+        var product = createTestProduct("ETag Update Product", new BigDecimal("5.00"), 10);
+        var order = createTestOrder(product.code(), 2);
+        var item = order.items().getFirst();
+
+        // When
+        var response = restClient.put()
+                .uri(url("/api/order-items/{code}"), item.code())
+                .header(IF_MATCH, "\"%s-%d\"".formatted(item.code(), item.version()))
+                .contentType(APPLICATION_JSON)
+                .body(new OrderItemUpdateDTO(4, null))
+                .retrieve()
+                .toEntity(OrderItemResponseDTO.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().quantity()).isEqualTo(4);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"%s-%d\"".formatted(item.code(), response.getBody().version()));
+    }
+
+    @Test
+    @DisplayName("A stale If-Match answers 412 and leaves the resource unchanged")
+    void shouldReturnPreconditionFailed_whenIfMatchIsStale() {
+        // Given
+        var product = createTestProduct("ETag Stale Product", new BigDecimal("5.00"), 10);
+        var order = createTestOrder(product.code(), 2);
+        var item = order.items().getFirst();
+
+        // When
+        var response = restClient.put()
+                .uri(url("/api/order-items/{code}"), item.code())
+                .header(IF_MATCH, "\"%s-%d\"".formatted(item.code(), item.version() + 1))
+                .contentType(APPLICATION_JSON)
+                .body(new OrderItemUpdateDTO(4, item.version()))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getTitle()).isEqualTo("Precondition Failed");
+        assertThat(getOrder(order.code()).items().getFirst().quantity()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("If-Match: * without a body version updates the current version")
+    void shouldUpdate_whenIfMatchIsAnyWithoutVersion() {
+        // Given
+        var product = createTestProduct("ETag Any Product", new BigDecimal("5.00"), 10);
+        var order = createTestOrder(product.code(), 2);
+        var item = order.items().getFirst();
+
+        // When
+        var itemResponse = restClient.put()
+                .uri(url("/api/order-items/{code}"), item.code())
+                .header(IF_MATCH, "*")
+                .contentType(APPLICATION_JSON)
+                .body(new OrderItemUpdateDTO(3, null))
+                .retrieve()
+                .toEntity(OrderItemResponseDTO.class);
+        var productResponse = restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .header(IF_MATCH, "*")
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO("ETag Any Renamed", product.description(), product.price(), 20, null))
+                .retrieve()
+                .toEntity(ProductResponseDTO.class);
+
+        // Then
+        assertThat(itemResponse.getStatusCode()).isEqualTo(OK);
+        assertThat(itemResponse.getBody()).isNotNull();
+        assertThat(itemResponse.getBody().quantity()).isEqualTo(3);
+        assertThat(productResponse.getStatusCode()).isEqualTo(OK);
+        assertThat(productResponse.getBody()).isNotNull();
+        assertThat(productResponse.getBody().name()).isEqualTo("ETag Any Renamed");
+    }
+
+    @Test
+    @DisplayName("If-Match: * for a missing resource answers 404")
+    void shouldReturnNotFound_whenIfMatchIsAnyAndResourceMissing() {
+        // When
+        var response = restClient.put()
+                .uri(url("/api/order-items/{code}"), UUID.randomUUID())
+                .header(IF_MATCH, "*")
+                .contentType(APPLICATION_JSON)
+                .body(new OrderItemUpdateDTO(3, null))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("A product update with the current tag sets the stock and answers the new tag")
+    void shouldUpdateProductStock_whenIfMatchIsCurrent() {
+        // Given
+        var product = createTestProduct("ETag Restock Product", new BigDecimal("5.00"), 10);
+        var eTag = restClient.get()
+                .uri(url("/api/products/{code}"), product.code())
+                .retrieve()
+                .toEntity(ProductResponseDTO.class)
+                .getHeaders()
+                .getETag();
+
+        // When
+        var response = restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .header(IF_MATCH, eTag)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO(product.name(), product.description(), product.price(), 25, null))
+                .retrieve()
+                .toEntity(ProductResponseDTO.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().stockQuantity()).isEqualTo(25);
+        assertThat(response.getHeaders().getETag())
+                .isEqualTo("\"%s-%d-25\"".formatted(product.code(), response.getBody().version()));
+    }
+
+    @Test
+    @DisplayName("A product If-Match that only carries the current version answers 412")
+    void shouldReturnPreconditionFailed_whenProductIfMatchOmitsStock() {
+        // Given
+        var product = createTestProduct("ETag Partial Product", new BigDecimal("5.00"), 10);
+
+        // When
+        var response = restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .header(IF_MATCH, "\"%s-%d\"".formatted(product.code(), product.version()))
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO("ETag Partial Renamed", product.description(), product.price(), 10, null))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+        assertThat(getProduct(product.code()).name()).isEqualTo("ETag Partial Product");
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.example.ecommerce.repository.IdempotencyRecordRepository;
+import com.example.ecommerce.service.support.IdempotencyStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static com.example.ecommerce.controller.AbstractCrudController.IDEMPOTENCY_KEY;
+import static com.example.ecommerce.controller.AbstractCrudController.IDEMPOTENT_REPLAYED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+class IdempotencyIT extends IntegrationTestBase {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("A retried create with the same key replays the first response and creates one order")
+    void shouldReplayFirstResponse_whenCreateIsRetried() {
+        // Given
+        var product = createTestProduct("Idempotent Product", new BigDecimal("4.00"), 10);
+        var dto = order(product.code(), 3);
+        var key = UUID.randomUUID().toString();
+
+        // When
+        var first = postOrder(dto, key);
+        var retry = postOrder(dto, key);
+
+        // Then
+        assertThat(first.getStatusCode()).isEqualTo(CREATED);
+        assertThat(first.getHeaders().containsHeader(IDEMPOTENT_REPLAYED)).isFalse();
+        assertThat(retry.getStatusCode()).isEqualTo(CREATED);
+        assertThat(retry.getHeaders().getFirst(IDEMPOTENT_REPLAYED)).isEqualTo("true");
+        assertThat(retry.getHeaders().getLocation()).isEqualTo(first.getHeaders().getLocation());
+        assertThat(retry.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Concurrent duplicates wait for the first request and all get its order")
+    void shouldCreateOneOrder_whenDuplicatesRunConcurrently() throws Exception {
+        // Given
+        var product = createTestProduct("Concurrent Idempotent Product", new BigDecimal("4.00"), 100);
+        var dto = order(product.code(), 1);
+        var key = UUID.randomUUID().toString();
+
+        // When
+        List<ResponseEntity<OrderResponseDTO>> responses;
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var futures = executor.invokeAll(IntStream.range(0, 8)
+                    .mapToObj(i -> (Callable<ResponseEntity<OrderResponseDTO>>) () -> postOrder(dto, key))
+                    .toList());
+            responses = futures.stream().map(IdempotencyIT::join).toList();
+        }
+
+        // Then
+        assertThat(responses).extracting(ResponseEntity::getStatusCode).containsOnly(CREATED);
+        assertThat(responses).extracting(response -> response.getBody().code()).containsOnly(responses.getFirst().getBody().code());
+        assertThat(responses).filteredOn(response -> !response.getHeaders().containsHeader(IDEMPOTENT_REPLAYED)).hasSize(1);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(99);
+    }
+
+    @Test
+    @DisplayName("Reusing a key with a different body is rejected with 400")
+    void shouldReturnBadRequest_whenKeyIsReusedWithDifferentBody() {
+        // Given
+        var product = createTestProduct("Reused Key Product", new BigDecimal("4.00"), 10);
+        var key = UUID.randomUUID().toString();
+        postOrder(order(product.code(), 1), key);
+
+        // When
+        var response = postOrderExpectingProblem(order(product.code(), 2), key);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("A failed create stores nothing, so its retry runs again")
+    void shouldRunAgain_whenFirstAttemptFailed() {
+        // Given
+        var product = createTestProduct("Restocked Product", new BigDecimal("4.00"), 1);
+        var dto = order(product.code(), 2);
+        var key = UUID.randomUUID().toString();
+        var failed = postOrderExpectingProblem(dto, key);
+        var restocked = productRepository.findByCode(product.code()).orElseThrow();
+        restocked.setStockQuantity(5);
+        productRepository.save(restocked);
+
+        // When
+        var retry = postOrder(dto, key);
+
+        // Then
+        assertThat(failed.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(retry.getStatusCode()).isEqualTo(CREATED);
+        assertThat(retry.getHeaders().containsHeader(IDEMPOTENT_REPLAYED)).isFalse();
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Another instance replays the stored response from the database without running the create")
+    void shouldReplayFromDatabase_onAnotherInstance() {
+        // Given
+        var product = createTestProduct("Shared Key Product", new BigDecimal("4.00"), 10);
+        var dto = order(product.code(), 1);
+        var key = UUID.randomUUID().toString();
+        var first = postOrder(dto, key);
+        var otherInstance = new IdempotencyStore(idempotencyRecordRepository, jsonMapper, transactionManager,
+                Duration.ofHours(1), Duration.ofSeconds(5), DataSize.ofMegabytes(1));
+
+        // When
+        var outcome = otherInstance.execute("/api/orders", key, dto, () -> {
+            throw new AssertionError("The create must not run again");
+        });
+
+        // Then
+        assertThat(outcome.replayed()).isTrue();
+        assertThat(outcome.stored().location()).isEqualTo(first.getHeaders().getLocation().toString());
+        assertThat(jsonMapper.readValue(outcome.stored().body(), OrderResponseDTO.class)).isEqualTo(first.getBody());
+        assertThat(idempotencyRecordRepository.findByScopeAndIdempotencyKey("/api/orders", key))
+                .hasValueSatisfying(record -> assertThat(record.getStatus()).isEqualTo(201));
+    }
+
+    private OrderCreateDTO order(UUID productCode, int quantity) {
+        return new OrderCreateDTO("Idempotent Buyer", "idempotent@example.com", List.of(new OrderLineDTO(productCode, quantity)));
+    }
+
+    private ResponseEntity<OrderResponseDTO> postOrder(OrderCreateDTO dto, String key) {
+        return restClient.post()
+                .uri(url("/api/orders"))
+                .contentType(APPLICATION_JSON)
+                .header(IDEMPOTENCY_KEY, key)
+                .body(dto)
+                .retrieve()
+                .toEntity(OrderResponseDTO.class);
+    }
+
+    private ResponseEntity<ProblemDetail> postOrderExpectingProblem(OrderCreateDTO dto, String key) {
+        return restClient.post()
+                .uri(url("/api/orders"))
+                .contentType(APPLICATION_JSON)
+                .header(IDEMPOTENCY_KEY, key)
+                .body(dto)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {})
+                .toEntity(ProblemDetail.class);
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
@@ -25,8 +26,10 @@ import java.util.UUID;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 
+// Idle intake workers poll the queue every second, which would show up in the statement counts tests assert on.
 @Import(TestcontainersConfiguration.class)
 @SpringBootTest(webEnvironment = RANDOM_PORT)
+@TestPropertySource(properties = "app.order-intake.worker.enabled=false")
 abstract class IntegrationTestBase {
 
     @LocalServerPort
@@ -0,0 +1,258 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.InventoryMovement;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import com.example.ecommerce.repository.InventoryMovementRepository;
+import com.example.ecommerce.scheduling.InventoryLedgerCompactor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = {
+        "app.stock.mode=ledger",
+        "app.stock.ledger.compaction-interval=1h"
+})
+class InventoryLedgerIT extends IntegrationTestBase {
+
+    @Autowired
+    private InventoryLedgerCompactor compactor;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Orders append ledger movements without touching the product row")
+    void shouldKeepProductVersion_whenOrdersConsumeStock() {
+        // Given
+        var product = createTestProduct("Ledger Widget", new BigDecimal("10.00"), 10);
+
+        // When
+        createTestOrder(product.code(), 3);
+        createTestOrder(product.code(), 2);
+
+        // Then
+        var current = getProduct(product.code());
+        assertThat(current.stockQuantity()).isEqualTo(5);
+        assertThat(current.version()).isEqualTo(product.version());
+        assertThat(productRepository.findByCode(product.code()).orElseThrow().getStockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Metadata edit with the version read before an order no longer conflicts")
+    void shouldAcceptMetadataEdit_whenOrderHappenedInBetween() {
+        // Given
+        var product = createTestProduct("Editable Widget", new BigDecimal("10.00"), 10);
+        createTestOrder(product.code(), 4);
+        var afterOrder = getProduct(product.code());
+
+        // When
+        var updated = restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO("Renamed Widget", "new description", product.price(), afterOrder.stockQuantity(), product.version()))
+                .retrieve()
+                .body(ProductResponseDTO.class);
+
+        // Then
+        assertThat(updated).isNotNull();
+        assertThat(updated.name()).isEqualTo("Renamed Widget");
+        assertThat(updated.stockQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Restock through product update is recorded as a movement")
+    void shouldAppendMovement_whenStockIsReplaced() {
+        // Given
+        var product = createTestProduct("Restocked Widget", new BigDecimal("10.00"), 10);
+        createTestOrder(product.code(), 4);
+        var movementsBefore = movementRepository.count();
+
+        // When
+        var updated = restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO(product.name(), product.description(), product.price(), 25, product.version(), 6))
+                .retrieve()
+                .body(ProductResponseDTO.class);
+
+        // Then
+        assertThat(updated).isNotNull();
+        assertThat(updated.stockQuantity()).isEqualTo(25);
+        assertThat(movementRepository.count()).isEqualTo(movementsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Restock based on a stock level read before an order is rejected")
+    void shouldRejectRestock_whenExpectedStockIsStale() {
+        // Given
+        var product = createTestProduct("Stale Restock Widget", new BigDecimal("10.00"), 10);
+        createTestOrder(product.code(), 4);
+        var movementsBefore = movementRepository.count();
+
+        // When
+        var response = restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO(product.name(), product.description(), product.price(), 25, product.version(), product.stockQuantity()))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                })
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(CONFLICT);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(6);
+        assertThat(movementRepository.count()).isEqualTo(movementsBefore);
+    }
+
+    @Test
+    @DisplayName("If-Match with a tag read before an order answers 412, although the version did not change")
+    void shouldReturnPreconditionFailed_whenIfMatchStockIsStale() {
+        // Given
+        var product = createTestProduct("Tagged Widget", new BigDecimal("10.00"), 10);
+        var eTag = restClient.get()
+                .uri(url("/api/products/{code}"), product.code())
+                .retrieve()
+                .toEntity(ProductResponseDTO.class)
+                .getHeaders()
+                .getETag();
+        createTestOrder(product.code(), 4);
+
+        // When
+        var response = restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .header(IF_MATCH, eTag)
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO(product.name(), product.description(), product.price(), 25, null))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                })
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(PRECONDITION_FAILED);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Compaction folds in a movement that commits after a scan saw higher ids")
+    void shouldCompactMovement_whenItCommitsAfterAScan() throws Exception {
+        // Given
+        var product = createTestProduct("Late Widget", new BigDecimal("10.00"), 10);
+        var other = createTestProduct("Early Widget", new BigDecimal("10.00"), 10);
+        var productId = productRepository.findByCode(product.code()).orElseThrow().getId();
+        var inserted = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = newFixedThreadPool(1);
+        var lateMovement = executor.submit(() -> new TransactionTemplate(transactionManager).execute(status -> {
+            var movement = movementRepository.saveAndFlush(InventoryMovement.builder().productId(productId).delta(-2).build());
+            inserted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return movement.getId();
+        }));
+        inserted.await();
+        createTestOrder(other.code(), 1);
+        compactor.compact();
+
+        // When
+        release.countDown();
+        var lateMovementId = lateMovement.get();
+        executor.shutdown();
+        compactor.compact();
+
+        // Then
+        var lastMovementId = jdbcTemplate.queryForObject(
+                "SELECT last_movement_id FROM inventory_balance WHERE product_id = ?", Long.class, productId);
+        assertThat(lastMovementId).isEqualTo(lateMovementId);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Compaction folds movements into the balance snapshot without changing stock")
+    void shouldPreserveStock_whenLedgerIsCompacted() {
+        // Given
+        var product = createTestProduct("Compacted Widget", new BigDecimal("10.00"), 10);
+        createTestOrder(product.code(), 3);
+
+        // When
+        compactor.compact();
+        createTestOrder(product.code(), 1);
+        compactor.compact();
+
+        // Then
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Concurrent orders on a ledger product never oversell")
+    void shouldNeverOversell_whenConcurrentOrdersAppendMovements() throws Exception {
+        // Given
+        var product = createTestProduct("Hot Ledger Widget", new BigDecimal("10.00"), 20);
+
+        var executor = newFixedThreadPool(8);
+        var latch = new CountDownLatch(1);
+        var tasks = IntStream.range(0, 24)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    var client = RestClient.create();
+                    latch.await();
+                    return client.post()
+                            .uri(url("/api/orders"))
+                            .contentType(APPLICATION_JSON)
+                            .body(new OrderCreateDTO("Buyer " + i, "buyer@test.com", List.of(new OrderLineDTO(product.code(), 1))))
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                            })
+                            .toBodilessEntity()
+                            .getStatusCode().value();
+                })
+                .toList();
+
+        // When
+        var futures = tasks.stream().map(executor::submit).toList();
+        latch.countDown();
+        var statuses = new ArrayList<Integer>();
+        for (var future : futures) {
+            statuses.add(future.get());
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(statuses.stream().filter(status -> status == 201)).hasSize(20);
+        assertThat(statuses.stream().filter(status -> status == 400)).hasSize(4);
+        assertThat(getProduct(product.code()).stockQuantity()).isZero();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchMode;
+import com.example.ecommerce.dto.order.OrderBatchResponseDTO;
+import com.example.ecommerce.dto.order.OrderBatchResultDTO;
+import com.example.ecommerce.dto.order.OrderBatchStatus;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.repository.StockReservationRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderBatchIT extends IntegrationTestBase {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("A batch of 200 orders is created with a statement count independent of its size")
+    void shouldCreateAllOrders_withBatchedStatements() {
+        // Given
+        var first = createTestProduct("Batch Product A", new BigDecimal("2.00"), 1000);
+        var second = createTestProduct("Batch Product B", new BigDecimal("3.00"), 1000);
+        var orders = IntStream.range(0, 200)
+                .mapToObj(i -> order(new OrderLineDTO(first.code(), 1), new OrderLineDTO(second.code(), 2)))
+                .toList();
+        statistics.clear();
+
+        // When
+        var response = postBatch(new OrderBatchCreateDTO(orders, null));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(CREATED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().created()).isEqualTo(200);
+        assertThat(response.getBody().results()).extracting(result -> result.order().items().size()).containsOnly(2);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(50);
+        assertThat(orderRepository.count()).isEqualTo(200);
+        assertThat(reservationRepository.count()).isEqualTo(200);
+        assertThat(getProduct(first.code()).stockQuantity()).isEqualTo(800);
+        assertThat(getProduct(second.code()).stockQuantity()).isEqualTo(600);
+    }
+
+    @Test
+    @DisplayName("An all-or-nothing batch with an order over the stock creates nothing and reports every order")
+    void shouldCreateNothing_whenAllOrNothingBatchFails() {
+        // Given
+        var product = createTestProduct("All Or Nothing Product", new BigDecimal("2.00"), 5);
+        var orders = List.of(order(new OrderLineDTO(product.code(), 3)), order(new OrderLineDTO(product.code(), 3)));
+
+        // When
+        var response = postBatch(new OrderBatchCreateDTO(orders, OrderBatchMode.ALL_OR_NOTHING));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().results()).extracting(OrderBatchResultDTO::status)
+                .containsExactly(OrderBatchStatus.NOT_CREATED, OrderBatchStatus.FAILED);
+        assertThat(orderRepository.count()).isZero();
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("A best-effort batch creates the orders it can and reports why the others failed")
+    void shouldCreateFulfillableOrders_whenBatchIsBestEffort() {
+        // Given
+        var product = createTestProduct("Best Effort Product", new BigDecimal("2.00"), 5);
+        var unknownCode = UUID.randomUUID();
+        var orders = List.of(
+                order(new OrderLineDTO(product.code(), 3)),
+                order(new OrderLineDTO(unknownCode, 1)),
+                order(new OrderLineDTO(product.code(), 3)),
+                order(new OrderLineDTO(product.code(), 2)));
+
+        // When
+        var response = postBatch(new OrderBatchCreateDTO(orders, OrderBatchMode.BEST_EFFORT));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().results()).extracting(OrderBatchResultDTO::status)
+                .containsExactly(OrderBatchStatus.CREATED, OrderBatchStatus.FAILED, OrderBatchStatus.FAILED, OrderBatchStatus.CREATED);
+        assertThat(response.getBody().results().get(1).error()).contains(unknownCode.toString());
+        assertThat(response.getBody().results().get(2).error()).contains("Insufficient stock");
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(getProduct(product.code()).stockQuantity()).isZero();
+    }
+
+    private OrderCreateDTO order(OrderLineDTO... lines) {
+        return new OrderCreateDTO("Batch Buyer", "batch@example.com", List.of(lines));
+    }
+
+    private ResponseEntity<OrderBatchResponseDTO> postBatch(OrderBatchCreateDTO dto) {
+        return restClient.post()
+                .uri(url("/api/orders/batch"))
+                .contentType(APPLICATION_JSON)
+                .body(dto)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {})
+                .toEntity(OrderBatchResponseDTO.class);
+    }
+}
@@ -191,6 +191,37 @@ class OrderControllerIT extends IntegrationTestBase {
         assertThat(response.getBody().getTitle()).isEqualTo("Not Found");
     }
 
+    @Test
+    @DisplayName("Return 404 listing every missing product code and leave stock untouched")
+    void shouldReportAllMissingCodes_whenSeveralProductsDoNotExist() {
+        // Given
+        var product = createTestProduct("Existing Product", new BigDecimal("10.00"), 10);
+        var firstMissing = UUID.randomUUID();
+        var secondMissing = UUID.randomUUID();
+        var createDTO = new OrderCreateDTO("John Doe", "john@example.com", List.of(
+                new OrderLineDTO(firstMissing, 1),
+                new OrderLineDTO(product.code(), 2),
+                new OrderLineDTO(secondMissing, 1)
+        ));
+
+        // When
+        var response = restClient.post()
+                .uri(baseUrl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(createDTO)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {
+                })
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getDetail()).contains(firstMissing.toString(), secondMissing.toString());
+        assertThat(response.getBody().getProperties()).containsEntry("missingCodes", List.of(firstMissing.toString(), secondMissing.toString()));
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(10);
+    }
+
     @Test
     @DisplayName("Return 400 when customer name is blank")
     void shouldReturnBadRequest_whenCustomerNameIsBlank() {
@@ -0,0 +1,127 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.example.ecommerce.dto.order.OrderUpdateDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.TestPropertySource;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+@TestPropertySource(properties = "app.order-export.fetch-size=2")
+class OrderExportIT extends IntegrationTestBase {
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Test
+    @DisplayName("Export streams every order with its items as one JSON line, in creation order")
+    void shouldStreamAllOrdersAsNdjson() {
+        // Given
+        var product = createTestProduct("Export Product", new BigDecimal("3.00"), 100);
+        var created = List.of(createOrder(product.code(), 1), createOrder(product.code(), 2), createOrder(product.code(), 3));
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/orders/export"))
+                .retrieve()
+                .toEntity(String.class);
+
+        // Then
+        assertThat(response.getHeaders().getContentType()).isEqualTo(APPLICATION_NDJSON);
+        var exported = parse(response.getBody());
+        assertThat(exported).extracting(OrderResponseDTO::code)
+                .containsExactlyElementsOf(created.stream().map(OrderResponseDTO::code).toList());
+        assertThat(exported).allSatisfy(order -> assertThat(order.items()).hasSize(1));
+        assertThat(exported.getLast().items().getFirst().quantity()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Export only includes orders matching the status and creation range")
+    void shouldFilterByStatusAndDateRange() {
+        // Given
+        var product = createTestProduct("Filtered Export Product", new BigDecimal("3.00"), 100);
+        var cancelled = cancel(createOrder(product.code(), 1));
+        createOrder(product.code(), 1);
+        var later = cancel(createOrder(product.code(), 1));
+
+        // When
+        var byStatus = parse(restClient.get()
+                .uri(url("/api/orders/export?status=CANCELLED"))
+                .retrieve()
+                .body(String.class));
+        var byRange = parse(restClient.get()
+                .uri(url("/api/orders/export?status=CANCELLED&to={to}"), later.createdAt())
+                .retrieve()
+                .body(String.class));
+
+        // Then
+        assertThat(byStatus).extracting(OrderResponseDTO::code).containsExactly(cancelled.code(), later.code());
+        assertThat(byRange).extracting(OrderResponseDTO::code).containsExactly(cancelled.code());
+    }
+
+    @Test
+    @DisplayName("Export of an empty range returns an empty body")
+    void shouldReturnEmptyBody_whenNothingMatches() {
+        // Given
+        var product = createTestProduct("Empty Export Product", new BigDecimal("3.00"), 100);
+        createOrder(product.code(), 1);
+
+        // When
+        var body = restClient.get()
+                .uri(url("/api/orders/export?from={from}"), LocalDateTime.now().plusDays(1))
+                .retrieve()
+                .body(String.class);
+
+        // Then
+        assertThat(body).isNullOrEmpty();
+    }
+
+    @Test
+    @DisplayName("Export rejects a date range that ends before it starts")
+    void shouldReturnBadRequest_whenRangeIsInverted() {
+        // When
+        var response = restClient.get()
+                .uri(url("/api/orders/export?from=2026-02-01T00:00:00&to=2026-01-01T00:00:00"))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    private OrderResponseDTO createOrder(UUID productCode, int quantity) {
+        return createTestOrder("Export Buyer", "export@example.com", List.of(new OrderLineDTO(productCode, quantity)));
+    }
+
+    private OrderResponseDTO cancel(OrderResponseDTO order) {
+        return restClient.put()
+                .uri(url("/api/orders/{code}"), order.code())
+                .contentType(APPLICATION_JSON)
+                .body(new OrderUpdateDTO(order.customerName(), order.customerEmail(), OrderStatus.CANCELLED, order.version()))
+                .retrieve()
+                .body(OrderResponseDTO.class);
+    }
+
+    private List<OrderResponseDTO> parse(String ndjson) {
+        if (ndjson == null || ndjson.isEmpty()) {
+            return List.of();
+        }
+        return ndjson.lines().map(line -> jsonMapper.readValue(line, OrderResponseDTO.class)).toList();
+    }
+}
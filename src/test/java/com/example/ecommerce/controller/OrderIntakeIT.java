@@ -0,0 +1,194 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.OrderIntakeStatus;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderIntakeResponseDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.example.ecommerce.repository.OrderIntakeRepository;
+import com.example.ecommerce.service.OrderIntakeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ecommerce.controller.OrderController.PREFER;
+import static com.example.ecommerce.controller.OrderController.RESPOND_ASYNC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.ACCEPTED;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_CONTENT;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+class OrderIntakeIT extends IntegrationTestBase {
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderIntakeRepository orderIntakeRepository;
+
+    @BeforeEach
+    void setUp() {
+        orderIntakeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A queued order answers 202 until a worker creates it under the code it was accepted with")
+    void shouldCreateQueuedOrder_underAcceptedCode() {
+        // Given
+        var product = createTestProduct("Queued Product", new BigDecimal("5.00"), 10);
+
+        // When
+        var accepted = submit(order(new OrderLineDTO(product.code(), 4)));
+        var beforeProcessing = get(accepted.getHeaders().getLocation(), OrderIntakeResponseDTO.class);
+        var processed = orderIntakeService.processQueued(100);
+        var afterProcessing = get(accepted.getHeaders().getLocation(), OrderResponseDTO.class);
+
+        // Then
+        assertThat(accepted.getStatusCode()).isEqualTo(ACCEPTED);
+        assertThat(accepted.getBody()).isNotNull();
+        assertThat(accepted.getBody().status()).isEqualTo(OrderIntakeStatus.QUEUED);
+        assertThat(accepted.getHeaders().getLocation()).hasPath("/api/orders/" + accepted.getBody().code());
+        assertThat(beforeProcessing.getStatusCode()).isEqualTo(ACCEPTED);
+        assertThat(processed).isEqualTo(1);
+        assertThat(afterProcessing.getStatusCode()).isEqualTo(OK);
+        assertThat(afterProcessing.getBody()).isNotNull();
+        assertThat(afterProcessing.getBody().code()).isEqualTo(accepted.getBody().code());
+        assertThat(afterProcessing.getBody().totalAmount()).isEqualByComparingTo("20.00");
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("A batch of queued orders creates those it can and reports the others as 422 with the reason")
+    void shouldReportFailedOrders_whenBatchCannotFulfillAll() {
+        // Given
+        var product = createTestProduct("Contended Queued Product", new BigDecimal("5.00"), 5);
+        var first = submit(order(new OrderLineDTO(product.code(), 3))).getBody();
+        var second = submit(order(new OrderLineDTO(product.code(), 3))).getBody();
+        var third = submit(order(new OrderLineDTO(product.code(), 2))).getBody();
+        var unknown = submit(order(new OrderLineDTO(UUID.randomUUID(), 1))).getBody();
+
+        // When
+        var processed = orderIntakeService.processQueued(100);
+
+        // Then
+        assertThat(processed).isEqualTo(4);
+        assertThat(getOrder(first.code()).totalAmount()).isEqualByComparingTo("15.00");
+        assertThat(getOrder(third.code()).totalAmount()).isEqualByComparingTo("10.00");
+        var insufficient = getProblem(second.code());
+        assertThat(insufficient.getStatusCode()).isEqualTo(UNPROCESSABLE_CONTENT);
+        assertThat(insufficient.getBody()).isNotNull();
+        assertThat(insufficient.getBody().getDetail()).contains("Insufficient stock");
+        assertThat(getProblem(unknown.code()).getStatusCode()).isEqualTo(UNPROCESSABLE_CONTENT);
+        assertThat(orderRepository.count()).isEqualTo(2);
+        assertThat(getProduct(product.code()).stockQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("A long-poll on a queued order returns the order as soon as it is created")
+    void shouldReturnOrder_whenLongPollSeesItCreated() throws Exception {
+        // Given
+        var product = createTestProduct("Awaited Product", new BigDecimal("5.00"), 10);
+        var accepted = submit(order(new OrderLineDTO(product.code(), 1))).getBody();
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            // When
+            var started = System.nanoTime();
+            var poll = executor.submit(() -> restClient.get()
+                    .uri(url("/api/orders/{code}?wait=15"), accepted.code())
+                    .retrieve()
+                    .toEntity(OrderResponseDTO.class));
+            Thread.sleep(500);
+            orderIntakeService.processQueued(100);
+            var response = poll.get(15, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(OK);
+            assertThat(response.getBody()).isNotNull();
+            assertThat(response.getBody().code()).isEqualTo(accepted.code());
+            assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(10));
+        }
+    }
+
+    @Test
+    @DisplayName("A long-poll answers 202 once the wait elapses with the order still queued")
+    void shouldReturnAccepted_whenLongPollTimesOut() {
+        // Given
+        var product = createTestProduct("Still Queued Product", new BigDecimal("5.00"), 10);
+        var accepted = submit(order(new OrderLineDTO(product.code(), 1))).getBody();
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/orders/{code}?wait=1"), accepted.code())
+                .retrieve()
+                .toEntity(OrderIntakeResponseDTO.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(ACCEPTED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().status()).isEqualTo(OrderIntakeStatus.QUEUED);
+    }
+
+    @Test
+    @DisplayName("An invalid order is rejected with 400 before it is queued")
+    void shouldRejectInvalidOrder_beforeQueueing() {
+        // Given
+        var product = createTestProduct("Duplicated Line Product", new BigDecimal("5.00"), 10);
+        var duplicated = order(new OrderLineDTO(product.code(), 1), new OrderLineDTO(product.code(), 2));
+
+        // When
+        var response = restClient.post()
+                .uri(url("/api/orders"))
+                .contentType(APPLICATION_JSON)
+                .header(PREFER, RESPOND_ASYNC)
+                .body(duplicated)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(orderIntakeRepository.count()).isZero();
+    }
+
+    private OrderCreateDTO order(OrderLineDTO... lines) {
+        return new OrderCreateDTO("Queued Buyer", "queued@example.com", List.of(lines));
+    }
+
+    private ResponseEntity<OrderIntakeResponseDTO> submit(OrderCreateDTO dto) {
+        return restClient.post()
+                .uri(url("/api/orders"))
+                .contentType(APPLICATION_JSON)
+                .header(PREFER, RESPOND_ASYNC)
+                .body(dto)
+                .retrieve()
+                .toEntity(OrderIntakeResponseDTO.class);
+    }
+
+    private <T> ResponseEntity<T> get(URI location, Class<T> type) {
+        return restClient.get()
+                .uri(location)
+                .retrieve()
+                .toEntity(type);
+    }
+
+    private ResponseEntity<ProblemDetail> getProblem(UUID code) {
+        return restClient.get()
+                .uri(url("/api/orders/{code}"), code)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {})
+                .toEntity(ProblemDetail.class);
+    }
+}
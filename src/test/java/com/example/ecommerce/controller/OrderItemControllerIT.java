@@ -387,7 +387,7 @@ class OrderItemControllerIT extends IntegrationTestBase {
     }
 
     @Test
-    @DisplayName("TC-OI-05: Get order item after product deletion — productCode null, snapshots preserved")
+    @DisplayName("TC-OI-05: Get order item after product deletion — productCode and snapshots preserved")
     void shouldPreserveSnapshots_whenProductIsDeleted() {
         // Given
         var product = createTestProduct("Deletable Product", new BigDecimal("42.00"), 50);
@@ -409,7 +409,7 @@ class OrderItemControllerIT extends IntegrationTestBase {
         // Then
         assertThat(response.getStatusCode()).isEqualTo(OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().productCode()).isNull();
+        assertThat(response.getBody().productCode()).isEqualTo(product.code());
         assertThat(response.getBody().productName()).isEqualTo("Deletable Product");
         assertThat(response.getBody().unitPrice()).isEqualByComparingTo(new BigDecimal("42.00"));
 
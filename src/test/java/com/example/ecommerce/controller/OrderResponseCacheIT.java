@@ -0,0 +1,168 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.example.ecommerce.dto.order.OrderUpdateDTO;
+import com.example.ecommerce.dto.orderitem.OrderItemUpdateDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderResponseCacheIT extends IntegrationTestBase {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("A cancelled order is served again without touching the database")
+    void shouldServeTerminalOrderFromCache() {
+        // Given
+        var order = cancel(createOrder("Cached Cancelled Product"));
+        var first = getOrder(order.code());
+        statistics.clear();
+
+        // When
+        var again = getOrder(order.code());
+
+        // Then
+        assertThat(again).isEqualTo(first);
+        assertThat(again.status()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("A cached order answers a current If-None-Match with 304 without touching the database")
+    void shouldReturnNotModifiedFromCache() {
+        // Given
+        var order = cancel(createOrder("Cached Conditional Product"));
+        var eTag = restClient.get()
+                .uri(url("/api/orders/{code}"), order.code())
+                .retrieve()
+                .toEntity(OrderResponseDTO.class)
+                .getHeaders()
+                .getETag();
+        statistics.clear();
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/orders/{code}"), order.code())
+                .header(IF_NONE_MATCH, eTag)
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("An order that can still change is read from the database every time")
+    void shouldNotCacheOpenOrder() {
+        // Given
+        var order = createOrder("Uncached Pending Product");
+        getOrder(order.code());
+        statistics.clear();
+
+        // When
+        getOrder(order.code());
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("An item change on a cached order is visible to the next read")
+    void shouldServeNewItems_afterItemUpdate() {
+        // Given
+        var order = cancel(createOrder("Cached Item Product"));
+        var item = getOrder(order.code()).items().getFirst();
+
+        // When
+        restClient.put()
+                .uri(url("/api/order-items/{code}"), item.code())
+                .contentType(APPLICATION_JSON)
+                .body(new OrderItemUpdateDTO(5, item.version()))
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        assertThat(getOrder(order.code()).items().getFirst().quantity()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("A deleted order is not served from the cache")
+    void shouldReturnNotFound_afterDelete() {
+        // Given
+        var order = cancel(createOrder("Cached Deleted Product"));
+        getOrder(order.code());
+
+        // When
+        restClient.delete()
+                .uri(url("/api/orders/{code}"), order.code())
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        var response = restClient.get()
+                .uri(url("/api/orders/{code}"), order.code())
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Deleting a product leaves the items of a cached order unchanged")
+    void shouldKeepProductCode_afterProductDelete() {
+        // Given
+        var product = createTestProduct("Cached Product Delete", new BigDecimal("5.00"), 10);
+        var order = cancel(createTestOrder(product.code(), 1));
+        assertThat(getOrder(order.code()).items().getFirst().productCode()).isEqualTo(product.code());
+
+        // When
+        restClient.delete()
+                .uri(url("/api/products/{code}"), product.code())
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        assertThat(getOrder(order.code()).items().getFirst().productCode()).isEqualTo(product.code());
+    }
+
+    private OrderResponseDTO createOrder(String productName) {
+        var product = createTestProduct(productName, new BigDecimal("5.00"), 10);
+        return createTestOrder(product.code(), 2);
+    }
+
+    private OrderResponseDTO cancel(OrderResponseDTO order) {
+        return restClient.put()
+                .uri(url("/api/orders/{code}"), order.code())
+                .contentType(APPLICATION_JSON)
+                .body(new OrderUpdateDTO(order.customerName(), order.customerEmail(), OrderStatus.CANCELLED, order.version()))
+                .retrieve()
+                .body(OrderResponseDTO.class);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderStatementCountIT extends IntegrationTestBase {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Creating an order with 100 items inserts them in JDBC batches")
+    void shouldBatchItemInserts_whenOrderHasManyItems() {
+        // Given
+        var products = productRepository.saveAll(IntStream.range(0, 100)
+                .mapToObj(i -> Product.builder()
+                        .name("Batch Product " + i)
+                        .price(new BigDecimal("1.00"))
+                        .stockQuantity(10)
+                        .build())
+                .toList());
+        var lines = productRepository.findAllById(products.stream().map(Product::getId).toList())
+                .stream()
+                .map(product -> new OrderLineDTO(product.getCode(), 1))
+                .toList();
+        statistics.clear();
+
+        // When
+        var response = restClient.post()
+                .uri(url("/api/orders"))
+                .contentType(APPLICATION_JSON)
+                .body(new OrderCreateDTO("Bulk Buyer", "bulk@example.com", lines))
+                .retrieve()
+                .toEntity(OrderResponseDTO.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(CREATED);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().items()).hasSize(100);
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(101);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    @DisplayName("Listing orders uses the same number of statements regardless of page size")
+    void shouldUseFixedStatementCount_whenListingOrders() {
+        // Given
+        var first = createTestProduct("Listing Product A", new BigDecimal("5.00"), 1000);
+        var second = createTestProduct("Listing Product B", new BigDecimal("7.50"), 1000);
+        for (int i = 0; i < 20; i++) {
+            createTestOrder("Customer " + i, "customer" + i + "@example.com",
+                    List.of(new OrderLineDTO(first.code(), 1), new OrderLineDTO(second.code(), 2)));
+        }
+
+        // When
+        var smallPageStatements = countStatements(() -> listOrders(2));
+        var largePageStatements = countStatements(() -> listOrders(20));
+
+        // Then
+        assertThat(largePageStatements).isEqualTo(smallPageStatements);
+        assertThat(largePageStatements).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Reading order items never loads their products")
+    void shouldNotLoadProducts_whenReadingOrderItems() {
+        // Given
+        var first = createTestProduct("Item Read Product A", new BigDecimal("5.00"), 1000);
+        var second = createTestProduct("Item Read Product B", new BigDecimal("7.50"), 1000);
+        var order = createTestOrder("Item Reader", "items@example.com",
+                List.of(new OrderLineDTO(first.code(), 1), new OrderLineDTO(second.code(), 2)));
+        statistics.clear();
+
+        // When
+        var page = restClient.get()
+                .uri(url("/api/order-items?cursor=&limit=20"))
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<String, Object>>() {});
+        var fetched = getOrder(order.code());
+
+        // Then
+        assertThat(page).isNotNull();
+        assertThat((List<?>) page.get("content")).hasSize(2);
+        assertThat(fetched.items()).extracting("productCode").containsExactlyInAnyOrder(first.code(), second.code());
+        assertThat(statistics.getEntityStatistics(Product.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityFetchCount()).isZero();
+    }
+
+    private void listOrders(int size) {
+        var page = restClient.get()
+                .uri(url("/api/orders?size={size}"), size)
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<String, Object>>() {});
+        assertThat(page).isNotNull();
+        assertThat((List<?>) page.get("content")).hasSize(size);
+    }
+
+    private long countStatements(Runnable request) {
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ecommerce.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "app.pagination.count.strategies.product=estimated",
+        "app.pagination.count.strategies.order=none",
+        "app.pagination.count.strategies.order-item=cached"
+})
+class PageCountStrategyIT extends IntegrationTestBase {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final BigDecimal price = new BigDecimal("4.00");
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            var product = createTestProduct("Counted Product " + i, price, 10);
+            createTestOrder(product.code(), 1);
+        }
+        jdbcTemplate.execute("ANALYZE product");
+    }
+
+    @Test
+    @DisplayName("Estimated strategy reports the planner row estimate")
+    void shouldReportEstimatedTotal_whenProductsUseEstimatedStrategy() {
+        var page = page("/api/products?page=0&size=2");
+
+        assertThat(page.get("countStrategy")).isEqualTo("ESTIMATED");
+        assertThat(page.get("totalElements")).isEqualTo(5);
+        assertThat(page.get("hasNext")).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("None strategy omits the total and only reports whether a next page exists")
+    void shouldOmitTotal_whenOrdersUseNoneStrategy() {
+        var page = page("/api/orders?page=1&size=2");
+
+        assertThat(page.get("countStrategy")).isEqualTo("NONE");
+        assertThat(page.get("totalElements")).isNull();
+        assertThat(page.get("totalPages")).isNull();
+        assertThat(page.get("hasNext")).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Cached strategy reports the count taken within the TTL")
+    void shouldReportCachedTotal_whenOrderItemsUseCachedStrategy() {
+        var page = page("/api/order-items?page=0&size=2");
+
+        assertThat(page.get("countStrategy")).isEqualTo("CACHED");
+        assertThat((Integer) page.get("totalElements")).isPositive();
+    }
+
+    @Test
+    @DisplayName("The last page reports an exact total whatever the strategy")
+    void shouldReportExactTotal_whenPageIsLast() {
+        var page = page("/api/orders?page=2&size=2");
+
+        assertThat(page.get("countStrategy")).isEqualTo("EXACT");
+        assertThat(page.get("totalElements")).isEqualTo(5);
+        assertThat(page.get("hasNext")).isEqualTo(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> page(String path) {
+        var body = restClient.get()
+                .uri(url(path))
+                .retrieve()
+                .body(new ParameterizedTypeReference<Map<String, Object>>() {});
+        assertThat(body).isNotNull();
+        return (Map<String, Object>) body.get("page");
+    }
+}
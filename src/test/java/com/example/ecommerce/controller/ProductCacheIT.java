@@ -0,0 +1,148 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductCacheIT extends IntegrationTestBase {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Repeated reads of a product are served without touching the database")
+    void shouldServeRepeatedReadsFromCache() {
+        // Given
+        var product = createTestProduct("Cached Product", new BigDecimal("5.00"), 10);
+        var first = getProduct(product.code());
+        statistics.clear();
+
+        // When
+        var again = getProduct(product.code());
+
+        // Then
+        assertThat(again).isEqualTo(first);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("A cached read does not take a database connection")
+    void shouldNotTakeConnection_onCacheHit() {
+        // Given
+        var product = createTestProduct("Cached Connection Product", new BigDecimal("5.00"), 10);
+        getProduct(product.code());
+        statistics.clear();
+
+        // When
+        getProduct(product.code());
+
+        // Then
+        assertThat(statistics.getConnectCount()).isZero();
+        assertThat(statistics.getTransactionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("A product update is visible to the next read")
+    void shouldServeNewVersion_afterUpdate() {
+        // Given
+        var product = createTestProduct("Cached Update Product", new BigDecimal("5.00"), 10);
+        getProduct(product.code());
+
+        // When
+        restClient.put()
+                .uri(url("/api/products/{code}"), product.code())
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO("Cached Update Product", null, new BigDecimal("7.50"), 10, product.version()))
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        var updated = getProduct(product.code());
+        assertThat(updated.price()).isEqualByComparingTo("7.50");
+        assertThat(updated.version()).isEqualTo(product.version() + 1);
+    }
+
+    @Test
+    @DisplayName("Stock taken by an order is visible to the next read")
+    void shouldServeNewStock_afterOrder() {
+        // Given
+        var product = createTestProduct("Cached Stock Product", new BigDecimal("5.00"), 10);
+        getProduct(product.code());
+
+        // When
+        createTestOrder(product.code(), 3);
+
+        // Then
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("A deleted product is not served from the cache")
+    void shouldReturnNotFound_afterDelete() {
+        // Given
+        var product = createTestProduct("Cached Deleted Product", new BigDecimal("5.00"), 10);
+        getProduct(product.code());
+
+        // When
+        restClient.delete()
+                .uri(url("/api/products/{code}"), product.code())
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        var response = restClient.get()
+                .uri(url("/api/products/{code}"), product.code())
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+        assertThat(response.getStatusCode()).isEqualTo(NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Cache hits are published through the actuator metrics endpoint")
+    void shouldExposeCacheMetrics() {
+        // Given
+        var product = createTestProduct("Cached Metrics Product", new BigDecimal("5.00"), 10);
+        getProduct(product.code());
+        getProduct(product.code());
+
+        // When
+        var metric = restClient.get()
+                .uri(url("/actuator/metrics/cache.gets?tag=cache:products&tag=result:hit"))
+                .retrieve()
+                .body(MetricResponse.class);
+
+        // Then
+        assertThat(metric).isNotNull();
+        assertThat(metric.measurements().getFirst().value()).isPositive();
+    }
+
+    private record MetricResponse(List<Measurement> measurements) {
+    }
+
+    private record Measurement(String statistic, double value) {
+    }
+}
@@ -3,6 +3,7 @@ package com.example.ecommerce.controller;
 import com.example.ecommerce.dto.product.ProductCreateDTO;
 import com.example.ecommerce.dto.product.ProductResponseDTO;
 import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import com.example.ecommerce.dto.product.StockShardsUpdateDTO;
 import java.math.BigDecimal;
 import java.util.Map;
 import java.util.UUID;
@@ -607,4 +608,26 @@ class ProductControllerIT extends IntegrationTestBase {
         assertThat(response.getBody().getStatus()).isEqualTo(400);
         assertThat(response.getBody().getTitle()).isEqualTo("Bad Request");
     }
+
+    @Test
+    @DisplayName("Return 400 when configuring stock shards while sharding is not enabled")
+    void shouldReturnBadRequest_whenConfiguringShardsOutsideShardedMode() {
+        // Given
+        var product = createTestProduct("Unsharded Product", new BigDecimal("10.00"), 10);
+
+        // When
+        var response = restClient.put()
+            .uri(baseUrl + "/{code}/stock-shards", product.code())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(new StockShardsUpdateDTO(4))
+            .retrieve()
+            .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+            .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().getDetail()).contains("app.stock.mode=sharded");
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(10);
+    }
 }
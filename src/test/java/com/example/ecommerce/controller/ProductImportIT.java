@@ -0,0 +1,185 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.product.ProductImportResponseDTO;
+import com.example.ecommerce.dto.product.ProductImportStatus;
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductSuggestionDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+
+class ProductImportIT extends IntegrationTestBase {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+    @Test
+    @DisplayName("A CSV import inserts new names and updates existing ones case-insensitively without touching their stock")
+    void shouldUpsertProductsByName_fromCsv() throws InterruptedException {
+        // Given
+        var existing = createTestProduct("Imported Lamp", new BigDecimal("10.00"), 7);
+        var untouched = createTestProduct("Imported Chair", new BigDecimal("40.00"), 3);
+        getProduct(existing.code());
+        var csv = """
+                name,description,price,stockQuantity
+                "Imported Desk","Oak, 140 cm",199.90,12
+                  imported lamp  ,Brass,12.50,99
+                Imported Chair,,40.00,5
+                """;
+
+        // When
+        var response = post(TEXT_CSV, csv);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(CREATED);
+        assertThat(response.getHeaders().getLocation()).isNotNull();
+        var result = response.getBody();
+        assertThat(result).isNotNull();
+        assertThat(result.status()).isEqualTo(ProductImportStatus.COMPLETED);
+        assertThat(result.rowsRead()).isEqualTo(3);
+        assertThat(result.inserted()).isEqualTo(1);
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.unchanged()).isEqualTo(1);
+        assertThat(result.rowsRejected()).isZero();
+
+        var lamp = getProduct(existing.code());
+        assertThat(lamp.name()).isEqualTo("imported lamp");
+        assertThat(lamp.description()).isEqualTo("Brass");
+        assertThat(lamp.price()).isEqualByComparingTo("12.50");
+        assertThat(lamp.stockQuantity()).isEqualTo(7);
+        assertThat(lamp.version()).isEqualTo(existing.version() + 1);
+        assertThat(getProduct(untouched.code()).version()).isEqualTo(untouched.version());
+        assertThat(awaitSuggestions("Imported De")).extracting(ProductSuggestionDTO::name).containsExactly("Imported Desk");
+        assertThat(productRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Invalid and superseded rows are written to the error file while the valid rows are imported")
+    void shouldReportRejectedRows_inErrorFile() {
+        // Given
+        var csv = """
+                name,price,stockQuantity,supplierSku
+                Rejected Row Valid,5.00,1,A-1
+                ,5.00,1,A-2
+                Rejected Row Price,abc,1,A-3
+                Rejected Row Negative,-1,1,A-4
+                Rejected Row Duplicate,5.00,1,A-5
+                "Rejected Row ""Quoted""\",6.00,2,A-6
+                REJECTED ROW DUPLICATE,7.00,1,A-7
+                Rejected Row Short,5.00
+                """;
+
+        // When
+        var result = post(TEXT_CSV, csv).getBody();
+        var errors = restClient.get()
+                .uri(url("/api/product-imports/{id}/errors"), result.id())
+                .retrieve()
+                .body(String.class);
+
+        // Then
+        assertThat(result.rowsRead()).isEqualTo(8);
+        assertThat(result.rowsRejected()).isEqualTo(5);
+        assertThat(result.inserted()).isEqualTo(3);
+        assertThat(errors.lines().skip(1).toList()).containsExactly(
+                "3,\"\",\"name: must not be blank\"",
+                "4,\"Rejected Row Price\",\"price: must be a number\"",
+                "5,\"Rejected Row Negative\",\"price: must be greater than 0\"",
+                "9,\"Rejected Row Short\",\"Expected 4 fields but found 2\"",
+                "6,\"Rejected Row Duplicate\",\"Superseded by a later row with the same name\"");
+        assertThat(productRepository.findAll()).extracting(Product::getName).containsExactlyInAnyOrder(
+                "Rejected Row Valid", "Rejected Row \"Quoted\"", "REJECTED ROW DUPLICATE");
+    }
+
+    @Test
+    @DisplayName("An NDJSON import reads one product per line and rejects malformed lines")
+    void shouldImportProducts_fromNdjson() {
+        // Given
+        var ndjson = """
+                {"name":"Ndjson Kettle","description":"1.7 l","price":29.99,"stockQuantity":4}
+
+                {"name":"Ndjson Toaster","price":
+                {"name":"Ndjson Mug","price":4.50}
+                """;
+
+        // When
+        var result = post(APPLICATION_NDJSON, ndjson).getBody();
+
+        // Then
+        assertThat(result.rowsRead()).isEqualTo(3);
+        assertThat(result.rowsRejected()).isEqualTo(1);
+        assertThat(result.inserted()).isEqualTo(2);
+        assertThat(result.rowsPerSecond()).isPositive();
+        var imported = restClient.get()
+                .uri(url("/api/product-imports/{id}"), result.id())
+                .retrieve()
+                .body(ProductImportResponseDTO.class);
+        assertThat(imported).isEqualTo(result);
+        assertThat(productRepository.findAll())
+                .filteredOn(product -> product.getName().equals("Ndjson Mug"))
+                .singleElement()
+                .satisfies(product -> assertThat(product.getStockQuantity()).isZero());
+    }
+
+    @Test
+    @DisplayName("An unsupported content type or a CSV header without the required columns is rejected with 400")
+    void shouldReturnBadRequest_whenInputCannotBeImported() {
+        // When
+        var unsupported = restClient.post()
+                .uri(url("/api/product-imports"))
+                .contentType(MediaType.APPLICATION_XML)
+                .body("<products/>")
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {})
+                .toEntity(ProblemDetail.class);
+        var missingPrice = restClient.post()
+                .uri(url("/api/product-imports"))
+                .contentType(TEXT_CSV)
+                .body("name,description\nHeaderless Product,none\n")
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(unsupported.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(missingPrice.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(missingPrice.getBody()).isNotNull();
+        assertThat(missingPrice.getBody().getDetail()).contains("name and price");
+        assertThat(productRepository.count()).isZero();
+    }
+
+    private ResponseEntity<ProductImportResponseDTO> post(MediaType contentType, String body) {
+        return restClient.post()
+                .uri(url("/api/product-imports"))
+                .contentType(contentType)
+                .body(body)
+                .retrieve()
+                .toEntity(ProductImportResponseDTO.class);
+    }
+
+    // The suggestion index is rebuilt in the background after the import commits.
+    private List<ProductSuggestionDTO> awaitSuggestions(String prefix) throws InterruptedException {
+        for (int attempt = 0; attempt < 50 && suggest(prefix).isEmpty(); attempt++) {
+            Thread.sleep(20);
+        }
+        return suggest(prefix);
+    }
+
+    private List<ProductSuggestionDTO> suggest(String prefix) {
+        return restClient.get()
+                .uri(url("/api/products/suggest?prefix={prefix}"), prefix)
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.common.CursorPage;
+import com.example.ecommerce.dto.product.ProductCreateDTO;
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+class ProductSearchIT extends IntegrationTestBase {
+
+    private static final ParameterizedTypeReference<CursorPage<ProductResponseDTO>> PAGE = new ParameterizedTypeReference<>() {};
+
+    @Test
+    @DisplayName("A text search matches name and description and ranks name matches first")
+    void shouldRankNameMatchesFirst() {
+        // Given
+        createProduct("USB Cable", "Braided cable for a wireless keyboard dock", "4.00", 10);
+        createProduct("Wireless Keyboard", "Compact layout", "39.00", 10);
+        createProduct("Desk Lamp", "LED lamp", "19.00", 10);
+
+        // When
+        var page = search("/api/products/search?q=wireless keyboards");
+
+        // Then
+        assertThat(page.content()).extracting(ProductResponseDTO::name).containsExactly("Wireless Keyboard", "USB Cable");
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Walking relevance results by cursor moves from name matches to description matches")
+    void shouldWalkAcrossRelevanceTiers_whenFollowingCursors() {
+        // Given
+        createProduct("Garden Chair", null, "30.00", 5);
+        createProduct("Cushion", "Fits any garden chair", "12.00", 5);
+        createProduct("Chair Mat", null, "25.00", 5);
+        createProduct("Desk", "Pairs with the office chair", "120.00", 5);
+        createProduct("Office Chair", null, "150.00", 5);
+
+        // When
+        var names = new ArrayList<String>();
+        String cursor = "";
+        do {
+            var page = search("/api/products/search?q=chair&limit=2&cursor=" + cursor);
+            page.content().forEach(product -> names.add(product.name()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertThat(names).containsExactly("Office Chair", "Chair Mat", "Garden Chair", "Desk", "Cushion");
+    }
+
+    @Test
+    @DisplayName("A price range filter returns matching products in ascending price order")
+    void shouldFilterByPriceRange_whenSortedByPrice() {
+        // Given
+        createProduct("Budget Mouse", null, "9.99", 10);
+        createProduct("Office Mouse", null, "24.50", 10);
+        createProduct("Gaming Mouse", null, "59.00", 10);
+        createProduct("Pro Mouse", null, "89.00", 10);
+
+        // When
+        var page = search("/api/products/search?q=mouse&minPrice=10&maxPrice=60&sort=PRICE_ASC");
+
+        // Then
+        assertThat(page.content()).extracting(ProductResponseDTO::name).containsExactly("Office Mouse", "Gaming Mouse");
+    }
+
+    @Test
+    @DisplayName("Without a query the newest products come first")
+    void shouldSortByNewest_whenNoQuery() {
+        // Given
+        createProduct("First Product", null, "1.00", 1);
+        createProduct("Second Product", null, "1.00", 1);
+
+        // When
+        var page = search("/api/products/search");
+
+        // Then
+        assertThat(page.content()).extracting(ProductResponseDTO::name).containsExactly("Second Product", "First Product");
+    }
+
+    @Test
+    @DisplayName("Walking in-stock results by cursor returns each in-stock product once and skips sold-out ones")
+    void shouldReturnOnlyInStockProducts_whenFollowingCursors() {
+        // Given
+        var expected = new ArrayList<String>();
+        for (int i = 0; i < 12; i++) {
+            var name = "Search Stock Product %02d".formatted(i);
+            createProduct(name, null, "%d.00".formatted(i + 1), i % 3 == 0 ? 5 : 0);
+            if (i % 3 == 0) {
+                expected.add(name);
+            }
+        }
+
+        // When
+        var names = new ArrayList<String>();
+        String cursor = "";
+        do {
+            var page = search("/api/products/search?q=product&inStock=true&sort=PRICE_DESC&limit=2&cursor=" + cursor);
+            page.content().forEach(product -> {
+                assertThat(product.stockQuantity()).isPositive();
+                names.add(product.name());
+            });
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertThat(names).containsExactlyElementsOf(expected.reversed());
+    }
+
+    @Test
+    @DisplayName("A search cursor ends with the code of the last product, not its internal id")
+    void shouldTieBreakOnCode_whenCursorIsDecoded() {
+        // Given
+        createProduct("Cursor Code A", null, "7.00", 1);
+        createProduct("Cursor Code B", null, "7.00", 1);
+
+        // When
+        var page = search("/api/products/search?q=cursor code&sort=PRICE_ASC&limit=1");
+
+        // Then
+        var decoded = new String(Base64.getUrlDecoder().decode(page.nextCursor()), StandardCharsets.UTF_8);
+        assertThat(decoded).isEqualTo("PRICE_ASC|0|7.00|" + page.content().getFirst().code());
+    }
+
+    @Test
+    @DisplayName("A cursor issued for another sort order is rejected")
+    void shouldReturn400_whenCursorDoesNotMatchSort() {
+        // Given
+        createProduct("Cursor Search A", null, "1.00", 1);
+        createProduct("Cursor Search B", null, "2.00", 1);
+        var cursor = search("/api/products/search?limit=1").nextCursor();
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/products/search?sort=PRICE_ASC&limit=1&cursor=" + cursor))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("A minimum price above the maximum price is rejected")
+    void shouldReturn400_whenPriceRangeIsInverted() {
+        // When
+        var response = restClient.get()
+                .uri(url("/api/products/search?minPrice=50&maxPrice=10"))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    private void createProduct(String name, String description, String price, int stock) {
+        restClient.post()
+                .uri(url("/api/products"))
+                .contentType(APPLICATION_JSON)
+                .body(new ProductCreateDTO(name, description, new BigDecimal(price), stock))
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private CursorPage<ProductResponseDTO> search(String path) {
+        return restClient.get().uri(url(path)).retrieve().body(PAGE);
+    }
+}
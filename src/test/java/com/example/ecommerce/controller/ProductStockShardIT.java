@@ -0,0 +1,200 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import com.example.ecommerce.dto.product.StockShardsResponseDTO;
+import com.example.ecommerce.dto.product.StockShardsUpdateDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "app.stock.mode=sharded")
+class ProductStockShardIT extends IntegrationTestBase {
+
+    private String productsUrl;
+
+    @BeforeEach
+    void setUp() {
+        productsUrl = url("/api/products");
+    }
+
+    @Test
+    @DisplayName("Configuring shards splits stock evenly and product stock reports the sum")
+    void shouldSplitStockEvenly_whenShardsAreConfigured() {
+        // Given
+        var product = createTestProduct("Sharded Widget", new BigDecimal("10.00"), 10);
+
+        // When
+        var response = restClient.put()
+                .uri(productsUrl + "/{code}/stock-shards", product.code())
+                .contentType(APPLICATION_JSON)
+                .body(new StockShardsUpdateDTO(4))
+                .retrieve()
+                .toEntity(StockShardsResponseDTO.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(OK);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().shardCount()).isEqualTo(4);
+        assertThat(response.getBody().shardQuantities()).containsExactly(3, 3, 2, 2);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Order larger than any single shard drains several shards and rebalance evens them out")
+    void shouldDrainAndRebalance_whenOrderExceedsSingleShard() {
+        // Given
+        var product = createTestProduct("Drained Widget", new BigDecimal("10.00"), 12);
+        configureShards(product.code(), 4);
+
+        // When
+        createTestOrder(product.code(), 5);
+        var rebalanced = restClient.post()
+                .uri(productsUrl + "/{code}/stock-shards/rebalance", product.code())
+                .retrieve()
+                .body(StockShardsResponseDTO.class);
+
+        // Then
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(7);
+        assertThat(rebalanced).isNotNull();
+        assertThat(rebalanced.stockQuantity()).isEqualTo(7);
+        assertThat(rebalanced.shardQuantities()).containsExactly(2, 2, 2, 1);
+    }
+
+    @Test
+    @DisplayName("Concurrent orders on a sharded product never oversell")
+    void shouldNeverOversell_whenConcurrentOrdersHitShardedProduct() throws Exception {
+        // Given
+        var product = createTestProduct("Hot Sharded Widget", new BigDecimal("10.00"), 20);
+        configureShards(product.code(), 8);
+
+        var executor = newFixedThreadPool(8);
+        var latch = new CountDownLatch(1);
+        var tasks = IntStream.range(0, 24)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    var client = RestClient.create();
+                    latch.await();
+                    return client.post()
+                            .uri(url("/api/orders"))
+                            .contentType(APPLICATION_JSON)
+                            .body(new OrderCreateDTO("Buyer " + i, "buyer@test.com", List.of(new OrderLineDTO(product.code(), 1))))
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                            })
+                            .toBodilessEntity()
+                            .getStatusCode().value();
+                })
+                .toList();
+
+        // When
+        var futures = tasks.stream().map(executor::submit).toList();
+        latch.countDown();
+        var statuses = new ArrayList<Integer>();
+        for (var future : futures) {
+            statuses.add(future.get());
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(statuses.stream().filter(status -> status == 201)).hasSize(20);
+        assertThat(statuses.stream().filter(status -> status == 400)).hasSize(4);
+        assertThat(getProduct(product.code()).stockQuantity()).isZero();
+    }
+
+    @Test
+    @DisplayName("Updating stock of a sharded product redistributes it across the shards")
+    void shouldRedistribute_whenShardedProductStockIsUpdated() {
+        // Given
+        var product = createTestProduct("Restocked Widget", new BigDecimal("10.00"), 4);
+        configureShards(product.code(), 2);
+        var current = getProduct(product.code());
+
+        // When
+        var updated = restClient.put()
+                .uri(productsUrl + "/{code}", product.code())
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO(current.name(), null, current.price(), 21, current.version(), current.stockQuantity()))
+                .retrieve()
+                .body(ProductResponseDTO.class);
+        var shards = restClient.get()
+                .uri(productsUrl + "/{code}/stock-shards", product.code())
+                .retrieve()
+                .body(StockShardsResponseDTO.class);
+
+        // Then
+        assertThat(updated).isNotNull();
+        assertThat(updated.stockQuantity()).isEqualTo(21);
+        assertThat(shards).isNotNull();
+        assertThat(shards.shardQuantities()).containsExactly(11, 10);
+    }
+
+    @Test
+    @DisplayName("Updating stock of a sharded product from a read taken before an order is rejected")
+    void shouldRejectStockUpdate_whenShardedStockChangedSinceRead() {
+        // Given
+        var product = createTestProduct("Stale Sharded Widget", new BigDecimal("10.00"), 8);
+        configureShards(product.code(), 2);
+        var current = getProduct(product.code());
+        createTestOrder(product.code(), 3);
+
+        // When
+        var response = restClient.put()
+                .uri(productsUrl + "/{code}", product.code())
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO(current.name(), null, current.price(), 21, current.version(), current.stockQuantity()))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                })
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(CONFLICT);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Configuring a single shard merges stock back into the product row")
+    void shouldMergeStock_whenShardCountIsSetToOne() {
+        // Given
+        var product = createTestProduct("Merged Widget", new BigDecimal("10.00"), 9);
+        configureShards(product.code(), 3);
+        createTestOrder(product.code(), 2);
+
+        // When
+        var merged = configureShards(product.code(), 1);
+
+        // Then
+        assertThat(merged.shardCount()).isEqualTo(1);
+        assertThat(merged.shardQuantities()).containsExactly(7);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(7);
+    }
+
+    private StockShardsResponseDTO configureShards(UUID productCode, int shardCount) {
+        return restClient.put()
+                .uri(productsUrl + "/{code}/stock-shards", productCode)
+                .contentType(APPLICATION_JSON)
+                .body(new StockShardsUpdateDTO(shardCount))
+                .retrieve()
+                .body(StockShardsResponseDTO.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.dto.product.ProductSuggestionDTO;
+import com.example.ecommerce.dto.product.ProductUpdateDTO;
+import com.example.ecommerce.service.support.ProductSuggestIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProductSuggestIT extends IntegrationTestBase {
+
+    private static final ParameterizedTypeReference<List<ProductSuggestionDTO>> SUGGESTIONS = new ParameterizedTypeReference<>() {};
+
+    @Autowired
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        productSuggestIndex.rebuild().join();
+    }
+
+    @Test
+    @DisplayName("Suggestions match the start of product names without touching the database")
+    void shouldSuggestByPrefixWithoutQuery() {
+        // Given
+        var mouse = createTestProduct("Wireless Mouse", new BigDecimal("20.00"), 5);
+        createTestProduct("Wired Keyboard", new BigDecimal("30.00"), 5);
+        createTestProduct("Mouse Pad", new BigDecimal("5.00"), 5);
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // When
+        var suggestions = suggest("wire");
+
+        // Then
+        assertThat(suggestions).extracting(ProductSuggestionDTO::name).containsExactly("Wired Keyboard", "Wireless Mouse");
+        assertThat(suggestions.get(1).code()).isEqualTo(mouse.code());
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Renamed and deleted products are reflected in the next suggestion")
+    void shouldFollowUpdatesAndDeletes() {
+        // Given
+        var lamp = createTestProduct("Desk Lamp", new BigDecimal("20.00"), 5);
+        var chair = createTestProduct("Desk Chair", new BigDecimal("80.00"), 5);
+
+        // When
+        restClient.put()
+                .uri(url("/api/products/{code}"), lamp.code())
+                .contentType(APPLICATION_JSON)
+                .body(new ProductUpdateDTO("Floor Lamp", null, new BigDecimal("20.00"), 5, lamp.version()))
+                .retrieve()
+                .toBodilessEntity();
+        restClient.delete()
+                .uri(url("/api/products/{code}"), chair.code())
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        assertThat(suggest("desk")).isEmpty();
+        assertThat(suggest("floor")).extracting(ProductSuggestionDTO::code).containsExactly(lamp.code());
+    }
+
+    @Test
+    @DisplayName("A rebuild picks up products written outside the service")
+    void shouldIndexExistingProducts_onRebuild() {
+        // Given
+        createTestProduct("Standing Desk", new BigDecimal("300.00"), 5);
+        productRepository.deleteAll();
+
+        // When
+        productSuggestIndex.rebuild().join();
+
+        // Then
+        assertThat(suggest("standing")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A blank prefix is rejected")
+    void shouldReturn400_whenPrefixBlank() {
+        // When
+        var response = restClient.get()
+                .uri(url("/api/products/suggest?prefix= "))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {})
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+    }
+
+    private List<ProductSuggestionDTO> suggest(String prefix) {
+        return restClient.get()
+                .uri(url("/api/products/suggest?prefix={prefix}"), prefix)
+                .retrieve()
+                .body(SUGGESTIONS);
+    }
+}
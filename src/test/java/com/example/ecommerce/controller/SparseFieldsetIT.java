@@ -0,0 +1,191 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.OrderItem;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
+
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SparseFieldsetIT extends IntegrationTestBase {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {};
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("An order read with fields returns only those properties and never loads its items")
+    void shouldSkipItems_whenFieldsDoNotSelectThem() {
+        // Given
+        var order = createOrder("Sparse Order Product");
+        statistics.clear();
+
+        // When
+        var body = getJson("/api/orders/{code}?fields=code,status,totalAmount", order.code());
+
+        // Then
+        assertThat(body).containsOnlyKeys("code", "status", "totalAmount");
+        assertThat(body).containsEntry("status", "PENDING");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(OrderItem.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Expanding items adds them to the selected order properties")
+    void shouldIncludeItems_whenExpanded() {
+        // Given
+        var order = createOrder("Expanded Order Product");
+
+        // When
+        var body = getJson("/api/orders/{code}?fields=code&expand=items", order.code());
+
+        // Then
+        assertThat(body).containsOnlyKeys("code", "items");
+        assertThat((List<?>) body.get("items")).hasSize(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Listing and scrolling orders with fields skip the item query")
+    void shouldSkipItemQuery_whenListingWithFields() {
+        // Given
+        createOrder("Sparse List Product A");
+        createOrder("Sparse List Product B");
+
+        // When
+        statistics.clear();
+        var page = getJson("/api/orders?fields=code,customerName");
+        var pageStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        var scroll = getJson("/api/orders?cursor=&fields=code");
+        var scrollStatements = statistics.getPrepareStatementCount();
+
+        // Then
+        assertThat((List<Map<String, Object>>) page.get("content"))
+                .hasSize(2)
+                .allSatisfy(order -> assertThat(order).containsOnlyKeys("code", "customerName"));
+        assertThat((List<Map<String, Object>>) scroll.get("content"))
+                .hasSize(2)
+                .allSatisfy(order -> assertThat(order).containsOnlyKeys("code"));
+        assertThat(pageStatements).isEqualTo(1);
+        assertThat(scrollStatements).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A sparse product has its own entity tag and answers If-None-Match with it")
+    void shouldUseDistinctEntityTag_forSparseProduct() {
+        // Given
+        var product = createTestProduct("Sparse Tagged Product", new BigDecimal("4.00"), 3);
+        var full = restClient.get()
+                .uri(url("/api/products/{code}"), product.code())
+                .retrieve()
+                .toBodilessEntity()
+                .getHeaders()
+                .getETag();
+        var sparse = restClient.get()
+                .uri(url("/api/products/{code}?fields=name,price"), product.code())
+                .retrieve()
+                .toEntity(JSON_OBJECT);
+
+        // When
+        var response = restClient.get()
+                .uri(url("/api/products/{code}?fields=name,price"), product.code())
+                .header(IF_NONE_MATCH, sparse.getHeaders().getETag())
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        assertThat(sparse.getBody()).containsOnlyKeys("name", "price");
+        assertThat(sparse.getHeaders().getETag()).isNotEqualTo(full);
+        assertThat(response.getStatusCode()).isEqualTo(NOT_MODIFIED);
+    }
+
+    @Test
+    @DisplayName("The entity tag of a sparse product depends on the selected fields but not on their order")
+    void shouldTagSelectionByItsFields() {
+        // Given
+        var product = createTestProduct("Sparse Variant Product", new BigDecimal("4.00"), 3);
+
+        // When
+        var namePrice = eTag("/api/products/{code}?fields=name,price", product.code());
+        var priceName = eTag("/api/products/{code}?fields= price ,name", product.code());
+        var nameOnly = eTag("/api/products/{code}?fields=name", product.code());
+
+        // Then
+        assertThat(priceName).isEqualTo(namePrice);
+        assertThat(nameOnly).isNotEqualTo(namePrice);
+        assertThat(namePrice).endsWith("-fname.price\"");
+    }
+
+    @Test
+    @DisplayName("An unknown field or expansion is rejected with 400")
+    void shouldReturnBadRequest_whenFieldIsUnknown() {
+        // When
+        var unknownField = getProblem("/api/products?fields=name,secret");
+        var unknownExpansion = getProblem("/api/orders?fields=code&expand=customer");
+
+        // Then
+        assertThat(unknownField.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(unknownField.getBody()).isNotNull();
+        assertThat(unknownField.getBody().getDetail()).contains("secret");
+        assertThat(unknownExpansion.getStatusCode()).isEqualTo(BAD_REQUEST);
+        assertThat(unknownExpansion.getBody()).isNotNull();
+        assertThat(unknownExpansion.getBody().getDetail()).contains("customer");
+    }
+
+    private OrderResponseDTO createOrder(String productName) {
+        var product = createTestProduct(productName, new BigDecimal("5.00"), 10);
+        return createTestOrder("Sparse Buyer", "sparse@example.com", List.of(new OrderLineDTO(product.code(), 2)));
+    }
+
+    private Map<String, Object> getJson(String path, Object... variables) {
+        return restClient.get()
+                .uri(url(path), variables)
+                .retrieve()
+                .body(JSON_OBJECT);
+    }
+
+    private String eTag(String path, Object... variables) {
+        return restClient.get()
+                .uri(url(path), variables)
+                .retrieve()
+                .toBodilessEntity()
+                .getHeaders()
+                .getETag();
+    }
+
+    private ResponseEntity<ProblemDetail> getProblem(String path, Object... variables) {
+        return restClient.get()
+                .uri(url(path), variables)
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, response) -> {})
+                .toEntity(ProblemDetail.class);
+    }
+}
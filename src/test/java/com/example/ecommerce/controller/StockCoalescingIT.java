@@ -0,0 +1,235 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchMode;
+import com.example.ecommerce.dto.order.OrderBatchResponseDTO;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.dto.order.OrderUpdateDTO;
+import com.example.ecommerce.dto.orderitem.OrderItemCreateDTO;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.impl.CoalescingStockServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ProblemDetail;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = "app.stock.mode=coalescing")
+class StockCoalescingIT extends IntegrationTestBase {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private CoalescingStockServiceImpl coalescingStockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Concurrent order items on one product are coalesced without overselling")
+    void shouldNeverOversell_whenConcurrentAdjustmentsAreCoalesced() throws Exception {
+        // Given
+        var product = createTestProduct("Coalesced Widget", new BigDecimal("10.00"), 20);
+        var order = createTestOrder(createTestProduct("Seed Widget", new BigDecimal("1.00"), 1).code(), 1);
+
+        var executor = newFixedThreadPool(16);
+        var latch = new CountDownLatch(1);
+        var tasks = IntStream.range(0, 32)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    var client = RestClient.create();
+                    latch.await();
+                    return client.post()
+                            .uri(url("/api/order-items"))
+                            .contentType(APPLICATION_JSON)
+                            .body(new OrderItemCreateDTO(product.code(), 1, order.code()))
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                            })
+                            .toBodilessEntity()
+                            .getStatusCode().value();
+                })
+                .toList();
+
+        // When
+        var futures = tasks.stream().map(executor::submit).toList();
+        latch.countDown();
+        var statuses = new ArrayList<Integer>();
+        for (var future : futures) {
+            statuses.add(future.get());
+        }
+        executor.shutdown();
+
+        // Then
+        var succeeded = statuses.stream().filter(status -> status == 201).count();
+        assertThat(statuses).allMatch(status -> status == 201 || status == 400 || status == 409);
+        assertThat(succeeded).isPositive();
+        awaitStock(product.code(), 20 - (int) succeeded);
+        assertThat(orderItemRepository.count()).isEqualTo(1 + succeeded);
+    }
+
+    @Test
+    @DisplayName("A best-effort batch racing single orders allocates locked stock and never oversells")
+    void shouldAllocateLockedStock_whenBatchRacesSingleOrders() throws Exception {
+        // Given
+        var product = createTestProduct("Batched Widget", new BigDecimal("10.00"), 30);
+        var batch = new OrderBatchCreateDTO(IntStream.range(0, 20)
+                .mapToObj(i -> new OrderCreateDTO("Batch Buyer " + i, "batch@test.com", List.of(new OrderLineDTO(product.code(), 1))))
+                .toList(), OrderBatchMode.BEST_EFFORT);
+
+        var executor = newFixedThreadPool(16);
+        var latch = new CountDownLatch(1);
+        var batchResponse = executor.submit(() -> {
+            latch.await();
+            return RestClient.create().post()
+                    .uri(url("/api/orders/batch"))
+                    .contentType(APPLICATION_JSON)
+                    .body(batch)
+                    .retrieve()
+                    .toEntity(OrderBatchResponseDTO.class);
+        });
+        var singles = IntStream.range(0, 20)
+                .mapToObj(i -> executor.submit(() -> {
+                    latch.await();
+                    return RestClient.create().post()
+                            .uri(url("/api/orders"))
+                            .contentType(APPLICATION_JSON)
+                            .body(new OrderCreateDTO("Buyer " + i, "buyer@test.com", List.of(new OrderLineDTO(product.code(), 1))))
+                            .retrieve()
+                            .onStatus(HttpStatusCode::isError, (request, resp) -> {
+                            })
+                            .toBodilessEntity()
+                            .getStatusCode().value();
+                }))
+                .toList();
+
+        // When
+        latch.countDown();
+        var response = batchResponse.get();
+        var singlesCreated = 0;
+        for (var single : singles) {
+            singlesCreated += single.get() == 201 ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().created() + singlesCreated).isEqualTo(30);
+        awaitStock(product.code(), 0);
+    }
+
+    @Test
+    @DisplayName("Order rejected for one line leaves stock of the other lines untouched")
+    void shouldRestoreOtherLines_whenOneLineHasInsufficientStock() throws InterruptedException {
+        // Given
+        var plenty = createTestProduct("Plenty Widget", new BigDecimal("10.00"), 10);
+        var scarce = createTestProduct("Scarce Widget", new BigDecimal("10.00"), 1);
+
+        // When
+        var response = restClient.post()
+                .uri(url("/api/orders"))
+                .contentType(APPLICATION_JSON)
+                .body(new OrderCreateDTO("Jane Doe", "jane@example.com", List.of(
+                        new OrderLineDTO(plenty.code(), 3),
+                        new OrderLineDTO(scarce.code(), 2)
+                )))
+                .retrieve()
+                .onStatus(HttpStatusCode::is4xxClientError, (request, resp) -> {
+                })
+                .toEntity(ProblemDetail.class);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(BAD_REQUEST);
+        awaitStock(plenty.code(), 10);
+        assertThat(getProduct(scarce.code()).stockQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Adjustment is compensated when the calling transaction rolls back")
+    void shouldCompensateAdjustment_whenCallerRollsBack() throws InterruptedException {
+        // Given
+        var product = createTestProduct("Rolled Back Widget", new BigDecimal("10.00"), 10);
+        var productId = productRepository.findByCode(product.code()).orElseThrow().getId();
+
+        // When
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            stockService.adjust(productId, 4);
+            assertThat(productRepository.findStockLevelById(productId).orElseThrow().getStockQuantity()).isEqualTo(6);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        awaitStock(product.code(), 10);
+    }
+
+    @Test
+    @DisplayName("Stock of a decrease its caller never confirmed is returned once it is stale")
+    void shouldReturnStock_whenDecreaseWasNeverConfirmed() throws InterruptedException {
+        // Given
+        var product = createTestProduct("Abandoned Widget", new BigDecimal("10.00"), 6);
+        var productId = productRepository.findByCode(product.code()).orElseThrow().getId();
+        jdbcTemplate.update("INSERT INTO pending_stock_return (id, product_id, quantity, created_at) VALUES (?, ?, ?, ?)",
+                UUID.randomUUID(), productId, 4, LocalDateTime.now().minusHours(1));
+        jdbcTemplate.update("INSERT INTO pending_stock_return (id, product_id, quantity) VALUES (?, ?, ?)",
+                UUID.randomUUID(), productId, 2);
+
+        // When
+        var returned = coalescingStockService.applyStaleReturns(100);
+
+        // Then
+        assertThat(returned).isEqualTo(1);
+        awaitStock(product.code(), 10);
+    }
+
+    @Test
+    @DisplayName("Cancelling an order gives its stock back once the cancellation commits")
+    void shouldRestoreStock_whenOrderIsCancelled() throws InterruptedException {
+        // Given
+        var product = createTestProduct("Cancelled Widget", new BigDecimal("10.00"), 10);
+        var order = createTestOrder(product.code(), 3);
+        awaitStock(product.code(), 7);
+
+        // When
+        restClient.put()
+                .uri(url("/api/orders/{code}"), order.code())
+                .contentType(APPLICATION_JSON)
+                .body(new OrderUpdateDTO(order.customerName(), order.customerEmail(), OrderStatus.CANCELLED, order.version()))
+                .retrieve()
+                .toBodilessEntity();
+
+        // Then
+        awaitStock(product.code(), 10);
+    }
+
+    private void awaitStock(UUID productCode, int expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 50 && getProduct(productCode).stockQuantity() != expected; attempt++) {
+            Thread.sleep(20);
+        }
+        assertThat(getProduct(productCode).stockQuantity()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import com.example.ecommerce.dto.order.OrderUpdateDTO;
+import com.example.ecommerce.repository.StockReservationRepository;
+import com.example.ecommerce.service.StockReservationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+@TestPropertySource(properties = {
+        "app.stock.reservation.ttl=0s",
+        "app.stock.reservation.sweeper.enabled=false"
+})
+class StockReservationIT extends IntegrationTestBase {
+
+    private static final int BATCH_SIZE = 5;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Test
+    @DisplayName("Expired reservation cancels the pending order and returns its stock")
+    void shouldCancelOrderAndRestoreStock_whenReservationExpires() {
+        // Given
+        var product = createTestProduct("Abandoned Widget", new BigDecimal("10.00"), 10);
+        var order = createTestOrder(product.code(), 4);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(6);
+
+        // When
+        var released = reservationService.releaseExpired(BATCH_SIZE);
+
+        // Then
+        assertThat(released).isEqualTo(1);
+        var expired = getOrder(order.code());
+        assertThat(expired.status()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(expired.totalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(10);
+        assertThat(reservationService.releaseExpired(BATCH_SIZE)).isZero();
+    }
+
+    @Test
+    @DisplayName("Moving an order to PROCESSING makes its stock decrement permanent")
+    void shouldKeepStockDecremented_whenOrderMovesToProcessing() {
+        // Given
+        var product = createTestProduct("Confirmed Widget", new BigDecimal("10.00"), 10);
+        var order = createTestOrder(product.code(), 4);
+
+        // When
+        var processing = restClient.put()
+                .uri(url("/api/orders/{code}"), order.code())
+                .contentType(APPLICATION_JSON)
+                .body(new OrderUpdateDTO(order.customerName(), order.customerEmail(), OrderStatus.PROCESSING, order.version()))
+                .retrieve()
+                .body(OrderResponseDTO.class);
+        var released = reservationService.releaseExpired(BATCH_SIZE);
+
+        // Then
+        assertThat(processing).isNotNull();
+        assertThat(released).isZero();
+        assertThat(getOrder(order.code()).status()).isEqualTo(OrderStatus.PROCESSING);
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Parallel sweepers release every expired reservation exactly once")
+    void shouldReleaseEachReservationOnce_whenSweepersRunInParallel() throws Exception {
+        // Given
+        var product = createTestProduct("Swept Widget", new BigDecimal("10.00"), 40);
+        IntStream.range(0, 20).forEach(i -> createTestOrder(product.code(), 2));
+        assertThat(getProduct(product.code()).stockQuantity()).isZero();
+
+        var executor = newFixedThreadPool(4);
+        var latch = new CountDownLatch(1);
+        var tasks = IntStream.range(0, 4)
+                .mapToObj(i -> (Callable<Integer>) () -> {
+                    latch.await();
+                    var total = 0;
+                    int released;
+                    do {
+                        released = reservationService.releaseExpired(BATCH_SIZE);
+                        total += released;
+                    } while (released > 0);
+                    return total;
+                })
+                .toList();
+
+        // When
+        var futures = tasks.stream().map(executor::submit).toList();
+        latch.countDown();
+        var total = 0;
+        for (var future : futures) {
+            total += future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(total).isEqualTo(20);
+        assertThat(reservationRepository.count()).isZero();
+        assertThat(getProduct(product.code()).stockQuantity()).isEqualTo(40);
+    }
+}
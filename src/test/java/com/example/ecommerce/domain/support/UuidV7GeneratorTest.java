@@ -0,0 +1,80 @@
+package com.example.ecommerce.domain.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    @DisplayName("should produce version 7, IETF variant UUIDs carrying the current timestamp")
+    void shouldEncodeVersionVariantAndTimestamp() {
+        var uuid = new UuidV7Generator(() -> NOW).generate();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("should stay strictly increasing within the same millisecond, borrowing the next one on counter overflow")
+    void shouldBeMonotonic_whenClockDoesNotAdvance() {
+        var generator = new UuidV7Generator(() -> NOW);
+
+        var previous = generator.generate();
+        for (int i = 0; i < 10_000; i++) {
+            var next = generator.generate();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+        assertThat(previous.getMostSignificantBits() >>> 16).isGreaterThan(NOW);
+    }
+
+    @Test
+    @DisplayName("should not go backwards when the clock does")
+    void shouldBeMonotonic_whenClockMovesBackwards() {
+        var clock = new AtomicLong(NOW);
+        var generator = new UuidV7Generator(clock::get);
+
+        var before = generator.generate();
+        clock.set(NOW - 1_000);
+        var after = generator.generate();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("should generate unique codes from concurrent threads")
+    void shouldBeUnique_whenGeneratedConcurrently() throws Exception {
+        var executor = Executors.newFixedThreadPool(8);
+        var futures = new ArrayList<Future<List<UUID>>>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit((Callable<List<UUID>>) () -> {
+                var codes = new ArrayList<UUID>();
+                for (int j = 0; j < 10_000; j++) {
+                    codes.add(UuidV7Generator.next());
+                }
+                return codes;
+            }));
+        }
+
+        var unique = new HashSet<UUID>();
+        for (var future : futures) {
+            unique.addAll(future.get());
+        }
+        executor.shutdown();
+
+        assertThat(unique).hasSize(80_000);
+    }
+}
@@ -47,6 +47,43 @@ class GlobalExceptionHandlerTest {
         assertThat(problem.getInstance()).hasToString(REQUEST_URI);
     }
 
+    @Test
+    void shouldReturn404WithMissingCodes_whenSeveralEntitiesNotFound() {
+        when(request.getRequestURI()).thenReturn(REQUEST_URI);
+        var codes = List.of(UUID.randomUUID(), UUID.randomUUID());
+        var ex = new EntityNotFoundException("Product", codes);
+
+        var problem = handler.handleNotFound(ex, request);
+
+        assertThat(problem.getStatus()).isEqualTo(404);
+        assertThat(problem.getDetail()).isEqualTo("Product with codes %s not found".formatted(codes));
+        assertThat(problem.getProperties()).containsEntry("missingCodes", codes);
+    }
+
+    @Test
+    void shouldReturn412_whenPreconditionFails() {
+        when(request.getRequestURI()).thenReturn(REQUEST_URI);
+        var code = UUID.randomUUID();
+
+        var problem = handler.handlePreconditionFailed(new PreconditionFailedException(code), request);
+
+        assertThat(problem.getStatus()).isEqualTo(412);
+        assertThat(problem.getTitle()).isEqualTo("Precondition Failed");
+        assertThat(problem.getDetail()).contains(code.toString());
+    }
+
+    @Test
+    void shouldReturn422_whenQueuedOrderFailed() {
+        when(request.getRequestURI()).thenReturn(REQUEST_URI);
+        var code = UUID.randomUUID();
+
+        var problem = handler.handleOrderIntakeFailed(new OrderIntakeFailedException(code, "Insufficient stock"), request);
+
+        assertThat(problem.getStatus()).isEqualTo(422);
+        assertThat(problem.getTitle()).isEqualTo("Unprocessable Content");
+        assertThat(problem.getDetail()).contains(code.toString()).contains("Insufficient stock");
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void shouldReturn400WithErrors_whenValidationFails() {
@@ -137,6 +174,17 @@ class GlobalExceptionHandlerTest {
         assertThat(problem.getInstance()).hasToString(REQUEST_URI);
     }
 
+    @Test
+    void shouldReturn409_whenIdempotentRequestIsInProgress() {
+        when(request.getRequestURI()).thenReturn(REQUEST_URI);
+        var ex = new RequestInProgressException("order-42");
+
+        var problem = handler.handleConflict(ex, request);
+
+        assertThat(problem.getStatus()).isEqualTo(409);
+        assertThat(problem.getDetail()).isEqualTo("A request with Idempotency-Key 'order-42' is still in progress");
+    }
+
     @Test
     void shouldReturn400_whenStockIsInsufficient() {
         when(request.getRequestURI()).thenReturn(REQUEST_URI);
@@ -0,0 +1,163 @@
+package com.example.ecommerce.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.support.ProductCache;
+import com.example.ecommerce.repository.ProductRepository.StockLevel;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalStockServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @InjectMocks
+    private ConditionalStockServiceImpl stockService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .id(1L)
+                .code(UUID.randomUUID())
+                .version(0L)
+                .name("Wireless Mouse")
+                .description("Ergonomic wireless mouse")
+                .price(new BigDecimal("29.99"))
+                .stockQuantity(100)
+                .build();
+    }
+
+    @Test
+    @DisplayName("adjust should issue a guarded decrement when delta is positive")
+    void shouldDecreaseStock_whenGuardedUpdateMatches() {
+        given(productRepository.decreaseStockIfAvailable(1L, 30)).willReturn(1);
+
+        stockService.adjust(1L, 30);
+
+        then(productRepository).should().decreaseStockIfAvailable(1L, 30);
+        then(productRepository).should(never()).findStockLevelById(any());
+        then(productCache).should().evictStock(1L);
+    }
+
+    @Test
+    @DisplayName("adjust should throw InsufficientStockException with the available quantity when no row matches")
+    void shouldThrowException_whenGuardedUpdateMatchesNoRow() {
+        given(productRepository.decreaseStockIfAvailable(1L, 10)).willReturn(0);
+        given(productRepository.findStockLevelById(1L)).willReturn(Optional.of(stockLevel("Wireless Mouse", 5)));
+
+        assertThatThrownBy(() -> stockService.adjust(1L, 10))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("available=5")
+                .hasMessageContaining("requested=10");
+    }
+
+    @Test
+    @DisplayName("adjust should throw EntityNotFoundException when product is missing on decrement")
+    void shouldThrowException_whenProductIsMissingOnDecrement() {
+        given(productRepository.decreaseStockIfAvailable(99L, 1)).willReturn(0);
+        given(productRepository.findStockLevelById(99L)).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> stockService.adjust(99L, 1))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Product")
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    @DisplayName("adjust should issue an unguarded increment when delta is negative")
+    void shouldRestoreStock_whenDeltaIsNegative() {
+        given(productRepository.increaseStock(1L, 25)).willReturn(1);
+
+        stockService.adjust(1L, -25);
+
+        then(productRepository).should().increaseStock(1L, 25);
+    }
+
+    @Test
+    @DisplayName("adjust should ignore null product id or zero delta")
+    void shouldIgnore_whenProductIdIsNullOrDeltaIsZero() {
+        stockService.adjust(null, 10);
+        stockService.adjust(1L, 0);
+
+        then(productRepository).should(never()).decreaseStockIfAvailable(any(), anyInt());
+        then(productRepository).should(never()).increaseStock(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("reserve should decrement every product in ascending id order")
+    void shouldDecreaseInIdOrder_whenReserving() {
+        var keyboard = Product.builder()
+                .id(2L)
+                .code(UUID.randomUUID())
+                .name("Keyboard")
+                .price(new BigDecimal("79.99"))
+                .stockQuantity(10)
+                .build();
+        var quantities = Map.of(product.getCode(), 3, keyboard.getCode(), 4);
+        given(productRepository.findAllByCodeIn(quantities.keySet())).willReturn(List.of(keyboard, product));
+        given(productRepository.decreaseStockIfAvailable(any(), anyInt())).willReturn(1);
+
+        var reserved = stockService.reserve(quantities);
+
+        assertThat(reserved).containsEntry(product.getCode(), product).containsEntry(keyboard.getCode(), keyboard);
+        var inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).decreaseStockIfAvailable(1L, 3);
+        inOrder.verify(productRepository).decreaseStockIfAvailable(2L, 4);
+    }
+
+    @Test
+    @DisplayName("reserve should throw EntityNotFoundException before touching stock when a code does not exist")
+    void shouldThrowException_whenReservingUnknownProduct() {
+        var missingCode = UUID.randomUUID();
+        var quantities = Map.of(product.getCode(), 1, missingCode, 1);
+        given(productRepository.findAllByCodeIn(quantities.keySet())).willReturn(List.of(product));
+
+        assertThatThrownBy(() -> stockService.reserve(quantities))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining(missingCode.toString());
+
+        then(productRepository).should(never()).decreaseStockIfAvailable(any(), anyInt());
+    }
+
+    private static StockLevel stockLevel(String name, int stockQuantity) {
+        return new StockLevel() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+        };
+    }
+}
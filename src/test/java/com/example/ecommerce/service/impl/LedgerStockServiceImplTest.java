@@ -0,0 +1,237 @@
+package com.example.ecommerce.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+
+import com.example.ecommerce.domain.entity.InventoryMovement;
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.InventoryMovementRepository;
+import com.example.ecommerce.repository.InventoryMovementRepository.LedgerBalance;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.service.support.ProductCache;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerStockServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private InventoryMovementRepository movementRepository;
+
+    @InjectMocks
+    private LedgerStockServiceImpl stockService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .id(1L)
+                .code(UUID.randomUUID())
+                .version(0L)
+                .name("Wireless Mouse")
+                .description("Ergonomic wireless mouse")
+                .price(new BigDecimal("29.99"))
+                .stockQuantity(100)
+                .build();
+    }
+
+    @Test
+    @DisplayName("adjust should append a negative movement under the product lock when stock is available")
+    void shouldAppendDecrement_whenStockIsAvailable() {
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 40)));
+
+        stockService.adjust(1L, 30);
+
+        var inOrder = inOrder(movementRepository);
+        inOrder.verify(movementRepository).lockProduct(1L);
+        inOrder.verify(movementRepository).findBalances(List.of(1L));
+        inOrder.verify(movementRepository).save(movementWithDelta(-30));
+        then(productRepository).should(never()).save(any());
+        then(productCache).should().evictStock(1L);
+    }
+
+    @Test
+    @DisplayName("adjust should throw InsufficientStockException with the ledger balance")
+    void shouldThrowException_whenLedgerBalanceIsTooLow() {
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 5)));
+
+        assertThatThrownBy(() -> stockService.adjust(1L, 10))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("available=5")
+                .hasMessageContaining("requested=10");
+
+        then(movementRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("adjust should throw EntityNotFoundException when product is missing on decrement")
+    void shouldThrowException_whenProductIsMissingOnDecrement() {
+        given(movementRepository.findBalances(List.of(99L))).willReturn(List.of());
+
+        assertThatThrownBy(() -> stockService.adjust(99L, 1))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    @DisplayName("adjust should append a positive movement when delta is negative")
+    void shouldAppendRestore_whenDeltaIsNegative() {
+        given(productRepository.existsById(1L)).willReturn(true);
+
+        stockService.adjust(1L, -25);
+
+        then(movementRepository).should().save(movementWithDelta(25));
+        then(movementRepository).should(never()).findBalances(any());
+    }
+
+    @Test
+    @DisplayName("adjust should skip restore when product no longer exists")
+    void shouldSkipRestore_whenProductIsMissing() {
+        given(productRepository.existsById(99L)).willReturn(false);
+
+        stockService.adjust(99L, -5);
+
+        then(movementRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("reserve should append movements in ascending id order")
+    void shouldAppendInIdOrder_whenReserving() {
+        var keyboard = Product.builder()
+                .id(2L)
+                .code(UUID.randomUUID())
+                .name("Keyboard")
+                .price(new BigDecimal("79.99"))
+                .stockQuantity(10)
+                .build();
+        var quantities = Map.of(product.getCode(), 3, keyboard.getCode(), 4);
+        given(productRepository.findAllByCodeIn(quantities.keySet())).willReturn(List.of(keyboard, product));
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 100)));
+        given(movementRepository.findBalances(List.of(2L))).willReturn(List.of(balance(2L, "Keyboard", 10)));
+
+        var reserved = stockService.reserve(quantities);
+
+        assertThat(reserved).containsEntry(product.getCode(), product).containsEntry(keyboard.getCode(), keyboard);
+        var inOrder = inOrder(movementRepository);
+        inOrder.verify(movementRepository).lockProduct(1L);
+        inOrder.verify(movementRepository).lockProduct(2L);
+    }
+
+    @Test
+    @DisplayName("availableStock should report ledger balances instead of the product row")
+    void shouldReturnLedgerBalance_whenReadingAvailableStock() {
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 64)));
+
+        assertThat(stockService.availableStock(List.of(product))).containsExactlyEntriesOf(Map.of(1L, 64));
+    }
+
+    @Test
+    @DisplayName("replaceStock should append the difference and leave the product row untouched")
+    void shouldAppendDifference_whenReplacingStock() {
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 64)));
+
+        stockService.replaceStock(product, 80, 64);
+
+        then(movementRepository).should().save(movementWithDelta(16));
+        assertThat(product.getStockQuantity()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("replaceStock should not append anything when the balance already matches")
+    void shouldNotAppend_whenBalanceAlreadyMatches() {
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 64)));
+
+        stockService.replaceStock(product, 64, null);
+
+        then(movementRepository).should(never()).save(any());
+        then(movementRepository).should(never()).compact(anyLong());
+    }
+
+    @Test
+    @DisplayName("replaceStock should reject a stock level read before the balance changed")
+    void shouldThrowException_whenExpectedStockIsStale() {
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 64)));
+
+        assertThatThrownBy(() -> stockService.replaceStock(product, 80, 70))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        then(movementRepository).should().lockProduct(1L);
+        then(movementRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("replaceStock without an expected stock should reject a quantity other than the balance")
+    void shouldThrowException_whenStockChangesWithoutExpectedStock() {
+        given(movementRepository.findBalances(List.of(1L))).willReturn(List.of(balance(1L, "Wireless Mouse", 64)));
+
+        assertThatThrownBy(() -> stockService.replaceStock(product, 100, null))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        then(movementRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("lockAvailableStock should take the product locks in id order before reading the balances")
+    void shouldLockProductsInIdOrder_whenLockingAvailableStock() {
+        var keyboard = Product.builder().id(2L).code(UUID.randomUUID()).name("Keyboard").stockQuantity(10).build();
+        given(movementRepository.findBalances(List.of(2L, 1L)))
+                .willReturn(List.of(balance(2L, "Keyboard", 10), balance(1L, "Wireless Mouse", 64)));
+
+        var stock = stockService.lockAvailableStock(List.of(keyboard, product));
+
+        assertThat(stock).containsEntry(1L, 64).containsEntry(2L, 10);
+        var inOrder = inOrder(movementRepository);
+        inOrder.verify(movementRepository).lockProduct(1L);
+        inOrder.verify(movementRepository).lockProduct(2L);
+        inOrder.verify(movementRepository).findBalances(List.of(2L, 1L));
+    }
+
+    private static InventoryMovement movementWithDelta(int delta) {
+        return argThat(movement -> movement.getProductId() != null && movement.getDelta() == delta);
+    }
+
+    private static LedgerBalance balance(Long productId, String name, int quantity) {
+        return new LedgerBalance() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.ecommerce.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+import com.example.ecommerce.domain.entity.OrderIntake;
+import com.example.ecommerce.domain.entity.OrderIntakeStatus;
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchMode;
+import com.example.ecommerce.dto.order.OrderBatchResponseDTO;
+import com.example.ecommerce.dto.order.OrderBatchResultDTO;
+import com.example.ecommerce.dto.order.OrderCreateDTO;
+import com.example.ecommerce.dto.order.OrderLineDTO;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.OrderIntakeRepository;
+import com.example.ecommerce.service.OrderService;
+import com.example.ecommerce.service.support.OrderIntakeSignals;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIntakeServiceImplTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Mock
+    private OrderIntakeRepository orderIntakeRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderIntakeSignals signals;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderIntakeServiceImpl orderIntakeService;
+
+    private OrderCreateDTO firstOrder;
+    private OrderCreateDTO secondOrder;
+    private OrderIntake first;
+    private OrderIntake second;
+
+    @BeforeEach
+    void setUp() {
+        orderIntakeService = new OrderIntakeServiceImpl(orderIntakeRepository, orderService, signals, jsonMapper, transactionManager,
+                Duration.ofSeconds(20), Duration.ofHours(24), 3, Duration.ofSeconds(10));
+        firstOrder = new OrderCreateDTO("First Buyer", "first@example.com", List.of(new OrderLineDTO(UUID.randomUUID(), 1)));
+        secondOrder = new OrderCreateDTO("Second Buyer", "second@example.com", List.of(new OrderLineDTO(UUID.randomUUID(), 2)));
+        first = intake(1L, firstOrder);
+        second = intake(2L, secondOrder);
+    }
+
+    @Test
+    @DisplayName("should record the batch outcome of every queued order")
+    void shouldRecordOutcomes_whenBatchSucceeds() {
+        given(orderIntakeRepository.claimQueued(100)).willReturn(List.of(first, second));
+        given(orderService.createBatch(new OrderBatchCreateDTO(List.of(firstOrder, secondOrder), OrderBatchMode.BEST_EFFORT),
+                List.of(first.getCode(), second.getCode())))
+                .willReturn(OrderBatchResponseDTO.of(OrderBatchMode.BEST_EFFORT, List.of(
+                        OrderBatchResultDTO.created(0, null),
+                        OrderBatchResultDTO.failed(1, "Insufficient stock"))));
+
+        var processed = orderIntakeService.processQueued(100);
+
+        assertThat(processed).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(OrderIntakeStatus.COMPLETED);
+        assertThat(second.getStatus()).isEqualTo(OrderIntakeStatus.FAILED);
+        assertThat(second.getError()).isEqualTo("Insufficient stock");
+        then(orderService).should(never()).create(any(), any());
+    }
+
+    @Test
+    @DisplayName("should create the orders one by one when the batch loses a stock race")
+    void shouldFallBackToSingleOrders_whenBatchFails() {
+        given(orderIntakeRepository.claimQueued(100)).willReturn(List.of(first, second));
+        given(orderService.createBatch(any(), anyList())).willThrow(new InsufficientStockException("Widget", 1, 2));
+        given(orderIntakeRepository.claimQueued(1L)).willReturn(Optional.of(first));
+        given(orderIntakeRepository.claimQueued(2L)).willReturn(Optional.of(second));
+        given(orderService.create(firstOrder, first.getCode())).willReturn(null);
+        given(orderService.create(secondOrder, second.getCode())).willThrow(new InsufficientStockException("Widget", 0, 2));
+
+        var processed = orderIntakeService.processQueued(100);
+
+        assertThat(processed).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(OrderIntakeStatus.COMPLETED);
+        assertThat(second.getStatus()).isEqualTo(OrderIntakeStatus.FAILED);
+        assertThat(second.getError()).contains("Insufficient stock");
+    }
+
+    @Test
+    @DisplayName("should leave an order queued when creating it fails for a reason other than the business rules")
+    void shouldKeepOrderQueued_whenCreationFailsTransiently() {
+        given(orderIntakeRepository.claimQueued(100)).willReturn(List.of(first));
+        given(orderService.createBatch(any(), anyList())).willThrow(new CannotAcquireLockException("lock timeout"));
+        given(orderIntakeRepository.claimQueued(1L)).willReturn(Optional.of(first));
+        given(orderService.create(firstOrder, first.getCode())).willThrow(new CannotAcquireLockException("lock timeout"));
+
+        var processed = orderIntakeService.processQueued(100);
+
+        assertThat(processed).isZero();
+        assertThat(first.getStatus()).isEqualTo(OrderIntakeStatus.QUEUED);
+        assertThat(first.getError()).isNull();
+        assertThat(first.getAttempts()).isEqualTo(1);
+        then(signals).should(never()).processed(anyList());
+    }
+
+    @Test
+    @DisplayName("should retry an order that failed before on its own, outside the batch")
+    void shouldRetryFailedOrderAlone_whenItFailedBefore() {
+        first.recordFailedAttempt(3);
+        given(orderIntakeRepository.findRetryIds(any(), eq(100))).willReturn(List.of(1L));
+        given(orderIntakeRepository.claimQueued(1L)).willReturn(Optional.of(first));
+        given(orderService.create(firstOrder, first.getCode())).willReturn(null);
+        given(orderIntakeRepository.claimQueued(100)).willReturn(List.of());
+
+        var processed = orderIntakeService.processQueued(100);
+
+        assertThat(processed).isZero();
+        assertThat(first.getStatus()).isEqualTo(OrderIntakeStatus.COMPLETED);
+        then(orderService).should(never()).createBatch(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("should fail an order once its attempts run out")
+    void shouldFailOrder_whenAttemptsRunOut() {
+        first.recordFailedAttempt(3);
+        first.recordFailedAttempt(3);
+        given(orderIntakeRepository.findRetryIds(any(), eq(100))).willReturn(List.of(1L));
+        given(orderIntakeRepository.claimQueued(1L)).willReturn(Optional.of(first));
+        given(orderService.create(firstOrder, first.getCode())).willThrow(new DataIntegrityViolationException("constraint"));
+        given(orderIntakeRepository.claimQueued(100)).willReturn(List.of());
+
+        orderIntakeService.processQueued(100);
+
+        assertThat(first.getStatus()).isEqualTo(OrderIntakeStatus.FAILED);
+        assertThat(first.getError()).isEqualTo("Order could not be created after 3 attempts");
+        then(signals).should().processed(List.of(first.getCode()));
+    }
+
+    @Test
+    @DisplayName("should store the failure reason of a rejected order on a single line")
+    void shouldStoreSingleLineReason_whenOrderIsRejected() {
+        given(orderIntakeRepository.claimQueued(100)).willReturn(List.of(first));
+        given(orderService.createBatch(any(), anyList())).willThrow(new IllegalStateException("batch failed"));
+        given(orderIntakeRepository.claimQueued(1L)).willReturn(Optional.of(first));
+        given(orderService.create(firstOrder, first.getCode())).willThrow(new IllegalArgumentException("Quantity must be\n  greater than zero"));
+
+        var processed = orderIntakeService.processQueued(100);
+
+        assertThat(processed).isEqualTo(1);
+        assertThat(first.getStatus()).isEqualTo(OrderIntakeStatus.FAILED);
+        assertThat(first.getError()).isEqualTo("Quantity must be greater than zero");
+    }
+
+    @Test
+    @DisplayName("should reject an order with duplicate products before queueing it")
+    void shouldReject_whenOrderHasDuplicateProducts() {
+        var productCode = UUID.randomUUID();
+        var dto = new OrderCreateDTO("Buyer", "buyer@example.com",
+                List.of(new OrderLineDTO(productCode, 1), new OrderLineDTO(productCode, 2)));
+
+        assertThatThrownBy(() -> orderIntakeService.submit(dto)).isInstanceOf(IllegalArgumentException.class);
+        then(orderIntakeRepository).should(never()).save(any());
+    }
+
+    private OrderIntake intake(Long id, OrderCreateDTO dto) {
+        return OrderIntake.builder()
+                .id(id)
+                .code(UUID.randomUUID())
+                .payload(jsonMapper.writeValueAsString(dto))
+                .status(OrderIntakeStatus.QUEUED)
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
@@ -21,6 +22,8 @@ import com.example.ecommerce.repository.OrderItemRepository;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.repository.ProductRepository;
 import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.OrderResponseCache;
+import com.example.ecommerce.service.support.PageCounter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -57,6 +60,12 @@ class OrderItemServiceImplTest {
     @Mock
     private StockService stockService;
 
+    @Mock
+    private PageCounter pageCounter;
+
+    @Mock
+    private OrderResponseCache orderResponseCache;
+
     @InjectMocks
     private OrderItemServiceImpl orderItemService;
 
@@ -153,6 +162,7 @@ class OrderItemServiceImplTest {
         assertThat(result).isEqualTo(responseDTO);
         then(orderItemRepository).should().save(any(OrderItem.class));
         then(orderRepository).should().save(order);
+        then(orderResponseCache).should().evict(ORDER_CODE);
     }
 
     @Test
@@ -184,45 +194,40 @@ class OrderItemServiceImplTest {
     }
 
     @Test
-    @DisplayName("should return paged results")
+    @DisplayName("should return paged results selected straight into DTOs")
     void shouldReturnPagedResults_whenFindingAll() {
         Pageable pageable = PageRequest.of(0, 10);
-        var itemPage = new PageImpl<>(List.of(orderItem), pageable, 1);
+        var responsePage = new PageImpl<>(List.of(responseDTO), pageable, 1);
 
-        given(orderItemRepository.findAll(pageable)).willReturn(itemPage);
-        given(orderItemMapper.toResponseDTO(orderItem)).willReturn(responseDTO);
+        given(pageCounter.<OrderItemResponseDTO>findAll(eq(OrderItem.class), eq(pageable), any(), any(), any())).willReturn(responsePage);
 
         var result = orderItemService.findAll(pageable);
 
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().getFirst()).isEqualTo(responseDTO);
+        assertThat(result.getContent()).containsExactly(responseDTO);
         assertThat(result.getTotalElements()).isEqualTo(1);
-        then(orderItemRepository).should().findAll(pageable);
+        then(orderItemMapper).shouldHaveNoInteractions();
     }
 
     @Test
     @DisplayName("should return DTO when order item exists")
     void shouldReturnDto_whenCodeExists() {
-        given(orderItemRepository.findByCode(ORDER_ITEM_CODE)).willReturn(Optional.of(orderItem));
-        given(orderItemMapper.toResponseDTO(orderItem)).willReturn(responseDTO);
+        given(orderItemRepository.findResponseByCode(ORDER_ITEM_CODE)).willReturn(Optional.of(responseDTO));
 
         var result = orderItemService.findByCode(ORDER_ITEM_CODE);
 
         assertThat(result).isEqualTo(responseDTO);
-        then(orderItemRepository).should().findByCode(ORDER_ITEM_CODE);
+        then(orderItemRepository).should(never()).findByCode(ORDER_ITEM_CODE);
     }
 
     @Test
     @DisplayName("should throw EntityNotFoundException when order item does not exist")
     void shouldThrowNotFound_whenCodeDoesNotExist() {
-        given(orderItemRepository.findByCode(ORDER_ITEM_CODE)).willReturn(Optional.empty());
+        given(orderItemRepository.findResponseByCode(ORDER_ITEM_CODE)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderItemService.findByCode(ORDER_ITEM_CODE))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("OrderItem")
                 .hasMessageContaining(ORDER_ITEM_CODE.toString());
-
-        then(orderItemMapper).should(never()).toResponseDTO(any());
     }
 
     @Test
@@ -315,6 +320,7 @@ class OrderItemServiceImplTest {
 
         then(orderItemRepository).should().delete(orderItem);
         then(orderRepository).should().save(order);
+        then(orderResponseCache).should().evict(ORDER_CODE);
         assertThat(order.getTotalAmount()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
@@ -3,6 +3,8 @@ package com.example.ecommerce.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
@@ -12,6 +14,10 @@ import com.example.ecommerce.domain.entity.Order;
 import com.example.ecommerce.domain.entity.OrderItem;
 import com.example.ecommerce.domain.entity.OrderStatus;
 import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.order.OrderBatchCreateDTO;
+import com.example.ecommerce.dto.order.OrderBatchMode;
+import com.example.ecommerce.dto.order.OrderBatchResultDTO;
+import com.example.ecommerce.dto.order.OrderBatchStatus;
 import com.example.ecommerce.dto.order.OrderCreateDTO;
 import com.example.ecommerce.dto.order.OrderLineDTO;
 import com.example.ecommerce.dto.order.OrderResponseDTO;
@@ -23,11 +29,19 @@ import com.example.ecommerce.mapper.OrderMapper;
 import com.example.ecommerce.repository.OrderItemRepository;
 import com.example.ecommerce.repository.OrderRepository;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.projection.OrderDetailRow;
+import com.example.ecommerce.repository.projection.OrderItemRow;
+import com.example.ecommerce.repository.projection.OrderRow;
+import com.example.ecommerce.repository.projection.ProductRow;
+import com.example.ecommerce.service.StockReservationService;
 import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.OrderResponseCache;
+import com.example.ecommerce.service.support.PageCounter;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,9 +62,6 @@ class OrderServiceImplTest {
     @Mock
     private OrderRepository orderRepository;
 
-    @Mock
-    private ProductRepository productRepository;
-
     @Mock
     private OrderItemRepository orderItemRepository;
 
@@ -63,6 +74,18 @@ class OrderServiceImplTest {
     @Mock
     private StockService stockService;
 
+    @Mock
+    private PageCounter pageCounter;
+
+    @Mock
+    private StockReservationService reservationService;
+
+    @Mock
+    private OrderResponseCache orderResponseCache;
+
+    @Mock
+    private ProductRepository productRepository;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -182,8 +205,8 @@ class OrderServiceImplTest {
                 .build();
 
         given(orderMapper.toEntity(createDTO)).willReturn(orderShell);
-        given(productRepository.findByCode(PRODUCT_CODE_1)).willReturn(Optional.of(product1));
-        given(productRepository.findByCode(PRODUCT_CODE_2)).willReturn(Optional.of(product2));
+        given(stockService.reserve(Map.of(PRODUCT_CODE_1, 2, PRODUCT_CODE_2, 1)))
+                .willReturn(Map.of(PRODUCT_CODE_1, product1, PRODUCT_CODE_2, product2));
         given(orderRepository.save(any(Order.class))).willReturn(order);
         given(orderMapper.toResponseDTO(order)).willReturn(orderResponseDTO);
 
@@ -194,11 +217,12 @@ class OrderServiceImplTest {
         assertThat(orderShell.getTotalAmount()).isEqualByComparingTo(new BigDecimal("139.97"));
         assertThat(orderShell.getItems()).hasSize(2);
         then(orderRepository).should().save(any(Order.class));
+        then(reservationService).should().hold(order);
     }
 
     @Test
-    @DisplayName("should decrease stock for each order item")
-    void shouldDecreaseStock_whenOrderIsCreated() {
+    @DisplayName("should reserve stock for all order items in a single call")
+    void shouldReserveStock_whenOrderIsCreated() {
         var lineDTO1 = new OrderLineDTO(PRODUCT_CODE_1, 2);
         var lineDTO2 = new OrderLineDTO(PRODUCT_CODE_2, 1);
         var createDTO = new OrderCreateDTO("John Doe", "john.doe@example.com", List.of(lineDTO1, lineDTO2));
@@ -209,57 +233,141 @@ class OrderServiceImplTest {
                 .build();
 
         given(orderMapper.toEntity(createDTO)).willReturn(orderShell);
-        given(productRepository.findByCode(PRODUCT_CODE_1)).willReturn(Optional.of(product1));
-        given(productRepository.findByCode(PRODUCT_CODE_2)).willReturn(Optional.of(product2));
+        given(stockService.reserve(Map.of(PRODUCT_CODE_1, 2, PRODUCT_CODE_2, 1)))
+                .willReturn(Map.of(PRODUCT_CODE_1, product1, PRODUCT_CODE_2, product2));
         given(orderRepository.save(any(Order.class))).willReturn(order);
         given(orderMapper.toResponseDTO(order)).willReturn(orderResponseDTO);
 
         orderService.create(createDTO);
 
-        then(stockService).should(times(1)).adjust(1L, 2);
-        then(stockService).should(times(1)).adjust(2L, 1);
+        then(stockService).should(times(1)).reserve(Map.of(PRODUCT_CODE_1, 2, PRODUCT_CODE_2, 1));
+        then(stockService).should(never()).adjust(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("should reject duplicate product codes before reserving stock")
+    void shouldThrowException_whenProductCodesAreDuplicated() {
+        var createDTO = new OrderCreateDTO("John Doe", "john.doe@example.com", List.of(
+                new OrderLineDTO(PRODUCT_CODE_1, 2),
+                new OrderLineDTO(PRODUCT_CODE_1, 1)
+        ));
+
+        assertThatThrownBy(() -> orderService.create(createDTO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Duplicate product codes");
+
+        then(stockService).should(never()).reserve(any());
+        then(orderRepository).should(never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("should create the orders that fit the remaining stock in request order when the batch is best effort")
+    void shouldCreateFittingOrders_whenBatchIsBestEffort() {
+        var first = new OrderCreateDTO("John Doe", "john.doe@example.com", List.of(new OrderLineDTO(PRODUCT_CODE_2, 30)));
+        var second = new OrderCreateDTO("Jane Doe", "jane.doe@example.com", List.of(new OrderLineDTO(PRODUCT_CODE_2, 30)));
+        var third = new OrderCreateDTO("Jim Doe", "jim.doe@example.com",
+                List.of(new OrderLineDTO(PRODUCT_CODE_1, 1), new OrderLineDTO(PRODUCT_CODE_2, 20)));
+        var rows = List.of(productRow(product1), productRow(product2));
+
+        given(productRepository.findRowsByCodeIn(any())).willReturn(rows);
+        given(stockService.lockAvailableStock(any())).willReturn(Map.of(1L, 150, 2L, 50));
+        given(orderMapper.toEntity(any(OrderCreateDTO.class))).willAnswer(invocation -> new Order());
+        given(stockService.reserve(Map.of(PRODUCT_CODE_2, 50, PRODUCT_CODE_1, 1)))
+                .willReturn(Map.of(PRODUCT_CODE_1, product1, PRODUCT_CODE_2, product2));
+        given(orderMapper.toResponseDTO(any(Order.class))).willReturn(orderResponseDTO);
+
+        var result = orderService.createBatch(new OrderBatchCreateDTO(List.of(first, second, third), OrderBatchMode.BEST_EFFORT));
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(1);
+        assertThat(result.results()).extracting(OrderBatchResultDTO::status)
+                .containsExactly(OrderBatchStatus.CREATED, OrderBatchStatus.FAILED, OrderBatchStatus.CREATED);
+        assertThat(result.results().get(1).error()).contains("Insufficient stock", "available=20");
+        then(orderRepository).should().saveAll(any());
+        then(reservationService).should().holdAll(any());
+    }
+
+    @Test
+    @DisplayName("should create no order and reserve no stock when an all-or-nothing batch has a failing order")
+    void shouldCreateNothing_whenAllOrNothingBatchHasFailure() {
+        var valid = new OrderCreateDTO("John Doe", "john.doe@example.com", List.of(new OrderLineDTO(PRODUCT_CODE_1, 1)));
+        var unknownCode = UUID.randomUUID();
+        var unknown = new OrderCreateDTO("Jane Doe", "jane.doe@example.com", List.of(new OrderLineDTO(unknownCode, 1)));
+
+        given(productRepository.findRowsByCodeIn(any())).willReturn(List.of(productRow(product1)));
+        given(stockService.lockAvailableStock(any())).willReturn(Map.of(1L, 150));
+
+        var result = orderService.createBatch(new OrderBatchCreateDTO(List.of(valid, unknown), null));
+
+        assertThat(result.mode()).isEqualTo(OrderBatchMode.ALL_OR_NOTHING);
+        assertThat(result.created()).isZero();
+        assertThat(result.results()).extracting(OrderBatchResultDTO::status)
+                .containsExactly(OrderBatchStatus.NOT_CREATED, OrderBatchStatus.FAILED);
+        assertThat(result.results().get(1).error()).contains(unknownCode.toString());
+        then(stockService).should(never()).reserve(any());
+        then(orderRepository).should(never()).saveAll(any());
     }
 
     @Test
-    @DisplayName("should return paged results")
+    @DisplayName("should return paged results with items loaded in one query for the whole page")
     void shouldReturnPagedResults_whenFindingAll() {
         Pageable pageable = PageRequest.of(0, 10);
-        var orderPage = new PageImpl<>(List.of(order), pageable, 1);
+        var row = orderRow();
+        var rowPage = new PageImpl<>(List.of(row), pageable, 1);
+        var itemRow1 = itemRow(ORDER_ITEM_CODE_1, PRODUCT_CODE_1);
+        var itemRow2 = itemRow(ORDER_ITEM_CODE_2, PRODUCT_CODE_2);
 
-        given(orderRepository.findAll(pageable)).willReturn(orderPage);
-        given(orderMapper.toResponseDTO(order)).willReturn(orderResponseDTO);
+        given(pageCounter.<OrderRow>findAll(eq(Order.class), eq(pageable), any(), any(), any())).willReturn(rowPage);
+        given(orderItemRepository.findRowsByOrderIdIn(List.of(1L))).willReturn(List.of(itemRow1, itemRow2));
+        given(orderItemMapper.toResponseDTO(itemRow1)).willReturn(orderResponseDTO.items().get(0));
+        given(orderItemMapper.toResponseDTO(itemRow2)).willReturn(orderResponseDTO.items().get(1));
+        given(orderMapper.toResponseDTO(row, orderResponseDTO.items())).willReturn(orderResponseDTO);
 
         var result = orderService.findAll(pageable);
 
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().getFirst()).isEqualTo(orderResponseDTO);
+        assertThat(result.getContent()).containsExactly(orderResponseDTO);
         assertThat(result.getTotalElements()).isEqualTo(1);
-        then(orderRepository).should().findAll(pageable);
+        then(orderItemRepository).should(times(1)).findRowsByOrderIdIn(any());
     }
 
     @Test
-    @DisplayName("should return DTO when order exists")
+    @DisplayName("should return DTO with items read in a single joined query when order exists")
     void shouldReturnDto_whenCodeExists() {
-        given(orderRepository.findByCodeWithItems(ORDER_CODE)).willReturn(Optional.of(order));
-        given(orderMapper.toResponseDTO(order)).willReturn(orderResponseDTO);
+        var row = orderRow();
+        var items = orderResponseDTO.items();
+        given(orderRepository.findDetailRowsByCode(ORDER_CODE)).willReturn(List.of(
+                new OrderDetailRow(row, items.get(0)),
+                new OrderDetailRow(row, items.get(1))));
+        given(orderMapper.toResponseDTO(row, items)).willReturn(orderResponseDTO);
 
         var result = orderService.findByCode(ORDER_CODE);
 
         assertThat(result).isEqualTo(orderResponseDTO);
-        then(orderRepository).should().findByCodeWithItems(ORDER_CODE);
+        then(orderItemRepository).should(never()).findRowsByOrderIdIn(any());
+    }
+
+    @Test
+    @DisplayName("should return DTO without items when the joined row carries no item")
+    void shouldReturnDtoWithoutItems_whenOrderHasNoItems() {
+        var row = orderRow();
+        var noItem = new OrderItemResponseDTO(null, null, null, null, null, null, null, null);
+        given(orderRepository.findDetailRowsByCode(ORDER_CODE)).willReturn(List.of(new OrderDetailRow(row, noItem)));
+        given(orderMapper.toResponseDTO(row, List.of())).willReturn(orderResponseDTO);
+
+        assertThat(orderService.findByCode(ORDER_CODE)).isEqualTo(orderResponseDTO);
     }
 
     @Test
     @DisplayName("should throw EntityNotFoundException when order does not exist")
     void shouldThrowNotFound_whenCodeDoesNotExist() {
-        given(orderRepository.findByCodeWithItems(ORDER_CODE)).willReturn(Optional.empty());
+        given(orderRepository.findDetailRowsByCode(ORDER_CODE)).willReturn(List.of());
 
         assertThatThrownBy(() -> orderService.findByCode(ORDER_CODE))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Order")
                 .hasMessageContaining(ORDER_CODE.toString());
 
-        then(orderMapper).should(never()).toResponseDTO(any());
+        then(orderMapper).should(never()).toResponseDTO(any(OrderRow.class), any());
     }
 
     @Test
@@ -292,7 +400,29 @@ class OrderServiceImplTest {
 
         assertThat(result).isEqualTo(updatedResponseDTO);
         then(orderMapper).should().updateEntityFromDTO(updateDTO, order);
+        then(reservationService).should().release(order);
         then(orderRepository).should().saveAndFlush(order);
+        then(orderResponseCache).should().evict(ORDER_CODE);
+    }
+
+    @Test
+    @DisplayName("should keep reservation untouched when order is no longer pending")
+    void shouldNotReleaseReservation_whenOrderIsNotPending() {
+        order.setStatus(OrderStatus.PROCESSING);
+        var updateDTO = new OrderUpdateDTO(
+                "John Doe",
+                "john.doe@example.com",
+                OrderStatus.COMPLETED,
+                0L
+        );
+
+        given(orderRepository.findByCodeWithItems(ORDER_CODE)).willReturn(Optional.of(order));
+        given(orderRepository.saveAndFlush(order)).willReturn(order);
+
+        orderService.update(ORDER_CODE, updateDTO);
+
+        then(reservationService).should(never()).release(any());
+        then(stockService).should(never()).adjust(any(), anyInt());
     }
 
     @Test
@@ -381,6 +511,7 @@ class OrderServiceImplTest {
         then(stockService).should(times(1)).adjust(2L, -1);
 
         then(orderRepository).should().delete(order);
+        then(orderResponseCache).should().evict(ORDER_CODE);
     }
 
     @Test
@@ -400,21 +531,42 @@ class OrderServiceImplTest {
     @DisplayName("should return paged order items for an existing order")
     void shouldReturnPagedItems_whenFindingOrderItems() {
         Pageable pageable = PageRequest.of(0, 10);
-        var itemPage = new PageImpl<>(List.of(orderItem1), pageable, 1);
-        var itemResponseDTO = new OrderItemResponseDTO(
-                ORDER_ITEM_CODE_1, PRODUCT_CODE_1, "Wireless Mouse",
-                new BigDecimal("29.99"), 2, NOW, NOW, 0L
-        );
+        var itemResponseDTO = orderResponseDTO.items().getFirst();
+        var itemPage = new PageImpl<>(List.of(itemResponseDTO), pageable, 1);
 
-        given(orderRepository.findByCode(ORDER_CODE)).willReturn(Optional.of(order));
-        given(orderItemRepository.findByOrderCode(ORDER_CODE, pageable)).willReturn(itemPage);
-        given(orderItemMapper.toResponseDTO(orderItem1)).willReturn(itemResponseDTO);
+        given(orderRepository.existsByCode(ORDER_CODE)).willReturn(true);
+        given(orderItemRepository.findResponsesByOrderCode(ORDER_CODE, pageable)).willReturn(itemPage);
 
         var result = orderService.findOrderItemsByOrderCode(ORDER_CODE, pageable);
 
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().getFirst()).isEqualTo(itemResponseDTO);
-        then(orderRepository).should().findByCode(ORDER_CODE);
-        then(orderItemRepository).should().findByOrderCode(ORDER_CODE, pageable);
+        assertThat(result.getContent()).containsExactly(itemResponseDTO);
+        then(orderRepository).should(never()).findByCode(ORDER_CODE);
+    }
+
+    @Test
+    @DisplayName("should throw EntityNotFoundException when listing items of a missing order")
+    void shouldThrowNotFound_whenFindingItemsOfMissingOrder() {
+        Pageable pageable = PageRequest.of(0, 10);
+        given(orderRepository.existsByCode(ORDER_CODE)).willReturn(false);
+
+        assertThatThrownBy(() -> orderService.findOrderItemsByOrderCode(ORDER_CODE, pageable))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining(ORDER_CODE.toString());
+
+        then(orderItemRepository).should(never()).findResponsesByOrderCode(any(), any());
+    }
+
+    private OrderRow orderRow() {
+        return new OrderRow(1L, ORDER_CODE, "John Doe", "john.doe@example.com", OrderStatus.PENDING,
+                new BigDecimal("139.97"), NOW, NOW, NOW, 0L);
+    }
+
+    private OrderItemRow itemRow(UUID code, UUID productCode) {
+        return new OrderItemRow(1L, code, productCode, "Item", new BigDecimal("1.00"), 1, NOW, NOW, 0L);
+    }
+
+    private static ProductRow productRow(Product product) {
+        return new ProductRow(product.getId(), product.getCode(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getStockQuantity(), 1, NOW, NOW, product.getVersion());
     }
 }
@@ -4,6 +4,8 @@ import static java.time.LocalDateTime.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
@@ -11,16 +13,27 @@ import static org.mockito.Mockito.never;
 import com.example.ecommerce.domain.entity.Product;
 import com.example.ecommerce.dto.product.ProductCreateDTO;
 import com.example.ecommerce.dto.product.ProductResponseDTO;
+import com.example.ecommerce.dto.product.ProductSearchCriteria;
+import com.example.ecommerce.dto.product.ProductSearchSort;
 import com.example.ecommerce.dto.product.ProductUpdateDTO;
 import com.example.ecommerce.exception.DuplicateResourceException;
 import com.example.ecommerce.exception.EntityNotFoundException;
 import com.example.ecommerce.mapper.ProductMapper;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.ProductSearchRepository.Position;
+import com.example.ecommerce.repository.projection.ProductRow;
+import com.example.ecommerce.repository.projection.ProductSearchRow;
+import com.example.ecommerce.service.StockService;
+import com.example.ecommerce.service.support.PageCounter;
+import com.example.ecommerce.service.support.ProductCache;
+import com.example.ecommerce.service.support.ProductSuggestIndex;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,6 +44,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 @ExtendWith(MockitoExtension.class)
 class ProductServiceImplTest {
@@ -38,9 +53,24 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCache productCache;
+
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private PageCounter pageCounter;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -89,14 +119,16 @@ class ProductServiceImplTest {
         given(productRepository.existsByNameIgnoreCase("Wireless Mouse")).willReturn(false);
         given(productMapper.toEntity(createDTO)).willReturn(product);
         given(productRepository.save(product)).willReturn(product);
-        given(productMapper.toResponseDTO(product)).willReturn(responseDTO);
+        given(stockService.availableStock(List.of(product))).willReturn(Map.of(1L, 150));
+        given(productMapper.toResponseDTO(product, 150)).willReturn(responseDTO);
 
         var result = productService.create(createDTO);
 
         assertThat(result).isEqualTo(responseDTO);
         then(productMapper).should().toEntity(createDTO);
         then(productRepository).should().save(product);
-        then(productMapper).should().toResponseDTO(product);
+        then(productMapper).should().toResponseDTO(product, 150);
+        then(productSuggestIndex).should().put(1L, PRODUCT_CODE, "Wireless Mouse");
     }
 
     @Test
@@ -122,45 +154,52 @@ class ProductServiceImplTest {
     }
 
     @Test
-    @DisplayName("should return paged results")
+    @DisplayName("should return paged results read from projections")
     void shouldReturnPagedResults_whenFindingAll() {
         var pageable = PageRequest.of(0, 10);
-        var productPage = new PageImpl<>(List.of(product), pageable, 1);
+        var row = productRow();
+        var rowPage = new PageImpl<>(List.of(row), pageable, 1);
 
-        given(productRepository.findAll(pageable)).willReturn(productPage);
-        given(productMapper.toResponseDTO(product)).willReturn(responseDTO);
+        given(pageCounter.<ProductRow>findAll(eq(Product.class), eq(pageable), any(), any(), any())).willReturn(rowPage);
+        given(stockService.availableStock(List.of(row))).willReturn(Map.of(1L, 150));
+        given(productMapper.toResponseDTO(row, 150)).willReturn(responseDTO);
 
         var result = productService.findAll(pageable);
 
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().getFirst()).isEqualTo(responseDTO);
         assertThat(result.getTotalElements()).isEqualTo(1);
-        then(productRepository).should().findAll(pageable);
+        then(productRepository).should(never()).findAll(pageable);
     }
 
     @Test
-    @DisplayName("should return DTO when product exists")
+    @DisplayName("should load DTO through the product cache in a read-only transaction when product exists")
     void shouldReturnDto_whenCodeExists() {
-        given(productRepository.findByCode(PRODUCT_CODE)).willReturn(Optional.of(product));
-        given(productMapper.toResponseDTO(product)).willReturn(responseDTO);
+        var row = productRow();
+        readThroughCache();
+        given(productRepository.findRowByCode(PRODUCT_CODE)).willReturn(Optional.of(row));
+        given(stockService.availableStock(List.of(row))).willReturn(Map.of(1L, 150));
+        given(productMapper.toResponseDTO(row, 150)).willReturn(responseDTO);
 
         var result = productService.findByCode(PRODUCT_CODE);
 
         assertThat(result).isEqualTo(responseDTO);
-        then(productRepository).should().findByCode(PRODUCT_CODE);
+        then(productRepository).should(never()).findByCode(PRODUCT_CODE);
+        then(transactionManager).should().getTransaction(argThat(TransactionDefinition::isReadOnly));
     }
 
     @Test
     @DisplayName("should throw EntityNotFoundException when product does not exist")
     void shouldThrowNotFound_whenCodeDoesNotExist() {
-        given(productRepository.findByCode(PRODUCT_CODE)).willReturn(Optional.empty());
+        readThroughCache();
+        given(productRepository.findRowByCode(PRODUCT_CODE)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> productService.findByCode(PRODUCT_CODE))
                 .isInstanceOf(EntityNotFoundException.class)
                 .hasMessageContaining("Product")
                 .hasMessageContaining(PRODUCT_CODE.toString());
 
-        then(productMapper).should(never()).toResponseDTO(any());
+        then(productMapper).should(never()).toResponseDTO(any(ProductRow.class), any());
     }
 
     @Test
@@ -198,14 +237,18 @@ class ProductServiceImplTest {
         given(productRepository.findByCode(PRODUCT_CODE)).willReturn(Optional.of(product));
         given(productRepository.existsByNameIgnoreCaseAndIdNot("Wireless Mouse Pro", 1L)).willReturn(false);
         given(productRepository.saveAndFlush(product)).willReturn(updatedProduct);
-        given(productMapper.toResponseDTO(updatedProduct)).willReturn(updatedResponseDTO);
+        given(stockService.availableStock(List.of(updatedProduct))).willReturn(Map.of(1L, 200));
+        given(productMapper.toResponseDTO(updatedProduct, 200)).willReturn(updatedResponseDTO);
 
         var result = productService.update(PRODUCT_CODE, updateDTO);
 
         assertThat(result).isEqualTo(updatedResponseDTO);
         assertThat(result.version()).isEqualTo(1L);
         then(productMapper).should().updateEntityFromDTO(updateDTO, product);
+        then(stockService).should().replaceStock(product, 200, null);
         then(productRepository).should().saveAndFlush(product);
+        then(productCache).should().evict(PRODUCT_CODE, 1L);
+        then(productSuggestIndex).should().put(eq(1L), eq(PRODUCT_CODE), any());
     }
 
     @Test
@@ -250,6 +293,7 @@ class ProductServiceImplTest {
 
         then(productMapper).should(never()).updateEntityFromDTO(any(), any());
         then(productRepository).should(never()).saveAndFlush(any());
+        then(productCache).shouldHaveNoInteractions();
     }
 
     @Test
@@ -281,6 +325,8 @@ class ProductServiceImplTest {
         productService.delete(PRODUCT_CODE);
 
         then(productRepository).should().delete(product);
+        then(productCache).should().evictDeleted(PRODUCT_CODE);
+        then(productSuggestIndex).should().remove(1L);
     }
 
     @Test
@@ -295,4 +341,37 @@ class ProductServiceImplTest {
 
         then(productRepository).should(never()).delete(any());
     }
+
+    @Test
+    @DisplayName("should read further batches when an in-stock search filters out a whole batch")
+    void shouldReadNextBatch_whenInStockSearchFiltersOutBatch() {
+        var criteria = new ProductSearchCriteria("mouse", null, null, true, ProductSearchSort.PRICE_ASC);
+        var soldOut = List.of(searchRow(1L, "1.00"), searchRow(2L, "2.00"), searchRow(3L, "3.00"));
+        var inStock = searchRow(4L, "4.00");
+        given(productRepository.search(criteria, null, 3)).willReturn(soldOut);
+        given(productRepository.search(criteria, new Position(0, new BigDecimal("3.00"), soldOut.getLast().product().code()), 3)).willReturn(List.of(inStock));
+        given(stockService.availableStock(any())).willReturn(Map.of(1L, 0, 2L, 0, 3L, 0), Map.of(4L, 8));
+        given(productMapper.toResponseDTO(inStock.product(), 8)).willReturn(responseDTO);
+
+        var page = productService.search(criteria, null, 1);
+
+        assertThat(page.content()).containsExactly(responseDTO);
+        assertThat(page.nextCursor()).isNull();
+        then(productMapper).should(never()).toResponseDTO(eq(soldOut.getFirst().product()), any(Integer.class));
+    }
+
+    private void readThroughCache() {
+        given(productCache.get(eq(PRODUCT_CODE), any())).willAnswer(invocation ->
+                invocation.<Function<UUID, ProductCache.Entry>>getArgument(1).apply(PRODUCT_CODE).response());
+    }
+
+    private ProductSearchRow searchRow(Long id, String price) {
+        return new ProductSearchRow(new ProductRow(id, UUID.randomUUID(), "Mouse " + id, null,
+                new BigDecimal(price), 0, 1, NOW, NOW, 0L), 0);
+    }
+
+    private ProductRow productRow() {
+        return new ProductRow(1L, PRODUCT_CODE, "Wireless Mouse", "Ergonomic wireless mouse",
+                new BigDecimal("29.99"), 150, 1, NOW, NOW, 0L);
+    }
 }
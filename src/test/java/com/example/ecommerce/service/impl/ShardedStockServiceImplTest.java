@@ -0,0 +1,256 @@
+package com.example.ecommerce.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.ProductRepository.LockedStock;
+import com.example.ecommerce.repository.ProductRepository.StockLevel;
+import com.example.ecommerce.repository.ProductStockShardRepository;
+import com.example.ecommerce.repository.ProductStockShardRepository.ShardLevel;
+import com.example.ecommerce.repository.ProductStockShardRepository.ShardTotal;
+import com.example.ecommerce.service.StockShardService;
+import com.example.ecommerce.service.support.ProductCache;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+@ExtendWith(MockitoExtension.class)
+class ShardedStockServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private StockShardService stockShardService;
+
+    @Mock
+    private ProductStockShardRepository shardRepository;
+
+    @InjectMocks
+    private ShardedStockServiceImpl stockService;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = Product.builder()
+                .id(1L)
+                .code(UUID.randomUUID())
+                .version(0L)
+                .name("Wireless Mouse")
+                .price(new BigDecimal("29.99"))
+                .stockQuantity(0)
+                .stockShardCount(4)
+                .build();
+    }
+
+    @Test
+    @DisplayName("adjust should decrement an unlocked shard when one has enough stock")
+    void shouldDecreaseSingleShard_whenUnlockedShardHasEnoughStock() {
+        given(productRepository.findStockShardCountById(1L)).willReturn(Optional.of(4));
+        given(shardRepository.decreaseUnlockedShardIfAvailable(1L, 5)).willReturn(1);
+
+        stockService.adjust(1L, 5);
+
+        then(shardRepository).should(never()).lockShardLevels(anyLong());
+        then(productCache).should().evictStock(1L);
+    }
+
+    @Test
+    @DisplayName("adjust should drain several shards in order when no single shard has enough stock")
+    void shouldDrainShards_whenNoSingleShardHasEnoughStock() {
+        given(productRepository.findStockShardCountById(1L)).willReturn(Optional.of(4));
+        given(shardRepository.decreaseUnlockedShardIfAvailable(1L, 5)).willReturn(0);
+        given(shardRepository.lockShardLevels(1L)).willReturn(List.of(shardLevel(0, 2), shardLevel(1, 0), shardLevel(2, 4), shardLevel(3, 1)));
+
+        stockService.adjust(1L, 5);
+
+        then(shardRepository).should().addToShard(1L, 0, -2);
+        then(shardRepository).should().addToShard(1L, 2, -3);
+        then(shardRepository).should(never()).addToShard(eq(1L), eq(1), anyInt());
+        then(shardRepository).should(never()).addToShard(eq(1L), eq(3), anyInt());
+    }
+
+    @Test
+    @DisplayName("adjust should throw InsufficientStockException with the shard total when all shards together fall short")
+    void shouldThrowException_whenShardsTogetherFallShort() {
+        given(productRepository.findStockShardCountById(1L)).willReturn(Optional.of(2));
+        given(shardRepository.decreaseUnlockedShardIfAvailable(1L, 10)).willReturn(0);
+        given(shardRepository.lockShardLevels(1L)).willReturn(List.of(shardLevel(0, 3), shardLevel(1, 4)));
+        given(productRepository.findStockLevelById(1L)).willReturn(Optional.of(stockLevel("Wireless Mouse", 0)));
+
+        assertThatThrownBy(() -> stockService.adjust(1L, 10))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("available=7")
+                .hasMessageContaining("requested=10");
+
+        then(shardRepository).should(never()).addToShard(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("adjust should use a guarded product row update when the product is not sharded")
+    void shouldDecreaseProductRow_whenProductIsNotSharded() {
+        given(productRepository.findStockShardCountById(1L)).willReturn(Optional.of(1));
+        given(productRepository.decreaseStockIfAvailable(1L, 5)).willReturn(1);
+
+        stockService.adjust(1L, 5);
+
+        then(shardRepository).should(never()).decreaseUnlockedShardIfAvailable(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("adjust should throw EntityNotFoundException when product is missing on decrement")
+    void shouldThrowException_whenProductIsMissingOnDecrement() {
+        given(productRepository.findStockShardCountById(99L)).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> stockService.adjust(99L, 1))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    @DisplayName("adjust should restore into an unlocked shard when delta is negative")
+    void shouldRestoreIntoShard_whenDeltaIsNegative() {
+        given(productRepository.findStockShardCountById(1L)).willReturn(Optional.of(4));
+        given(shardRepository.increaseUnlockedShard(1L, 3)).willReturn(1);
+
+        stockService.adjust(1L, -3);
+
+        then(shardRepository).should(never()).addToShard(anyLong(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("availableStock should add shard totals for sharded products only")
+    void shouldSumShards_whenComputingAvailableStock() {
+        var plain = Product.builder().id(2L).stockQuantity(9).stockShardCount(1).build();
+        given(shardRepository.sumQuantityByProductIdIn(List.of(1L))).willReturn(List.of(shardTotal(1L, 40L)));
+
+        var stock = stockService.availableStock(List.of(product, plain));
+
+        assertThat(stock).containsEntry(1L, 40).containsEntry(2L, 9);
+    }
+
+    @Test
+    @DisplayName("replaceStock should redistribute the new quantity across shards of a sharded product")
+    void shouldRedistribute_whenReplacingStockOfShardedProduct() {
+        given(shardRepository.lockShardLevels(1L)).willReturn(List.of(shardLevel(0, 10), shardLevel(1, 10), shardLevel(2, 10), shardLevel(3, 10)));
+
+        stockService.replaceStock(product, 100, 40);
+
+        then(stockShardService).should().redistribute(product, 100, 4);
+    }
+
+    @Test
+    @DisplayName("replaceStock should reject a stock level read before the shards changed")
+    void shouldThrowException_whenExpectedStockOfShardedProductIsStale() {
+        given(shardRepository.lockShardLevels(1L)).willReturn(List.of(shardLevel(0, 10), shardLevel(1, 7), shardLevel(2, 10), shardLevel(3, 10)));
+
+        assertThatThrownBy(() -> stockService.replaceStock(product, 100, 40))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        then(stockShardService).should(never()).redistribute(any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("lockAvailableStock should lock each product row and then its shards in id order")
+    void shouldLockRowsThenShards_whenLockingAvailableStock() {
+        var plain = Product.builder().id(2L).stockQuantity(9).stockShardCount(1).build();
+        given(productRepository.lockStockByIdIn(List.of(1L))).willReturn(List.of(lockedStock(1L, 0, 4)));
+        given(productRepository.lockStockByIdIn(List.of(2L))).willReturn(List.of(lockedStock(2L, 9, 1)));
+        given(shardRepository.sumQuantityByProductIdIn(List.of(1L))).willReturn(List.of(shardTotal(1L, 40L)));
+
+        var stock = stockService.lockAvailableStock(List.of(plain, product));
+
+        assertThat(stock).containsEntry(1L, 40).containsEntry(2L, 9);
+        var inOrder = inOrder(productRepository, shardRepository);
+        inOrder.verify(productRepository).lockStockByIdIn(List.of(1L));
+        inOrder.verify(shardRepository).lockShardLevels(1L);
+        inOrder.verify(productRepository).lockStockByIdIn(List.of(2L));
+        then(shardRepository).should(never()).lockShardLevels(2L);
+    }
+
+    private static ShardLevel shardLevel(int shardNo, int quantity) {
+        return new ShardLevel() {
+            @Override
+            public Integer getShardNo() {
+                return shardNo;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static LockedStock lockedStock(Long id, int stockQuantity, int stockShardCount) {
+        return new LockedStock() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+
+            @Override
+            public Integer getStockShardCount() {
+                return stockShardCount;
+            }
+        };
+    }
+
+    private static ShardTotal shardTotal(long productId, long quantity) {
+        return new ShardTotal() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static StockLevel stockLevel(String name, int stockQuantity) {
+        return new StockLevel() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+        };
+    }
+}
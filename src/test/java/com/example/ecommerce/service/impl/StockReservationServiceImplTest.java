@@ -0,0 +1,129 @@
+package com.example.ecommerce.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+
+import com.example.ecommerce.domain.entity.Order;
+import com.example.ecommerce.domain.entity.StockReservation;
+import com.example.ecommerce.repository.StockReservationRepository;
+import com.example.ecommerce.repository.StockReservationRepository.ReservedQuantity;
+import com.example.ecommerce.service.StockService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    @Mock
+    private StockService stockService;
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Captor
+    private ArgumentCaptor<List<StockReservation>> reservationsCaptor;
+
+    private StockReservationServiceImpl reservationService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new StockReservationServiceImpl(stockService, reservationRepository, Duration.ofMinutes(15));
+        order = Order.builder().id(7L).build();
+    }
+
+    @Test
+    @DisplayName("should hold reservation for the order until the configured TTL elapses")
+    void shouldHoldReservation_whenOrderIsCreated() {
+        var captor = ArgumentCaptor.forClass(StockReservation.class);
+        var before = LocalDateTime.now();
+
+        reservationService.hold(order);
+
+        then(reservationRepository).should().save(captor.capture());
+        assertThat(captor.getValue().getOrderId()).isEqualTo(7L);
+        assertThat(captor.getValue().getExpiresAt())
+                .isAfterOrEqualTo(before.plusMinutes(15))
+                .isBeforeOrEqualTo(LocalDateTime.now().plusMinutes(15));
+    }
+
+    @Test
+    @DisplayName("should hold one reservation per order of a batch with a single save")
+    void shouldHoldReservations_whenBatchIsCreated() {
+        var other = Order.builder().id(8L).build();
+
+        reservationService.holdAll(List.of(order, other));
+
+        then(reservationRepository).should().saveAll(reservationsCaptor.capture());
+        assertThat(reservationsCaptor.getValue())
+                .extracting(StockReservation::getOrderId)
+                .containsExactly(7L, 8L);
+        assertThat(reservationsCaptor.getValue())
+                .extracting(StockReservation::getExpiresAt)
+                .containsOnly(reservationsCaptor.getValue().getFirst().getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("should delete reservation when order leaves PENDING")
+    void shouldDeleteReservation_whenReleased() {
+        reservationService.release(order);
+
+        then(reservationRepository).should().deleteByOrderId(7L);
+    }
+
+    @Test
+    @DisplayName("should return the summed quantities of expired orders through the stock engine")
+    void shouldRestoreStock_whenReservationsExpired() {
+        given(reservationRepository.releaseExpired(100)).willReturn(List.of(3L, 5L));
+        given(reservationRepository.sumQuantitiesByOrderIds(List.of(3L, 5L)))
+                .willReturn(List.of(reservedQuantity(1L, 4), reservedQuantity(2L, 6)));
+
+        var released = reservationService.releaseExpired(100);
+
+        assertThat(released).isEqualTo(2);
+        var inOrder = inOrder(stockService);
+        inOrder.verify(stockService).adjust(1L, -4);
+        inOrder.verify(stockService).adjust(2L, -6);
+    }
+
+    @Test
+    @DisplayName("should not touch stock when nothing has expired")
+    void shouldDoNothing_whenNoReservationExpired() {
+        given(reservationRepository.releaseExpired(100)).willReturn(List.of());
+
+        var released = reservationService.releaseExpired(100);
+
+        assertThat(released).isZero();
+        then(reservationRepository).should(never()).sumQuantitiesByOrderIds(any());
+        then(stockService).should(never()).adjust(any(), anyInt());
+    }
+
+    private static ReservedQuantity reservedQuantity(Long productId, int quantity) {
+        return new ReservedQuantity() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.example.ecommerce.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 import static org.mockito.Mockito.never;
@@ -11,7 +12,11 @@ import com.example.ecommerce.domain.entity.Product;
 import com.example.ecommerce.exception.EntityNotFoundException;
 import com.example.ecommerce.exception.InsufficientStockException;
 import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.repository.ProductRepository.LockedStock;
+import com.example.ecommerce.service.support.ProductCache;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +33,9 @@ class StockServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductCache productCache;
+
     @InjectMocks
     private StockServiceImpl stockService;
 
@@ -55,6 +63,7 @@ class StockServiceImplTest {
 
         assertThat(product.getStockQuantity()).isEqualTo(70);
         then(productRepository).should().save(product);
+        then(productCache).should().evictStock(1L);
     }
 
     @Test
@@ -113,5 +122,95 @@ class StockServiceImplTest {
 
         then(productRepository).should(never()).findByIdForStockUpdate(any(Long.class));
         then(productRepository).should(never()).save(any(Product.class));
+        then(productCache).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("reserve should lock all products in one query and decrease each stock")
+    void shouldDecreaseAllStocks_whenReservingAvailableQuantities() {
+        var keyboard = Product.builder()
+                .id(2L)
+                .code(UUID.randomUUID())
+                .version(0L)
+                .name("Keyboard")
+                .price(new BigDecimal("79.99"))
+                .stockQuantity(10)
+                .build();
+        var quantities = Map.of(product.getCode(), 30, keyboard.getCode(), 4);
+        given(productRepository.findAllByCodeInForStockUpdate(quantities.keySet())).willReturn(List.of(product, keyboard));
+
+        var reserved = stockService.reserve(quantities);
+
+        assertThat(reserved).containsEntry(product.getCode(), product).containsEntry(keyboard.getCode(), keyboard);
+        assertThat(product.getStockQuantity()).isEqualTo(70);
+        assertThat(keyboard.getStockQuantity()).isEqualTo(6);
+        then(productRepository).should().saveAll(List.of(product, keyboard));
+        then(productCache).should().evictStock(quantities.keySet());
+    }
+
+    @Test
+    @DisplayName("reserve should throw EntityNotFoundException when a product code does not exist")
+    void shouldThrowException_whenReservingUnknownProduct() {
+        var missingCode = UUID.randomUUID();
+        var quantities = Map.of(product.getCode(), 1, missingCode, 1);
+        given(productRepository.findAllByCodeInForStockUpdate(quantities.keySet())).willReturn(List.of(product));
+
+        assertThatThrownBy(() -> stockService.reserve(quantities))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining(missingCode.toString());
+
+        assertThat(product.getStockQuantity()).isEqualTo(100);
+        then(productRepository).should(never()).saveAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("reserve should throw InsufficientStockException and apply nothing when any line exceeds stock")
+    void shouldThrowException_whenReservingMoreThanAvailable() {
+        var quantities = Map.of(product.getCode(), 101);
+        given(productRepository.findAllByCodeInForStockUpdate(quantities.keySet())).willReturn(List.of(product));
+
+        assertThatThrownBy(() -> stockService.reserve(quantities))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("available=100")
+                .hasMessageContaining("requested=101");
+
+        then(productRepository).should(never()).saveAll(anyCollection());
+    }
+
+    @Test
+    @DisplayName("reserve should skip the lookup when there is nothing to reserve")
+    void shouldReturnEmpty_whenReservingNothing() {
+        assertThat(stockService.reserve(Map.of())).isEmpty();
+
+        then(productRepository).should(never()).findAllByCodeInForStockUpdate(anyCollection());
+    }
+
+    @Test
+    @DisplayName("lockAvailableStock should return the stock read under the row locks")
+    void shouldReturnLockedStock_whenLockingAvailableStock() {
+        given(productRepository.lockStockByIdIn(List.of(1L))).willReturn(List.of(lockedStock(1L, 42, 1)));
+
+        var stock = stockService.lockAvailableStock(List.of(product));
+
+        assertThat(stock).containsExactlyEntriesOf(Map.of(1L, 42));
+    }
+
+    private static LockedStock lockedStock(Long id, int stockQuantity, int stockShardCount) {
+        return new LockedStock() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return stockQuantity;
+            }
+
+            @Override
+            public Integer getStockShardCount() {
+                return stockShardCount;
+            }
+        };
     }
 }
@@ -0,0 +1,66 @@
+package com.example.ecommerce.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.repository.ProductRepository;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CrudEntitySupportTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("requireAllByCode should resolve every code with a single query")
+    void shouldReturnEntitiesByCode_whenAllCodesExist() {
+        var mouse = Product.builder().id(1L).code(UUID.randomUUID()).name("Mouse").build();
+        var keyboard = Product.builder().id(2L).code(UUID.randomUUID()).name("Keyboard").build();
+        var codes = List.of(mouse.getCode(), keyboard.getCode());
+        given(productRepository.findAllByCodeIn(codes)).willReturn(List.of(keyboard, mouse));
+
+        var result = CrudEntitySupport.requireAllByCode(productRepository, "Product", codes);
+
+        assertThat(result).containsEntry(mouse.getCode(), mouse).containsEntry(keyboard.getCode(), keyboard);
+        then(productRepository).should().findAllByCodeIn(codes);
+        then(productRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("requireAllByCode should report every missing code in request order")
+    void shouldReportAllMissingCodes_whenSeveralCodesDoNotExist() {
+        var mouse = Product.builder().id(1L).code(UUID.randomUUID()).name("Mouse").build();
+        var firstMissing = UUID.randomUUID();
+        var secondMissing = UUID.randomUUID();
+        var codes = List.of(firstMissing, mouse.getCode(), secondMissing);
+        given(productRepository.findAllByCodeIn(codes)).willReturn(List.of(mouse));
+
+        assertThatThrownBy(() -> CrudEntitySupport.requireAllByCode(productRepository, "Product", codes))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining(firstMissing.toString())
+                .hasMessageContaining(secondMissing.toString())
+                .extracting(ex -> ((EntityNotFoundException) ex).getMissingCodes())
+                .isEqualTo(List.of(firstMissing, secondMissing));
+    }
+
+    @Test
+    @DisplayName("requireAllFound should keep the single-code message when only one code is missing")
+    void shouldUseSingleCodeMessage_whenOneCodeIsMissing() {
+        var missing = UUID.randomUUID();
+
+        assertThatThrownBy(() -> CrudEntitySupport.requireAllFound("Product", List.of(missing), List.<Product>of()))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Product with code %s not found".formatted(missing));
+    }
+}
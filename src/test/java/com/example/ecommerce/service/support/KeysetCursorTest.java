@@ -0,0 +1,77 @@
+package com.example.ecommerce.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.repository.CodeRepository.Keyset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeysetCursorTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000);
+    private static final UUID CODE = UUID.fromString("019cec6f-4a3b-7c1d-8e2f-3a4b5c6d7e8f");
+
+    @Test
+    @DisplayName("decode should start from the beginning when no cursor is given")
+    void shouldReturnInitialPosition_whenCursorIsBlank() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode("")).isNull();
+    }
+
+    @Test
+    @DisplayName("decode should restore the creation time and code encoded from the last entity")
+    void shouldRoundTripKeys_whenCursorWasEncoded() {
+        var product = Product.builder().id(42L).code(CODE).createdAt(CREATED_AT).build();
+
+        assertThat(KeysetCursor.decode(KeysetCursor.encode(product))).isEqualTo(new Keyset(CREATED_AT, CODE));
+    }
+
+    @Test
+    @DisplayName("encode should not expose the internal id of the last entity")
+    void shouldNotContainId_whenCursorIsDecoded() {
+        var product = Product.builder().id(987_654_321L).code(CODE).createdAt(CREATED_AT).build();
+
+        var decoded = new String(Base64.getUrlDecoder().decode(KeysetCursor.encode(product)), StandardCharsets.UTF_8);
+
+        assertThat(decoded).isEqualTo(CREATED_AT + "|" + CODE).doesNotContain("987654321");
+    }
+
+    @Test
+    @DisplayName("decode should reject a cursor that was not produced by encode")
+    void shouldThrowIllegalArgument_whenCursorIsMalformed() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("limit should reject values outside 1 to MAX_LIMIT")
+    void shouldThrowIllegalArgument_whenLimitIsOutOfRange() {
+        assertThat(KeysetCursor.limit(KeysetCursor.MAX_LIMIT).max()).isEqualTo(KeysetCursor.MAX_LIMIT);
+        assertThatThrownBy(() -> KeysetCursor.limit(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.limit(KeysetCursor.MAX_LIMIT + 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(KeysetCursor.fetchLimit(KeysetCursor.MAX_LIMIT).max()).isEqualTo(KeysetCursor.MAX_LIMIT + 1);
+    }
+
+    @Test
+    @DisplayName("toPage should only hand out a next cursor when more rows were read than the page holds")
+    void shouldSetNextCursor_onlyWhenWindowHasNext() {
+        var product = Product.builder().id(7L).code(CODE).createdAt(CREATED_AT).build();
+        var next = Product.builder().id(8L).code(UUID.randomUUID()).createdAt(CREATED_AT).build();
+
+        var more = KeysetCursor.toPage(List.of(product, next), 1, List::copyOf);
+        var last = KeysetCursor.toPage(List.of(product), 1, List::copyOf);
+
+        assertThat(more.nextCursor()).isEqualTo(KeysetCursor.encode(product));
+        assertThat(more.content()).containsExactly(product);
+        assertThat(last.nextCursor()).isNull();
+        assertThat(last.content()).containsExactly(product);
+    }
+}
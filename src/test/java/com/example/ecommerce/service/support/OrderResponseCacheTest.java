@@ -0,0 +1,68 @@
+package com.example.ecommerce.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ecommerce.domain.entity.OrderStatus;
+import com.example.ecommerce.dto.order.OrderResponseDTO;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+class OrderResponseCacheTest {
+
+    private static final UUID CODE = UUID.randomUUID();
+
+    private final OrderResponseCache cache = new OrderResponseCache(JsonMapper.builder().build(), DataSize.ofMegabytes(1), Duration.ZERO);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("should serialize a terminal order once and serve the same bytes afterwards")
+    void shouldServeBytesFromCache_whenOrderIsTerminal() {
+        var first = cache.get(CODE, loader(OrderStatus.COMPLETED));
+        var again = cache.get(CODE, loader(OrderStatus.COMPLETED));
+
+        assertThat(again.json()).isSameAs(first.json());
+        assertThat(new String(again.json(), StandardCharsets.UTF_8)).contains(CODE.toString(), "\"status\":\"COMPLETED\"");
+        assertThat(cache.getIfPresent(CODE)).isPresent();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should serialize but not cache an order that can still change")
+    void shouldNotCache_whenOrderIsNotTerminal() {
+        cache.get(CODE, loader(OrderStatus.PROCESSING));
+        var again = cache.get(CODE, loader(OrderStatus.PROCESSING));
+
+        assertThat(again.version()).isEqualTo(3L);
+        assertThat(cache.getIfPresent(CODE)).isEmpty();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should reload after an eviction of the order")
+    void shouldReload_afterEvict() {
+        cache.get(CODE, loader(OrderStatus.CANCELLED));
+
+        cache.evict(CODE);
+        cache.get(CODE, loader(OrderStatus.CANCELLED));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Function<UUID, OrderResponseDTO> loader(OrderStatus status) {
+        return code -> {
+            loads.incrementAndGet();
+            return new OrderResponseDTO(code, "Charles Queiroz", "charles@example.com", status, new BigDecimal("59.98"),
+                    LocalDateTime.now(), List.of(), LocalDateTime.now(), LocalDateTime.now(), 3L);
+        };
+    }
+}
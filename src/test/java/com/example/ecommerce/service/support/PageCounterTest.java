@@ -0,0 +1,155 @@
+package com.example.ecommerce.service.support;
+
+import static com.example.ecommerce.dto.common.CountStrategy.CACHED;
+import static com.example.ecommerce.dto.common.CountStrategy.ESTIMATED;
+import static com.example.ecommerce.dto.common.CountStrategy.EXACT;
+import static com.example.ecommerce.dto.common.CountStrategy.NONE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import com.example.ecommerce.domain.entity.Order;
+import com.example.ecommerce.domain.entity.OrderItem;
+import com.example.ecommerce.domain.entity.Product;
+import com.example.ecommerce.dto.common.CountedPage;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+@ExtendWith(MockitoExtension.class)
+class PageCounterTest {
+
+    private static final PageRequest SECOND_PAGE = PageRequest.of(1, 2);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MockEnvironment environment;
+
+    private final List<Product> products = List.of(Product.builder().id(3L).build(), Product.builder().id(4L).build());
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+    }
+
+    @Test
+    @DisplayName("should resolve the strategy per entity and fall back to the default")
+    void shouldResolveStrategyPerEntity() {
+        environment.setProperty("app.pagination.count.strategies.order-item", "cached");
+        environment.setProperty("app.pagination.count.strategies.order", "None");
+        var counter = counter("estimated");
+
+        assertThat(counter.strategyFor(OrderItem.class)).isEqualTo(CACHED);
+        assertThat(counter.strategyFor(Order.class)).isEqualTo(NONE);
+        assertThat(counter.strategyFor(Product.class)).isEqualTo(ESTIMATED);
+    }
+
+    @Test
+    @DisplayName("exact strategy should run the repository page query with its count")
+    void shouldRunCountQuery_whenStrategyIsExact() {
+        given(productRepository.findAll(SECOND_PAGE)).willReturn(new PageImpl<>(products, SECOND_PAGE, 40));
+
+        var page = counted(counter("exact").findAll(productRepository, Product.class, SECOND_PAGE));
+
+        assertThat(page.getTotalElements()).isEqualTo(40);
+        assertThat(page.getCountStrategy()).isEqualTo(EXACT);
+    }
+
+    @Test
+    @DisplayName("cached strategy should count once per TTL")
+    void shouldReuseCount_whenCachedCountIsFresh() {
+        given(productRepository.findAllBy(SECOND_PAGE)).willReturn(new SliceImpl<>(products, SECOND_PAGE, true));
+        given(productRepository.count()).willReturn(40L);
+        var counter = counter("cached");
+
+        counter.findAll(productRepository, Product.class, SECOND_PAGE);
+        var page = counted(counter.findAll(productRepository, Product.class, SECOND_PAGE));
+
+        assertThat(page.getTotalElements()).isEqualTo(40);
+        assertThat(page.getCountStrategy()).isEqualTo(CACHED);
+        then(productRepository).should(times(1)).count();
+        then(productRepository).should(never()).findAll(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("estimated strategy should read pg_class and never report less than the rows already seen")
+    void shouldUsePlannerEstimate_whenStrategyIsEstimated() {
+        given(productRepository.findAllBy(SECOND_PAGE)).willReturn(new SliceImpl<>(products, SECOND_PAGE, true));
+        given(jdbcTemplate.queryForObject(any(String.class), any(Class.class), any(Object[].class))).willReturn(2L);
+
+        var page = counted(counter("estimated").findAll(productRepository, Product.class, SECOND_PAGE));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getCountStrategy()).isEqualTo(ESTIMATED);
+        then(productRepository).should(never()).count();
+    }
+
+    @Test
+    @DisplayName("estimated strategy should fall back to an exact count when the table was never analyzed")
+    void shouldCountExactly_whenNoPlannerStatistics() {
+        given(productRepository.findAllBy(SECOND_PAGE)).willReturn(new SliceImpl<>(products, SECOND_PAGE, true));
+        given(jdbcTemplate.queryForObject(any(String.class), any(Class.class), any(Object[].class))).willReturn(-1L);
+        given(productRepository.count()).willReturn(9L);
+
+        var page = counted(counter("estimated").findAll(productRepository, Product.class, SECOND_PAGE));
+
+        assertThat(page.getTotalElements()).isEqualTo(9);
+        assertThat(page.getCountStrategy()).isEqualTo(EXACT);
+    }
+
+    @Test
+    @DisplayName("none strategy should skip counting and only know whether a next page exists")
+    void shouldSkipCount_whenStrategyIsNone() {
+        given(orderRepository.findAllBy(SECOND_PAGE)).willReturn(new SliceImpl<>(List.of(new Order(), new Order()), SECOND_PAGE, true));
+
+        var page = counted(counter("none").findAll(orderRepository, Order.class, SECOND_PAGE));
+
+        assertThat(page.hasNext()).isTrue();
+        assertThat(page.getCountStrategy()).isEqualTo(NONE);
+        then(orderRepository).should(never()).count();
+    }
+
+    @Test
+    @DisplayName("the last page should yield an exact total without any count")
+    void shouldDeriveExactTotal_whenSliceIsLastPage() {
+        given(orderRepository.findAllBy(SECOND_PAGE)).willReturn(new SliceImpl<>(List.of(new Order()), SECOND_PAGE, false));
+
+        var page = counted(counter("none").findAll(orderRepository, Order.class, SECOND_PAGE));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getCountStrategy()).isEqualTo(EXACT);
+        then(orderRepository).should(never()).count();
+    }
+
+    private PageCounter counter(String defaultStrategy) {
+        return new PageCounter(environment, jdbcTemplate, defaultStrategy, Duration.ofMinutes(1));
+    }
+
+    private static <T> CountedPage<T> counted(Page<T> page) {
+        assertThat(page).isInstanceOf(CountedPage.class);
+        return (CountedPage<T>) page;
+    }
+}
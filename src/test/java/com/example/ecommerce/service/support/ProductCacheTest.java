@@ -0,0 +1,137 @@
+package com.example.ecommerce.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.transaction.support.TransactionSynchronization.STATUS_COMMITTED;
+
+import com.example.ecommerce.dto.product.ProductResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+class ProductCacheTest {
+
+    private static final UUID CODE = UUID.randomUUID();
+    private static final long PRODUCT_ID = 7L;
+
+    private final ProductCache cache = new ProductCache(DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("should load a product once and serve later reads from memory")
+    void shouldServeFromCache_afterFirstLoad() {
+        cache.get(CODE, loader());
+        var response = cache.get(CODE, loader());
+
+        assertThat(response.code()).isEqualTo(CODE);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should reload after a product write and never cache a version older than the write")
+    void shouldRejectStaleVersion_afterWrite() {
+        cache.get(CODE, loader());
+
+        cache.evict(CODE, 1);
+        var stale = cache.get(CODE, loader());
+        version.set(1);
+        var fresh = cache.get(CODE, loader());
+        cache.get(CODE, loader());
+
+        assertThat(stale.version()).isZero();
+        assertThat(fresh.version()).isEqualTo(1);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("should not cache a deleted product again, whatever version a reader still sees")
+    void shouldNotCache_afterDelete() {
+        cache.get(CODE, loader());
+
+        cache.evictDeleted(CODE);
+        cache.get(CODE, loader());
+        cache.get(CODE, loader());
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("should evict by product id when its stock changes")
+    void shouldEvict_whenStockChangesById() {
+        cache.get(CODE, loader());
+
+        cache.evictStock(PRODUCT_ID);
+        cache.get(CODE, loader());
+        cache.evictStock(List.of(CODE));
+        cache.get(CODE, loader());
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("should not cache a load that overlapped a stock change of the same product")
+    void shouldNotCache_whenStockChangedDuringLoad() {
+        cache.get(CODE, code -> {
+            var entry = loader().apply(code);
+            cache.evictStock(PRODUCT_ID);
+            return entry;
+        });
+        cache.get(CODE, loader());
+        cache.get(CODE, loader());
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should evict again when the writing transaction completes")
+    void shouldEvictAgain_whenTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictStock(PRODUCT_ID);
+        cache.get(CODE, loader());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(STATUS_COMMITTED));
+        cache.get(CODE, loader());
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should publish hit and miss counts to the meter registry")
+    void shouldRecordHitsAndMisses() {
+        var registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(CODE, loader());
+        cache.get(CODE, loader());
+
+        assertThat(registry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", ProductCache.CACHE_NAME).tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    private Function<UUID, ProductCache.Entry> loader() {
+        return code -> {
+            loads.incrementAndGet();
+            var response = new ProductResponseDTO(code, "Wireless Mouse", "Ergonomic wireless mouse",
+                    new BigDecimal("29.99"), 150, LocalDateTime.now(), LocalDateTime.now(), version.get());
+            return new ProductCache.Entry(PRODUCT_ID, response);
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.ecommerce.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.example.ecommerce.dto.product.ProductSuggestionDTO;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ProductSuggestIndexTest {
+
+    private final ExecutorService maintainer = Executors.newSingleThreadExecutor();
+
+    private final ProductSuggestIndex index = new ProductSuggestIndex(mock(DataSource.class), mock(PlatformTransactionManager.class), 3, maintainer);
+
+    @AfterEach
+    void tearDown() {
+        maintainer.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should match prefixes ignoring case and accents and return names in order")
+    void shouldMatchPrefixIgnoringCaseAndAccents() {
+        index.put(1L, UUID.randomUUID(), "Café Grinder");
+        index.put(2L, UUID.randomUUID(), "cafe table");
+        index.put(3L, UUID.randomUUID(), "CAFETIÈRE");
+        index.put(4L, UUID.randomUUID(), "Camera");
+
+        assertThat(index.suggest("CAFÉ", 10)).extracting(ProductSuggestionDTO::name)
+                .containsExactly("Café Grinder", "cafe table", "CAFETIÈRE");
+        assertThat(index.suggest("cafe t", 10)).extracting(ProductSuggestionDTO::name).containsExactly("cafe table");
+        assertThat(index.suggest("ca", 2)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("should keep results current across renames, removals and overlay merges")
+    void shouldReflectWrites_acrossMerges() throws Exception {
+        var code = UUID.randomUUID();
+        for (long id = 1; id <= 10; id++) {
+            index.put(id, UUID.randomUUID(), "Lamp %02d".formatted(id));
+        }
+
+        index.put(3L, code, "Desk Lamp");
+        index.remove(5L);
+        index.put(11L, UUID.randomUUID(), "Lamp 00");
+        awaitMerges();
+
+        assertThat(index.suggest("lamp", 50)).extracting(ProductSuggestionDTO::name)
+                .containsExactly("Lamp 00", "Lamp 01", "Lamp 02", "Lamp 04", "Lamp 06", "Lamp 07", "Lamp 08", "Lamp 09", "Lamp 10");
+        assertThat(index.suggest("desk", 50)).containsExactly(new ProductSuggestionDTO(code, "Desk Lamp"));
+        assertThat(index.entries()).isBetween(10, 13);
+    }
+
+    @Test
+    @DisplayName("should keep every write made by concurrent writers while merges run in the background")
+    void shouldKeepConcurrentWrites_whileMerging() throws Exception {
+        var codes = new ConcurrentHashMap<Long, UUID>();
+        var writes = new ArrayList<Future<?>>();
+        try (var writers = Executors.newFixedThreadPool(4)) {
+            for (long writer = 0; writer < 4; writer++) {
+                var first = writer * 250 + 1;
+                writes.add(writers.submit(() -> {
+                    for (var id = first; id < first + 250; id++) {
+                        index.put(id, UUID.randomUUID(), "Item %04d".formatted(id));
+                        if (id % 2 == 0) {
+                            var code = UUID.randomUUID();
+                            codes.put(id, code);
+                            index.put(id, code, "Renamed %04d".formatted(id));
+                        }
+                    }
+                }));
+            }
+            for (var write : writes) {
+                write.get();
+            }
+        }
+        awaitMerges();
+
+        for (long id = 1; id <= 1000; id++) {
+            var renamed = index.suggest("renamed %04d".formatted(id), 2);
+            var original = index.suggest("item %04d".formatted(id), 2);
+            if (id % 2 == 0) {
+                assertThat(renamed).containsExactly(new ProductSuggestionDTO(codes.get(id), "Renamed %04d".formatted(id)));
+                assertThat(original).isEmpty();
+            } else {
+                assertThat(renamed).isEmpty();
+                assertThat(original).extracting(ProductSuggestionDTO::name).containsExactly("Item %04d".formatted(id));
+            }
+        }
+        assertThat(index.entries()).isBetween(1000, 1003);
+    }
+
+    @Test
+    @DisplayName("should reject a blank prefix")
+    void shouldRejectBlankPrefix() {
+        assertThatThrownBy(() -> index.suggest(" ", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // A merge that ends with the overlay full again queues one more, which runs before the second no-op.
+    private void awaitMerges() throws Exception {
+        maintainer.submit(() -> {}).get();
+        maintainer.submit(() -> {}).get();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.ecommerce.service.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+import com.example.ecommerce.exception.EntityNotFoundException;
+import com.example.ecommerce.exception.InsufficientStockException;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class StockAdjustmentCoalescerTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private StockAdjustmentCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        coalescer = new StockAdjustmentCoalescer(jdbcTemplate, transactionTemplate, Duration.ofMillis(50), 4, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescer.close();
+    }
+
+    @Test
+    @DisplayName("should apply concurrent adjustments as one update with their net delta")
+    void shouldApplyNetDeltaOnce_whenAdjustmentsArriveWithinWindow() {
+        givenStock("Wireless Mouse", 10);
+        var returnId = UUID.randomUUID();
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(returnId))).willReturn(List.of(1));
+
+        var results = List.of(
+                coalescer.decrease(PRODUCT_ID, 3),
+                coalescer.decrease(PRODUCT_ID, 2),
+                coalescer.applyReturn(PRODUCT_ID, returnId)
+        );
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(results).extracting(CompletableFuture::join).doesNotContainNull();
+        then(transactionTemplate).should(times(1)).execute(any());
+        then(jdbcTemplate).should().batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 2));
+        then(jdbcTemplate).should().update(anyString(), eq(6), eq(PRODUCT_ID));
+    }
+
+    @Test
+    @DisplayName("should reject only the decreases that exceed the running balance in arrival order")
+    void shouldRejectInArrivalOrder_whenBalanceRunsOut() {
+        givenStock("Wireless Mouse", 5);
+
+        var first = coalescer.decrease(PRODUCT_ID, 4);
+        var second = coalescer.decrease(PRODUCT_ID, 2);
+        var third = coalescer.decrease(PRODUCT_ID, 1);
+
+        assertThat(third.join()).isNotNull();
+        assertThat(first.join()).isNotNull();
+        assertThatThrownBy(second::join)
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("available=1")
+                .hasMessageContaining("requested=2");
+        then(jdbcTemplate).should().update(anyString(), eq(0), eq(PRODUCT_ID));
+    }
+
+    @Test
+    @DisplayName("should flush before the window elapses when the batch is full")
+    void shouldFlushImmediately_whenMaxBatchSizeIsReached() throws InterruptedException {
+        givenStock("Wireless Mouse", 100);
+        coalescer.close();
+        coalescer = new StockAdjustmentCoalescer(jdbcTemplate, transactionTemplate, Duration.ofMinutes(1), 4, 1);
+
+        var results = IntStream.range(0, 4).mapToObj(i -> coalescer.decrease(PRODUCT_ID, 1)).toList();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        then(jdbcTemplate).should().update(anyString(), eq(96), eq(PRODUCT_ID));
+    }
+
+    @Test
+    @DisplayName("should leave the stock alone when the return was confirmed or applied already")
+    void shouldSkipReturn_whenItIsNoLongerPending() {
+        givenStock("Wireless Mouse", 10);
+        var returnId = UUID.randomUUID();
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(returnId))).willReturn(List.of());
+
+        var result = coalescer.applyReturn(PRODUCT_ID, returnId);
+
+        assertThat(result.join()).isNull();
+        then(jdbcTemplate).should(never()).update(anyString(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("should fail decreases and skip returns when product does not exist")
+    void shouldFailDecreaseAndIgnoreReturn_whenProductDoesNotExist() {
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(PRODUCT_ID))).willReturn(List.of());
+
+        var decrease = coalescer.decrease(PRODUCT_ID, 1);
+        var restore = coalescer.applyReturn(PRODUCT_ID, UUID.randomUUID());
+
+        assertThat(restore.join()).isNull();
+        assertThatThrownBy(decrease::join)
+                .cause()
+                .isInstanceOf(EntityNotFoundException.class);
+        then(jdbcTemplate).should(never()).update(anyString(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("should fail every adjustment in the batch when the transaction fails")
+    void shouldFailWholeBatch_whenTransactionFails() {
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(PRODUCT_ID)))
+                .willThrow(new QueryTimeoutException("lock timeout"));
+
+        var first = coalescer.decrease(PRODUCT_ID, 1);
+        var second = coalescer.decrease(PRODUCT_ID, 1);
+
+        assertThatThrownBy(first::join).cause().isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(second::join).cause().isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("should drop a product's lane once its queue is drained and create a new one for the next adjustment")
+    void shouldRemoveLane_whenQueueIsDrained() throws InterruptedException {
+        givenStock("Wireless Mouse", 10);
+
+        coalescer.decrease(PRODUCT_ID, 1).join();
+        awaitNoLanes();
+        var next = coalescer.decrease(PRODUCT_ID, 1);
+
+        assertThat(next.join()).isNotNull();
+        awaitNoLanes();
+        then(transactionTemplate).should(times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("should refuse to confirm a decrease whose stock was returned already")
+    void shouldFailConfirm_whenReturnWasApplied() {
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willReturn(new int[]{1, 0});
+
+        assertThatThrownBy(() -> coalescer.confirm(List.of(UUID.randomUUID(), UUID.randomUUID())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    // The lane retires just after completing its batch, so the caller may see the result first.
+    private void awaitNoLanes() throws InterruptedException {
+        for (int i = 0; i < 50 && coalescer.laneCount() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertThat(coalescer.laneCount()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenStock(String name, int stockQuantity) {
+        given(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(PRODUCT_ID))).willAnswer(invocation -> {
+            var resultSet = mock(ResultSet.class);
+            given(resultSet.getString("name")).willReturn(name);
+            given(resultSet.getInt("stock_quantity")).willReturn(stockQuantity);
+            return List.of(invocation.<RowMapper<Object>>getArgument(1).mapRow(resultSet, 0));
+        });
+    }
+}